@@ -0,0 +1,75 @@
+package org.diorite.configs.benchmarks;
+
+import org.diorite.configs.ConfigManager;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.StringReader;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Getters and setters of generated config implementation.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AccessBenchmark {
+    private static final String[] NAMES = {"alpha", "beta", "gamma", "delta"};
+
+    private InterfaceBenchmarkConfig config;
+    private int next;
+
+    @Setup
+    public void setup() {
+        ConfigManager manager = ConfigManager.createInstance();
+        this.config = manager.load(InterfaceBenchmarkConfig.class, new StringReader(BenchmarkData.interfaceDocument(10)));
+    }
+
+    @Benchmark
+    public int getValue() {
+        return this.config.getValue();
+    }
+
+    @Benchmark
+    public String getName() {
+        return this.config.getName();
+    }
+
+    /**
+     * Setter without body.
+     */
+    @Benchmark
+    public void setSecondValue() {
+        this.config.setSecondValue(this.next++);
+    }
+
+    /**
+     * Default setter writing value through {@code config()}.
+     */
+    @Benchmark
+    public void setValue() {
+        this.config.setValue(- (this.next++));
+    }
+
+    @Benchmark
+    public void setName() {
+        this.config.setName(NAMES[(this.next++) & 3]);
+    }
+
+    @Benchmark
+    public int setAndGet() {
+        this.config.setSecondValue(this.next++);
+        return this.config.getSecondValue();
+    }
+}
@@ -0,0 +1,90 @@
+package org.diorite.configs.benchmarks;
+
+import org.diorite.configs.ConfigManager;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+
+/**
+ * Key generation of {@link org.diorite.configs.annotations.AsMap} lists, for each type of key function.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AsMapBenchmark {
+    @Param({"10", "100", "1000"})
+    public int size;
+
+    @Param({"byProperty", "byProperties", "byMethod", "byScript"})
+    public String property;
+
+    private IndexedBenchmarkConfig config;
+    private BiConsumer<IndexedBenchmarkConfig, List<Map<String, Object>>> setter;
+    private Map<Object, Map<String, Object>> index;
+    private List<Map<String, Object>> first;
+    private List<Map<String, Object>> second;
+    private List<Map<String, Object>> changed;
+    private boolean useSecond;
+    private int next;
+
+    @Setup
+    public void setup() {
+        ConfigManager manager = ConfigManager.createInstance();
+        this.config = manager.create(IndexedBenchmarkConfig.class);
+        if (this.property.equals("byProperty")) {
+            this.setter = IndexedBenchmarkConfig::setByProperty;
+        }
+        else if (this.property.equals("byProperties")) {
+            this.setter = IndexedBenchmarkConfig::setByProperties;
+        }
+        else if (this.property.equals("byMethod")) {
+            this.setter = IndexedBenchmarkConfig::setByMethod;
+        }
+        else {
+            this.setter = IndexedBenchmarkConfig::setByScript;
+        }
+        this.first = BenchmarkData.elements(this.size, 1);
+        this.second = BenchmarkData.elements(this.size, 2);
+        this.changed = new ArrayList<>(this.first);
+        this.index = manager.getIndex(IndexedBenchmarkConfig.class, this.config, this.property);
+    }
+
+    /**
+     * Replaces whole list, so keys of all elements are created again.
+     */
+    @Benchmark
+    public int replaceList() {
+        this.useSecond = ! this.useSecond;
+        this.setter.accept(this.config, this.useSecond ? this.second : this.first);
+        return this.index.size();
+    }
+
+    /**
+     * Replaces single element of list, so only key of that element is created.
+     */
+    @Benchmark
+    public int replaceElement() {
+        int position = (this.next++) % this.size;
+        List<Map<String, Object>> source = (this.changed.get(position) == this.first.get(position)) ? this.second : this.first;
+        this.changed.set(position, source.get(position));
+        this.setter.accept(this.config, this.changed);
+        return this.index.size();
+    }
+}
@@ -0,0 +1,21 @@
+package org.diorite.configs.benchmarks;
+
+import java.util.List;
+
+public class BenchmarkBean {
+    private final int beanValueInt;
+    private final List<String> beanValueStringList;
+
+    public BenchmarkBean(int beanValueInt, List<String> beanValueStringList) {
+        this.beanValueInt = beanValueInt;
+        this.beanValueStringList = List.copyOf(beanValueStringList);
+    }
+
+    public int getBeanValueInt() {
+        return this.beanValueInt;
+    }
+
+    public List<String> getBeanValueStringList() {
+        return this.beanValueStringList;
+    }
+}
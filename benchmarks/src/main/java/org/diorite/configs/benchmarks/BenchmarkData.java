@@ -0,0 +1,112 @@
+package org.diorite.configs.benchmarks;
+
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Generates yaml documents and values used by benchmarks, all values are generated from fixed seed, so each run uses same data.
+ */
+final class BenchmarkData {
+    private BenchmarkData() {
+    }
+
+    /**
+     * @param size amount of elements of collections.
+     *
+     * @return document of {@link InterfaceBenchmarkConfig}.
+     */
+    static String interfaceDocument(int size) {
+        Random random = new Random(size);
+        StringBuilder builder = new StringBuilder(64 + (size * 40));
+        builder.append("# Header of config file\n");
+        builder.append("# Comment\n");
+        builder.append("value: ").append(random.nextInt(1000)).append('\n');
+        builder.append("# Comment\n# More lines\n");
+        builder.append("secondValue: ").append(random.nextInt(1000)).append('\n');
+        builder.append("name: ").append(word(random)).append('\n');
+        builder.append("names:\n");
+        for (int i = 0; i < size; i++) {
+            builder.append("- ").append(word(random)).append('\n');
+        }
+        builder.append("values:\n");
+        for (int i = 0; i < size; i++) {
+            builder.append("  key").append(i).append(": ").append(random.nextInt()).append('\n');
+        }
+        return builder.toString();
+    }
+
+    /**
+     * @param size amount of elements of collections, and amount of 16 byte blocks of binary value.
+     *
+     * @return document of {@link StyledBenchmarkConfig}.
+     */
+    static String styledDocument(int size) {
+        Random random = new Random(size);
+        StringBuilder builder = new StringBuilder(512 + (size * 80));
+        builder.append("value: 0x").append(String.format("%04X", random.nextInt(0xFFFF))).append('\n');
+        builder.append("secondValue: ").append(random.nextInt(100000)).append(".50\n");
+        builder.append("withLocalizedComment: \"").append(word(random)).append(' ').append(word(random)).append("\"\n");
+        builder.append("alwaysMultiLine: |-\n  ").append(word(random)).append('\n');
+        builder.append("folded: >+\n");
+        for (int i = 0; i < 4; i++) {
+            builder.append("  ").append(word(random)).append(' ').append(word(random)).append(' ').append(word(random)).append("\n\n");
+        }
+        builder.append("enabled: disabled\n");
+        builder.append("date: 2018-0").append(1 + random.nextInt(9)).append("-1").append(random.nextInt(10)).append('\n');
+        byte[] data = new byte[size * 16];
+        random.nextBytes(data);
+        builder.append("data: !!binary |-\n");
+        String base64 = Base64.getEncoder().encodeToString(data);
+        for (int i = 0; i < base64.length(); i += 76) {
+            builder.append("  ").append(base64, i, Math.min(base64.length(), i + 76)).append('\n');
+        }
+        builder.append("inlineBean: {beanValueInt: 5, beanValueStringList: [a, b, c]}\n");
+        builder.append("mapOfObjects:\n");
+        for (int i = 0; i < size; i++) {
+            builder.append("  key").append(i).append(":\n");
+            builder.append("    beanValueInt: ").append(random.nextInt(100)).append('\n');
+            builder.append("    beanValueStringList:\n");
+            for (int j = 0; j < 3; j++) {
+                builder.append("    - ").append(word(random)).append('\n');
+            }
+        }
+        builder.append("numbers: [");
+        for (int i = 0; i < size; i++) {
+            builder.append((i == 0) ? "" : ", ").append('+').append(random.nextInt(1000));
+        }
+        builder.append("]\n");
+        return builder.toString();
+    }
+
+    /**
+     * @param size amount of elements.
+     * @param seed seed of generated values, lists with different seeds don't share any element.
+     *
+     * @return elements of {@link IndexedBenchmarkConfig} lists.
+     */
+    static List<Map<String, Object>> elements(int size, int seed) {
+        Random random = new Random(seed);
+        List<Map<String, Object>> elements = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            Map<String, Object> element = new HashMap<>(8);
+            element.put("id", "element" + i);
+            element.put("category", word(random));
+            element.put("internalID", i);
+            element.put("x", random.nextInt(100));
+            elements.add(element);
+        }
+        return elements;
+    }
+
+    private static String word(Random random) {
+        char[] chars = new char[3 + random.nextInt(8)];
+        for (int i = 0; i < chars.length; i++) {
+            chars[i] = (char) ('a' + random.nextInt(26));
+        }
+        return new String(chars);
+    }
+}
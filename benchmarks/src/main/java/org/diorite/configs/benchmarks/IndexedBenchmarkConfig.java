@@ -0,0 +1,49 @@
+package org.diorite.configs.benchmarks;
+
+import org.diorite.configs.Config;
+import org.diorite.configs.annotations.AsMap;
+import org.diorite.configs.annotations.ConfigClass;
+import org.diorite.configs.annotations.GenerateKeyFromObjectFunction;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Config with {@link AsMap} lists using each type of key function.
+ */
+@ConfigClass
+public interface IndexedBenchmarkConfig extends Config<IndexedBenchmarkConfig> {
+    @AsMap(keys = "id")
+    default List<Map<String, Object>> getByProperty() {
+        return new ArrayList<>();
+    }
+
+    void setByProperty(List<Map<String, Object>> byProperty);
+
+    @AsMap(keys = {"category", "internalID"})
+    default List<Map<String, Object>> getByProperties() {
+        return new ArrayList<>();
+    }
+
+    void setByProperties(List<Map<String, Object>> byProperties);
+
+    @AsMap(keys = {"category", "internalID"})
+    default List<Map<String, Object>> getByMethod() {
+        return new ArrayList<>();
+    }
+
+    void setByMethod(List<Map<String, Object>> byMethod);
+
+    @GenerateKeyFromObjectFunction(property = "byMethod")
+    private static String byMethodKey(Map<String, Object> element) {
+        return element.get("category") + ":" + element.get("internalID");
+    }
+
+    @AsMap(keys = {"category", "internalID"}, createKey = "x.category + ':' + x.internalID")
+    default List<Map<String, Object>> getByScript() {
+        return new ArrayList<>();
+    }
+
+    void setByScript(List<Map<String, Object>> byScript);
+}
@@ -0,0 +1,41 @@
+package org.diorite.configs.benchmarks;
+
+import org.diorite.configs.Config;
+import org.diorite.configs.annotations.ConfigClass;
+import org.diorite.configs.annotations.meta.Comment;
+import org.diorite.configs.annotations.meta.Header;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Config of same shape as {@code ExampleInterfaceConfig}, with collections used to change size of loaded files.
+ */
+@ConfigClass
+@Header("Header of config file")
+public interface InterfaceBenchmarkConfig extends Config<InterfaceBenchmarkConfig> {
+    @Comment("Comment")
+    default int getValue() {
+        return 5;
+    }
+
+    default void setValue(int newValue) {
+        this.config().setValue(Math.abs(newValue));
+    }
+
+    @Comment({"Comment",
+        "More lines"})
+    default int getSecondValue() {
+        return this.defaults().getValue();
+    }
+
+    void setSecondValue(int secondValue);
+
+    String getName();
+
+    void setName(String name);
+
+    List<String> getNames();
+
+    Map<String, Integer> getValues();
+}
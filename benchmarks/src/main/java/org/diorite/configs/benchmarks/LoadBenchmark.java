@@ -0,0 +1,63 @@
+package org.diorite.configs.benchmarks;
+
+import org.diorite.configs.ConfigManager;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.StringReader;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parsing and binding of yaml documents of different sizes into config instances.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LoadBenchmark {
+    @Param({"10", "100", "1000"})
+    public int size;
+
+    private ConfigManager manager;
+    private String interfaceDocument;
+    private String styledDocument;
+
+    @Setup
+    public void setup() {
+        this.manager = ConfigManager.createInstance();
+        this.interfaceDocument = BenchmarkData.interfaceDocument(this.size);
+        this.styledDocument = BenchmarkData.styledDocument(this.size);
+        // templates, implementations and serializers are created by first load, so they are not measured
+        this.loadInterface();
+        this.loadStyled();
+    }
+
+    @Benchmark
+    public InterfaceBenchmarkConfig loadInterface() {
+        return this.manager.load(InterfaceBenchmarkConfig.class, new StringReader(this.interfaceDocument));
+    }
+
+    @Benchmark
+    public StyledBenchmarkConfig loadStyled() {
+        return this.manager.load(StyledBenchmarkConfig.class, new StringReader(this.styledDocument));
+    }
+
+    /**
+     * Loads document and indexes spans of its properties, like configs loaded from files.
+     */
+    @Benchmark
+    public StyledBenchmarkConfig loadStyledDocument() {
+        return this.manager.getSerializers().getConfigSerializer(StyledBenchmarkConfig.class).loadDocument(this.styledDocument);
+    }
+}
@@ -0,0 +1,69 @@
+package org.diorite.configs.benchmarks;
+
+import org.diorite.configs.ConfigManager;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Saving of {@link StyledBenchmarkConfig}, so every style annotation is applied.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SaveBenchmark {
+    @Param({"10", "100", "1000"})
+    public int size;
+
+    private ConfigManager manager;
+    private StyledBenchmarkConfig config;
+    private StyledBenchmarkConfig document;
+    private int length;
+    private int value;
+
+    @Setup
+    public void setup() {
+        this.manager = ConfigManager.createInstance();
+        String text = BenchmarkData.styledDocument(this.size);
+        this.config = this.manager.load(StyledBenchmarkConfig.class, new StringReader(text));
+        this.document = this.manager.getSerializers().getConfigSerializer(StyledBenchmarkConfig.class).loadDocument(text);
+        this.length = text.length() * 2;
+    }
+
+    /**
+     * Writes whole config, as config loaded without document is always written from its values.
+     */
+    @Benchmark
+    public StringWriter saveStyled() {
+        StringWriter writer = new StringWriter(this.length);
+        this.manager.save(StyledBenchmarkConfig.class, this.config, writer);
+        return writer;
+    }
+
+    /**
+     * Changes single property of config loaded with document, so only that property is written and patched into document.
+     */
+    @Benchmark
+    public StringWriter saveChangedProperty() {
+        this.value = (this.value + 1) & 0xFFF;
+        this.document.setValue(this.value);
+        StringWriter writer = new StringWriter(this.length);
+        this.manager.save(StyledBenchmarkConfig.class, this.document, writer);
+        return writer;
+    }
+}
@@ -0,0 +1,86 @@
+package org.diorite.configs.benchmarks;
+
+import org.diorite.configs.Config;
+import org.diorite.configs.annotations.ConfigClass;
+import org.diorite.configs.annotations.meta.Comment;
+import org.diorite.configs.annotations.meta.Footer;
+import org.diorite.configs.annotations.meta.Header;
+import org.diorite.configs.annotations.style.BinaryStyle;
+import org.diorite.configs.annotations.style.BooleanStyle;
+import org.diorite.configs.annotations.style.DateStyle;
+import org.diorite.configs.annotations.style.NewLineAfter;
+import org.diorite.configs.annotations.style.NewLineBefore;
+import org.diorite.configs.annotations.style.NumberStyle;
+import org.diorite.configs.annotations.style.StringBlock;
+import org.diorite.configs.annotations.style.StringStyle;
+import org.diorite.configs.annotations.style.Style;
+import org.diorite.configs.style.BinaryStyles;
+import org.diorite.configs.style.StringBlockStyle;
+import org.diorite.configs.style.StringStyles;
+import org.diorite.configs.style.Styles;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Config of same shape as {@code ExampleStyledConfig}, with every style annotation used by at least one property.
+ */
+@ConfigClass
+@Header("Header of config file")
+@Footer("Footer of config file")
+public interface StyledBenchmarkConfig extends Config<StyledBenchmarkConfig> {
+    @Comment("Comment")
+    @NumberStyle("0x0000")
+    default int getValue() {
+        return 5;
+    }
+
+    void setValue(int value);
+
+    @NumberStyle("0,.00")
+    @NewLineBefore
+    double getSecondValue();
+
+    @Comment({"Comment",
+        "More lines"})
+    @StringStyle(StringStyles.QUOTED_DOUBLE)
+    String getWithLocalizedComment();
+
+    @StringBlock(minimumLines = 0)
+    default String getAlwaysMultiLine() {
+        return "even if it isn't multi line";
+    }
+
+    @StringBlock(style = StringBlockStyle.FOLDED)
+    @NewLineAfter
+    default String getFolded() {
+        return "This long String will be folded to multiple lines. But it can also contain own new lines." +
+            "\nAnd line at the end will be saved too.\n\n";
+    }
+
+    @BooleanStyle(trueValues = "enabled", falseValues = "disabled")
+    default boolean isEnabled() {
+        return true;
+    }
+
+    @DateStyle("yyyy-MM-dd")
+    default LocalDate getDate() {
+        return LocalDate.of(2018, 1, 1);
+    }
+
+    @BinaryStyle(BinaryStyles.BINARY)
+    byte[] getData();
+
+    @Style(Styles.INLINE)
+    default BenchmarkBean getInlineBean() {
+        return new BenchmarkBean(5, List.of("a", "b", "c"));
+    }
+
+    @Style(value = Styles.NEXTLINE, depth = 2)
+    Map<String, BenchmarkBean> getMapOfObjects();
+
+    @Style(Styles.INLINE)
+    @NumberStyle(value = "+0", depth = 2)
+    List<Integer> getNumbers();
+}
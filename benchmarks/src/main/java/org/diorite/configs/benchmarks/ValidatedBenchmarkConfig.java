@@ -0,0 +1,39 @@
+package org.diorite.configs.benchmarks;
+
+import org.diorite.configs.Config;
+import org.diorite.configs.annotations.ConfigClass;
+import org.diorite.configs.annotations.ScriptValidator;
+
+/**
+ * Config with script validators, simple expressions compiled to java code and scripts evaluated by script engine.
+ */
+@ConfigClass
+public interface ValidatedBenchmarkConfig extends Config<ValidatedBenchmarkConfig> {
+    @ScriptValidator(isTrue = "x >= 0 && x < 1000", elseThrow = "Value must be between 0 and 1000")
+    default int getSimple() {
+        return 1;
+    }
+
+    void setSimple(int simple);
+
+    @ScriptValidator(isTrue = "x.length > 0 && /^[a-z]+$/.test(x)", elseThrow = "Name must contain only lowercase letters")
+    default String getSimpleName() {
+        return "name";
+    }
+
+    void setSimpleName(String simpleName);
+
+    @ScriptValidator(isTrue = "Math.abs(x) < 1000", elseThrow = "Value must be between -1000 and 1000")
+    default int getScripted() {
+        return 1;
+    }
+
+    void setScripted(int scripted);
+
+    @ScriptValidator(isTrue = "x.trim().toLowerCase() == x", elseThrow = "Name must be trimmed lowercase string")
+    default String getScriptedName() {
+        return "name";
+    }
+
+    void setScriptedName(String scriptedName);
+}
@@ -0,0 +1,57 @@
+package org.diorite.configs.benchmarks;
+
+import org.diorite.configs.ConfigManager;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Evaluation of {@link org.diorite.configs.annotations.ScriptValidator}s by setters, expressions compiled to java code are compared
+ * with scripts evaluated by script engine.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ValidationBenchmark {
+    private static final String[] NAMES = {"alpha", "beta", "gamma", "delta"};
+
+    private ValidatedBenchmarkConfig config;
+    private int next;
+
+    @Setup
+    public void setup() {
+        this.config = ConfigManager.createInstance().create(ValidatedBenchmarkConfig.class);
+    }
+
+    @Benchmark
+    public void simpleExpression() {
+        this.config.setSimple((this.next++) & 511);
+    }
+
+    @Benchmark
+    public void simpleRegex() {
+        this.config.setSimpleName(NAMES[(this.next++) & 3]);
+    }
+
+    @Benchmark
+    public void script() {
+        this.config.setScripted((this.next++) & 511);
+    }
+
+    @Benchmark
+    public void scriptWithString() {
+        this.config.setScriptedName(NAMES[(this.next++) & 3]);
+    }
+}
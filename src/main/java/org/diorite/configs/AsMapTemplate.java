@@ -0,0 +1,33 @@
+package org.diorite.configs;
+
+import org.diorite.configs.annotations.AsMap;
+
+import java.util.List;
+
+/**
+ * Resolved {@link AsMap} settings, scripts of that annotation are stored in {@link KeyFunctionsTemplate} of property.
+ */
+public final class AsMapTemplate {
+    private final List<String> keys;
+    private final String simplify;
+
+    public AsMapTemplate(List<String> keys, String simplify) {
+        this.keys = List.copyOf(keys);
+        this.simplify = simplify;
+    }
+
+    /**
+     * @return properties of list element that are moved to map key.
+     */
+    public List<String> getKeys() {
+        return this.keys;
+    }
+
+    /**
+     * @return name of property that should be used as map value if it is only property left after extracting keys, empty if map
+     *     should not be simplified.
+     */
+    public String getSimplify() {
+        return this.simplify;
+    }
+}
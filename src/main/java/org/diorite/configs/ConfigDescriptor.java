@@ -0,0 +1,84 @@
+package org.diorite.configs;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Precompiled description of config type, generated at build time by {@code org.diorite.configs.processor.ConfigDescriptorProcessor}.
+ * <br/>
+ * When descriptor class named {@code Type$$ConfigDescriptor} is present next to config type, it is used instead of scanning methods
+ * and annotations of config type at runtime. Methods of properties and cached helpers are resolved by {@link Methods}, from single
+ * array of declared methods of each declaring type.
+ *
+ * @param <T> type of config.
+ */
+public interface ConfigDescriptor<T extends Config<T>> {
+    String SUFFIX = "$$ConfigDescriptor";
+
+    Class<T> getType();
+
+    List<String> getHeader();
+
+    List<String> getFooter();
+
+    /**
+     * @return all properties of config, in order of declaration.
+     */
+    List<ConfigPropertyTemplate> createProperties();
+
+    /**
+     * @return helper methods marked as cached, or null if descriptor does not list them and config type must be scanned for them.
+     */
+    @Nullable
+    default List<Method> getCachedHelpers() {
+        return null;
+    }
+
+    /**
+     * Helper for generated descriptors, finds method declared in given type.
+     *
+     * @param type declaring type of method.
+     * @param name name of method.
+     * @param parameters parameter types of method.
+     *
+     * @return found method.
+     */
+    static Method method(Class<?> type, String name, Class<?>... parameters) {
+        try {
+            return type.getDeclaredMethod(name, parameters);
+        }
+        catch (NoSuchMethodException e) {
+            throw new ConfigException("Descriptor of " + type.getName() + " is outdated, missing method: " + name, e);
+        }
+    }
+
+    /**
+     * Helper for generated descriptors, finds methods of declaring types using one {@link Class#getDeclaredMethods()} call per type,
+     * instead of separate reflective lookup of each method.
+     */
+    final class Methods {
+        private final Map<Class<?>, Method[]> declared = new HashMap<>(4);
+
+        /**
+         * @param type declaring type of method.
+         * @param name name of method.
+         * @param parameters parameter types of method.
+         *
+         * @return found method.
+         */
+        public Method get(Class<?> type, String name, Class<?>... parameters) {
+            for (Method method : this.declared.computeIfAbsent(type, Class::getDeclaredMethods)) {
+                if (method.getName().equals(name) && (method.getParameterCount() == parameters.length) && ! method.isBridge() &&
+                    Arrays.equals(method.getParameterTypes(), parameters)) {
+                    return method;
+                }
+            }
+            throw new ConfigException("Descriptor of " + type.getName() + " is outdated, missing method: " + name);
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package org.diorite.configs;
+
+/**
+ * Thrown when configuration template can't be created or when config instance can't be loaded/saved.
+ */
+public class ConfigException extends RuntimeException {
+    private static final long serialVersionUID = 0;
+
+    public ConfigException(String message) {
+        super(message);
+    }
+
+    public ConfigException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
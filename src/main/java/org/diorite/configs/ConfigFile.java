@@ -0,0 +1,60 @@
+package org.diorite.configs;
+
+import java.nio.file.Path;
+import java.util.Objects;
+
+/**
+ * Config type and path of its yaml file, used by {@link ConfigManager#loadAll(java.util.Collection)}.
+ *
+ * @param <T> type of config.
+ */
+public final class ConfigFile<T extends Config<T>> {
+    private final Class<T> type;
+    private final Path path;
+
+    private ConfigFile(Class<T> type, Path path) {
+        this.type = type;
+        this.path = path;
+    }
+
+    /**
+     * @param type config type.
+     * @param path path of yaml file.
+     * @param <T> config type.
+     *
+     * @return config file of given type.
+     */
+    public static <T extends Config<T>> ConfigFile<T> of(Class<T> type, Path path) {
+        return new ConfigFile<>(Objects.requireNonNull(type), Objects.requireNonNull(path));
+    }
+
+    public Class<T> getType() {
+        return this.type;
+    }
+
+    public Path getPath() {
+        return this.path;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (! (o instanceof ConfigFile)) {
+            return false;
+        }
+        ConfigFile<?> that = (ConfigFile<?>) o;
+        return this.type.equals(that.type) && this.path.equals(that.path);
+    }
+
+    @Override
+    public int hashCode() {
+        return (31 * this.type.hashCode()) + this.path.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return this.type.getName() + " from " + this.path;
+    }
+}
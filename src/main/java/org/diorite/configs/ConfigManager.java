@@ -0,0 +1,379 @@
+package org.diorite.configs;
+
+import org.diorite.configs.impl.ConfigPropertyAccess;
+import org.diorite.configs.impl.ConfigStateReference;
+import org.diorite.configs.impl.ConfigTemplateFactory;
+import org.diorite.configs.index.AsMapIndex;
+import org.diorite.configs.metrics.ConfigOperation;
+import org.diorite.configs.metrics.Instrumentation;
+import org.diorite.configs.reload.ConfigWatcher;
+import org.diorite.configs.scripts.ScriptEngines;
+import org.diorite.configs.yaml.SnapshotCache;
+import org.diorite.configs.yaml.ValueSerializers;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Consumer;
+
+/**
+ * Entry point of configuration api, creates and caches templates of config types.
+ */
+public final class ConfigManager {
+    private final Map<Class<?>, ConfigTemplate<?>> templates = new ConcurrentHashMap<>(32);
+    private final ScriptEngines scriptEngines;
+    private final ConfigTemplateFactory templateFactory;
+    private final ValueSerializers serializers;
+    private final Instrumentation instrumentation = new Instrumentation();
+    private volatile boolean snapshotCache;
+
+    private ConfigManager(ScriptEngines scriptEngines) {
+        this.scriptEngines = scriptEngines;
+        this.templateFactory = new ConfigTemplateFactory(scriptEngines, this.instrumentation);
+        this.serializers = new ValueSerializers(this);
+    }
+
+    public static ConfigManager createInstance() {
+        return new ConfigManager(new ScriptEngines());
+    }
+
+    /**
+     * @param defaultScriptLanguage language and options used by scripts that do not select own language.
+     *
+     * @return new config manager.
+     */
+    public static ConfigManager createInstance(List<String> defaultScriptLanguage) {
+        return new ConfigManager(new ScriptEngines(defaultScriptLanguage));
+    }
+
+    public ScriptEngines getScriptEngines() {
+        return this.scriptEngines;
+    }
+
+    public ValueSerializers getSerializers() {
+        return this.serializers;
+    }
+
+    /**
+     * Returns instrumentation of this manager, operations of all configs of this manager are reported to {@link
+     * Instrumentation#get()}, nothing is reported by default.
+     *
+     * @return instrumentation of this manager.
+     */
+    public Instrumentation getInstrumentation() {
+        return this.instrumentation;
+    }
+
+    public boolean isSnapshotCache() {
+        return this.snapshotCache;
+    }
+
+    /**
+     * Enables binary snapshots of configs loaded from files, when yaml file was not changed since last load config is read from its
+     * snapshot instead of parsing yaml again.
+     *
+     * @param snapshotCache true if snapshots should be used.
+     *
+     * @see SnapshotCache
+     */
+    public void setSnapshotCache(boolean snapshotCache) {
+        this.snapshotCache = snapshotCache;
+    }
+
+    /**
+     * Returns template of given config type, template is created on first use and then cached.
+     *
+     * @param type config type.
+     * @param <T> config type.
+     *
+     * @return template of given config type.
+     */
+    @SuppressWarnings("unchecked")
+    public <T extends Config<T>> ConfigTemplate<T> getTemplate(Class<T> type) {
+        return (ConfigTemplate<T>) this.templates.computeIfAbsent(type, t -> this.templateFactory.createTemplate(type));
+    }
+
+    /**
+     * Creates new instance of config with default values.
+     *
+     * @param type config type.
+     * @param <T> config type.
+     *
+     * @return new config instance.
+     */
+    public <T extends Config<T>> T create(Class<T> type) {
+        return this.getTemplate(type).create();
+    }
+
+    /**
+     * Applies multiple changes to given config as single transaction. Changes of concurrent configs are published together when
+     * transaction ends, so readers see either all or none of them, and if changes throw an exception none of them is published. Getters
+     * used inside transaction still return published values. Changes of other configs are applied directly.
+     *
+     * @param config config instance.
+     * @param changes changes to apply, using setters of config.
+     * @param <T> config type.
+     *
+     * @see org.diorite.configs.annotations.ConfigClass#concurrent()
+     */
+    public <T extends Config<T>> void update(T config, Consumer<? super T> changes) {
+        ConfigStateReference state = ((ConfigPropertyAccess) config).getStateReference();
+        if (state != null) {
+            state.transaction(() -> changes.accept(config));
+        }
+        else {
+            changes.accept(config);
+        }
+    }
+
+    /**
+     * Returns index of elements of {@link org.diorite.configs.annotations.AsMap} list property by their keys, like
+     * {@code category:internalID}. Returned map is read-only and always reflects values set by setters of that property.
+     *
+     * @param type config type.
+     * @param config config instance.
+     * @param property name of property.
+     * @param <T> config type.
+     * @param <E> type of list elements.
+     *
+     * @return index of list elements.
+     *
+     * @see AsMapIndex
+     */
+    @SuppressWarnings("unchecked")
+    public <T extends Config<T>, E> Map<Object, E> getIndex(Class<T> type, T config, String property) {
+        ConfigPropertyTemplate template = this.getTemplate(type).getProperty(property);
+        if (template == null) {
+            throw new ConfigException("Property " + property + " not found in " + type.getName());
+        }
+        AsMapIndex<?> index = ((ConfigPropertyAccess) config).getIndex(template.getIndex());
+        if (index == null) {
+            throw new ConfigException("Property " + property + " of " + type.getName() + " isn't annotated with @AsMap");
+        }
+        return (Map<Object, E>) index;
+    }
+
+    /**
+     * Loads new instance of config from given yaml document, properties missing in document are set to default values.
+     *
+     * @param type config type.
+     * @param reader source of yaml document.
+     * @param <T> config type.
+     *
+     * @return loaded config instance.
+     */
+    public <T extends Config<T>> T load(Class<T> type, Reader reader) {
+        Instrumentation.Timer timer = this.instrumentation.start(type, ConfigOperation.LOAD);
+        try {
+            return this.serializers.getConfigSerializer(type).load(reader);
+        }
+        finally {
+            timer.stop();
+        }
+    }
+
+    /**
+     * Loads new instance of config from given yaml file, properties missing in file are set to default values. <br/>
+     * Config remembers content of file, so when it is saved again only properties changed by setters are written. If snapshot cache is
+     * enabled and file was not changed since it was last loaded, config is read from its binary snapshot.
+     *
+     * @param type config type.
+     * @param path path of yaml file.
+     * @param <T> config type.
+     *
+     * @return loaded config instance.
+     *
+     * @throws IOException if file can't be read.
+     */
+    public <T extends Config<T>> T load(Class<T> type, Path path) throws IOException {
+        Instrumentation.Timer timer = this.instrumentation.start(type, ConfigOperation.LOAD);
+        try {
+            if (this.snapshotCache) {
+                return SnapshotCache.load(this.serializers.getConfigSerializer(type), path);
+            }
+            String text = new String(Files.readAllBytes(path), StandardCharsets.UTF_8);
+            return this.serializers.getConfigSerializer(type).loadDocument(text, path);
+        }
+        finally {
+            timer.stop();
+        }
+    }
+
+    /**
+     * Loads all given config files in parallel using common fork-join pool, see {@link #loadAll(Collection, Executor)}.
+     *
+     * @param files config types and paths of their yaml files.
+     *
+     * @return loaded configs and errors of files that couldn't be loaded.
+     */
+    public LoadResults loadAll(Collection<? extends ConfigFile<?>> files) {
+        return this.loadAll(files, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Loads all given config files in parallel, each file is loaded like by {@link #load(Class, Path)} as separate task of given
+     * executor. Templates, serializers and script engines of this manager are shared by all tasks, template of each type is created
+     * once. <br/>
+     * Returns when all files are loaded and validated, error of single file does not stop loading of other files, it is returned in
+     * results instead. Values of lazy properties are still validated when they are used first time.
+     *
+     * @param files config types and paths of their yaml files.
+     * @param executor executor running load tasks.
+     *
+     * @return loaded configs and errors of files that couldn't be loaded.
+     */
+    public LoadResults loadAll(Collection<? extends ConfigFile<?>> files, Executor executor) {
+        Map<ConfigFile<?>, Config<?>> loaded = new ConcurrentHashMap<>(files.size() * 2);
+        Map<ConfigFile<?>, Exception> errors = new ConcurrentHashMap<>(8);
+        List<CompletableFuture<Void>> tasks = new ArrayList<>(files.size());
+        for (ConfigFile<?> file : files) {
+            tasks.add(CompletableFuture.runAsync(() -> {
+                try {
+                    loaded.put(file, this.load(file));
+                }
+                catch (IOException | RuntimeException e) {
+                    errors.put(file, e);
+                }
+            }, executor));
+        }
+        try {
+            CompletableFuture.allOf(tasks.toArray(new CompletableFuture<?>[0])).join();
+        }
+        catch (CompletionException e) {
+            // only errors are not collected by tasks
+            if (e.getCause() instanceof Error) {
+                throw (Error) e.getCause();
+            }
+            throw e;
+        }
+        Map<ConfigFile<?>, Config<?>> configs = new LinkedHashMap<>(loaded.size() * 2);
+        Map<ConfigFile<?>, Exception> failures = new LinkedHashMap<>(errors.size() * 2);
+        for (ConfigFile<?> file : files) {
+            Config<?> config = loaded.get(file);
+            if (config != null) {
+                configs.put(file, config);
+            }
+            else if (errors.containsKey(file)) {
+                failures.put(file, errors.get(file));
+            }
+        }
+        return new LoadResults(configs, failures);
+    }
+
+    private <T extends Config<T>> T load(ConfigFile<T> file) throws IOException {
+        return this.load(file.getType(), file.getPath());
+    }
+
+    /**
+     * Loads values from given yaml document into existing config instance, properties missing in document are not changed.
+     *
+     * @param type config type.
+     * @param config config instance.
+     * @param reader source of yaml document.
+     * @param <T> config type.
+     */
+    public <T extends Config<T>> void loadInto(Class<T> type, T config, Reader reader) {
+        Instrumentation.Timer timer = this.instrumentation.start(type, ConfigOperation.LOAD);
+        try {
+            this.serializers.getConfigSerializer(type).loadInto(config, reader);
+        }
+        finally {
+            timer.stop();
+        }
+    }
+
+    /**
+     * Writes given config as yaml document, using comments and styles of config properties.
+     *
+     * @param type config type.
+     * @param config config instance.
+     * @param writer target of yaml document, it is flushed but not closed.
+     * @param <T> config type.
+     *
+     * @throws UncheckedIOException if document can't be written.
+     */
+    public <T extends Config<T>> void save(Class<T> type, T config, Writer writer) {
+        Instrumentation.Timer timer = this.instrumentation.start(type, ConfigOperation.SAVE);
+        try {
+            this.serializers.getConfigSerializer(type).save(config, writer);
+        }
+        finally {
+            timer.stop();
+        }
+    }
+
+    /**
+     * Writes given config as UTF-8 encoded yaml document.
+     *
+     * @param type config type.
+     * @param config config instance.
+     * @param output target of yaml document, it is flushed but not closed.
+     * @param <T> config type.
+     *
+     * @throws IOException if document can't be written.
+     */
+    public <T extends Config<T>> void save(Class<T> type, T config, OutputStream output) throws IOException {
+        try {
+            this.save(type, config, new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8)));
+        }
+        catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Writes given config to yaml file, file is created or replaced. <br/>
+     * If config was loaded from file, only properties changed by setters since last load or save are written, rest of file, including
+     * comments and formatting, is kept as is.
+     *
+     * @param type config type.
+     * @param config config instance.
+     * @param path path of yaml file.
+     * @param <T> config type.
+     *
+     * @throws IOException if file can't be written.
+     */
+    public <T extends Config<T>> void save(Class<T> type, T config, Path path) throws IOException {
+        Instrumentation.Timer timer = this.instrumentation.start(type, ConfigOperation.SAVE);
+        try {
+            this.serializers.getConfigSerializer(type).save(config, path);
+        }
+        catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        finally {
+            timer.stop();
+        }
+    }
+
+    /**
+     * Creates watcher reloading configs when their files are changed, watcher must be closed when it is no longer needed.
+     *
+     * @param debounce time without changes of file before it is reloaded.
+     *
+     * @return new config watcher.
+     *
+     * @throws IOException if file system does not support watching files.
+     */
+    public ConfigWatcher createWatcher(Duration debounce) throws IOException {
+        return new ConfigWatcher(this, debounce);
+    }
+}
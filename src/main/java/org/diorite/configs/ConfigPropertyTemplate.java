@@ -0,0 +1,145 @@
+package org.diorite.configs;
+
+import org.diorite.configs.annotations.AsList;
+import org.diorite.configs.annotations.Validator;
+import org.diorite.configs.scripts.ScriptValidatorTemplate;
+import org.diorite.configs.style.PropertyStyle;
+import org.jetbrains.annotations.Nullable;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Type;
+import java.util.List;
+
+/**
+ * Describes single property of configuration type.
+ */
+public final class ConfigPropertyTemplate {
+    private final int index;
+    private final String name;
+    private final String serializedName;
+    private final List<String> alternateNames;
+    private final Type genericType;
+    private final Class<?> rawType;
+    private final Method getter;
+    @Nullable
+    private final Method setter;
+    private final List<String> comments;
+    private final PropertyStyle style;
+    private final List<String> validatorMethods;
+    private final List<ScriptValidatorTemplate> scriptValidators;
+    private final KeyFunctionsTemplate keyFunctions;
+    @Nullable
+    private final AsMapTemplate asMap;
+    @Nullable
+    private final String asListKey;
+
+    public ConfigPropertyTemplate(int index, String name, String serializedName, List<String> alternateNames, Method getter,
+                                  @Nullable Method setter, List<String> comments, PropertyStyle style, List<String> validatorMethods,
+                                  List<ScriptValidatorTemplate> scriptValidators, KeyFunctionsTemplate keyFunctions,
+                                  @Nullable AsMapTemplate asMap, @Nullable String asListKey) {
+        this.index = index;
+        this.name = name;
+        this.serializedName = serializedName;
+        this.alternateNames = List.copyOf(alternateNames);
+        this.genericType = getter.getGenericReturnType();
+        this.rawType = getter.getReturnType();
+        this.getter = getter;
+        this.setter = setter;
+        this.comments = List.copyOf(comments);
+        this.style = style;
+        this.validatorMethods = List.copyOf(validatorMethods);
+        this.scriptValidators = List.copyOf(scriptValidators);
+        this.keyFunctions = keyFunctions;
+        this.asMap = asMap;
+        this.asListKey = asListKey;
+    }
+
+    /**
+     * @return index of property in template, also used as index of field in generated implementation.
+     */
+    public int getIndex() {
+        return this.index;
+    }
+
+    /**
+     * @return name of property extracted from getter method.
+     */
+    public String getName() {
+        return this.name;
+    }
+
+    /**
+     * @return name used in configuration file.
+     */
+    public String getSerializedName() {
+        return this.serializedName;
+    }
+
+    /**
+     * @return alternative names accepted when loading configuration file.
+     */
+    public List<String> getAlternateNames() {
+        return this.alternateNames;
+    }
+
+    public Type getGenericType() {
+        return this.genericType;
+    }
+
+    public Class<?> getRawType() {
+        return this.rawType;
+    }
+
+    public Method getGetter() {
+        return this.getter;
+    }
+
+    @Nullable
+    public Method getSetter() {
+        return this.setter;
+    }
+
+    /**
+     * @return comment lines placed above this property.
+     */
+    public List<String> getComments() {
+        return this.comments;
+    }
+
+    public PropertyStyle getStyle() {
+        return this.style;
+    }
+
+    /**
+     * @return names of config methods annotated with {@link Validator} that validate this property.
+     */
+    public List<String> getValidatorMethods() {
+        return this.validatorMethods;
+    }
+
+    public List<ScriptValidatorTemplate> getScriptValidators() {
+        return this.scriptValidators;
+    }
+
+    public KeyFunctionsTemplate getKeyFunctions() {
+        return this.keyFunctions;
+    }
+
+    @Nullable
+    public AsMapTemplate getAsMap() {
+        return this.asMap;
+    }
+
+    /**
+     * @return {@link AsList#keyProperty()} or null if this property isn't annotated with {@link AsList}.
+     */
+    @Nullable
+    public String getAsListKey() {
+        return this.asListKey;
+    }
+
+    @Override
+    public String toString() {
+        return this.name + ": " + this.genericType.getTypeName();
+    }
+}
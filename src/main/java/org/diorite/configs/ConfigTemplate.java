@@ -0,0 +1,94 @@
+package org.diorite.configs;
+
+import org.diorite.configs.impl.ConfigImplementation;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Template of configuration type, contains all properties of config and generated implementation used to create new instances.
+ *
+ * @param <T> type of config.
+ */
+public final class ConfigTemplate<T extends Config<T>> {
+    private final Class<T> type;
+    private final List<String> header;
+    private final List<String> footer;
+    private final List<ConfigPropertyTemplate> properties;
+    private final Map<String, ConfigPropertyTemplate> byName;
+    private final ConfigImplementation<T> implementation;
+
+    public ConfigTemplate(Class<T> type, List<String> header, List<String> footer, List<ConfigPropertyTemplate> properties,
+                          ConfigImplementation<T> implementation) {
+        this.type = type;
+        this.header = List.copyOf(header);
+        this.footer = List.copyOf(footer);
+        this.properties = List.copyOf(properties);
+        this.implementation = implementation;
+        Map<String, ConfigPropertyTemplate> byName = new HashMap<>(properties.size() * 2);
+        for (ConfigPropertyTemplate property : properties) {
+            byName.put(property.getName(), property);
+        }
+        this.byName = byName;
+    }
+
+    public Class<T> getType() {
+        return this.type;
+    }
+
+    /**
+     * @return header comment lines of configuration file.
+     */
+    public List<String> getHeader() {
+        return this.header;
+    }
+
+    /**
+     * @return footer comment lines of configuration file.
+     */
+    public List<String> getFooter() {
+        return this.footer;
+    }
+
+    /**
+     * @return all properties of this config, in order of declaration.
+     */
+    public List<ConfigPropertyTemplate> getProperties() {
+        return this.properties;
+    }
+
+    /**
+     * @param name name of property, as extracted from getter method.
+     *
+     * @return property template or null if there is no such property.
+     */
+    @Nullable
+    public ConfigPropertyTemplate getProperty(String name) {
+        return this.byName.get(name);
+    }
+
+    /**
+     * @return shared instance that returns default values of each property, same as {@link Config#defaults()}.
+     */
+    public T defaults() {
+        return this.implementation.defaults();
+    }
+
+    /**
+     * @return new config instance with all properties set to default values.
+     */
+    public T create() {
+        return this.implementation.create();
+    }
+
+    public ConfigImplementation<T> getImplementation() {
+        return this.implementation;
+    }
+
+    @Override
+    public String toString() {
+        return this.type.getName() + this.properties;
+    }
+}
@@ -0,0 +1,61 @@
+package org.diorite.configs;
+
+import org.diorite.configs.annotations.AsMap;
+import org.diorite.configs.annotations.DeserializeKeyFunction;
+import org.diorite.configs.annotations.GenerateKeyFromObjectFunction;
+import org.diorite.configs.scripts.ScriptTemplate;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Functions used to change map keys (or objects of {@link AsMap} lists) to strings and back. <br/>
+ * Each function can be provided as script or as name of config method annotated with {@link GenerateKeyFromObjectFunction} or
+ * {@link DeserializeKeyFunction}, null values mean that default key serialization should be used.
+ */
+public final class KeyFunctionsTemplate {
+    public static final KeyFunctionsTemplate NONE = new KeyFunctionsTemplate(null, null, null, null);
+
+    @Nullable
+    private final ScriptTemplate createKey;
+    @Nullable
+    private final String createKeyMethod;
+    @Nullable
+    private final ScriptTemplate deserializeKey;
+    @Nullable
+    private final String deserializeKeyMethod;
+
+    public KeyFunctionsTemplate(@Nullable ScriptTemplate createKey, @Nullable String createKeyMethod, @Nullable ScriptTemplate deserializeKey,
+                                @Nullable String deserializeKeyMethod) {
+        this.createKey = createKey;
+        this.createKeyMethod = createKeyMethod;
+        this.deserializeKey = deserializeKey;
+        this.deserializeKeyMethod = deserializeKeyMethod;
+    }
+
+    @Nullable
+    public ScriptTemplate getCreateKey() {
+        return this.createKey;
+    }
+
+    @Nullable
+    public String getCreateKeyMethod() {
+        return this.createKeyMethod;
+    }
+
+    @Nullable
+    public ScriptTemplate getDeserializeKey() {
+        return this.deserializeKey;
+    }
+
+    @Nullable
+    public String getDeserializeKeyMethod() {
+        return this.deserializeKeyMethod;
+    }
+
+    public KeyFunctionsTemplate withCreateKey(@Nullable ScriptTemplate script, @Nullable String method) {
+        return new KeyFunctionsTemplate(script, method, this.deserializeKey, this.deserializeKeyMethod);
+    }
+
+    public KeyFunctionsTemplate withDeserializeKey(@Nullable ScriptTemplate script, @Nullable String method) {
+        return new KeyFunctionsTemplate(this.createKey, this.createKeyMethod, script, method);
+    }
+}
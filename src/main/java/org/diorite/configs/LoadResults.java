@@ -0,0 +1,81 @@
+package org.diorite.configs;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * Results of {@link ConfigManager#loadAll(java.util.Collection)}, configs loaded from files and errors of files that couldn't be
+ * loaded, both in order of given files.
+ */
+public final class LoadResults {
+    private final Map<ConfigFile<?>, Config<?>> configs;
+    private final Map<ConfigFile<?>, Exception> failures;
+
+    LoadResults(Map<ConfigFile<?>, Config<?>> configs, Map<ConfigFile<?>, Exception> failures) {
+        this.configs = Collections.unmodifiableMap(configs);
+        this.failures = Collections.unmodifiableMap(failures);
+    }
+
+    /**
+     * @param file config file.
+     * @param <T> config type.
+     *
+     * @return config loaded from given file, or null if file wasn't loaded.
+     */
+    @Nullable
+    public <T extends Config<T>> T get(ConfigFile<T> file) {
+        return file.getType().cast(this.configs.get(file));
+    }
+
+    /**
+     * @param file config file.
+     *
+     * @return error thrown when loading given file, or null if file was loaded.
+     */
+    @Nullable
+    public Exception getFailure(ConfigFile<?> file) {
+        return this.failures.get(file);
+    }
+
+    /**
+     * @return loaded configs by their files.
+     */
+    public Map<ConfigFile<?>, Config<?>> getConfigs() {
+        return this.configs;
+    }
+
+    /**
+     * @return errors by files that couldn't be loaded, {@link java.io.IOException} if file couldn't be read or {@link
+     * ConfigException} if it is invalid.
+     */
+    public Map<ConfigFile<?>, Exception> getFailures() {
+        return this.failures;
+    }
+
+    /**
+     * @return true if all files were loaded.
+     */
+    public boolean isSuccessful() {
+        return this.failures.isEmpty();
+    }
+
+    /**
+     * @throws ConfigException if any file couldn't be loaded, errors of all such files are added as suppressed exceptions.
+     */
+    public void throwIfFailed() {
+        if (this.failures.isEmpty()) {
+            return;
+        }
+        int total = this.configs.size() + this.failures.size();
+        ConfigException exception = new ConfigException("Can't load " + this.failures.size() + " of " + total + " config files");
+        for (Map.Entry<ConfigFile<?>, Exception> entry : this.failures.entrySet()) {
+            Exception failure = entry.getValue();
+            // messages of io exceptions often contain only path of file
+            String message = (failure instanceof ConfigException) ? failure.getMessage() : failure.toString();
+            exception.addSuppressed(new ConfigException("Can't load " + entry.getKey() + ": " + message, failure));
+        }
+        throw exception;
+    }
+}
@@ -3,9 +3,18 @@ package org.diorite.configs.annotations;
 import org.diorite.configs.annotations.meta.Footer;
 import org.diorite.configs.annotations.meta.Header;
 
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
 /**
  * Used over configuration classes to specify additional options
  */
+@Documented
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
 public @interface ConfigClass {
     /**
      * @return default file name to use if no name is provided.
@@ -17,6 +26,23 @@ public @interface ConfigClass {
      */
     Class<?> namingPolicy() default Class.class; // TODO
 
+    /**
+     * Concurrent configs keep values of all properties in immutable state published by single volatile write. Getters never block and
+     * are safe to use from any number of threads, setters copy state and publish changed copy, and changes made inside
+     * {@link org.diorite.configs.ConfigManager#update(org.diorite.configs.Config, java.util.function.Consumer)} are published together.
+     *
+     * @return true if config should be safe to use from multiple threads.
+     */
+    boolean concurrent() default false;
+
+    /**
+     * Lazy configs read mappings and sequences of their properties when getter of property is called first time, like every property
+     * was marked by {@link Lazy}.
+     *
+     * @return true if properties of config should be read lazily.
+     */
+    boolean lazy() default false;
+
     /**
      * @return header comment of configuration file, can be placed above config class too.
      */
@@ -31,11 +31,21 @@ import java.lang.annotation.RetentionPolicy;
 import java.lang.annotation.Target;
 
 /**
- * Used to mark methods in config that aren't properties but might look like one.
+ * Used to mark methods in config that aren't properties but might look like one. <br/>
+ * Helper methods without parameters can be marked as {@link #cached()}, generated implementation then remembers returned value and
+ * getters of properties called while it was computed, value is computed again after any of these properties is changed by setter,
+ * loaded or reloaded.
  */
 @Documented
 @Target({ElementType.METHOD})
 @Retention(RetentionPolicy.RUNTIME)
 public @interface HelperMethod
 {
+    /**
+     * Cached method must be a non-final method with implementation, without parameters and returning a value. Only properties of same
+     * config instance read by its getters are tracked, so value must not depend on other state, like other configs or current time.
+     *
+     * @return true if value returned by this method should be cached.
+     */
+    boolean cached() default false;
 }
@@ -0,0 +1,21 @@
+package org.diorite.configs.annotations;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Used to mark properties that should be read when their getter is called first time, instead of when config is loaded. <br/>
+ * Mappings and sequences of lazy properties are kept as parsed yaml events, so large sections of shared configs that are never used
+ * are not bound to objects. Scalar values and values using anchors or aliases are still read when config is loaded. Validators of
+ * lazy property are called when its value is read. <br/>
+ * All properties of config type can be made lazy by {@link ConfigClass#lazy()}. Properties of concurrent configs are never lazy.
+ */
+@Documented
+@Target({ElementType.METHOD})
+@Retention(RetentionPolicy.RUNTIME)
+public @interface Lazy
+{
+}
@@ -34,7 +34,9 @@ import java.lang.annotation.Target;
  * Used to mark properties in config interfaces that should be returned as unmodifiable collection/object, note that return type of method must
  * be compatible with
  * unmodifiable type. <br/>
- * Configuration manager does include support for near every default collection in java and in fastutils if present. <br/>
+ * Configuration manager does include support for near every default collection in java. Lists, sets and maps of {@link Integer},
+ * {@link Long} and {@link Double} values are loaded as primitive collections from {@code org.diorite.configs.collections}, that store
+ * values without boxing. <br/>
  * Additional supported objects/collections can be added via special API. TODO
  */
 @Documented
@@ -51,6 +51,12 @@ public @interface BinaryStyle {
      */
     int switchIfShorterThan() default 10;
 
+    /**
+     * Store binary data longer than X bytes in separate file next to yaml file, yaml file contains only name of that file. Such files are
+     * memory mapped when config is loaded, so {@link java.nio.ByteBuffer} properties are not copied to heap at all.
+     */
+    int fileIfLongerThan() default - 1;
+
     /**
      * Depth of children nodes that should by affected by this settings - like higher values can be used to apply this annotation for
      * nested nodes inside map/list.
@@ -0,0 +1,64 @@
+package org.diorite.configs.collections;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.util.AbstractList;
+
+final class ArrayDoubleList extends AbstractList<Double> implements DoubleList {
+    private final double[] values;
+
+    ArrayDoubleList(double[] values) {
+        this.values = values;
+    }
+
+    @Override
+    public double getDouble(int index) {
+        return this.values[index];
+    }
+
+    @Override
+    public Double get(int index) {
+        return this.values[index];
+    }
+
+    @Override
+    public int size() {
+        return this.values.length;
+    }
+
+    @Override
+    public double[] toDoubleArray() {
+        return this.values.clone();
+    }
+
+    @Override
+    public int indexOf(@Nullable Object o) {
+        if (o instanceof Double) {
+            double value = (Double) o;
+            for (int i = 0; i < this.values.length; i++) {
+                if (Double.compare(this.values[i], value) == 0) {
+                    return i;
+                }
+            }
+        }
+        return - 1;
+    }
+
+    @Override
+    public int lastIndexOf(@Nullable Object o) {
+        if (o instanceof Double) {
+            double value = (Double) o;
+            for (int i = this.values.length - 1; i >= 0; i--) {
+                if (Double.compare(this.values[i], value) == 0) {
+                    return i;
+                }
+            }
+        }
+        return - 1;
+    }
+
+    @Override
+    public boolean contains(@Nullable Object o) {
+        return this.indexOf(o) != - 1;
+    }
+}
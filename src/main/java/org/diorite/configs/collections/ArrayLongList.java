@@ -0,0 +1,64 @@
+package org.diorite.configs.collections;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.util.AbstractList;
+
+final class ArrayLongList extends AbstractList<Long> implements LongList {
+    private final long[] values;
+
+    ArrayLongList(long[] values) {
+        this.values = values;
+    }
+
+    @Override
+    public long getLong(int index) {
+        return this.values[index];
+    }
+
+    @Override
+    public Long get(int index) {
+        return this.values[index];
+    }
+
+    @Override
+    public int size() {
+        return this.values.length;
+    }
+
+    @Override
+    public long[] toLongArray() {
+        return this.values.clone();
+    }
+
+    @Override
+    public int indexOf(@Nullable Object o) {
+        if (o instanceof Long) {
+            long value = (Long) o;
+            for (int i = 0; i < this.values.length; i++) {
+                if (this.values[i] == value) {
+                    return i;
+                }
+            }
+        }
+        return - 1;
+    }
+
+    @Override
+    public int lastIndexOf(@Nullable Object o) {
+        if (o instanceof Long) {
+            long value = (Long) o;
+            for (int i = this.values.length - 1; i >= 0; i--) {
+                if (this.values[i] == value) {
+                    return i;
+                }
+            }
+        }
+        return - 1;
+    }
+
+    @Override
+    public boolean contains(@Nullable Object o) {
+        return this.indexOf(o) != - 1;
+    }
+}
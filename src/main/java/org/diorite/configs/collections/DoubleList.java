@@ -0,0 +1,43 @@
+package org.diorite.configs.collections;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * Immutable list of double values, stored in single double array without boxing. <br/>
+ * Used for config properties declared as {@code DoubleList}, or as {@code List<Double>} with
+ * {@link org.diorite.configs.annotations.Unmodifiable}.
+ */
+public interface DoubleList extends List<Double>, RandomAccess {
+    /**
+     * @param index index of element.
+     *
+     * @return element at given index.
+     *
+     * @throws IndexOutOfBoundsException if index is out of range.
+     */
+    double getDouble(int index);
+
+    /**
+     * @return copy of elements of this list.
+     */
+    double[] toDoubleArray();
+
+    /**
+     * @return list containing copy of given values.
+     */
+    static DoubleList of(double... values) {
+        return of(values, values.length);
+    }
+
+    /**
+     * @param values source of values.
+     * @param size amount of values to copy from start of given array.
+     *
+     * @return list containing copy of given values.
+     */
+    static DoubleList of(double[] values, int size) {
+        return new ArrayDoubleList(Arrays.copyOf(values, size));
+    }
+}
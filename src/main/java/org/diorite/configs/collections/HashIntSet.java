@@ -0,0 +1,68 @@
+package org.diorite.configs.collections;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+final class HashIntSet extends AbstractSet<Integer> implements IntSet {
+    private final int[] values;
+    private final int[] table;
+
+    HashIntSet(int[] source, int size) {
+        int[] values = new int[size];
+        int[] table = HashTables.table(size);
+        int count = 0;
+        for (int i = 0; i < size; i++) {
+            int slot = HashTables.slot(table, values, source[i]);
+            if (table[slot] == 0) {
+                values[count++] = source[i];
+                table[slot] = count;
+            }
+        }
+        this.values = (count == size) ? values : Arrays.copyOf(values, count);
+        this.table = table;
+    }
+
+    @Override
+    public boolean containsInt(int value) {
+        return this.table[HashTables.slot(this.table, this.values, value)] != 0;
+    }
+
+    @Override
+    public boolean contains(@Nullable Object o) {
+        return (o instanceof Integer) && this.containsInt((Integer) o);
+    }
+
+    @Override
+    public int[] toIntArray() {
+        return this.values.clone();
+    }
+
+    @Override
+    public int size() {
+        return this.values.length;
+    }
+
+    @Override
+    public Iterator<Integer> iterator() {
+        return new Iterator<>() {
+            private int next;
+
+            @Override
+            public boolean hasNext() {
+                return this.next < HashIntSet.this.values.length;
+            }
+
+            @Override
+            public Integer next() {
+                if (this.next >= HashIntSet.this.values.length) {
+                    throw new NoSuchElementException();
+                }
+                return HashIntSet.this.values[this.next++];
+            }
+        };
+    }
+}
@@ -0,0 +1,68 @@
+package org.diorite.configs.collections;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+final class HashLongSet extends AbstractSet<Long> implements LongSet {
+    private final long[] values;
+    private final int[] table;
+
+    HashLongSet(long[] source, int size) {
+        long[] values = new long[size];
+        int[] table = HashTables.table(size);
+        int count = 0;
+        for (int i = 0; i < size; i++) {
+            int slot = HashTables.slot(table, values, source[i]);
+            if (table[slot] == 0) {
+                values[count++] = source[i];
+                table[slot] = count;
+            }
+        }
+        this.values = (count == size) ? values : Arrays.copyOf(values, count);
+        this.table = table;
+    }
+
+    @Override
+    public boolean containsLong(long value) {
+        return this.table[HashTables.slot(this.table, this.values, value)] != 0;
+    }
+
+    @Override
+    public boolean contains(@Nullable Object o) {
+        return (o instanceof Long) && this.containsLong((Long) o);
+    }
+
+    @Override
+    public long[] toLongArray() {
+        return this.values.clone();
+    }
+
+    @Override
+    public int size() {
+        return this.values.length;
+    }
+
+    @Override
+    public Iterator<Long> iterator() {
+        return new Iterator<>() {
+            private int next;
+
+            @Override
+            public boolean hasNext() {
+                return this.next < HashLongSet.this.values.length;
+            }
+
+            @Override
+            public Long next() {
+                if (this.next >= HashLongSet.this.values.length) {
+                    throw new NoSuchElementException();
+                }
+                return HashLongSet.this.values[this.next++];
+            }
+        };
+    }
+}
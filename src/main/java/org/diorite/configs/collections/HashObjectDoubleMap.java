@@ -0,0 +1,101 @@
+package org.diorite.configs.collections;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+final class HashObjectDoubleMap<K> extends AbstractMap<K, Double> implements ObjectDoubleMap<K> {
+    private final Object[] keys;
+    private final double[] values;
+    private final int[] table;
+
+    HashObjectDoubleMap(K[] sourceKeys, double[] sourceValues, int size) {
+        Object[] keys = new Object[size];
+        double[] values = new double[size];
+        int[] table = HashTables.table(size);
+        int count = 0;
+        for (int i = 0; i < size; i++) {
+            int slot = HashTables.slot(table, keys, sourceKeys[i]);
+            if (table[slot] == 0) {
+                keys[count] = sourceKeys[i];
+                values[count++] = sourceValues[i];
+                table[slot] = count;
+            }
+            else {
+                values[table[slot] - 1] = sourceValues[i];
+            }
+        }
+        this.keys = (count == size) ? keys : Arrays.copyOf(keys, count);
+        this.values = (count == size) ? values : Arrays.copyOf(values, count);
+        this.table = table;
+    }
+
+    private int indexOf(@Nullable Object key) {
+        return this.table[HashTables.slot(this.table, this.keys, key)] - 1;
+    }
+
+    @Override
+    public double getDouble(@Nullable Object key, double defaultValue) {
+        int index = this.indexOf(key);
+        return (index == - 1) ? defaultValue : this.values[index];
+    }
+
+    @Nullable
+    @Override
+    public Double get(@Nullable Object key) {
+        int index = this.indexOf(key);
+        return (index == - 1) ? null : this.values[index];
+    }
+
+    @Override
+    public boolean containsKey(@Nullable Object key) {
+        return this.indexOf(key) != - 1;
+    }
+
+    @Override
+    public double[] toDoubleArray() {
+        return this.values.clone();
+    }
+
+    @Override
+    public int size() {
+        return this.keys.length;
+    }
+
+    @Override
+    public Set<Entry<K, Double>> entrySet() {
+        return new AbstractSet<>() {
+            @Override
+            public Iterator<Entry<K, Double>> iterator() {
+                return new Iterator<>() {
+                    private int next;
+
+                    @Override
+                    public boolean hasNext() {
+                        return this.next < HashObjectDoubleMap.this.keys.length;
+                    }
+
+                    @Override
+                    @SuppressWarnings("unchecked")
+                    public Entry<K, Double> next() {
+                        if (this.next >= HashObjectDoubleMap.this.keys.length) {
+                            throw new NoSuchElementException();
+                        }
+                        int index = this.next++;
+                        return new SimpleImmutableEntry<>((K) HashObjectDoubleMap.this.keys[index], HashObjectDoubleMap.this.values[index]);
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return HashObjectDoubleMap.this.keys.length;
+            }
+        };
+    }
+}
@@ -0,0 +1,101 @@
+package org.diorite.configs.collections;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+final class HashObjectIntMap<K> extends AbstractMap<K, Integer> implements ObjectIntMap<K> {
+    private final Object[] keys;
+    private final int[] values;
+    private final int[] table;
+
+    HashObjectIntMap(K[] sourceKeys, int[] sourceValues, int size) {
+        Object[] keys = new Object[size];
+        int[] values = new int[size];
+        int[] table = HashTables.table(size);
+        int count = 0;
+        for (int i = 0; i < size; i++) {
+            int slot = HashTables.slot(table, keys, sourceKeys[i]);
+            if (table[slot] == 0) {
+                keys[count] = sourceKeys[i];
+                values[count++] = sourceValues[i];
+                table[slot] = count;
+            }
+            else {
+                values[table[slot] - 1] = sourceValues[i];
+            }
+        }
+        this.keys = (count == size) ? keys : Arrays.copyOf(keys, count);
+        this.values = (count == size) ? values : Arrays.copyOf(values, count);
+        this.table = table;
+    }
+
+    private int indexOf(@Nullable Object key) {
+        return this.table[HashTables.slot(this.table, this.keys, key)] - 1;
+    }
+
+    @Override
+    public int getInt(@Nullable Object key, int defaultValue) {
+        int index = this.indexOf(key);
+        return (index == - 1) ? defaultValue : this.values[index];
+    }
+
+    @Nullable
+    @Override
+    public Integer get(@Nullable Object key) {
+        int index = this.indexOf(key);
+        return (index == - 1) ? null : this.values[index];
+    }
+
+    @Override
+    public boolean containsKey(@Nullable Object key) {
+        return this.indexOf(key) != - 1;
+    }
+
+    @Override
+    public int[] toIntArray() {
+        return this.values.clone();
+    }
+
+    @Override
+    public int size() {
+        return this.keys.length;
+    }
+
+    @Override
+    public Set<Entry<K, Integer>> entrySet() {
+        return new AbstractSet<>() {
+            @Override
+            public Iterator<Entry<K, Integer>> iterator() {
+                return new Iterator<>() {
+                    private int next;
+
+                    @Override
+                    public boolean hasNext() {
+                        return this.next < HashObjectIntMap.this.keys.length;
+                    }
+
+                    @Override
+                    @SuppressWarnings("unchecked")
+                    public Entry<K, Integer> next() {
+                        if (this.next >= HashObjectIntMap.this.keys.length) {
+                            throw new NoSuchElementException();
+                        }
+                        int index = this.next++;
+                        return new SimpleImmutableEntry<>((K) HashObjectIntMap.this.keys[index], HashObjectIntMap.this.values[index]);
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return HashObjectIntMap.this.keys.length;
+            }
+        };
+    }
+}
@@ -0,0 +1,67 @@
+package org.diorite.configs.collections;
+
+import java.util.Objects;
+
+/**
+ * Open addressing tables used by primitive collections. <br/>
+ * Table stores index of element in array of elements plus one, zero marks empty slot. Tables are at most half full and use linear
+ * probing, elements are never removed, as all collections using these tables are immutable.
+ */
+final class HashTables {
+    private HashTables() {
+    }
+
+    /**
+     * @return empty table for given amount of elements.
+     */
+    static int[] table(int size) {
+        int capacity = 4;
+        while (capacity < (size * 2)) {
+            capacity <<= 1;
+        }
+        return new int[capacity];
+    }
+
+    static int hash(int value) {
+        int hash = value * 0x9E3779B9;
+        return hash ^ (hash >>> 16);
+    }
+
+    static int hash(long value) {
+        return hash((int) (value ^ (value >>> 32)));
+    }
+
+    static int hash(Object value) {
+        return hash(Objects.hashCode(value));
+    }
+
+    /**
+     * @return slot of given value, or empty slot where it should be inserted.
+     */
+    static int slot(int[] table, int[] values, int value) {
+        int mask = table.length - 1;
+        int slot = hash(value) & mask;
+        while ((table[slot] != 0) && (values[table[slot] - 1] != value)) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    static int slot(int[] table, long[] values, long value) {
+        int mask = table.length - 1;
+        int slot = hash(value) & mask;
+        while ((table[slot] != 0) && (values[table[slot] - 1] != value)) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    static int slot(int[] table, Object[] values, Object value) {
+        int mask = table.length - 1;
+        int slot = hash(value) & mask;
+        while ((table[slot] != 0) && ! Objects.equals(values[table[slot] - 1], value)) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+}
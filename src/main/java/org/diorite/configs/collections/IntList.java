@@ -0,0 +1,43 @@
+package org.diorite.configs.collections;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * Immutable list of int values, stored in single int array without boxing. <br/>
+ * Used for config properties declared as {@code IntList}, or as {@code List<Integer>} with
+ * {@link org.diorite.configs.annotations.Unmodifiable}.
+ */
+public interface IntList extends List<Integer>, RandomAccess {
+    /**
+     * @param index index of element.
+     *
+     * @return element at given index.
+     *
+     * @throws IndexOutOfBoundsException if index is out of range.
+     */
+    int getInt(int index);
+
+    /**
+     * @return copy of elements of this list.
+     */
+    int[] toIntArray();
+
+    /**
+     * @return list containing copy of given values.
+     */
+    static IntList of(int... values) {
+        return of(values, values.length);
+    }
+
+    /**
+     * @param values source of values.
+     * @param size amount of values to copy from start of given array.
+     *
+     * @return list containing copy of given values.
+     */
+    static IntList of(int[] values, int size) {
+        return new ArrayIntList(Arrays.copyOf(values, size));
+    }
+}
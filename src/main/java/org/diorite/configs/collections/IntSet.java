@@ -0,0 +1,40 @@
+package org.diorite.configs.collections;
+
+import java.util.Set;
+
+/**
+ * Immutable set of int values, stored in int array in order of insertion and indexed by open addressing table, without boxing.
+ * <br/>
+ * Used for config properties declared as {@code IntSet}, or as {@code Set<Integer>} with
+ * {@link org.diorite.configs.annotations.Unmodifiable}.
+ */
+public interface IntSet extends Set<Integer> {
+    /**
+     * @param value value to check.
+     *
+     * @return true if this set contains given value.
+     */
+    boolean containsInt(int value);
+
+    /**
+     * @return copy of elements of this set, in order of insertion.
+     */
+    int[] toIntArray();
+
+    /**
+     * @return set containing given values, duplicated values are skipped.
+     */
+    static IntSet of(int... values) {
+        return of(values, values.length);
+    }
+
+    /**
+     * @param values source of values.
+     * @param size amount of values to copy from start of given array.
+     *
+     * @return set containing given values, duplicated values are skipped.
+     */
+    static IntSet of(int[] values, int size) {
+        return new HashIntSet(values, size);
+    }
+}
@@ -0,0 +1,43 @@
+package org.diorite.configs.collections;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * Immutable list of long values, stored in single long array without boxing. <br/>
+ * Used for config properties declared as {@code LongList}, or as {@code List<Long>} with
+ * {@link org.diorite.configs.annotations.Unmodifiable}.
+ */
+public interface LongList extends List<Long>, RandomAccess {
+    /**
+     * @param index index of element.
+     *
+     * @return element at given index.
+     *
+     * @throws IndexOutOfBoundsException if index is out of range.
+     */
+    long getLong(int index);
+
+    /**
+     * @return copy of elements of this list.
+     */
+    long[] toLongArray();
+
+    /**
+     * @return list containing copy of given values.
+     */
+    static LongList of(long... values) {
+        return of(values, values.length);
+    }
+
+    /**
+     * @param values source of values.
+     * @param size amount of values to copy from start of given array.
+     *
+     * @return list containing copy of given values.
+     */
+    static LongList of(long[] values, int size) {
+        return new ArrayLongList(Arrays.copyOf(values, size));
+    }
+}
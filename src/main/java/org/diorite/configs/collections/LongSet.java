@@ -0,0 +1,40 @@
+package org.diorite.configs.collections;
+
+import java.util.Set;
+
+/**
+ * Immutable set of long values, stored in long array in order of insertion and indexed by open addressing table, without boxing.
+ * <br/>
+ * Used for config properties declared as {@code LongSet}, or as {@code Set<Long>} with
+ * {@link org.diorite.configs.annotations.Unmodifiable}.
+ */
+public interface LongSet extends Set<Long> {
+    /**
+     * @param value value to check.
+     *
+     * @return true if this set contains given value.
+     */
+    boolean containsLong(long value);
+
+    /**
+     * @return copy of elements of this set, in order of insertion.
+     */
+    long[] toLongArray();
+
+    /**
+     * @return set containing given values, duplicated values are skipped.
+     */
+    static LongSet of(long... values) {
+        return of(values, values.length);
+    }
+
+    /**
+     * @param values source of values.
+     * @param size amount of values to copy from start of given array.
+     *
+     * @return set containing given values, duplicated values are skipped.
+     */
+    static LongSet of(long[] values, int size) {
+        return new HashLongSet(values, size);
+    }
+}
@@ -0,0 +1,38 @@
+package org.diorite.configs.collections;
+
+import java.util.Map;
+
+/**
+ * Immutable map of double values, keys and values are stored in separate arrays in order of insertion and keys are indexed by open
+ * addressing table, so values are never boxed. <br/>
+ * Used for config properties declared as {@code ObjectDoubleMap}, or as {@code Map<K, Double>} with
+ * {@link org.diorite.configs.annotations.Unmodifiable}.
+ *
+ * @param <K> type of keys.
+ */
+public interface ObjectDoubleMap<K> extends Map<K, Double> {
+    /**
+     * @param key key of value.
+     * @param defaultValue value returned when there is no value for given key.
+     *
+     * @return value for given key or default value.
+     */
+    double getDouble(Object key, double defaultValue);
+
+    /**
+     * @return copy of values of this map, in order of insertion.
+     */
+    double[] toDoubleArray();
+
+    /**
+     * @param keys source of keys.
+     * @param values source of values, value at the same index as key is used.
+     * @param size amount of entries to copy from start of given arrays.
+     * @param <K> type of keys.
+     *
+     * @return map containing given entries, if key is repeated its first position and last value is used.
+     */
+    static <K> ObjectDoubleMap<K> of(K[] keys, double[] values, int size) {
+        return new HashObjectDoubleMap<>(keys, values, size);
+    }
+}
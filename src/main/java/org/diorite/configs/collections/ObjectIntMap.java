@@ -0,0 +1,38 @@
+package org.diorite.configs.collections;
+
+import java.util.Map;
+
+/**
+ * Immutable map of int values, keys and values are stored in separate arrays in order of insertion and keys are indexed by open
+ * addressing table, so values are never boxed. <br/>
+ * Used for config properties declared as {@code ObjectIntMap}, or as {@code Map<K, Integer>} with
+ * {@link org.diorite.configs.annotations.Unmodifiable}.
+ *
+ * @param <K> type of keys.
+ */
+public interface ObjectIntMap<K> extends Map<K, Integer> {
+    /**
+     * @param key key of value.
+     * @param defaultValue value returned when there is no value for given key.
+     *
+     * @return value for given key or default value.
+     */
+    int getInt(Object key, int defaultValue);
+
+    /**
+     * @return copy of values of this map, in order of insertion.
+     */
+    int[] toIntArray();
+
+    /**
+     * @param keys source of keys.
+     * @param values source of values, value at the same index as key is used.
+     * @param size amount of entries to copy from start of given arrays.
+     * @param <K> type of keys.
+     *
+     * @return map containing given entries, if key is repeated its first position and last value is used.
+     */
+    static <K> ObjectIntMap<K> of(K[] keys, int[] values, int size) {
+        return new HashObjectIntMap<>(keys, values, size);
+    }
+}
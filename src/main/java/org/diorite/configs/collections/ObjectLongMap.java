@@ -0,0 +1,38 @@
+package org.diorite.configs.collections;
+
+import java.util.Map;
+
+/**
+ * Immutable map of long values, keys and values are stored in separate arrays in order of insertion and keys are indexed by open
+ * addressing table, so values are never boxed. <br/>
+ * Used for config properties declared as {@code ObjectLongMap}, or as {@code Map<K, Long>} with
+ * {@link org.diorite.configs.annotations.Unmodifiable}.
+ *
+ * @param <K> type of keys.
+ */
+public interface ObjectLongMap<K> extends Map<K, Long> {
+    /**
+     * @param key key of value.
+     * @param defaultValue value returned when there is no value for given key.
+     *
+     * @return value for given key or default value.
+     */
+    long getLong(Object key, long defaultValue);
+
+    /**
+     * @return copy of values of this map, in order of insertion.
+     */
+    long[] toLongArray();
+
+    /**
+     * @param keys source of keys.
+     * @param values source of values, value at the same index as key is used.
+     * @param size amount of entries to copy from start of given arrays.
+     * @param <K> type of keys.
+     *
+     * @return map containing given entries, if key is repeated its first position and last value is used.
+     */
+    static <K> ObjectLongMap<K> of(K[] keys, long[] values, int size) {
+        return new HashObjectLongMap<>(keys, values, size);
+    }
+}
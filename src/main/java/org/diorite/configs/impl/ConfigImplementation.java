@@ -0,0 +1,100 @@
+package org.diorite.configs.impl;
+
+import org.diorite.configs.Config;
+import org.diorite.configs.ConfigException;
+import org.diorite.configs.index.ConfigIndexes;
+import org.diorite.configs.validation.ConfigValidation;
+import org.jetbrains.annotations.Nullable;
+
+import java.lang.invoke.MethodHandle;
+import java.util.BitSet;
+import java.util.Objects;
+
+/**
+ * Holds classes generated for single config type. <br/>
+ * Default values of properties are read once per config type. Immutable default values are shared by all instances, properties which
+ * default methods create new mutable value on each call get own value in each instance.
+ *
+ * @param <T> type of config.
+ */
+public final class ConfigImplementation<T extends Config<T>> {
+    private final Class<? extends T> implementationType;
+    private final MethodHandle constructor;
+    private final T defaults;
+    private final Object[] defaultValues;
+    private final BitSet shared;
+    private final ConfigValidation validation;
+    private final ConfigIndexes indexes;
+    private final BitSet lazy;
+
+    /**
+     * @param defaultValues default values of properties, passed to each created instance.
+     * @param shared indices of properties with immutable default value, loaded values of them can be replaced by equal default value.
+     */
+    ConfigImplementation(Class<? extends T> implementationType, MethodHandle constructor, T defaults, Object[] defaultValues, BitSet shared,
+                         ConfigValidation validation, ConfigIndexes indexes, BitSet lazy) {
+        this.implementationType = implementationType;
+        this.constructor = constructor;
+        this.defaults = defaults;
+        this.defaultValues = defaultValues;
+        this.shared = shared;
+        this.validation = validation;
+        this.indexes = indexes;
+        this.lazy = lazy;
+    }
+
+    public Class<? extends T> getImplementationType() {
+        return this.implementationType;
+    }
+
+    public T defaults() {
+        return this.defaults;
+    }
+
+    public ConfigValidation getValidation() {
+        return this.validation;
+    }
+
+    public ConfigIndexes getIndexes() {
+        return this.indexes;
+    }
+
+    /**
+     * @param index index of property.
+     *
+     * @return true if value of given property is read when its getter is called first time.
+     */
+    public boolean isLazy(int index) {
+        return this.lazy.get(index);
+    }
+
+    /**
+     * Used by loaders, so values equal to immutable default value are not kept by each loaded instance.
+     *
+     * @param index index of property.
+     * @param value loaded value of property.
+     *
+     * @return shared default value of property if it is equal to given value and has same type, given value otherwise.
+     */
+    @Nullable
+    public Object shareDefault(int index, @Nullable Object value) {
+        if ((value == null) || ! this.shared.get(index)) {
+            return value;
+        }
+        Object defaultValue = this.defaultValues[index];
+        return ((value.getClass() == defaultValue.getClass()) && Objects.deepEquals(value, defaultValue)) ? defaultValue : value;
+    }
+
+    @SuppressWarnings("unchecked")
+    public T create() {
+        try {
+            return (T) this.constructor.invoke(this.defaults, this.validation, this.indexes, this.defaultValues);
+        }
+        catch (RuntimeException | Error e) {
+            throw e;
+        }
+        catch (Throwable e) {
+            throw new ConfigException("Can't create instance of " + this.implementationType.getName(), e);
+        }
+    }
+}
@@ -0,0 +1,1021 @@
+package org.diorite.configs.impl;
+
+import org.diorite.configs.Config;
+import org.diorite.configs.ConfigException;
+import org.diorite.configs.ConfigPropertyTemplate;
+import org.diorite.configs.index.AsMapIndex;
+import org.diorite.configs.index.ConfigIndexes;
+import org.diorite.configs.validation.ConfigValidation;
+import org.diorite.configs.yaml.LazyProperties;
+import org.diorite.configs.yaml.YamlDocument;
+import org.jetbrains.annotations.Nullable;
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.Label;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.Type;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.BitSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Generates implementation classes for config types. <br/>
+ * For each config type three classes, and fourth one for concurrent configs, are defined in package of that type:
+ * <ul>
+ * <li>{@code Type$$Config} - config instance, with one field per property, getters and abstract setters are compiled to direct field
+ * access. Fields of properties with immutable default values are initialized with values shared by all instances, properties which
+ * default methods create new mutable value on each call, like collections, get own value created in constructor. Default setters are inherited so they can validate values before passing them to {@link Config#config()}. Every setter marks
+ * its property as dirty, so only changed properties are written on save, and marks {@link AsMapIndex} of {@code @AsMap} properties
+ * as changed. Getters of lazy properties first read value stored in {@link LazyProperties}, setters discard it. Cached helper methods
+ * return value stored in {@link HelperCache}, getters record their reads in it and setters invalidate values depending on them.</li>
+ * <li>{@code Type$$ConfigRaw} - view returned by {@link Config#config()}, every getter and setter directly access fields of owner, cached
+ * helper methods call helper methods of owner.</li>
+ * <li>{@code Type$$ConfigDefaults} - shared instance returned by {@link Config#defaults()}, runs default methods of config type. Values
+ * returned by it are read once per config type and shared by all config instances.</li>
+ * <li>{@code Type$$ConfigState} - only for concurrent configs, holds fields of properties instead of config instance. Instance keeps
+ * {@link ConfigStateReference} to published state, getters read fields of that state and setters publish changed copy of it.</li>
+ * </ul>
+ */
+final class ConfigImplementationGenerator implements Opcodes {
+    static final String INSTANCE_SUFFIX = "$$Config";
+    static final String RAW_SUFFIX = "$$ConfigRaw";
+    static final String DEFAULTS_SUFFIX = "$$ConfigDefaults";
+    static final String STATE_SUFFIX = "$$ConfigState";
+
+    private static final String OBJECT = "java/lang/Object";
+    private static final String ACCESS = Type.getInternalName(ConfigPropertyAccess.class);
+    private static final String VALIDATION = Type.getInternalName(ConfigValidation.class);
+    private static final String VALIDATION_DESC = Type.getDescriptor(ConfigValidation.class);
+    private static final String DEFAULTS_FIELD = "defaults";
+    private static final String VALIDATION_FIELD = "validation";
+    private static final String RAW_FIELD = "raw";
+    private static final String OWNER_FIELD = "owner";
+    private static final String DIRTY_FIELD = "dirty";
+    private static final String DIRTY_DESC = Type.getDescriptor(BitSet.class);
+    private static final String DOCUMENT_FIELD = "document";
+    private static final String DOCUMENT_DESC = Type.getDescriptor(YamlDocument.class);
+    private static final String STATE = Type.getInternalName(ConfigState.class);
+    private static final String STATE_DESC = Type.getDescriptor(ConfigState.class);
+    private static final String STATE_REFERENCE = Type.getInternalName(ConfigStateReference.class);
+    private static final String STATE_REFERENCE_DESC = Type.getDescriptor(ConfigStateReference.class);
+    private static final String STATE_FIELD = "state";
+    private static final String INDEXES = Type.getInternalName(ConfigIndexes.class);
+    private static final String INDEXES_DESC = Type.getDescriptor(ConfigIndexes.class);
+    private static final String INDEX = Type.getInternalName(AsMapIndex.class);
+    private static final String INDEX_DESC = Type.getDescriptor(AsMapIndex.class);
+    private static final String INDEXES_FIELD = "indexes";
+    private static final String LAZY = Type.getInternalName(LazyProperties.class);
+    private static final String LAZY_DESC = Type.getDescriptor(LazyProperties.class);
+    private static final String LAZY_FIELD = "lazy";
+    private static final String HELPERS = Type.getInternalName(HelperCache.class);
+    private static final String HELPERS_DESC = Type.getDescriptor(HelperCache.class);
+    private static final String VALUES_DESC = Type.getDescriptor(ImmutableValues.class);
+    private static final String RECORDING_DESC = Type.getDescriptor(HelperCache.Recording.class);
+    private static final String HELPERS_FIELD = "helpers";
+    private static final String DEFAULT_VALUES_DESC = "[Ljava/lang/Object;";
+
+    /**
+     * @param lazy indices of lazy properties, always empty for concurrent configs.
+     * @param helpers cached helper methods.
+     * @param concurrent true if values should be kept in {@link ConfigState} published by {@link ConfigStateReference}.
+     */
+    <T extends Config<T>> ConfigImplementation<T> generate(Class<T> type, List<ConfigPropertyTemplate> properties, ConfigValidation validation,
+                                                           ConfigIndexes indexes, BitSet lazy, List<Method> helpers, boolean concurrent) {
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.privateLookupIn(type, MethodHandles.lookup());
+            String stateName = null;
+            if (concurrent) {
+                define(lookup, type.getName() + STATE_SUFFIX, () -> this.generateState(type, properties));
+                stateName = Type.getInternalName(type) + STATE_SUFFIX;
+            }
+            String finalStateName = stateName;
+            Class<?> defaultsClass = define(lookup, type.getName() + DEFAULTS_SUFFIX, () -> this.generateDefaults(type, properties));
+            T defaults = type.cast(lookup.findConstructor(defaultsClass, MethodType.methodType(void.class)).invoke());
+            Object[] defaultValues = new Object[properties.size()];
+            BitSet fresh = new BitSet(properties.size());
+            BitSet shared = new BitSet(properties.size());
+            readDefaults(lookup, properties, defaults, defaultValues, fresh, shared);
+
+            Class<?> instanceClass = define(lookup, type.getName() + INSTANCE_SUFFIX,
+                () -> this.generateInstance(type, properties, validation, indexes, lazy, fresh, helpers, finalStateName));
+            define(lookup, type.getName() + RAW_SUFFIX,
+                () -> this.generateRaw(type, properties, validation, indexes, lazy, helpers, finalStateName));
+            MethodHandle constructor;
+            if (concurrent) {
+                constructor = lookup.findConstructor(instanceClass, MethodType.methodType(void.class, type, ConfigValidation.class,
+                    ConfigIndexes.class, Object[].class, ImmutableValues.class));
+                constructor = MethodHandles.insertArguments(constructor, 4, new ImmutableValues(properties));
+            }
+            else {
+                constructor = lookup.findConstructor(instanceClass, MethodType.methodType(void.class, type, ConfigValidation.class,
+                    ConfigIndexes.class, Object[].class));
+            }
+            return new ConfigImplementation<>(instanceClass.asSubclass(type), constructor, defaults, defaultValues, shared, validation, indexes,
+                lazy);
+        }
+        catch (ConfigException e) {
+            throw e;
+        }
+        catch (Throwable e) {
+            throw new ConfigException("Can't generate implementation of " + type.getName(), e);
+        }
+    }
+
+    /**
+     * Reads default value of each property from defaults instance.
+     *
+     * @param defaultValues array filled with default values of properties, primitives are boxed.
+     * @param fresh set filled with indices of properties which default methods create new mutable value on each call, so each config
+     * instance needs own copy.
+     * @param shared set filled with indices of properties which loaded values can be replaced by equal default value, default value
+     * must be immutable.
+     */
+    private static void readDefaults(MethodHandles.Lookup lookup, List<ConfigPropertyTemplate> properties, Object defaults,
+                                     Object[] defaultValues, BitSet fresh, BitSet shared) throws Throwable {
+        for (ConfigPropertyTemplate property : properties) {
+            MethodHandle getter = lookup.unreflect(property.getGetter());
+            Object value = getter.invoke(defaults);
+            defaultValues[property.getIndex()] = value;
+            if ((value == null) || property.getRawType().isPrimitive()) {
+                continue;
+            }
+            if (isImmutable(value)) {
+                shared.set(property.getIndex());
+            }
+            else if (getter.invoke(defaults) != value) {
+                fresh.set(property.getIndex());
+            }
+        }
+    }
+
+    private static boolean isImmutable(Object value) {
+        return (value instanceof String) || (value instanceof Boolean) || (value instanceof Character) || (value instanceof Integer) ||
+               (value instanceof Long) || (value instanceof Double) || (value instanceof Float) || (value instanceof Short) ||
+               (value instanceof Byte) || (value instanceof BigInteger) || (value instanceof BigDecimal) || (value instanceof Enum) ||
+               (value instanceof Class) || (value instanceof UUID) || value.getClass().getPackageName().equals("java.time") ||
+               value.getClass().getName().startsWith("java.util.ImmutableCollections$"); // List.of, Set.of and Map.of
+    }
+
+    private static Class<?> define(MethodHandles.Lookup lookup, String name, ClassBytesSupplier bytes) throws IllegalAccessException {
+        try {
+            return lookup.findClass(name); // already generated by other manager
+        }
+        catch (ClassNotFoundException e) {
+            try {
+                return lookup.defineClass(bytes.get());
+            }
+            catch (LinkageError error) {
+                // other manager defined same class concurrently
+                try {
+                    return lookup.findClass(name);
+                }
+                catch (ClassNotFoundException notFound) {
+                    throw error;
+                }
+            }
+        }
+    }
+
+    /**
+     * @param fresh indices of properties which default values must be created for each instance.
+     * @param stateName name of generated state class of concurrent config, or null if properties are stored in fields of instance.
+     */
+    private byte[] generateInstance(Class<?> type, List<ConfigPropertyTemplate> properties, ConfigValidation validation,
+                                    ConfigIndexes indexes, BitSet lazy, BitSet fresh, List<Method> helpers, @Nullable String stateName) {
+        String typeName = Type.getInternalName(type);
+        String name = typeName + INSTANCE_SUFFIX;
+        String rawName = typeName + RAW_SUFFIX;
+        String typeDesc = Type.getDescriptor(type);
+        ClassWriter cw = newClass(type, name, ACC_PUBLIC | ACC_FINAL, ACCESS);
+
+        cw.visitField(ACC_FINAL, DEFAULTS_FIELD, typeDesc, null, null).visitEnd();
+        cw.visitField(ACC_FINAL, VALIDATION_FIELD, VALIDATION_DESC, null, null).visitEnd();
+        cw.visitField(ACC_FINAL, RAW_FIELD, "L" + rawName + ";", null, null).visitEnd();
+        cw.visitField(ACC_FINAL, DIRTY_FIELD, DIRTY_DESC, null, null).visitEnd();
+        cw.visitField(0, DOCUMENT_FIELD, DOCUMENT_DESC, null, null).visitEnd();
+        if (! indexes.isEmpty()) {
+            cw.visitField(ACC_FINAL, INDEXES_FIELD, "[" + INDEX_DESC, null, null).visitEnd();
+        }
+        if (! lazy.isEmpty()) {
+            cw.visitField(ACC_FINAL, LAZY_FIELD, LAZY_DESC, null, null).visitEnd();
+        }
+        if (! helpers.isEmpty()) {
+            cw.visitField(ACC_FINAL, HELPERS_FIELD, HELPERS_DESC, null, null).visitEnd();
+        }
+        if (stateName != null) {
+            cw.visitField(ACC_FINAL, STATE_FIELD, STATE_REFERENCE_DESC, null, null).visitEnd();
+        }
+        else {
+            for (ConfigPropertyTemplate property : properties) {
+                cw.visitField(0, fieldName(property), Type.getDescriptor(property.getRawType()), null, null).visitEnd();
+            }
+        }
+
+        // concurrent configs get copier of values for their state reference as last argument
+        String valuesDesc = (stateName == null) ? "" : VALUES_DESC;
+        MethodVisitor mv = cw.visitMethod(ACC_PUBLIC, "<init>", "(" + typeDesc + VALIDATION_DESC + INDEXES_DESC + DEFAULT_VALUES_DESC + valuesDesc +
+                                                                ")V", null, null);
+        mv.visitCode();
+        invokeSuperConstructor(mv, type);
+        mv.visitVarInsn(ALOAD, 0);
+        mv.visitVarInsn(ALOAD, 1);
+        mv.visitFieldInsn(PUTFIELD, name, DEFAULTS_FIELD, typeDesc);
+        mv.visitVarInsn(ALOAD, 0);
+        mv.visitVarInsn(ALOAD, 2);
+        mv.visitFieldInsn(PUTFIELD, name, VALIDATION_FIELD, VALIDATION_DESC);
+        mv.visitVarInsn(ALOAD, 0);
+        mv.visitTypeInsn(NEW, rawName);
+        mv.visitInsn(DUP);
+        mv.visitVarInsn(ALOAD, 0);
+        mv.visitMethodInsn(INVOKESPECIAL, rawName, "<init>", "(L" + name + ";)V", false);
+        mv.visitFieldInsn(PUTFIELD, name, RAW_FIELD, "L" + rawName + ";");
+        mv.visitVarInsn(ALOAD, 0);
+        mv.visitTypeInsn(NEW, "java/util/BitSet");
+        mv.visitInsn(DUP);
+        mv.visitLdcInsn(properties.size());
+        mv.visitMethodInsn(INVOKESPECIAL, "java/util/BitSet", "<init>", "(I)V", false);
+        mv.visitFieldInsn(PUTFIELD, name, DIRTY_FIELD, DIRTY_DESC);
+        if (stateName != null) {
+            mv.visitTypeInsn(NEW, stateName);
+            mv.visitInsn(DUP);
+            mv.visitMethodInsn(INVOKESPECIAL, stateName, "<init>", "()V", false);
+            mv.visitVarInsn(ASTORE, 6);
+        }
+        for (ConfigPropertyTemplate property : properties) {
+            mv.visitVarInsn(ALOAD, (stateName == null) ? 0 : 6);
+            if (fresh.get(property.getIndex())) {
+                mv.visitVarInsn(ALOAD, 1); // each instance gets own mutable value before it is published
+                invoke(mv, type, property.getGetter());
+            }
+            else {
+                mv.visitVarInsn(ALOAD, 4);
+                mv.visitLdcInsn(property.getIndex());
+                mv.visitInsn(AALOAD);
+                unbox(mv, Type.getType(property.getRawType()));
+            }
+            mv.visitFieldInsn(PUTFIELD, (stateName == null) ? name : stateName, fieldName(property), Type.getDescriptor(property.getRawType()));
+        }
+        if (! helpers.isEmpty()) {
+            mv.visitVarInsn(ALOAD, 0);
+            mv.visitTypeInsn(NEW, HELPERS);
+            mv.visitInsn(DUP);
+            mv.visitLdcInsn(helpers.size());
+            mv.visitMethodInsn(INVOKESPECIAL, HELPERS, "<init>", "(I)V", false);
+            mv.visitFieldInsn(PUTFIELD, name, HELPERS_FIELD, HELPERS_DESC);
+        }
+        if (stateName != null) {
+            mv.visitVarInsn(ALOAD, 0);
+            mv.visitTypeInsn(NEW, STATE_REFERENCE);
+            mv.visitInsn(DUP);
+            mv.visitVarInsn(ALOAD, 6);
+            mv.visitVarInsn(ALOAD, 0);
+            mv.visitFieldInsn(GETFIELD, name, DIRTY_FIELD, DIRTY_DESC);
+            if (helpers.isEmpty()) {
+                mv.visitInsn(ACONST_NULL);
+            }
+            else {
+                mv.visitVarInsn(ALOAD, 0);
+                mv.visitFieldInsn(GETFIELD, name, HELPERS_FIELD, HELPERS_DESC);
+            }
+            mv.visitVarInsn(ALOAD, 5);
+            mv.visitMethodInsn(INVOKESPECIAL, STATE_REFERENCE, "<init>", "(" + STATE_DESC + DIRTY_DESC + HELPERS_DESC + VALUES_DESC + ")V", false);
+            mv.visitFieldInsn(PUTFIELD, name, STATE_FIELD, STATE_REFERENCE_DESC);
+        }
+        if (! lazy.isEmpty()) {
+            mv.visitVarInsn(ALOAD, 0);
+            mv.visitTypeInsn(NEW, LAZY);
+            mv.visitInsn(DUP);
+            mv.visitVarInsn(ALOAD, 0);
+            mv.visitVarInsn(ALOAD, 2);
+            mv.visitLdcInsn(properties.size());
+            mv.visitMethodInsn(INVOKESPECIAL, LAZY, "<init>", "(" + Type.getDescriptor(Config.class) + VALIDATION_DESC + "I)V", false);
+            mv.visitFieldInsn(PUTFIELD, name, LAZY_FIELD, LAZY_DESC);
+        }
+        if (! indexes.isEmpty()) {
+            mv.visitVarInsn(ALOAD, 0);
+            mv.visitVarInsn(ALOAD, 3);
+            mv.visitVarInsn(ALOAD, 0);
+            mv.visitMethodInsn(INVOKEVIRTUAL, INDEXES, "create", "(" + Type.getDescriptor(Config.class) + ")[" + INDEX_DESC, false);
+            mv.visitFieldInsn(PUTFIELD, name, INDEXES_FIELD, "[" + INDEX_DESC);
+        }
+        mv.visitInsn(RETURN);
+        mv.visitMaxs(0, 0);
+        mv.visitEnd();
+
+        for (ConfigPropertyTemplate property : properties) {
+            mv = override(cw, property.getGetter());
+            callLazy(mv, lazy, property, name, null, "resolve");
+            callHelpers(mv, helpers, property, name, null, "read");
+            mv.visitVarInsn(ALOAD, 0);
+            getValue(mv, property, name, stateName);
+            mv.visitInsn(Type.getType(property.getRawType()).getOpcode(IRETURN));
+            end(mv);
+
+            Method setter = property.getSetter();
+            if ((setter != null) && Modifier.isAbstract(setter.getModifiers())) {
+                mv = override(cw, setter);
+                setValue(mv, validation, property, name, null, stateName);
+                callLazy(mv, lazy, property, name, null, "discard");
+                invalidateIndex(mv, indexes, property, name, null);
+                if (stateName == null) {
+                    callHelpers(mv, helpers, property, name, null, "invalidate");
+                }
+                returnFromSetter(mv, setter);
+                end(mv);
+            }
+        }
+
+        for (Method method : configMethods(type, "defaults")) {
+            mv = override(cw, method);
+            mv.visitVarInsn(ALOAD, 0);
+            mv.visitFieldInsn(GETFIELD, name, DEFAULTS_FIELD, typeDesc);
+            mv.visitInsn(ARETURN);
+            end(mv);
+        }
+        for (Method method : configMethods(type, "config")) {
+            mv = override(cw, method);
+            mv.visitVarInsn(ALOAD, 0);
+            mv.visitFieldInsn(GETFIELD, name, RAW_FIELD, "L" + rawName + ";");
+            mv.visitInsn(ARETURN);
+            end(mv);
+        }
+        for (int i = 0; i < helpers.size(); i++) {
+            generateCachedHelper(cw, type, name, helpers.get(i), i);
+        }
+
+        generatePropertyAccess(cw, name, properties, lazy, ! helpers.isEmpty(), stateName);
+        generateIndexGetter(cw, name, indexes);
+        generateLazyGetter(cw, name, lazy);
+        cw.visitEnd();
+        return cw.toByteArray();
+    }
+
+    private byte[] generateRaw(Class<?> type, List<ConfigPropertyTemplate> properties, ConfigValidation validation, ConfigIndexes indexes,
+                               BitSet lazy, List<Method> helpers, @Nullable String stateName) {
+        String typeName = Type.getInternalName(type);
+        String name = typeName + RAW_SUFFIX;
+        String ownerName = typeName + INSTANCE_SUFFIX;
+        String ownerDesc = "L" + ownerName + ";";
+        ClassWriter cw = newClass(type, name, ACC_FINAL);
+
+        cw.visitField(ACC_FINAL, OWNER_FIELD, ownerDesc, null, null).visitEnd();
+
+        MethodVisitor mv = cw.visitMethod(0, "<init>", "(" + ownerDesc + ")V", null, null);
+        mv.visitCode();
+        invokeSuperConstructor(mv, type);
+        mv.visitVarInsn(ALOAD, 0);
+        mv.visitVarInsn(ALOAD, 1);
+        mv.visitFieldInsn(PUTFIELD, name, OWNER_FIELD, ownerDesc);
+        mv.visitInsn(RETURN);
+        end(mv);
+
+        for (ConfigPropertyTemplate property : properties) {
+            mv = override(cw, property.getGetter());
+            callLazy(mv, lazy, property, name, ownerName, "resolve");
+            callHelpers(mv, helpers, property, name, ownerName, "read");
+            mv.visitVarInsn(ALOAD, 0);
+            mv.visitFieldInsn(GETFIELD, name, OWNER_FIELD, ownerDesc);
+            getValue(mv, property, ownerName, stateName);
+            mv.visitInsn(Type.getType(property.getRawType()).getOpcode(IRETURN));
+            end(mv);
+
+            Method setter = property.getSetter();
+            if (setter != null) {
+                mv = override(cw, setter);
+                setValue(mv, validation, property, name, ownerName, stateName);
+                callLazy(mv, lazy, property, name, ownerName, "discard");
+                invalidateIndex(mv, indexes, property, name, ownerName);
+                if (stateName == null) {
+                    callHelpers(mv, helpers, property, name, ownerName, "invalidate");
+                }
+                returnFromSetter(mv, setter);
+                end(mv);
+            }
+        }
+
+        for (Method method : configMethods(type, "defaults")) {
+            mv = override(cw, method);
+            mv.visitVarInsn(ALOAD, 0);
+            mv.visitFieldInsn(GETFIELD, name, OWNER_FIELD, ownerDesc);
+            mv.visitFieldInsn(GETFIELD, ownerName, DEFAULTS_FIELD, Type.getDescriptor(type));
+            mv.visitInsn(ARETURN);
+            end(mv);
+        }
+        for (Method method : configMethods(type, "config")) {
+            mv = override(cw, method);
+            mv.visitVarInsn(ALOAD, 0);
+            mv.visitInsn(ARETURN);
+            end(mv);
+        }
+        for (Method helper : helpers) {
+            mv = override(cw, helper);
+            mv.visitVarInsn(ALOAD, 0);
+            mv.visitFieldInsn(GETFIELD, name, OWNER_FIELD, ownerDesc);
+            mv.visitMethodInsn(INVOKEVIRTUAL, ownerName, helper.getName(), Type.getMethodDescriptor(helper), false);
+            mv.visitInsn(Type.getReturnType(helper).getOpcode(IRETURN));
+            end(mv);
+        }
+        cw.visitEnd();
+        return cw.toByteArray();
+    }
+
+    private byte[] generateDefaults(Class<?> type, List<ConfigPropertyTemplate> properties) {
+        String name = Type.getInternalName(type) + DEFAULTS_SUFFIX;
+        ClassWriter cw = newClass(type, name, ACC_FINAL);
+
+        MethodVisitor mv = cw.visitMethod(0, "<init>", "()V", null, null);
+        mv.visitCode();
+        invokeSuperConstructor(mv, type);
+        mv.visitInsn(RETURN);
+        end(mv);
+
+        for (ConfigPropertyTemplate property : properties) {
+            if (Modifier.isAbstract(property.getGetter().getModifiers())) {
+                mv = override(cw, property.getGetter());
+                pushZero(mv, Type.getType(property.getRawType()));
+                mv.visitInsn(Type.getType(property.getRawType()).getOpcode(IRETURN));
+                end(mv);
+            }
+            Method setter = property.getSetter();
+            if (setter != null) {
+                mv = override(cw, setter);
+                mv.visitTypeInsn(NEW, "java/lang/UnsupportedOperationException");
+                mv.visitInsn(DUP);
+                mv.visitLdcInsn("Default values of config can't be changed.");
+                mv.visitMethodInsn(INVOKESPECIAL, "java/lang/UnsupportedOperationException", "<init>", "(Ljava/lang/String;)V", false);
+                mv.visitInsn(ATHROW);
+                end(mv);
+            }
+        }
+
+        for (Method method : configMethods(type, "defaults", "config")) {
+            mv = override(cw, method);
+            mv.visitVarInsn(ALOAD, 0);
+            mv.visitInsn(ARETURN);
+            end(mv);
+        }
+        cw.visitEnd();
+        return cw.toByteArray();
+    }
+
+    private byte[] generateState(Class<?> type, List<ConfigPropertyTemplate> properties) {
+        String name = Type.getInternalName(type) + STATE_SUFFIX;
+        ClassWriter cw = newClassWriter();
+        cw.visit(V10, ACC_FINAL | ACC_SUPER | ACC_SYNTHETIC, name, null, STATE, null);
+
+        for (ConfigPropertyTemplate property : properties) {
+            cw.visitField(0, fieldName(property), Type.getDescriptor(property.getRawType()), null, null).visitEnd();
+        }
+
+        MethodVisitor mv = cw.visitMethod(0, "<init>", "()V", null, null);
+        mv.visitCode();
+        mv.visitVarInsn(ALOAD, 0);
+        mv.visitMethodInsn(INVOKESPECIAL, STATE, "<init>", "()V", false);
+        mv.visitInsn(RETURN);
+        end(mv);
+
+        generateIndexAccess(cw, name, properties, new BitSet(), false, "get", "set");
+        cw.visitEnd();
+        return cw.toByteArray();
+    }
+
+    /**
+     * @param helpers true if config has cached helper methods.
+     */
+    private static void generatePropertyAccess(ClassWriter cw, String name, List<ConfigPropertyTemplate> properties, BitSet lazy,
+                                               boolean helpers, @Nullable String stateName) {
+        MethodVisitor mv;
+        if (stateName == null) {
+            generateIndexAccess(cw, name, properties, lazy, helpers, "getProperty", "setProperty");
+        }
+        else {
+            mv = cw.visitMethod(ACC_PUBLIC, "getProperty", "(I)Ljava/lang/Object;", null, null);
+            mv.visitCode();
+            mv.visitVarInsn(ALOAD, 0);
+            mv.visitFieldInsn(GETFIELD, name, STATE_FIELD, STATE_REFERENCE_DESC);
+            mv.visitVarInsn(ILOAD, 1);
+            mv.visitMethodInsn(INVOKEVIRTUAL, STATE_REFERENCE, "getProperty", "(I)Ljava/lang/Object;", false);
+            mv.visitInsn(ARETURN);
+            end(mv);
+
+            mv = cw.visitMethod(ACC_PUBLIC, "setProperty", "(ILjava/lang/Object;)V", null, null);
+            mv.visitCode();
+            mv.visitVarInsn(ALOAD, 0);
+            mv.visitFieldInsn(GETFIELD, name, STATE_FIELD, STATE_REFERENCE_DESC);
+            mv.visitVarInsn(ILOAD, 1);
+            mv.visitVarInsn(ALOAD, 2);
+            mv.visitInsn(ICONST_0);
+            mv.visitMethodInsn(INVOKEVIRTUAL, STATE_REFERENCE, "set", "(ILjava/lang/Object;Z)V", false);
+            mv.visitInsn(RETURN);
+            end(mv);
+        }
+
+        mv = cw.visitMethod(ACC_PUBLIC, "getStateReference", "()" + STATE_REFERENCE_DESC, null, null);
+        mv.visitCode();
+        if (stateName == null) {
+            mv.visitInsn(ACONST_NULL);
+        }
+        else {
+            mv.visitVarInsn(ALOAD, 0);
+            mv.visitFieldInsn(GETFIELD, name, STATE_FIELD, STATE_REFERENCE_DESC);
+        }
+        mv.visitInsn(ARETURN);
+        end(mv);
+
+        mv = cw.visitMethod(ACC_PUBLIC, "getDirtyProperties", "()" + DIRTY_DESC, null, null);
+        mv.visitCode();
+        mv.visitVarInsn(ALOAD, 0);
+        mv.visitFieldInsn(GETFIELD, name, DIRTY_FIELD, DIRTY_DESC);
+        mv.visitInsn(ARETURN);
+        end(mv);
+
+        mv = cw.visitMethod(ACC_PUBLIC, "getDocument", "()" + DOCUMENT_DESC, null, null);
+        mv.visitCode();
+        mv.visitVarInsn(ALOAD, 0);
+        mv.visitFieldInsn(GETFIELD, name, DOCUMENT_FIELD, DOCUMENT_DESC);
+        mv.visitInsn(ARETURN);
+        end(mv);
+
+        mv = cw.visitMethod(ACC_PUBLIC, "setDocument", "(" + DOCUMENT_DESC + ")V", null, null);
+        mv.visitCode();
+        mv.visitVarInsn(ALOAD, 0);
+        mv.visitVarInsn(ALOAD, 1);
+        mv.visitFieldInsn(PUTFIELD, name, DOCUMENT_FIELD, DOCUMENT_DESC);
+        mv.visitInsn(RETURN);
+        end(mv);
+    }
+
+    /**
+     * Generates methods getting and setting fields of properties by index, values are boxed. Getter reads stored values of lazy
+     * properties, setter discards them and invalidates cached helper methods depending on property.
+     *
+     * @param helpers true if generated class has field with {@link HelperCache}.
+     */
+    private static void generateIndexAccess(ClassWriter cw, String name, List<ConfigPropertyTemplate> properties, BitSet lazy,
+                                            boolean helpers, String getName, String setName) {
+        int size = properties.size();
+        Label[] labels = new Label[size];
+        for (int i = 0; i < size; i++) {
+            labels[i] = new Label();
+        }
+
+        MethodVisitor mv = cw.visitMethod(ACC_PUBLIC, getName, "(I)Ljava/lang/Object;", null, null);
+        mv.visitCode();
+        Label invalid = new Label();
+        switchOnIndex(mv, invalid, labels);
+        for (ConfigPropertyTemplate property : properties) {
+            mv.visitLabel(labels[property.getIndex()]);
+            callLazy(mv, lazy, property, name, null, "resolve");
+            mv.visitVarInsn(ALOAD, 0);
+            mv.visitFieldInsn(GETFIELD, name, fieldName(property), Type.getDescriptor(property.getRawType()));
+            box(mv, Type.getType(property.getRawType()));
+            mv.visitInsn(ARETURN);
+        }
+        mv.visitLabel(invalid);
+        throwInvalidIndex(mv);
+        end(mv);
+
+        for (int i = 0; i < size; i++) {
+            labels[i] = new Label();
+        }
+        mv = cw.visitMethod(ACC_PUBLIC, setName, "(ILjava/lang/Object;)V", null, null);
+        mv.visitCode();
+        invalid = new Label();
+        switchOnIndex(mv, invalid, labels);
+        for (ConfigPropertyTemplate property : properties) {
+            mv.visitLabel(labels[property.getIndex()]);
+            mv.visitVarInsn(ALOAD, 0);
+            mv.visitVarInsn(ALOAD, 2);
+            unbox(mv, Type.getType(property.getRawType()));
+            mv.visitFieldInsn(PUTFIELD, name, fieldName(property), Type.getDescriptor(property.getRawType()));
+            callLazy(mv, lazy, property, name, null, "discard");
+            if (helpers) {
+                mv.visitVarInsn(ALOAD, 0);
+                mv.visitFieldInsn(GETFIELD, name, HELPERS_FIELD, HELPERS_DESC);
+                mv.visitLdcInsn(property.getIndex());
+                mv.visitMethodInsn(INVOKEVIRTUAL, HELPERS, "invalidate", "(I)V", false);
+            }
+            mv.visitInsn(RETURN);
+        }
+        mv.visitLabel(invalid);
+        throwInvalidIndex(mv);
+        end(mv);
+    }
+
+    /**
+     * Replaces config instance on top of stack by value of property, read from published state of concurrent config.
+     *
+     * @param instanceName name of config instance class.
+     * @param stateName name of state class of concurrent config, or null if values are fields of config instance.
+     */
+    private static void getValue(MethodVisitor mv, ConfigPropertyTemplate property, String instanceName, @Nullable String stateName) {
+        String desc = Type.getDescriptor(property.getRawType());
+        if (stateName == null) {
+            mv.visitFieldInsn(GETFIELD, instanceName, fieldName(property), desc);
+            return;
+        }
+        mv.visitFieldInsn(GETFIELD, instanceName, STATE_FIELD, STATE_REFERENCE_DESC);
+        mv.visitMethodInsn(INVOKEVIRTUAL, STATE_REFERENCE, "get", "()" + STATE_DESC, false);
+        mv.visitTypeInsn(CHECKCAST, stateName);
+        mv.visitFieldInsn(GETFIELD, stateName, fieldName(property), desc);
+    }
+
+    /**
+     * Stores validated value of setter argument and marks property as dirty, values of concurrent configs are stored by publishing
+     * changed copy of state.
+     *
+     * @param name name of generated class.
+     * @param ownerName name of config instance class if generated class is a raw view, null if it is config instance itself.
+     * @param stateName name of state class of concurrent config, or null if values are fields of config instance.
+     */
+    private static void setValue(MethodVisitor mv, ConfigValidation validation, ConfigPropertyTemplate property, String name,
+                                 @Nullable String ownerName, @Nullable String stateName) {
+        String instanceName = (ownerName == null) ? name : ownerName;
+        loadInstance(mv, name, ownerName);
+        if (stateName == null) {
+            loadValidated(mv, validation, property, name, ownerName);
+            mv.visitFieldInsn(PUTFIELD, instanceName, fieldName(property), Type.getDescriptor(property.getRawType()));
+            markDirty(mv, property, name, ownerName);
+            return;
+        }
+        mv.visitFieldInsn(GETFIELD, instanceName, STATE_FIELD, STATE_REFERENCE_DESC);
+        mv.visitLdcInsn(property.getIndex());
+        loadValidated(mv, validation, property, name, ownerName);
+        box(mv, Type.getType(property.getRawType()));
+        mv.visitInsn(ICONST_1);
+        mv.visitMethodInsn(INVOKEVIRTUAL, STATE_REFERENCE, "set", "(ILjava/lang/Object;Z)V", false);
+    }
+
+    /**
+     * Generates {@link ConfigPropertyAccess#getIndex(int)}, returning element of indices array or null if config has no indexed properties.
+     */
+    private static void generateIndexGetter(ClassWriter cw, String name, ConfigIndexes indexes) {
+        MethodVisitor mv = cw.visitMethod(ACC_PUBLIC, "getIndex", "(I)" + INDEX_DESC, null, null);
+        mv.visitCode();
+        if (indexes.isEmpty()) {
+            mv.visitInsn(ACONST_NULL);
+        }
+        else {
+            mv.visitVarInsn(ALOAD, 0);
+            mv.visitFieldInsn(GETFIELD, name, INDEXES_FIELD, "[" + INDEX_DESC);
+            mv.visitVarInsn(ILOAD, 1);
+            mv.visitInsn(AALOAD);
+        }
+        mv.visitInsn(ARETURN);
+        end(mv);
+    }
+
+    /**
+     * Generates {@link ConfigPropertyAccess#getLazyProperties()}, returning null if config has no lazy properties.
+     */
+    private static void generateLazyGetter(ClassWriter cw, String name, BitSet lazy) {
+        MethodVisitor mv = cw.visitMethod(ACC_PUBLIC, "getLazyProperties", "()" + LAZY_DESC, null, null);
+        mv.visitCode();
+        if (lazy.isEmpty()) {
+            mv.visitInsn(ACONST_NULL);
+        }
+        else {
+            mv.visitVarInsn(ALOAD, 0);
+            mv.visitFieldInsn(GETFIELD, name, LAZY_FIELD, LAZY_DESC);
+        }
+        mv.visitInsn(ARETURN);
+        end(mv);
+    }
+
+    /**
+     * Calls given method of {@link LazyProperties} with index of property, if property is lazy.
+     *
+     * @param name name of generated class.
+     * @param ownerName name of config instance class if generated class is a raw view, null if it is config instance itself.
+     * @param method {@code resolve} or {@code discard}.
+     */
+    private static void callLazy(MethodVisitor mv, BitSet lazy, ConfigPropertyTemplate property, String name, @Nullable String ownerName,
+                                 String method) {
+        if (! lazy.get(property.getIndex())) {
+            return;
+        }
+        loadInstance(mv, name, ownerName);
+        mv.visitFieldInsn(GETFIELD, (ownerName == null) ? name : ownerName, LAZY_FIELD, LAZY_DESC);
+        mv.visitLdcInsn(property.getIndex());
+        mv.visitMethodInsn(INVOKEVIRTUAL, LAZY, method, "(I)V", false);
+    }
+
+    /**
+     * Calls given method of {@link HelperCache} with index of property, if config has cached helper methods.
+     *
+     * @param name name of generated class.
+     * @param ownerName name of config instance class if generated class is a raw view, null if it is config instance itself.
+     * @param method {@code read} or {@code invalidate}.
+     */
+    private static void callHelpers(MethodVisitor mv, List<Method> helpers, ConfigPropertyTemplate property, String name,
+                                    @Nullable String ownerName, String method) {
+        if (helpers.isEmpty()) {
+            return;
+        }
+        loadInstance(mv, name, ownerName);
+        mv.visitFieldInsn(GETFIELD, (ownerName == null) ? name : ownerName, HELPERS_FIELD, HELPERS_DESC);
+        mv.visitLdcInsn(property.getIndex());
+        mv.visitMethodInsn(INVOKEVIRTUAL, HELPERS, method, "(I)V", false);
+    }
+
+    /**
+     * Generates override of cached helper method, returning value cached in {@link HelperCache} or calling implementation of config
+     * type while properties read by it are recorded.
+     *
+     * @param index index of helper method.
+     */
+    private static void generateCachedHelper(ClassWriter cw, Class<?> type, String name, Method helper, int index) {
+        Type returnType = Type.getReturnType(helper);
+        Label compute = new Label();
+        Label start = new Label();
+        Label end = new Label();
+        Label failed = new Label();
+        MethodVisitor mv = override(cw, helper);
+        mv.visitTryCatchBlock(start, end, failed, null);
+        mv.visitVarInsn(ALOAD, 0);
+        mv.visitFieldInsn(GETFIELD, name, HELPERS_FIELD, HELPERS_DESC);
+        mv.visitLdcInsn(index);
+        mv.visitMethodInsn(INVOKEVIRTUAL, HELPERS, "get", "(I)Ljava/lang/Object;", false);
+        mv.visitVarInsn(ASTORE, 1);
+        mv.visitVarInsn(ALOAD, 1);
+        mv.visitFieldInsn(GETSTATIC, HELPERS, "MISSING", "Ljava/lang/Object;");
+        mv.visitJumpInsn(IF_ACMPEQ, compute);
+        mv.visitVarInsn(ALOAD, 1);
+        unbox(mv, returnType);
+        mv.visitInsn(returnType.getOpcode(IRETURN));
+
+        mv.visitLabel(compute);
+        mv.visitVarInsn(ALOAD, 0);
+        mv.visitFieldInsn(GETFIELD, name, HELPERS_FIELD, HELPERS_DESC);
+        mv.visitLdcInsn(index);
+        mv.visitMethodInsn(INVOKEVIRTUAL, HELPERS, "start", "(I)" + RECORDING_DESC, false);
+        mv.visitVarInsn(ASTORE, 2);
+        mv.visitLabel(start);
+        mv.visitVarInsn(ALOAD, 0);
+        mv.visitMethodInsn(INVOKESPECIAL, Type.getInternalName(type), helper.getName(), Type.getMethodDescriptor(helper),
+            type.isInterface());
+        box(mv, returnType);
+        mv.visitVarInsn(ASTORE, 1);
+        mv.visitLabel(end);
+        mv.visitVarInsn(ALOAD, 0);
+        mv.visitFieldInsn(GETFIELD, name, HELPERS_FIELD, HELPERS_DESC);
+        mv.visitVarInsn(ALOAD, 2);
+        mv.visitVarInsn(ALOAD, 1);
+        mv.visitMethodInsn(INVOKEVIRTUAL, HELPERS, "finish", "(" + RECORDING_DESC + "Ljava/lang/Object;)Ljava/lang/Object;", false);
+        unbox(mv, returnType);
+        mv.visitInsn(returnType.getOpcode(IRETURN));
+
+        mv.visitLabel(failed);
+        mv.visitVarInsn(ASTORE, 3);
+        mv.visitVarInsn(ALOAD, 0);
+        mv.visitFieldInsn(GETFIELD, name, HELPERS_FIELD, HELPERS_DESC);
+        mv.visitVarInsn(ALOAD, 2);
+        mv.visitMethodInsn(INVOKEVIRTUAL, HELPERS, "cancel", "(" + RECORDING_DESC + ")V", false);
+        mv.visitVarInsn(ALOAD, 3);
+        mv.visitInsn(ATHROW);
+        end(mv);
+    }
+
+    /**
+     * Marks {@link AsMapIndex} of property as changed, if property is indexed.
+     *
+     * @param name name of generated class.
+     * @param ownerName name of config instance class if generated class is a raw view, null if it is config instance itself.
+     */
+    private static void invalidateIndex(MethodVisitor mv, ConfigIndexes indexes, ConfigPropertyTemplate property, String name,
+                                        @Nullable String ownerName) {
+        if (! indexes.isIndexed(property.getIndex())) {
+            return;
+        }
+        loadInstance(mv, name, ownerName);
+        mv.visitFieldInsn(GETFIELD, (ownerName == null) ? name : ownerName, INDEXES_FIELD, "[" + INDEX_DESC);
+        mv.visitLdcInsn(property.getIndex());
+        mv.visitInsn(AALOAD);
+        mv.visitMethodInsn(INVOKEVIRTUAL, INDEX, "invalidate", "()V", false);
+    }
+
+    /**
+     * Marks property as changed in dirty set of config instance.
+     *
+     * @param name name of generated class.
+     * @param ownerName name of config instance class if generated class is a raw view, null if it is config instance itself.
+     */
+    private static void markDirty(MethodVisitor mv, ConfigPropertyTemplate property, String name, @Nullable String ownerName) {
+        loadInstance(mv, name, ownerName);
+        mv.visitFieldInsn(GETFIELD, (ownerName == null) ? name : ownerName, DIRTY_FIELD, DIRTY_DESC);
+        mv.visitLdcInsn(property.getIndex());
+        mv.visitMethodInsn(INVOKEVIRTUAL, "java/util/BitSet", "set", "(I)V", false);
+    }
+
+    /**
+     * Pushes value of setter argument, passed through {@link ConfigValidation} if property has any validators.
+     *
+     * @param name name of generated class.
+     * @param ownerName name of config instance class if generated class is a raw view, null if it is config instance itself.
+     */
+    private static void loadValidated(MethodVisitor mv, ConfigValidation validation, ConfigPropertyTemplate property, String name,
+                                      @Nullable String ownerName) {
+        Type type = Type.getType(property.getRawType());
+        if (! validation.hasValidators(property.getIndex())) {
+            mv.visitVarInsn(type.getOpcode(ILOAD), 1);
+            return;
+        }
+        loadInstance(mv, name, ownerName);
+        mv.visitFieldInsn(GETFIELD, (ownerName == null) ? name : ownerName, VALIDATION_FIELD, VALIDATION_DESC);
+        mv.visitLdcInsn(property.getIndex());
+        mv.visitVarInsn(type.getOpcode(ILOAD), 1);
+        box(mv, type);
+        loadInstance(mv, name, ownerName);
+        mv.visitMethodInsn(INVOKEVIRTUAL, VALIDATION, "validate", "(ILjava/lang/Object;" + Type.getDescriptor(Config.class) + ")Ljava/lang/Object;",
+            false);
+        unbox(mv, type);
+    }
+
+    private static void loadInstance(MethodVisitor mv, String name, @Nullable String ownerName) {
+        mv.visitVarInsn(ALOAD, 0);
+        if (ownerName != null) {
+            mv.visitFieldInsn(GETFIELD, name, OWNER_FIELD, "L" + ownerName + ";");
+        }
+    }
+
+    private static void switchOnIndex(MethodVisitor mv, Label invalid, Label[] labels) {
+        if (labels.length == 0) {
+            mv.visitJumpInsn(GOTO, invalid);
+            return;
+        }
+        mv.visitVarInsn(ILOAD, 1);
+        mv.visitTableSwitchInsn(0, labels.length - 1, invalid, labels);
+    }
+
+    private static ClassWriter newClassWriter() {
+        return new ClassWriter(ClassWriter.COMPUTE_FRAMES | ClassWriter.COMPUTE_MAXS) {
+            @Override
+            protected String getCommonSuperClass(String type1, String type2) {
+                return OBJECT; // generated code never merges frames of different reference types
+            }
+        };
+    }
+
+    private static ClassWriter newClass(Class<?> type, String name, int access, String... interfaces) {
+        ClassWriter cw = newClassWriter();
+        String[] allInterfaces;
+        String superName;
+        if (type.isInterface()) {
+            superName = OBJECT;
+            allInterfaces = new String[interfaces.length + 1];
+            allInterfaces[0] = Type.getInternalName(type);
+            System.arraycopy(interfaces, 0, allInterfaces, 1, interfaces.length);
+        }
+        else {
+            superName = Type.getInternalName(type);
+            allInterfaces = interfaces;
+        }
+        cw.visit(V10, access | ACC_SUPER | ACC_SYNTHETIC, name, null, superName, allInterfaces);
+        return cw;
+    }
+
+    private static void invokeSuperConstructor(MethodVisitor mv, Class<?> type) {
+        mv.visitVarInsn(ALOAD, 0);
+        mv.visitMethodInsn(INVOKESPECIAL, type.isInterface() ? OBJECT : Type.getInternalName(type), "<init>", "()V", false);
+    }
+
+    private static MethodVisitor override(ClassWriter cw, Method method) {
+        int access = Modifier.isProtected(method.getModifiers()) ? ACC_PROTECTED : ACC_PUBLIC;
+        MethodVisitor mv = cw.visitMethod(access, method.getName(), Type.getMethodDescriptor(method), null, null);
+        mv.visitCode();
+        return mv;
+    }
+
+    private static void end(MethodVisitor mv) {
+        mv.visitMaxs(0, 0);
+        mv.visitEnd();
+    }
+
+    private static void invoke(MethodVisitor mv, Class<?> type, Method method) {
+        boolean isInterface = type.isInterface();
+        mv.visitMethodInsn(isInterface ? INVOKEINTERFACE : INVOKEVIRTUAL, Type.getInternalName(type), method.getName(),
+            Type.getMethodDescriptor(method), isInterface);
+    }
+
+    private static void returnFromSetter(MethodVisitor mv, Method setter) {
+        Class<?> returnType = setter.getReturnType();
+        if (returnType == void.class) {
+            mv.visitInsn(RETURN);
+        }
+        else if (returnType.isAssignableFrom(setter.getDeclaringClass())) {
+            mv.visitVarInsn(ALOAD, 0); // fluent setter
+            mv.visitInsn(ARETURN);
+        }
+        else {
+            Type type = Type.getType(returnType);
+            pushZero(mv, type);
+            mv.visitInsn(type.getOpcode(IRETURN));
+        }
+    }
+
+    private static Iterable<Method> configMethods(Class<?> type, String... names) {
+        Map<String, Method> result = new LinkedHashMap<>(4);
+        for (Method method : type.getMethods()) {
+            if ((method.getParameterCount() != 0) || Modifier.isStatic(method.getModifiers())) {
+                continue;
+            }
+            for (String name : names) {
+                if (method.getName().equals(name)) {
+                    result.putIfAbsent(method.getName() + Type.getMethodDescriptor(method), method);
+                }
+            }
+        }
+        return result.values();
+    }
+
+    static String fieldName(ConfigPropertyTemplate property) {
+        return "p" + property.getIndex() + "_" + property.getName();
+    }
+
+    private static void pushZero(MethodVisitor mv, Type type) {
+        switch (type.getSort()) {
+            case Type.BOOLEAN:
+            case Type.CHAR:
+            case Type.BYTE:
+            case Type.SHORT:
+            case Type.INT:
+                mv.visitInsn(ICONST_0);
+                break;
+            case Type.LONG:
+                mv.visitInsn(LCONST_0);
+                break;
+            case Type.FLOAT:
+                mv.visitInsn(FCONST_0);
+                break;
+            case Type.DOUBLE:
+                mv.visitInsn(DCONST_0);
+                break;
+            default:
+                mv.visitInsn(ACONST_NULL);
+        }
+    }
+
+    private static void box(MethodVisitor mv, Type type) {
+        if (type.getSort() >= Type.ARRAY) {
+            return;
+        }
+        Type wrapper = wrapper(type);
+        mv.visitMethodInsn(INVOKESTATIC, wrapper.getInternalName(), "valueOf", Type.getMethodDescriptor(wrapper, type), false);
+    }
+
+    private static void unbox(MethodVisitor mv, Type type) {
+        if (type.getSort() >= Type.ARRAY) {
+            mv.visitTypeInsn(CHECKCAST, type.getInternalName());
+            return;
+        }
+        Type wrapper = wrapper(type);
+        mv.visitTypeInsn(CHECKCAST, wrapper.getInternalName());
+        mv.visitMethodInsn(INVOKEVIRTUAL, wrapper.getInternalName(), type.getClassName() + "Value", "()" + type.getDescriptor(), false);
+    }
+
+    private static Type wrapper(Type type) {
+        switch (type.getSort()) {
+            case Type.BOOLEAN:
+                return Type.getType(Boolean.class);
+            case Type.CHAR:
+                return Type.getType(Character.class);
+            case Type.BYTE:
+                return Type.getType(Byte.class);
+            case Type.SHORT:
+                return Type.getType(Short.class);
+            case Type.INT:
+                return Type.getType(Integer.class);
+            case Type.LONG:
+                return Type.getType(Long.class);
+            case Type.FLOAT:
+                return Type.getType(Float.class);
+            case Type.DOUBLE:
+                return Type.getType(Double.class);
+            default:
+                throw new IllegalArgumentException("Not a primitive type: " + type);
+        }
+    }
+
+    private static void throwInvalidIndex(MethodVisitor mv) {
+        mv.visitTypeInsn(NEW, "java/lang/IndexOutOfBoundsException");
+        mv.visitInsn(DUP);
+        mv.visitVarInsn(ILOAD, 1);
+        mv.visitMethodInsn(INVOKESPECIAL, "java/lang/IndexOutOfBoundsException", "<init>", "(I)V", false);
+        mv.visitInsn(ATHROW);
+    }
+
+    @FunctionalInterface
+    private interface ClassBytesSupplier {
+        byte[] get();
+    }
+}
@@ -0,0 +1,69 @@
+package org.diorite.configs.impl;
+
+import org.diorite.configs.index.AsMapIndex;
+import org.diorite.configs.yaml.LazyProperties;
+import org.diorite.configs.yaml.YamlDocument;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.BitSet;
+
+/**
+ * Implemented by generated config classes to provide index based access to property fields. <br/>
+ * Used by loaders and serializers, user code should use getters and setters of config type instead.
+ */
+public interface ConfigPropertyAccess {
+    /**
+     * @param index index of property.
+     *
+     * @return current value of property, primitives are boxed. Stored value of lazy property is read first.
+     */
+    Object getProperty(int index);
+
+    /**
+     * Sets value of property without calling any setter or validator.
+     *
+     * @param index index of property.
+     * @param value new value, primitives must be passed as their wrappers.
+     */
+    void setProperty(int index, Object value);
+
+    /**
+     * Returns live set of indices of properties changed by setters since this config was loaded or saved, changes made directly to
+     * mutable values, like collections, are not tracked and such properties must be marked manually.
+     *
+     * @return set of dirty properties.
+     */
+    BitSet getDirtyProperties();
+
+    /**
+     * @return yaml document this config was loaded from, or null if config wasn't loaded from file.
+     */
+    @Nullable
+    YamlDocument getDocument();
+
+    /**
+     * @param document yaml document this config was loaded from, used to save only changed properties.
+     */
+    void setDocument(@Nullable YamlDocument document);
+
+    /**
+     * @return reference to state of concurrent config, or null if config is not concurrent.
+     */
+    @Nullable
+    ConfigStateReference getStateReference();
+
+    /**
+     * @param index index of property.
+     *
+     * @return index of elements of {@link org.diorite.configs.annotations.AsMap} property, or null if property isn't indexed.
+     */
+    @Nullable
+    AsMapIndex<?> getIndex(int index);
+
+    /**
+     * @return values of {@link org.diorite.configs.annotations.Lazy} properties that weren't read yet, or null if config has no lazy
+     * properties.
+     */
+    @Nullable
+    LazyProperties getLazyProperties();
+}
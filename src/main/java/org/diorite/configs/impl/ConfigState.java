@@ -0,0 +1,35 @@
+package org.diorite.configs.impl;
+
+/**
+ * Base class of generated {@code Type$$ConfigState} classes, holding values of all properties of concurrent config. <br/>
+ * States are never changed after they are published by {@link ConfigStateReference}, each change is made on a copy.
+ */
+public abstract class ConfigState implements Cloneable {
+    protected ConfigState() {
+    }
+
+    /**
+     * @param index index of property.
+     *
+     * @return value of property, primitives are boxed.
+     */
+    public abstract Object get(int index);
+
+    /**
+     * @param index index of property.
+     * @param value new value, primitives must be passed as their wrappers.
+     */
+    public abstract void set(int index, Object value);
+
+    /**
+     * @return shallow copy of this state, values are shared as they are copied by {@link ImmutableValues} before they are stored.
+     */
+    final ConfigState copy() {
+        try {
+            return (ConfigState) this.clone();
+        }
+        catch (CloneNotSupportedException e) {
+            throw new AssertionError(e);
+        }
+    }
+}
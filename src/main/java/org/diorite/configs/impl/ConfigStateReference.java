@@ -0,0 +1,171 @@
+package org.diorite.configs.impl;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.util.BitSet;
+import java.util.Objects;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Holds current state of concurrent config. <br/>
+ * Getters read published state with single volatile read, without any locks, so they never block and always see values of one
+ * committed change. Writers are serialized by lock, each change copies current state, modifies the copy and publishes it. Changes
+ * made inside {@link #transaction(Runnable)} are collected in one copy that is published when transaction ends, or discarded if it
+ * fails. Cached helper methods depending on changed properties are invalidated after change is published. <br/>
+ * Values are copied by {@link ImmutableValues} before they are stored, so collections of published state can't be changed by code
+ * that set them, and readers of state never see them changing. Arrays are only cloned when they are set, getters return stored
+ * array, so readers must not modify it. <br/>
+ * Uncommitted values of transaction are visible only to {@link #getProperty(int)} called by thread running that transaction, so
+ * loaders can validate values they set. Getters of config and all other threads see last committed state until transaction ends.
+ */
+public final class ConfigStateReference {
+    private final ReentrantLock lock = new ReentrantLock();
+    private final BitSet dirty;
+    @Nullable
+    private final HelperCache helpers;
+    private final ImmutableValues values;
+    private volatile ConfigState state;
+    // state of open transaction and properties changed by it, guarded by lock
+    @Nullable
+    private ConfigState pending;
+    private final BitSet changed = new BitSet();
+
+    /**
+     * @param state initial state.
+     * @param dirty dirty properties of config, guarded by lock of this reference.
+     * @param helpers cached helper methods of config, or null if config has no cached helper methods.
+     * @param values copies values of properties, values of initial state are copied too.
+     */
+    public ConfigStateReference(ConfigState state, BitSet dirty, @Nullable HelperCache helpers, ImmutableValues values) {
+        values.copyAll(state);
+        this.state = state;
+        this.dirty = dirty;
+        this.helpers = helpers;
+        this.values = values;
+    }
+
+    /**
+     * @return last published state, also inside transaction.
+     */
+    public ConfigState get() {
+        return this.state;
+    }
+
+    /**
+     * Takes last published state together with its dirty properties in one locked step, so serializers save values and clear dirty
+     * properties of the same change.
+     *
+     * @param dirty set that receives dirty properties of returned state.
+     *
+     * @return last published state.
+     */
+    public ConfigState snapshot(BitSet dirty) {
+        this.lock.lock();
+        try {
+            dirty.or(this.dirty);
+            return this.state;
+        }
+        finally {
+            this.lock.unlock();
+        }
+    }
+
+    /**
+     * Clears dirty properties saved from given state, properties changed to different value after state was taken stay dirty.
+     *
+     * @param saved state returned by {@link #snapshot(BitSet)}.
+     * @param properties properties saved from that state.
+     */
+    public void clearDirty(ConfigState saved, BitSet properties) {
+        this.lock.lock();
+        try {
+            for (int i = properties.nextSetBit(0); i >= 0; i = properties.nextSetBit(i + 1)) {
+                if (Objects.equals(this.state.get(i), saved.get(i)) && ! this.changed.get(i)) {
+                    this.dirty.clear(i);
+                }
+            }
+        }
+        finally {
+            this.lock.unlock();
+        }
+    }
+
+    /**
+     * @param index index of property.
+     *
+     * @return value of property, including uncommitted value if current thread is running transaction of this reference. Other
+     * threads see last committed value.
+     */
+    public Object getProperty(int index) {
+        ConfigState pending = this.lock.isHeldByCurrentThread() ? this.pending : null;
+        return (pending == null) ? this.state.get(index) : pending.get(index);
+    }
+
+    /**
+     * Changes value of property, new state is published immediately or at end of transaction if current thread is inside one.
+     *
+     * @param index index of property.
+     * @param value new value, primitives must be passed as their wrappers. Mutable collections are copied.
+     * @param markDirty true if property should be marked as changed.
+     */
+    public void set(int index, Object value, boolean markDirty) {
+        Object immutable = this.values.copy(index, value);
+        this.lock.lock();
+        try {
+            if (this.pending != null) {
+                this.pending.set(index, immutable);
+                this.changed.set(index);
+            }
+            else {
+                ConfigState copy = this.state.copy();
+                copy.set(index, immutable);
+                this.state = copy;
+                if (this.helpers != null) {
+                    this.helpers.invalidate(index);
+                }
+            }
+            if (markDirty) {
+                this.dirty.set(index);
+            }
+        }
+        finally {
+            this.lock.unlock();
+        }
+    }
+
+    /**
+     * Runs given changes as single transaction, other writers wait until it ends. Nested transactions are part of outer transaction.
+     *
+     * @param changes changes to apply, if they throw an exception no change is published.
+     */
+    public void transaction(Runnable changes) {
+        this.lock.lock();
+        try {
+            if (this.pending != null) {
+                changes.run();
+                return;
+            }
+            BitSet dirty = (BitSet) this.dirty.clone();
+            this.pending = this.state.copy();
+            try {
+                changes.run();
+                this.state = this.pending;
+                if (this.helpers != null) {
+                    this.helpers.invalidate(this.changed);
+                }
+            }
+            catch (RuntimeException | Error e) {
+                this.dirty.clear();
+                this.dirty.or(dirty);
+                throw e;
+            }
+            finally {
+                this.pending = null;
+                this.changed.clear();
+            }
+        }
+        finally {
+            this.lock.unlock();
+        }
+    }
+}
@@ -0,0 +1,402 @@
+package org.diorite.configs.impl;
+
+import org.diorite.configs.AsMapTemplate;
+import org.diorite.configs.Config;
+import org.diorite.configs.ConfigDescriptor;
+import org.diorite.configs.ConfigException;
+import org.diorite.configs.ConfigPropertyTemplate;
+import org.diorite.configs.ConfigTemplate;
+import org.diorite.configs.KeyFunctionsTemplate;
+import org.diorite.configs.annotations.AsList;
+import org.diorite.configs.annotations.AsMap;
+import org.diorite.configs.annotations.ConfigClass;
+import org.diorite.configs.annotations.DeserializeKeyFunction;
+import org.diorite.configs.annotations.GenerateKeyFromObjectFunction;
+import org.diorite.configs.annotations.HelperMethod;
+import org.diorite.configs.annotations.Lazy;
+import org.diorite.configs.annotations.ScriptValidator;
+import org.diorite.configs.annotations.SerializedName;
+import org.diorite.configs.annotations.Validator;
+import org.diorite.configs.annotations.meta.Comment;
+import org.diorite.configs.annotations.meta.Footer;
+import org.diorite.configs.annotations.meta.Header;
+import org.diorite.configs.index.ConfigIndexes;
+import org.diorite.configs.metrics.Instrumentation;
+import org.diorite.configs.scripts.ScriptEngines;
+import org.diorite.configs.scripts.ScriptTemplate;
+import org.diorite.configs.scripts.ScriptValidatorTemplate;
+import org.diorite.configs.style.PropertyStyle;
+import org.diorite.configs.validation.ConfigValidation;
+import org.jetbrains.annotations.Nullable;
+import org.objectweb.asm.ClassReader;
+import org.objectweb.asm.ClassVisitor;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.Type;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Creates {@link ConfigTemplate} of config type, using {@link ConfigDescriptor} generated at build time if present, or by scanning
+ * methods and annotations of config type otherwise.
+ */
+public final class ConfigTemplateFactory {
+    private final ConfigImplementationGenerator generator = new ConfigImplementationGenerator();
+    private final ScriptEngines scriptEngines;
+    private final Instrumentation instrumentation;
+
+    public ConfigTemplateFactory(ScriptEngines scriptEngines, Instrumentation instrumentation) {
+        this.scriptEngines = scriptEngines;
+        this.instrumentation = instrumentation;
+    }
+
+    public <T extends Config<T>> ConfigTemplate<T> createTemplate(Class<T> type) {
+        if (! type.isInterface() && ! Modifier.isAbstract(type.getModifiers())) {
+            throw new ConfigException("Config type must be an interface or abstract class: " + type.getName());
+        }
+        ConfigDescriptor<T> descriptor = findDescriptor(type);
+        List<ConfigPropertyTemplate> properties;
+        List<String> header;
+        List<String> footer;
+        List<Method> helpers = null;
+        if (descriptor != null) {
+            properties = descriptor.createProperties();
+            header = descriptor.getHeader();
+            footer = descriptor.getFooter();
+            helpers = descriptor.getCachedHelpers();
+        }
+        else {
+            properties = this.scanProperties(type);
+            header = header(type);
+            footer = footer(type);
+        }
+        if (helpers == null) {
+            helpers = cachedHelpers(type); // descriptor generated before cached helpers were listed in descriptors
+        }
+        ConfigValidation validation = new ConfigValidation(type, properties, this.scriptEngines, this.instrumentation);
+        ConfigClass configClass = type.getAnnotation(ConfigClass.class);
+        boolean concurrent = (configClass != null) && configClass.concurrent();
+        ConfigIndexes indexes = new ConfigIndexes(type, properties, this.scriptEngines, this.instrumentation, concurrent);
+        BitSet lazy = concurrent ? new BitSet() : lazyProperties(properties, (configClass != null) && configClass.lazy());
+        ConfigImplementation<T> implementation = this.generator.generate(type, properties, validation, indexes, lazy, helpers,
+            concurrent);
+        return new ConfigTemplate<>(type, header, footer, properties, implementation);
+    }
+
+    /**
+     * @param all true if config type is marked as lazy.
+     *
+     * @return indices of lazy properties, primitive properties are never lazy.
+     */
+    private static BitSet lazyProperties(List<ConfigPropertyTemplate> properties, boolean all) {
+        BitSet lazy = new BitSet(properties.size());
+        for (ConfigPropertyTemplate property : properties) {
+            if (! property.getRawType().isPrimitive() && (all || property.getGetter().isAnnotationPresent(Lazy.class))) {
+                lazy.set(property.getIndex());
+            }
+        }
+        return lazy;
+    }
+
+    /**
+     * @return helper methods of config type marked as cached.
+     *
+     * @throws ConfigException if cached helper method can't be overridden or doesn't return value of parameterless call.
+     */
+    private static List<Method> cachedHelpers(Class<?> type) {
+        List<Method> helpers = new ArrayList<>(4);
+        Set<String> signatures = new HashSet<>(32);
+        for (Class<?> clazz : hierarchy(type)) {
+            for (Method method : declaredMethods(clazz)) {
+                if (Modifier.isStatic(method.getModifiers()) || method.isSynthetic() || method.isBridge() ||
+                    ! signatures.add(method.getName() + Arrays.toString(method.getParameterTypes()))) {
+                    continue;
+                }
+                HelperMethod helper = method.getAnnotation(HelperMethod.class);
+                if ((helper == null) || ! helper.cached()) {
+                    continue;
+                }
+                int modifiers = method.getModifiers();
+                if (Modifier.isAbstract(modifiers) || Modifier.isFinal(modifiers) || Modifier.isPrivate(modifiers)) {
+                    throw new ConfigException("Cached helper method " + method + " must be non-private non-final method with implementation.");
+                }
+                if ((method.getParameterCount() != 0) || (method.getReturnType() == void.class)) {
+                    throw new ConfigException("Cached helper method " + method + " must return value and can't have parameters.");
+                }
+                helpers.add(method);
+            }
+        }
+        return helpers;
+    }
+
+    @Nullable
+    @SuppressWarnings("unchecked")
+    private static <T extends Config<T>> ConfigDescriptor<T> findDescriptor(Class<T> type) {
+        Class<?> descriptorType;
+        try {
+            descriptorType = Class.forName(type.getName() + ConfigDescriptor.SUFFIX, true, type.getClassLoader());
+        }
+        catch (ClassNotFoundException e) {
+            return null;
+        }
+        try {
+            return (ConfigDescriptor<T>) descriptorType.getConstructor().newInstance();
+        }
+        catch (ReflectiveOperationException e) {
+            throw new ConfigException("Can't create descriptor of " + type.getName(), e);
+        }
+    }
+
+    private static List<String> header(Class<?> type) {
+        Header header = type.getAnnotation(Header.class);
+        if (header != null) {
+            return List.of(header.value());
+        }
+        ConfigClass configClass = type.getAnnotation(ConfigClass.class);
+        return (configClass == null) ? List.of() : List.of(configClass.header().value());
+    }
+
+    private static List<String> footer(Class<?> type) {
+        Footer footer = type.getAnnotation(Footer.class);
+        if (footer != null) {
+            return List.of(footer.value());
+        }
+        ConfigClass configClass = type.getAnnotation(ConfigClass.class);
+        return (configClass == null) ? List.of() : List.of(configClass.footer().value());
+    }
+
+    private List<ConfigPropertyTemplate> scanProperties(Class<?> type) {
+        Map<String, Method> getters = new LinkedHashMap<>(16);
+        Map<String, Method> setters = new LinkedHashMap<>(16);
+        Map<String, List<String>> validators = new HashMap<>(16);
+        Map<String, KeyFunctionsTemplate> keyFunctions = new HashMap<>(16);
+        Set<String> signatures = new HashSet<>(32);
+        for (Class<?> clazz : hierarchy(type)) {
+            for (Method method : declaredMethods(clazz)) {
+                int modifiers = method.getModifiers();
+                if (Modifier.isStatic(modifiers) || method.isSynthetic() || method.isBridge()) {
+                    continue;
+                }
+                if (! signatures.add(method.getName() + Arrays.toString(method.getParameterTypes()))) {
+                    continue; // overridden in subtype
+                }
+                if (method.getDeclaringClass() == Config.class) {
+                    continue;
+                }
+                if (this.scanFunctions(method, validators, keyFunctions) || Modifier.isPrivate(modifiers) ||
+                    method.isAnnotationPresent(HelperMethod.class)) {
+                    continue;
+                }
+                String getterName = getterPropertyName(method);
+                if (getterName != null) {
+                    getters.putIfAbsent(getterName, method);
+                    continue;
+                }
+                String setterName = setterPropertyName(method);
+                if (setterName != null) {
+                    setters.putIfAbsent(setterName, method);
+                    continue;
+                }
+                if (Modifier.isAbstract(modifiers)) {
+                    throw new ConfigException("Abstract method " + method + " is not a property, use @HelperMethod and provide implementation.");
+                }
+            }
+        }
+
+        List<ConfigPropertyTemplate> properties = new ArrayList<>(getters.size());
+        for (Map.Entry<String, Method> entry : getters.entrySet()) {
+            String name = entry.getKey();
+            Method getter = entry.getValue();
+            Method setter = setters.remove(name);
+            if ((setter != null) && (setter.getParameterTypes()[0] != getter.getReturnType())) {
+                throw new ConfigException("Setter " + setter + " does not match type of getter " + getter);
+            }
+            SerializedName serializedName = getter.getAnnotation(SerializedName.class);
+            Comment comment = getter.getAnnotation(Comment.class);
+            List<ScriptValidatorTemplate> scriptValidators = new ArrayList<>(2);
+            for (ScriptValidator validator : getter.getAnnotationsByType(ScriptValidator.class)) {
+                scriptValidators.add(ScriptValidatorTemplate.of(validator));
+            }
+            if (setter != null) {
+                for (ScriptValidator validator : setter.getAnnotationsByType(ScriptValidator.class)) {
+                    scriptValidators.add(ScriptValidatorTemplate.of(validator));
+                }
+            }
+            AsMap asMap = getter.getAnnotation(AsMap.class);
+            KeyFunctionsTemplate functions = keyFunctions.getOrDefault(name, KeyFunctionsTemplate.NONE);
+            if ((asMap != null) && ! asMap.createKey().isEmpty()) {
+                functions = functions.withCreateKey(ScriptTemplate.of(asMap.language(), asMap.createKey()), null);
+            }
+            if ((asMap != null) && ! asMap.deserializeKey().isEmpty()) {
+                functions = functions.withDeserializeKey(ScriptTemplate.of(asMap.language(), asMap.deserializeKey()), null);
+            }
+            AsList asList = getter.getAnnotation(AsList.class);
+
+            properties.add(new ConfigPropertyTemplate(properties.size(), name, (serializedName == null) ? name : serializedName.value(),
+                (serializedName == null) ? List.of() : List.of(serializedName.alternate()), getter, setter,
+                (comment == null) ? List.of() : List.of(comment.value()), PropertyStyle.of(getter),
+                validators.getOrDefault(name, List.of()), scriptValidators, functions,
+                (asMap == null) ? null : new AsMapTemplate(List.of(asMap.keys()), asMap.simplify()),
+                (asList == null) ? null : asList.keyProperty()));
+        }
+        for (Method setter : setters.values()) {
+            if (Modifier.isAbstract(setter.getModifiers())) {
+                throw new ConfigException("Setter " + setter + " does not have matching getter.");
+            }
+        }
+        return properties;
+    }
+
+    /**
+     * Registers validators and key functions declared by given method.
+     *
+     * @return true if method is a function and not a property.
+     */
+    private boolean scanFunctions(Method method, Map<String, List<String>> validators, Map<String, KeyFunctionsTemplate> keyFunctions) {
+        Validator validator = method.getAnnotation(Validator.class);
+        if (validator != null) {
+            String[] names = validator.value();
+            if (names.length == 0) {
+                String methodName = method.getName();
+                if (! methodName.endsWith("Validator")) {
+                    throw new ConfigException("Validator " + method + " does not use name pattern propertyValidator, provide property names.");
+                }
+                names = new String[]{methodName.substring(0, methodName.length() - "Validator".length())};
+            }
+            for (String name : names) {
+                validators.computeIfAbsent(name, k -> new ArrayList<>(2)).add(method.getName());
+            }
+            return true;
+        }
+        boolean function = false;
+        GenerateKeyFromObjectFunction createKey = method.getAnnotation(GenerateKeyFromObjectFunction.class);
+        if (createKey != null) {
+            String property = functionProperty(method, createKey.property(), createKey.value());
+            KeyFunctionsTemplate functions = keyFunctions.getOrDefault(property, KeyFunctionsTemplate.NONE);
+            function = createKey.value().isEmpty();
+            keyFunctions.put(property, function ? functions.withCreateKey(null, method.getName()) :
+                                       functions.withCreateKey(ScriptTemplate.of(createKey.language(), createKey.value()), null));
+        }
+        DeserializeKeyFunction deserializeKey = method.getAnnotation(DeserializeKeyFunction.class);
+        if (deserializeKey != null) {
+            String property = functionProperty(method, deserializeKey.property(), deserializeKey.value());
+            KeyFunctionsTemplate functions = keyFunctions.getOrDefault(property, KeyFunctionsTemplate.NONE);
+            function = deserializeKey.value().isEmpty();
+            keyFunctions.put(property, function ? functions.withDeserializeKey(null, method.getName()) :
+                                       functions.withDeserializeKey(ScriptTemplate.of(deserializeKey.language(), deserializeKey.value()), null));
+        }
+        return function;
+    }
+
+    private static String functionProperty(Method method, String property, String script) {
+        if (! property.isEmpty()) {
+            return property;
+        }
+        String getterName = script.isEmpty() ? null : getterPropertyName(method);
+        if (getterName == null) {
+            throw new ConfigException("Key function " + method + " must define name of property.");
+        }
+        return getterName;
+    }
+
+    @Nullable
+    private static String getterPropertyName(Method method) {
+        if ((method.getParameterCount() != 0) || (method.getReturnType() == void.class)) {
+            return null;
+        }
+        return propertyName(method.getName(), method.getReturnType() == boolean.class);
+    }
+
+    @Nullable
+    private static String setterPropertyName(Method method) {
+        String name = method.getName();
+        if ((method.getParameterCount() != 1) || ! name.startsWith("set") || (name.length() <= 3)) {
+            return null;
+        }
+        return decapitalize(name.substring(3));
+    }
+
+    /**
+     * Extracts name of property from name of getter method.
+     *
+     * @param getterName name of getter method.
+     * @param isBoolean if getter returns primitive boolean.
+     *
+     * @return name of property or null if given name isn't a getter name.
+     */
+    @Nullable
+    public static String propertyName(String getterName, boolean isBoolean) {
+        if (getterName.startsWith("get") && (getterName.length() > 3)) {
+            return decapitalize(getterName.substring(3));
+        }
+        if (isBoolean && getterName.startsWith("is") && (getterName.length() > 2)) {
+            return decapitalize(getterName.substring(2));
+        }
+        return null;
+    }
+
+    public static String decapitalize(String name) {
+        if ((name.length() > 1) && Character.isUpperCase(name.charAt(1))) {
+            return name; // URL -> URL, like java beans
+        }
+        return Character.toLowerCase(name.charAt(0)) + name.substring(1);
+    }
+
+    /**
+     * Reflection does not guarantee order of methods, so order of declaration is read from class file when available, properties are
+     * saved in that order.
+     */
+    private static List<Method> declaredMethods(Class<?> type) {
+        List<Method> methods = new ArrayList<>(Arrays.asList(type.getDeclaredMethods()));
+        Map<String, Integer> order = new HashMap<>(methods.size() * 2);
+        try (InputStream stream = type.getResourceAsStream(type.getName().substring(type.getName().lastIndexOf('.') + 1) + ".class")) {
+            if (stream == null) {
+                return methods;
+            }
+            new ClassReader(stream).accept(new ClassVisitor(Opcodes.ASM9) {
+                @Override
+                public MethodVisitor visitMethod(int access, String name, String descriptor, String signature, String[] exceptions) {
+                    order.putIfAbsent(name + descriptor, order.size());
+                    return null;
+                }
+            }, ClassReader.SKIP_CODE | ClassReader.SKIP_DEBUG | ClassReader.SKIP_FRAMES);
+        }
+        catch (IOException e) {
+            return methods;
+        }
+        methods.sort(Comparator.comparingInt(m -> order.getOrDefault(m.getName() + Type.getMethodDescriptor(m), Integer.MAX_VALUE)));
+        return methods;
+    }
+
+    /**
+     * @return given type and all its super types, most specific first.
+     */
+    private static List<Class<?>> hierarchy(Class<?> type) {
+        List<Class<?>> result = new ArrayList<>(8);
+        List<Class<?>> queue = new ArrayList<>(8);
+        queue.add(type);
+        while (! queue.isEmpty()) {
+            Class<?> next = queue.remove(0);
+            if ((next == null) || (next == Object.class) || result.contains(next)) {
+                continue;
+            }
+            result.add(next);
+            queue.add(next.getSuperclass());
+            queue.addAll(Arrays.asList(next.getInterfaces()));
+        }
+        return result;
+    }
+}
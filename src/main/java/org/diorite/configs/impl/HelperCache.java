@@ -0,0 +1,199 @@
+package org.diorite.configs.impl;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.util.BitSet;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Values of {@link org.diorite.configs.annotations.HelperMethod#cached() cached} helper methods of single config instance. <br/>
+ * Generated helper method returns value from {@link #get(int)} if present, otherwise it calls implementation of config type between
+ * {@link #start(int)} and {@link #finish(Recording, Object)}. Generated getters call {@link #read(int)}, so indices of properties read
+ * while value is computed are stored with that value, and generated setters call {@link #invalidate(int)} to discard values depending
+ * on changed property. Helper methods calling other cached helper methods depend on properties of these methods too. <br/>
+ * Check of getter outside of computed helper method is a single volatile read. Value computed while any property was changed is
+ * returned but not stored.
+ */
+public final class HelperCache {
+    /**
+     * Returned by {@link #get(int)} if value of helper method isn't cached.
+     */
+    public static final Object MISSING = new Object();
+    private static final ThreadLocal<Recording> CURRENT = new ThreadLocal<>();
+
+    private final AtomicReferenceArray<Entry> entries;
+    private final AtomicLong modifications = new AtomicLong();
+    private final AtomicInteger recording = new AtomicInteger();
+
+    /**
+     * @param size amount of cached helper methods of config.
+     */
+    public HelperCache(int size) {
+        this.entries = new AtomicReferenceArray<>(size);
+    }
+
+    /**
+     * @param helper index of helper method.
+     *
+     * @return cached value of helper method, or {@link #MISSING} if value must be computed.
+     */
+    @Nullable
+    public Object get(int helper) {
+        Entry entry = this.entries.get(helper);
+        if (entry == null) {
+            return MISSING;
+        }
+        if (this.recording.get() != 0) {
+            Recording current = this.current(CURRENT.get());
+            if (current != null) {
+                current.dependencies.or(entry.dependencies);
+            }
+        }
+        return entry.value;
+    }
+
+    /**
+     * Starts recording of properties read by current thread, called before implementation of helper method is called.
+     *
+     * @param helper index of helper method.
+     *
+     * @return started recording, must be passed to {@link #finish(Recording, Object)} or {@link #cancel(Recording)}.
+     */
+    public Recording start(int helper) {
+        Recording recording = new Recording(this, helper, this.modifications.get(), CURRENT.get());
+        CURRENT.set(recording);
+        this.recording.incrementAndGet();
+        return recording;
+    }
+
+    /**
+     * Ends recording and stores computed value, unless any property was changed since recording started.
+     *
+     * @param recording recording returned by {@link #start(int)}.
+     * @param value value returned by implementation of helper method.
+     *
+     * @return given value.
+     */
+    @Nullable
+    public Object finish(Recording recording, @Nullable Object value) {
+        this.end(recording);
+        Recording outer = this.current(recording.parent);
+        if (outer != null) {
+            outer.dependencies.or(recording.dependencies);
+        }
+        Entry entry = new Entry(value, recording.dependencies);
+        this.entries.set(recording.helper, entry);
+        if (this.modifications.get() != recording.modifications) {
+            this.entries.compareAndSet(recording.helper, entry, null); // value might be computed from old values
+        }
+        return value;
+    }
+
+    /**
+     * Ends recording without storing any value, called when implementation of helper method throws an exception.
+     *
+     * @param recording recording returned by {@link #start(int)}.
+     */
+    public void cancel(Recording recording) {
+        this.end(recording);
+    }
+
+    /**
+     * Records that value of property was read, called by generated getters.
+     *
+     * @param property index of property.
+     */
+    public void read(int property) {
+        if (this.recording.get() == 0) {
+            return;
+        }
+        Recording current = this.current(CURRENT.get());
+        if (current != null) {
+            current.dependencies.set(property);
+        }
+    }
+
+    /**
+     * Discards values of helper methods depending on given property, called after value of property is changed.
+     *
+     * @param property index of property.
+     */
+    public void invalidate(int property) {
+        this.modifications.incrementAndGet();
+        for (int i = 0, size = this.entries.length(); i < size; i++) {
+            Entry entry = this.entries.get(i);
+            if ((entry != null) && entry.dependencies.get(property)) {
+                this.entries.compareAndSet(i, entry, null);
+            }
+        }
+    }
+
+    /**
+     * Discards values of helper methods depending on any of given properties.
+     *
+     * @param properties indices of properties.
+     */
+    public void invalidate(BitSet properties) {
+        this.modifications.incrementAndGet();
+        for (int i = 0, size = this.entries.length(); i < size; i++) {
+            Entry entry = this.entries.get(i);
+            if ((entry != null) && entry.dependencies.intersects(properties)) {
+                this.entries.compareAndSet(i, entry, null);
+            }
+        }
+    }
+
+    private void end(Recording recording) {
+        if (recording.parent == null) {
+            CURRENT.remove();
+        }
+        else {
+            CURRENT.set(recording.parent);
+        }
+        this.recording.decrementAndGet();
+    }
+
+    /**
+     * @return innermost recording of this cache, starting from given recording, helper methods of other configs may be computed
+     * inside helper method of this config.
+     */
+    @Nullable
+    private Recording current(@Nullable Recording recording) {
+        while ((recording != null) && (recording.cache != this)) {
+            recording = recording.parent;
+        }
+        return recording;
+    }
+
+    private static final class Entry {
+        @Nullable
+        private final Object value;
+        private final BitSet dependencies;
+
+        private Entry(@Nullable Object value, BitSet dependencies) {
+            this.value = value;
+            this.dependencies = dependencies;
+        }
+    }
+
+    /**
+     * Properties read by current thread while value of single helper method is computed.
+     */
+    public static final class Recording {
+        private final HelperCache cache;
+        private final int helper;
+        private final long modifications;
+        @Nullable
+        private final Recording parent;
+        private final BitSet dependencies = new BitSet();
+
+        private Recording(HelperCache cache, int helper, long modifications, @Nullable Recording parent) {
+            this.cache = cache;
+            this.helper = helper;
+            this.modifications = modifications;
+            this.parent = parent;
+        }
+    }
+}
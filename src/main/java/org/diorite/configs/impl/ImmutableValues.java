@@ -0,0 +1,227 @@
+package org.diorite.configs.impl;
+
+import org.diorite.configs.ConfigPropertyTemplate;
+import org.jetbrains.annotations.Nullable;
+
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.lang.reflect.WildcardType;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.SortedSet;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * Copies values of properties of concurrent config before they are published by {@link ConfigStateReference}, so published states
+ * never share mutable collections with code that set them. <br/>
+ * Lists, sets and maps declared by collection interfaces are copied into unmodifiable collections, with elements copied by their type
+ * arguments, and arrays are cloned. Collections of {@code org.diorite.configs.collections} and collections created by
+ * {@code List.of}, {@code Set.of} and {@code Map.of} are already immutable and kept as they are. Values of concrete collection types,
+ * like {@code ArrayList}, can't be replaced by unmodifiable view and are published as they are. <br/>
+ * Arrays are excluded from guarantee of unchanged published state: clone protects state from code that set the array, but getters
+ * return stored array itself, so arrays read from config must not be modified.
+ */
+public final class ImmutableValues {
+    private static final String PRIMITIVE_COLLECTIONS = "org.diorite.configs.collections.";
+    private static final String JDK_IMMUTABLE_COLLECTIONS = "java.util.ImmutableCollections$";
+
+    private final Type[] types;
+
+    /**
+     * @param properties properties of config type, in order of their indices.
+     */
+    public ImmutableValues(List<ConfigPropertyTemplate> properties) {
+        this.types = new Type[properties.size()];
+        for (ConfigPropertyTemplate property : properties) {
+            this.types[property.getIndex()] = property.getGenericType();
+        }
+    }
+
+    /**
+     * @param index index of property.
+     * @param value value of property, primitives are boxed.
+     *
+     * @return given value, or its copy that can't be changed by other code.
+     */
+    @Nullable
+    public Object copy(int index, @Nullable Object value) {
+        return copy(this.types[index], value);
+    }
+
+    /**
+     * Copies all values of given state in place, used for initial state of config.
+     *
+     * @param state state that isn't published yet.
+     */
+    void copyAll(ConfigState state) {
+        for (int i = 0; i < this.types.length; i++) {
+            Object value = state.get(i);
+            Object copy = this.copy(i, value);
+            if (copy != value) {
+                state.set(i, copy);
+            }
+        }
+    }
+
+    @Nullable
+    private static Object copy(Type type, @Nullable Object value) {
+        if (value == null) {
+            return null;
+        }
+        Class<?> raw = raw(type);
+        if (value.getClass().isArray()) {
+            return (value instanceof Object[]) ? ((Object[]) value).clone() : cloneArray(value);
+        }
+        if (! isCollectionType(raw) || isImmutable(value.getClass())) {
+            return value; // copy would not be assignable to property
+        }
+        if (value instanceof Map) {
+            return (Map.class.isAssignableFrom(raw) || (raw == Object.class)) ?
+                   copyMap(raw, (Map<?, ?>) value, argument(type, 0), argument(type, 1)) : value;
+        }
+        if ((value instanceof Set) && ! Map.class.isAssignableFrom(raw) && (raw != List.class)) {
+            return copySet(raw, (Set<?>) value, argument(type, 0));
+        }
+        boolean anyCollection = (raw == Collection.class) || (raw == Iterable.class) || (raw == Object.class);
+        if ((value instanceof List) && ((raw == List.class) || anyCollection)) {
+            return Collections.unmodifiableList(copyElements((List<?>) value, argument(type, 0)));
+        }
+        if ((value instanceof Collection) && anyCollection) {
+            return Collections.unmodifiableCollection(copyElements((Collection<?>) value, argument(type, 0)));
+        }
+        return value;
+    }
+
+    private static Object copyMap(Class<?> raw, Map<?, ?> value, Type keyType, Type valueType) {
+        if (SortedMap.class.isAssignableFrom(raw) && (value instanceof SortedMap)) {
+            TreeMap<Object, Object> copy = new TreeMap<>(comparator(((SortedMap<?, ?>) value).comparator()));
+            putAll(copy, value, keyType, valueType);
+            return NavigableMap.class.isAssignableFrom(raw) ? Collections.unmodifiableNavigableMap(copy) :
+                   Collections.unmodifiableSortedMap(copy);
+        }
+        if (SortedMap.class.isAssignableFrom(raw)) {
+            return value; // unsorted map can't be copied into sorted one without comparator
+        }
+        Map<Object, Object> copy = new LinkedHashMap<>((int) (value.size() / 0.75f) + 1);
+        putAll(copy, value, keyType, valueType);
+        return Collections.unmodifiableMap(copy);
+    }
+
+    private static Object copySet(Class<?> raw, Set<?> value, Type elementType) {
+        if (SortedSet.class.isAssignableFrom(raw) && (value instanceof SortedSet)) {
+            TreeSet<Object> copy = new TreeSet<>(comparator(((SortedSet<?>) value).comparator()));
+            for (Object element : value) {
+                copy.add(copy(elementType, element));
+            }
+            return NavigableSet.class.isAssignableFrom(raw) ? Collections.unmodifiableNavigableSet(copy) :
+                   Collections.unmodifiableSortedSet(copy);
+        }
+        if (SortedSet.class.isAssignableFrom(raw)) {
+            return value;
+        }
+        Set<Object> copy = new LinkedHashSet<>((int) (value.size() / 0.75f) + 1);
+        for (Object element : value) {
+            copy.add(copy(elementType, element));
+        }
+        return Collections.unmodifiableSet(copy);
+    }
+
+    private static List<Object> copyElements(Collection<?> value, Type elementType) {
+        List<Object> copy = new ArrayList<>(value.size());
+        for (Object element : value) {
+            copy.add(copy(elementType, element));
+        }
+        return copy;
+    }
+
+    private static void putAll(Map<Object, Object> copy, Map<?, ?> value, Type keyType, Type valueType) {
+        for (Map.Entry<?, ?> entry : value.entrySet()) {
+            copy.put(copy(keyType, entry.getKey()), copy(valueType, entry.getValue()));
+        }
+    }
+
+    private static Object cloneArray(Object array) {
+        if (array instanceof int[]) {
+            return ((int[]) array).clone();
+        }
+        if (array instanceof long[]) {
+            return ((long[]) array).clone();
+        }
+        if (array instanceof double[]) {
+            return ((double[]) array).clone();
+        }
+        if (array instanceof byte[]) {
+            return ((byte[]) array).clone();
+        }
+        if (array instanceof boolean[]) {
+            return ((boolean[]) array).clone();
+        }
+        if (array instanceof char[]) {
+            return ((char[]) array).clone();
+        }
+        if (array instanceof short[]) {
+            return ((short[]) array).clone();
+        }
+        return ((float[]) array).clone();
+    }
+
+    /**
+     * @return given comparator, copied collection contains only elements of source collection, so they are accepted by it.
+     */
+    @Nullable
+    @SuppressWarnings("unchecked")
+    private static Comparator<Object> comparator(@Nullable Comparator<?> comparator) {
+        return (Comparator<Object>) comparator;
+    }
+
+    /**
+     * @return true if unmodifiable collection of java.util can be assigned to property of given type.
+     */
+    private static boolean isCollectionType(Class<?> raw) {
+        return (raw == Object.class) || (raw == Iterable.class) || (raw == Collection.class) || (raw == List.class) || (raw == Set.class) ||
+               (raw == SortedSet.class) || (raw == NavigableSet.class) || (raw == Map.class) || (raw == SortedMap.class) ||
+               (raw == NavigableMap.class);
+    }
+
+    private static boolean isImmutable(Class<?> type) {
+        String name = type.getName();
+        return name.startsWith(PRIMITIVE_COLLECTIONS) || name.startsWith(JDK_IMMUTABLE_COLLECTIONS);
+    }
+
+    private static Class<?> raw(Type type) {
+        if (type instanceof Class) {
+            return (Class<?>) type;
+        }
+        if (type instanceof ParameterizedType) {
+            return raw(((ParameterizedType) type).getRawType());
+        }
+        if (type instanceof WildcardType) {
+            return raw(((WildcardType) type).getUpperBounds()[0]);
+        }
+        return Object.class;
+    }
+
+    /**
+     * @return type argument of given type at given position, or {@code Object} if type isn't parameterized.
+     */
+    private static Type argument(Type type, int index) {
+        if (type instanceof ParameterizedType) {
+            Type[] arguments = ((ParameterizedType) type).getActualTypeArguments();
+            if (index < arguments.length) {
+                return arguments[index];
+            }
+        }
+        return Object.class;
+    }
+}
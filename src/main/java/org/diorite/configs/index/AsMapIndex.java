@@ -0,0 +1,334 @@
+package org.diorite.configs.index;
+
+import org.diorite.configs.Config;
+import org.diorite.configs.ConfigException;
+import org.diorite.configs.annotations.AsMap;
+import org.diorite.configs.impl.ConfigPropertyAccess;
+import org.diorite.configs.impl.ConfigStateReference;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Read-only map of elements of {@link AsMap} list property by their keys, kept by each config instance. <br/>
+ * Keys are stored in open addressing table with linear probing, so lookups don't scan the list. Index is built when config is loaded
+ * and setters of property mark it as changed, then only elements on changed positions of list get new keys, unchanged elements are
+ * compared by identity. Changes made directly to list or its elements are not tracked, setter must be called again after such change.
+ * <br/>
+ * If multiple elements share same key, last one is indexed, null elements are skipped. Iteration order is unspecified. Indices of
+ * concurrent configs are copied on change, so lookups never see partially updated table.
+ *
+ * @param <E> type of elements.
+ */
+public final class AsMapIndex<E> extends AbstractMap<Object, E> {
+    private static final Object[] EMPTY = new Object[0];
+    private static final Object NULL_KEY = new Object();
+    private static final Object REMOVED = new Object();
+    private static final int MIN_CAPACITY = 8;
+
+    private final Config<?> config;
+    private final int property;
+    private final KeyFunction function;
+    private final boolean concurrent;
+    private volatile boolean changed = true;
+    private volatile Table table = new Table(MIN_CAPACITY);
+    // guarded by this
+    @Nullable
+    private Object indexed;
+    private Object[] elements = EMPTY;
+    private Object[] elementKeys = EMPTY;
+    // set when keys are shared or last update failed, next update indexes whole list again
+    private boolean rebuild;
+
+    AsMapIndex(Config<?> config, int property, KeyFunction function, boolean concurrent) {
+        this.config = config;
+        this.property = property;
+        this.function = function;
+        this.concurrent = concurrent;
+    }
+
+    /**
+     * Marks list as changed, called by generated setters.
+     */
+    public void invalidate() {
+        this.changed = true;
+    }
+
+    /**
+     * Updates index if property was changed since last update.
+     */
+    public void refresh() {
+        Object value = this.value();
+        if (this.changed || (value != this.indexed)) {
+            this.update();
+        }
+    }
+
+    @Nullable
+    @Override
+    public E get(@Nullable Object key) {
+        return this.current().get(key);
+    }
+
+    @Override
+    public boolean containsKey(@Nullable Object key) {
+        return this.current().get(key) != null;
+    }
+
+    @Override
+    public int size() {
+        return this.current().size;
+    }
+
+    @Override
+    public Set<Entry<Object, E>> entrySet() {
+        Table table = this.current();
+        return new AbstractSet<>() {
+            @Override
+            public Iterator<Entry<Object, E>> iterator() {
+                return table.iterator();
+            }
+
+            @Override
+            public int size() {
+                return table.size;
+            }
+        };
+    }
+
+    private Table current() {
+        this.refresh();
+        return this.table;
+    }
+
+    /**
+     * @return current list, committed value is used for concurrent configs.
+     */
+    @Nullable
+    private Object value() {
+        ConfigPropertyAccess access = (ConfigPropertyAccess) this.config;
+        ConfigStateReference state = access.getStateReference();
+        return (state == null) ? access.getProperty(this.property) : state.get().get(this.property);
+    }
+
+    private synchronized void update() {
+        this.changed = false;
+        Object value = this.value();
+        Object[] next;
+        if (value == null) {
+            next = EMPTY;
+        }
+        else if (value instanceof Collection) {
+            next = ((Collection<?>) value).toArray();
+        }
+        else {
+            throw new ConfigException("@AsMap property must be a collection, but found " + value.getClass().getName());
+        }
+        try {
+            this.update(value, next);
+        }
+        catch (RuntimeException | Error e) {
+            this.rebuild = true;
+            this.changed = true;
+            throw e;
+        }
+    }
+
+    private void update(@Nullable Object value, Object[] next) {
+        Table table = this.concurrent ? this.table.copy() : this.table;
+        Object[] previous = this.elements;
+        Object[] previousKeys = this.elementKeys;
+        if (this.rebuild) {
+            table = new Table(MIN_CAPACITY);
+            previous = EMPTY;
+            this.rebuild = false;
+        }
+        else {
+            for (int i = 0; i < previous.length; i++) {
+                if ((previous[i] != null) && ((i >= next.length) || (next[i] != previous[i]))) {
+                    table.remove(previousKeys[i], previous[i]);
+                }
+            }
+        }
+        Object[] keys = new Object[next.length];
+        for (int i = 0; i < next.length; i++) {
+            if ((i < previous.length) && (next[i] == previous[i])) {
+                keys[i] = previousKeys[i];
+                continue;
+            }
+            if (next[i] == null) {
+                continue;
+            }
+            keys[i] = this.function.createKey(next[i], this.config);
+            table = table.ensureCapacity();
+            if (table.put(keys[i], next[i])) {
+                this.rebuild = true;
+            }
+        }
+        if (this.rebuild && (previous != EMPTY)) {
+            // removal of shared key could hide other element, so keys are inserted again in order of list
+            table = new Table(MIN_CAPACITY);
+            for (int i = 0; i < next.length; i++) {
+                if (next[i] != null) {
+                    table = table.ensureCapacity();
+                    table.put(keys[i], next[i]);
+                }
+            }
+        }
+        this.indexed = value;
+        this.elements = next;
+        this.elementKeys = keys;
+        this.table = table;
+    }
+
+    private final class Table {
+        private Object[] keys;
+        private Object[] values;
+        private int size;
+        private int used;
+
+        Table(int capacity) {
+            this.keys = new Object[capacity];
+            this.values = new Object[capacity];
+        }
+
+        Table copy() {
+            Table copy = new Table(0);
+            copy.keys = this.keys.clone();
+            copy.values = this.values.clone();
+            copy.size = this.size;
+            copy.used = this.used;
+            return copy;
+        }
+
+        /**
+         * @return this table, or larger table with same entries if there is no place for new entry.
+         */
+        Table ensureCapacity() {
+            if (((this.used + 1) * 2) <= this.keys.length) {
+                return this;
+            }
+            int capacity = this.keys.length;
+            while (((this.size + 1) * 2) > capacity) {
+                capacity *= 2;
+            }
+            Table table = new Table(capacity);
+            for (int i = 0; i < this.keys.length; i++) {
+                Object key = this.keys[i];
+                if ((key != null) && (key != REMOVED)) {
+                    table.put(key, this.values[i]);
+                }
+            }
+            return table;
+        }
+
+        @Nullable
+        @SuppressWarnings("unchecked")
+        E get(@Nullable Object key) {
+            Object masked = (key == null) ? NULL_KEY : key;
+            int mask = this.keys.length - 1;
+            for (int i = hash(masked) & mask; ; i = (i + 1) & mask) {
+                Object current = this.keys[i];
+                if (current == null) {
+                    return null;
+                }
+                if ((current == masked) || ((current != REMOVED) && current.equals(masked))) {
+                    return (E) this.values[i];
+                }
+            }
+        }
+
+        /**
+         * @return true if given key was already used by other element.
+         */
+        boolean put(@Nullable Object key, Object value) {
+            Object masked = (key == null) ? NULL_KEY : key;
+            int mask = this.keys.length - 1;
+            int free = - 1;
+            for (int i = hash(masked) & mask; ; i = (i + 1) & mask) {
+                Object current = this.keys[i];
+                if (current == null) {
+                    if (free == - 1) {
+                        free = i;
+                        this.used++;
+                    }
+                    this.keys[free] = masked;
+                    this.values[free] = value;
+                    this.size++;
+                    return false;
+                }
+                if (current == REMOVED) {
+                    if (free == - 1) {
+                        free = i;
+                    }
+                }
+                else if ((current == masked) || current.equals(masked)) {
+                    this.values[i] = value;
+                    return true;
+                }
+            }
+        }
+
+        void remove(@Nullable Object key, Object value) {
+            Object masked = (key == null) ? NULL_KEY : key;
+            int mask = this.keys.length - 1;
+            for (int i = hash(masked) & mask; ; i = (i + 1) & mask) {
+                Object current = this.keys[i];
+                if (current == null) {
+                    return;
+                }
+                if ((current == masked) || ((current != REMOVED) && current.equals(masked))) {
+                    if (this.values[i] == value) {
+                        this.keys[i] = REMOVED;
+                        this.values[i] = null;
+                        this.size--;
+                    }
+                    return;
+                }
+            }
+        }
+
+        Iterator<Entry<Object, E>> iterator() {
+            return new Iterator<>() {
+                private int next = this.find(0);
+
+                private int find(int from) {
+                    for (int i = from; i < Table.this.keys.length; i++) {
+                        if ((Table.this.keys[i] != null) && (Table.this.keys[i] != REMOVED)) {
+                            return i;
+                        }
+                    }
+                    return - 1;
+                }
+
+                @Override
+                public boolean hasNext() {
+                    return this.next != - 1;
+                }
+
+                @Override
+                @SuppressWarnings("unchecked")
+                public Entry<Object, E> next() {
+                    if (this.next == - 1) {
+                        throw new NoSuchElementException();
+                    }
+                    Object key = Table.this.keys[this.next];
+                    E value = (E) Table.this.values[this.next];
+                    this.next = this.find(this.next + 1);
+                    return new SimpleImmutableEntry<>((key == NULL_KEY) ? null : key, value);
+                }
+            };
+        }
+    }
+
+    private static int hash(Object key) {
+        int hash = Objects.hashCode(key);
+        return hash ^ (hash >>> 16);
+    }
+}
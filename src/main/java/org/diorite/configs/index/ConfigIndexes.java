@@ -0,0 +1,152 @@
+package org.diorite.configs.index;
+
+import org.diorite.configs.Config;
+import org.diorite.configs.ConfigException;
+import org.diorite.configs.ConfigPropertyTemplate;
+import org.diorite.configs.KeyFunctionsTemplate;
+import org.diorite.configs.annotations.AsMap;
+import org.diorite.configs.impl.ConfigPropertyAccess;
+import org.diorite.configs.yaml.LazyProperties;
+import org.diorite.configs.metrics.Instrumentation;
+import org.diorite.configs.scripts.ScriptEngines;
+import org.diorite.configs.scripts.ScriptKeyFunction;
+import org.jetbrains.annotations.Nullable;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Key functions of all {@link AsMap} properties of single config type, created once per template. <br/>
+ * Generated config instances keep one {@link AsMapIndex} per such property, created by {@link #create(Config)}.
+ */
+public final class ConfigIndexes {
+    private final List<ConfigPropertyTemplate> properties;
+    private final KeyFunction[] functions;
+    private final boolean concurrent;
+    private final boolean empty;
+
+    /**
+     * @param concurrent true if config type is concurrent, indices of such configs are copied on change.
+     */
+    public ConfigIndexes(Class<?> type, List<ConfigPropertyTemplate> properties, ScriptEngines engines, Instrumentation instrumentation,
+                         boolean concurrent) {
+        this.properties = properties;
+        this.functions = new KeyFunction[properties.size()];
+        this.concurrent = concurrent;
+        boolean empty = true;
+        for (ConfigPropertyTemplate property : properties) {
+            if (property.getAsMap() == null) {
+                continue;
+            }
+            if (! Collection.class.isAssignableFrom(property.getRawType())) {
+                throw new ConfigException("@AsMap property " + property.getName() + " of " + type.getName() + " must be a collection");
+            }
+            this.functions[property.getIndex()] = keyFunction(type, property, engines, instrumentation);
+            empty = false;
+        }
+        this.empty = empty;
+    }
+
+    private static KeyFunction keyFunction(Class<?> type, ConfigPropertyTemplate property, ScriptEngines engines,
+                                           Instrumentation instrumentation) {
+        KeyFunctionsTemplate functions = property.getKeyFunctions();
+        if (functions.getCreateKey() != null) {
+            return new ScriptKeyFunction(type, functions.getCreateKey(), engines, instrumentation);
+        }
+        if (functions.getCreateKeyMethod() != null) {
+            Method method = findMethod(type, functions.getCreateKeyMethod(), new ArrayList<>(4));
+            if (method == null) {
+                throw new ConfigException("Key function " + functions.getCreateKeyMethod() + " not found in " + type.getName());
+            }
+            try {
+                return new MethodKeyFunction(MethodHandles.privateLookupIn(method.getDeclaringClass(), MethodHandles.lookup()), method);
+            }
+            catch (IllegalAccessException e) {
+                throw new ConfigException("Can't access key function " + method, e);
+            }
+        }
+        assert property.getAsMap() != null;
+        return new PropertyKeyFunction(property.getAsMap().getKeys());
+    }
+
+    @Nullable
+    private static Method findMethod(@Nullable Class<?> type, String name, List<Class<?>> visited) {
+        if ((type == null) || (type == Object.class) || visited.contains(type)) {
+            return null;
+        }
+        visited.add(type);
+        for (Method method : type.getDeclaredMethods()) {
+            if (method.getName().equals(name) && (method.getParameterCount() == 1)) {
+                return method;
+            }
+        }
+        Method method = findMethod(type.getSuperclass(), name, visited);
+        for (int i = 0; (method == null) && (i < type.getInterfaces().length); i++) {
+            method = findMethod(type.getInterfaces()[i], name, visited);
+        }
+        return method;
+    }
+
+    /**
+     * @return true if config type has no {@link AsMap} properties.
+     */
+    public boolean isEmpty() {
+        return this.empty;
+    }
+
+    /**
+     * @param index index of property.
+     *
+     * @return true if given property is indexed.
+     */
+    public boolean isIndexed(int index) {
+        return this.functions[index] != null;
+    }
+
+    /**
+     * Creates indices of new config instance, called by generated constructors.
+     *
+     * @param config config instance.
+     *
+     * @return indices of properties, null for properties that aren't indexed.
+     */
+    public AsMapIndex<?>[] create(Config<?> config) {
+        AsMapIndex<?>[] indices = new AsMapIndex<?>[this.functions.length];
+        for (int i = 0; i < indices.length; i++) {
+            if (this.functions[i] != null) {
+                indices[i] = new AsMapIndex<>(config, i, this.functions[i], this.concurrent);
+            }
+        }
+        return indices;
+    }
+
+    /**
+     * Builds indices of all properties of given config, used after loading values from file. Index that can't be built, for example
+     * because element has no key or script engine is not available, is not reported here, but by first lookup in that index. Lists of
+     * lazy properties that weren't read yet are indexed by first lookup too.
+     *
+     * @param config generated config instance.
+     */
+    public void buildAll(Config<?> config) {
+        if (this.empty) {
+            return;
+        }
+        ConfigPropertyAccess access = (ConfigPropertyAccess) config;
+        LazyProperties lazy = access.getLazyProperties();
+        for (ConfigPropertyTemplate property : this.properties) {
+            AsMapIndex<?> index = access.getIndex(property.getIndex());
+            if ((index == null) || ((lazy != null) && lazy.isPending(property.getIndex()))) {
+                continue; // lazy lists are indexed on first lookup
+            }
+            try {
+                index.refresh();
+            }
+            catch (ConfigException e) {
+                // index is built again on first lookup
+            }
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package org.diorite.configs.index;
+
+import org.diorite.configs.Config;
+import org.diorite.configs.annotations.AsMap;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Creates keys of elements of {@link AsMap} lists.
+ */
+@FunctionalInterface
+public interface KeyFunction {
+    /**
+     * @param element element of list.
+     * @param config config instance that owns the list.
+     *
+     * @return key of given element.
+     *
+     * @throws org.diorite.configs.ConfigException if key can't be created.
+     */
+    @Nullable
+    Object createKey(Object element, Config<?> config);
+}
@@ -0,0 +1,47 @@
+package org.diorite.configs.index;
+
+import org.diorite.configs.Config;
+import org.diorite.configs.ConfigException;
+import org.diorite.configs.annotations.GenerateKeyFromObjectFunction;
+import org.jetbrains.annotations.Nullable;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+
+/**
+ * Key function that invokes method of config annotated with {@link GenerateKeyFromObjectFunction}. <br/>
+ * Method must take single argument of element type and return key of that element.
+ */
+final class MethodKeyFunction implements KeyFunction {
+    private final Method method;
+    private final MethodHandle handle;
+
+    MethodKeyFunction(MethodHandles.Lookup lookup, Method method) {
+        if ((method.getParameterCount() != 1) || (method.getReturnType() == void.class)) {
+            throw new ConfigException("Key function " + method + " must take single argument and return key");
+        }
+        this.method = method;
+        try {
+            this.handle = lookup.unreflect(method).asType(MethodType.methodType(Object.class, Object.class, Object.class));
+        }
+        catch (IllegalAccessException e) {
+            throw new ConfigException("Can't access key function " + method, e);
+        }
+    }
+
+    @Nullable
+    @Override
+    public Object createKey(Object element, Config<?> config) {
+        try {
+            return this.handle.invokeExact((Object) config, element);
+        }
+        catch (RuntimeException | Error e) {
+            throw e;
+        }
+        catch (Throwable e) {
+            throw new ConfigException("Can't create key of " + element + " using " + this.method, e);
+        }
+    }
+}
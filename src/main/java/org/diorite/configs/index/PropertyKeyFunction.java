@@ -0,0 +1,118 @@
+package org.diorite.configs.index;
+
+import org.diorite.configs.Config;
+import org.diorite.configs.ConfigException;
+import org.diorite.configs.annotations.AsMap;
+import org.jetbrains.annotations.Nullable;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Member;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Default key function of {@link AsMap} lists, key is value of single property of element, or values of multiple properties joined
+ * with {@code :}. <br/>
+ * Properties are read from maps by their keys, and from other objects using getter methods or public fields, found once per element
+ * type.
+ */
+final class PropertyKeyFunction implements KeyFunction {
+    private final List<String> keys;
+    private final ClassValue<Member[]> accessors = new ClassValue<>() {
+        @Override
+        protected Member[] computeValue(Class<?> type) {
+            Member[] members = new Member[PropertyKeyFunction.this.keys.size()];
+            for (int i = 0; i < members.length; i++) {
+                members[i] = findAccessor(type, PropertyKeyFunction.this.keys.get(i));
+            }
+            return members;
+        }
+    };
+
+    PropertyKeyFunction(List<String> keys) {
+        if (keys.isEmpty()) {
+            throw new ConfigException("@AsMap must define at least one key");
+        }
+        this.keys = List.copyOf(keys);
+    }
+
+    @Nullable
+    @Override
+    public Object createKey(Object element, Config<?> config) {
+        if (this.keys.size() == 1) {
+            return this.get(element, 0);
+        }
+        StringBuilder key = new StringBuilder(32);
+        for (int i = 0; i < this.keys.size(); i++) {
+            if (i != 0) {
+                key.append(':');
+            }
+            key.append(this.get(element, i));
+        }
+        return key.toString();
+    }
+
+    @Nullable
+    private Object get(Object element, int index) {
+        if (element instanceof Map) {
+            return ((Map<?, ?>) element).get(this.keys.get(index));
+        }
+        Member member = this.accessors.get(element.getClass())[index];
+        try {
+            if (member instanceof Method) {
+                return ((Method) member).invoke(element);
+            }
+            return ((Field) member).get(element);
+        }
+        catch (InvocationTargetException e) {
+            throw new ConfigException("Can't read key " + this.keys.get(index) + " of " + element, e.getCause());
+        }
+        catch (IllegalAccessException e) {
+            throw new ConfigException("Can't read key " + this.keys.get(index) + " of " + element, e);
+        }
+    }
+
+    private static Member findAccessor(Class<?> type, String name) {
+        String suffix = Character.toUpperCase(name.charAt(0)) + name.substring(1);
+        for (String methodName : new String[]{"get" + suffix, "is" + suffix, name}) {
+            Method method = findMethod(type, methodName);
+            if (method != null) {
+                return method;
+            }
+        }
+        try {
+            Field field = type.getField(name);
+            if (! Modifier.isStatic(field.getModifiers())) {
+                return field;
+            }
+        }
+        catch (NoSuchFieldException e) {
+            // reported below
+        }
+        throw new ConfigException("Key " + name + " not found in " + type.getName());
+    }
+
+    /**
+     * @return public getter with given name, made accessible so it can be invoked on instances of non-public types.
+     */
+    @Nullable
+    private static Method findMethod(Class<?> type, String name) {
+        Method method;
+        try {
+            method = type.getMethod(name);
+        }
+        catch (NoSuchMethodException e) {
+            return null;
+        }
+        if (Modifier.isStatic(method.getModifiers()) || (method.getReturnType() == void.class)) {
+            return null;
+        }
+        if (! method.trySetAccessible()) {
+            throw new ConfigException("Can't access " + method);
+        }
+        return method;
+    }
+}
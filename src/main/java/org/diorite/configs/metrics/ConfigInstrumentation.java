@@ -0,0 +1,58 @@
+package org.diorite.configs.metrics;
+
+import org.diorite.configs.validation.ValidationException;
+
+import java.nio.file.Path;
+
+/**
+ * Receives timings of config operations and counts of failures, set by {@link Instrumentation#set(ConfigInstrumentation)} of config
+ * manager. <br/>
+ * Methods are called by threads performing operations, so implementations must be thread safe and should not block.
+ *
+ * @see HistogramInstrumentation
+ */
+public interface ConfigInstrumentation {
+    /**
+     * Instrumentation ignoring all reports, used by default.
+     */
+    ConfigInstrumentation NONE = new ConfigInstrumentation() {
+        @Override
+        public void record(Class<?> type, ConfigOperation operation, long nanos, long allocatedBytes) {
+        }
+
+        @Override
+        public void validationFailed(Class<?> type, ValidationException exception) {
+        }
+
+        @Override
+        public void reloadRejected(Class<?> type, Path path, Exception cause) {
+        }
+    };
+
+    /**
+     * Called after operation is finished, also when it failed.
+     *
+     * @param type config type.
+     * @param operation finished operation.
+     * @param nanos duration of operation.
+     * @param allocatedBytes bytes allocated by thread performing operation, or -1 if jvm does not support measuring allocations.
+     */
+    void record(Class<?> type, ConfigOperation operation, long nanos, long allocatedBytes);
+
+    /**
+     * Called when value of property is rejected by validator.
+     *
+     * @param type config type.
+     * @param exception error thrown by validator.
+     */
+    void validationFailed(Class<?> type, ValidationException exception);
+
+    /**
+     * Called when reload of watched config is rejected, so old config is kept.
+     *
+     * @param type config type.
+     * @param path path of config file.
+     * @param cause cause of rejection.
+     */
+    void reloadRejected(Class<?> type, Path path, Exception cause);
+}
@@ -0,0 +1,33 @@
+package org.diorite.configs.metrics;
+
+/**
+ * Operations of config lifecycle reported to {@link ConfigInstrumentation}. <br/>
+ * Operations can be nested, {@link #LOAD} includes {@link #READ} and {@link #VALIDATE}, and {@link #VALIDATE} includes {@link #SCRIPT}.
+ */
+public enum ConfigOperation {
+    /**
+     * Whole load of config, including reading of file.
+     */
+    LOAD,
+    /**
+     * Parsing of yaml document or snapshot and binding its values to properties, yaml is parsed and bound in single pass, so both
+     * are measured together.
+     */
+    READ,
+    /**
+     * Validation of all loaded values.
+     */
+    VALIDATE,
+    /**
+     * Single evaluation of script validator or script key function.
+     */
+    SCRIPT,
+    /**
+     * Whole save of config, including writing of file.
+     */
+    SAVE,
+    /**
+     * Reload of watched config file.
+     */
+    RELOAD
+}
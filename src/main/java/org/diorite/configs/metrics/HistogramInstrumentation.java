@@ -0,0 +1,130 @@
+package org.diorite.configs.metrics;
+
+import org.diorite.configs.validation.ValidationException;
+
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Instrumentation keeping {@link OperationHistogram}s of each operation and failure counters in memory, per config type. <br/>
+ * Recording does not lock, so it can be used in production, values can be read at any time.
+ */
+public final class HistogramInstrumentation implements ConfigInstrumentation {
+    private final Map<Class<?>, TypeMetrics> types = new ConcurrentHashMap<>(16);
+
+    @Override
+    public void record(Class<?> type, ConfigOperation operation, long nanos, long allocatedBytes) {
+        this.metrics(type).histograms[operation.ordinal()].record(nanos, allocatedBytes);
+    }
+
+    @Override
+    public void validationFailed(Class<?> type, ValidationException exception) {
+        this.metrics(type).validationFailures.computeIfAbsent(exception.getProperty().getName(), k -> new LongAdder()).increment();
+    }
+
+    @Override
+    public void reloadRejected(Class<?> type, Path path, Exception cause) {
+        this.metrics(type).reloadRejections.increment();
+    }
+
+    /**
+     * @return config types with any recorded values.
+     */
+    public Set<Class<?>> getTypes() {
+        return Set.copyOf(this.types.keySet());
+    }
+
+    /**
+     * @param type config type.
+     * @param operation operation.
+     *
+     * @return histogram of given operation of given config type.
+     */
+    public OperationHistogram getHistogram(Class<?> type, ConfigOperation operation) {
+        return this.metrics(type).histograms[operation.ordinal()];
+    }
+
+    /**
+     * @param type config type.
+     *
+     * @return amount of values of given config type rejected by validators.
+     */
+    public long getValidationFailures(Class<?> type) {
+        long failures = 0;
+        for (LongAdder adder : this.metrics(type).validationFailures.values()) {
+            failures += adder.sum();
+        }
+        return failures;
+    }
+
+    /**
+     * @param type config type.
+     *
+     * @return amount of values rejected by validators of each property of given config type.
+     */
+    public Map<String, Long> getValidationFailuresByProperty(Class<?> type) {
+        Map<String, Long> failures = new TreeMap<>();
+        for (Map.Entry<String, LongAdder> entry : this.metrics(type).validationFailures.entrySet()) {
+            failures.put(entry.getKey(), entry.getValue().sum());
+        }
+        return failures;
+    }
+
+    /**
+     * @param type config type.
+     *
+     * @return amount of rejected reloads of given config type.
+     */
+    public long getReloadRejections(Class<?> type) {
+        return this.metrics(type).reloadRejections.sum();
+    }
+
+    private TypeMetrics metrics(Class<?> type) {
+        TypeMetrics metrics = this.types.get(type);
+        if (metrics == null) {
+            metrics = this.types.computeIfAbsent(type, t -> new TypeMetrics());
+        }
+        return metrics;
+    }
+
+    /**
+     * @return report of all recorded operations, one line per operation of each config type.
+     */
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder(256);
+        for (Map.Entry<Class<?>, TypeMetrics> entry : this.types.entrySet()) {
+            String name = entry.getKey().getName();
+            TypeMetrics metrics = entry.getValue();
+            for (ConfigOperation operation : ConfigOperation.values()) {
+                OperationHistogram histogram = metrics.histograms[operation.ordinal()];
+                if (histogram.getCount() != 0) {
+                    builder.append(name).append(' ').append(operation).append(": ").append(histogram).append('\n');
+                }
+            }
+            long failures = this.getValidationFailures(entry.getKey());
+            long rejections = metrics.reloadRejections.sum();
+            if ((failures != 0) || (rejections != 0)) {
+                builder.append(name).append(" validation failures: ").append(failures).append(", reload rejections: ").append(rejections)
+                       .append('\n');
+            }
+        }
+        return builder.toString();
+    }
+
+    private static final class TypeMetrics {
+        private final OperationHistogram[] histograms = new OperationHistogram[ConfigOperation.values().length];
+        private final Map<String, LongAdder> validationFailures = new ConcurrentHashMap<>(4);
+        private final LongAdder reloadRejections = new LongAdder();
+
+        TypeMetrics() {
+            for (int i = 0; i < this.histograms.length; i++) {
+                this.histograms[i] = new OperationHistogram();
+            }
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package org.diorite.configs.metrics;
+
+import org.diorite.configs.validation.ValidationException;
+import org.jetbrains.annotations.Nullable;
+
+import java.lang.management.ManagementFactory;
+import java.nio.file.Path;
+
+/**
+ * Holds {@link ConfigInstrumentation} of config manager and measures operations reported to it. <br/>
+ * When no instrumentation is set, {@link #start(Class, ConfigOperation)} returns shared timer that does nothing, so instrumented code
+ * does not read clocks or allocate.
+ */
+public final class Instrumentation {
+    @Nullable
+    private static final com.sun.management.ThreadMXBean THREADS = threads();
+    private static final Timer NONE = new Timer(null, Object.class, ConfigOperation.LOAD, 0, 0);
+
+    private volatile ConfigInstrumentation instrumentation = ConfigInstrumentation.NONE;
+
+    /**
+     * @return current instrumentation.
+     */
+    public ConfigInstrumentation get() {
+        return this.instrumentation;
+    }
+
+    /**
+     * @param instrumentation new instrumentation, {@link ConfigInstrumentation#NONE} to disable instrumentation.
+     */
+    public void set(ConfigInstrumentation instrumentation) {
+        this.instrumentation = instrumentation;
+    }
+
+    /**
+     * Starts measuring operation performed by current thread, returned timer reports it when stopped.
+     *
+     * @param type config type.
+     * @param operation started operation.
+     *
+     * @return timer of operation.
+     */
+    public Timer start(Class<?> type, ConfigOperation operation) {
+        ConfigInstrumentation instrumentation = this.instrumentation;
+        if (instrumentation == ConfigInstrumentation.NONE) {
+            return NONE;
+        }
+        return new Timer(instrumentation, type, operation, allocatedBytes(), System.nanoTime());
+    }
+
+    /**
+     * @param type config type.
+     * @param exception error thrown by validator.
+     */
+    public void validationFailed(Class<?> type, ValidationException exception) {
+        this.instrumentation.validationFailed(type, exception);
+    }
+
+    /**
+     * @param type config type.
+     * @param path path of config file.
+     * @param cause cause of rejection.
+     */
+    public void reloadRejected(Class<?> type, Path path, Exception cause) {
+        this.instrumentation.reloadRejected(type, path, cause);
+    }
+
+    /**
+     * @return bytes allocated by current thread, or -1 if not supported.
+     */
+    private static long allocatedBytes() {
+        if (THREADS == null) {
+            return - 1;
+        }
+        return THREADS.getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    @Nullable
+    private static com.sun.management.ThreadMXBean threads() {
+        try {
+            java.lang.management.ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+            if ((threads instanceof com.sun.management.ThreadMXBean) &&
+                ((com.sun.management.ThreadMXBean) threads).isThreadAllocatedMemorySupported()) {
+                com.sun.management.ThreadMXBean allocations = (com.sun.management.ThreadMXBean) threads;
+                allocations.setThreadAllocatedMemoryEnabled(true);
+                return allocations;
+            }
+        }
+        catch (LinkageError | RuntimeException e) {
+            // jdk.management module is not available or allocation measurement is not allowed
+        }
+        return null;
+    }
+
+    /**
+     * Measured operation, reported when stopped, must be stopped by thread that started it.
+     */
+    public static final class Timer {
+        @Nullable
+        private final ConfigInstrumentation instrumentation;
+        private final Class<?> type;
+        private final ConfigOperation operation;
+        private final long allocated;
+        private final long start;
+
+        Timer(@Nullable ConfigInstrumentation instrumentation, Class<?> type, ConfigOperation operation, long allocated, long start) {
+            this.instrumentation = instrumentation;
+            this.type = type;
+            this.operation = operation;
+            this.allocated = allocated;
+            this.start = start;
+        }
+
+        /**
+         * Reports measured operation to instrumentation.
+         */
+        public void stop() {
+            if (this.instrumentation == null) {
+                return;
+            }
+            long nanos = System.nanoTime() - this.start;
+            long allocated = (this.allocated < 0) ? - 1 : Math.max(0, allocatedBytes() - this.allocated);
+            this.instrumentation.record(this.type, this.operation, nanos, allocated);
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package org.diorite.configs.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Histogram of durations of single operation of single config type, used by {@link HistogramInstrumentation}. <br/>
+ * Durations are counted in buckets of powers of two nanoseconds, so percentiles are accurate to factor of two, max duration is exact.
+ */
+public final class OperationHistogram {
+    private static final int BUCKETS = 64;
+
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+    private final AtomicLong maxNanos = new AtomicLong();
+    private final LongAdder allocated = new LongAdder();
+    private final LongAdder allocatedCount = new LongAdder();
+
+    void record(long nanos, long allocatedBytes) {
+        nanos = Math.max(0, nanos);
+        this.buckets.incrementAndGet(BUCKETS - 1 - Long.numberOfLeadingZeros(nanos | 1));
+        this.count.increment();
+        this.totalNanos.add(nanos);
+        this.maxNanos.accumulateAndGet(nanos, Math::max);
+        if (allocatedBytes >= 0) {
+            this.allocated.add(allocatedBytes);
+            this.allocatedCount.increment();
+        }
+    }
+
+    /**
+     * @return amount of recorded operations.
+     */
+    public long getCount() {
+        return this.count.sum();
+    }
+
+    /**
+     * @return sum of durations of all recorded operations.
+     */
+    public long getTotalNanos() {
+        return this.totalNanos.sum();
+    }
+
+    /**
+     * @return mean duration of operation, or 0 if nothing was recorded.
+     */
+    public long getMeanNanos() {
+        long count = this.count.sum();
+        return (count == 0) ? 0 : (this.totalNanos.sum() / count);
+    }
+
+    /**
+     * @return longest duration of operation.
+     */
+    public long getMaxNanos() {
+        return this.maxNanos.get();
+    }
+
+    /**
+     * @param percentile percentile, between 0 and 100.
+     *
+     * @return upper bound of duration of given percentile of operations, or 0 if nothing was recorded.
+     */
+    public long getPercentileNanos(double percentile) {
+        if ((percentile < 0) || (percentile > 100)) {
+            throw new IllegalArgumentException("Invalid percentile: " + percentile);
+        }
+        long count = 0;
+        long[] buckets = new long[BUCKETS];
+        for (int i = 0; i < BUCKETS; i++) {
+            buckets[i] = this.buckets.get(i);
+            count += buckets[i];
+        }
+        if (count == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil((count * percentile) / 100));
+        for (int i = 0; i < BUCKETS; i++) {
+            rank -= buckets[i];
+            if (rank <= 0) {
+                long bound = (i == (BUCKETS - 1)) ? Long.MAX_VALUE : ((1L << (i + 1)) - 1);
+                return Math.min(bound, this.maxNanos.get());
+            }
+        }
+        return this.maxNanos.get();
+    }
+
+    /**
+     * @return bytes allocated by all recorded operations, operations of threads without allocation measurement are not included.
+     */
+    public long getAllocatedBytes() {
+        return this.allocated.sum();
+    }
+
+    /**
+     * @return mean amount of bytes allocated by operation, or -1 if allocations weren't measured.
+     */
+    public long getMeanAllocatedBytes() {
+        long count = this.allocatedCount.sum();
+        return (count == 0) ? - 1 : (this.allocated.sum() / count);
+    }
+
+    @Override
+    public String toString() {
+        return "count=" + this.getCount() + ", mean=" + this.getMeanNanos() + "ns, p50=" + this.getPercentileNanos(50) + "ns, p99=" +
+               this.getPercentileNanos(99) + "ns, max=" + this.getMaxNanos() + "ns, allocated=" + this.getMeanAllocatedBytes() + "B";
+    }
+}
@@ -0,0 +1,584 @@
+package org.diorite.configs.processor;
+
+import org.diorite.configs.Config;
+import org.diorite.configs.ConfigDescriptor;
+import org.diorite.configs.annotations.AsList;
+import org.diorite.configs.annotations.AsMap;
+import org.diorite.configs.annotations.ConfigClass;
+import org.diorite.configs.annotations.DeserializeKeyFunction;
+import org.diorite.configs.annotations.GenerateKeyFromObjectFunction;
+import org.diorite.configs.annotations.HelperMethod;
+import org.diorite.configs.annotations.ScriptLanguage;
+import org.diorite.configs.annotations.ScriptValidator;
+import org.diorite.configs.annotations.ScriptValidators;
+import org.diorite.configs.annotations.SerializedName;
+import org.diorite.configs.annotations.Validator;
+import org.diorite.configs.annotations.meta.Comment;
+import org.diorite.configs.annotations.meta.Footer;
+import org.diorite.configs.annotations.meta.Header;
+import org.diorite.configs.annotations.style.BinaryStyle;
+import org.diorite.configs.annotations.style.BooleanStyle;
+import org.diorite.configs.annotations.style.DateStyle;
+import org.diorite.configs.annotations.style.NewLineAfter;
+import org.diorite.configs.annotations.style.NewLineBefore;
+import org.diorite.configs.annotations.style.NumberStyle;
+import org.diorite.configs.annotations.style.StringBlock;
+import org.diorite.configs.annotations.style.StringStyle;
+import org.diorite.configs.annotations.style.Style;
+import org.diorite.configs.impl.ConfigTemplateFactory;
+import org.diorite.configs.scripts.ScriptTemplate;
+import org.jetbrains.annotations.Nullable;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.type.WildcardType;
+import javax.lang.model.util.ElementFilter;
+import javax.lang.model.util.Types;
+import javax.tools.Diagnostic;
+import java.io.IOException;
+import java.io.Writer;
+import java.lang.annotation.Annotation;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.StringJoiner;
+
+/**
+ * Generates {@link ConfigDescriptor} for each config type, so config templates can be created without scanning methods and annotations
+ * at runtime. <br/>
+ * Rules used to find properties are the same as used by runtime scanning in {@link ConfigTemplateFactory}.
+ */
+@SupportedAnnotationTypes("*")
+public class ConfigDescriptorProcessor extends AbstractProcessor {
+    private static final String STYLE_PACKAGE = Style.class.getPackageName() + ".";
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        TypeElement configElement = this.processingEnv.getElementUtils().getTypeElement(Config.class.getName());
+        if (configElement == null) {
+            return false;
+        }
+        Types types = this.processingEnv.getTypeUtils();
+        TypeMirror configType = types.erasure(configElement.asType());
+        List<TypeElement> queue = new ArrayList<>(ElementFilter.typesIn(roundEnv.getRootElements()));
+        while (! queue.isEmpty()) {
+            TypeElement type = queue.remove(queue.size() - 1);
+            queue.addAll(ElementFilter.typesIn(type.getEnclosedElements()));
+            boolean isConfig = (type.getKind() == ElementKind.INTERFACE) ||
+                ((type.getKind() == ElementKind.CLASS) && type.getModifiers().contains(Modifier.ABSTRACT));
+            if (isConfig && ! type.equals(configElement) && types.isAssignable(types.erasure(type.asType()), configType)) {
+                try {
+                    this.generate(type);
+                }
+                catch (DescriptorException e) {
+                    this.processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, e.getMessage(), e.element);
+                }
+                catch (IOException e) {
+                    this.processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, "Can't write config descriptor: " + e, type);
+                }
+            }
+        }
+        return false;
+    }
+
+    private void generate(TypeElement type) throws IOException {
+        String packageName = this.processingEnv.getElementUtils().getPackageOf(type).getQualifiedName().toString();
+        String binaryName = this.processingEnv.getElementUtils().getBinaryName(type).toString();
+        String simpleName = (packageName.isEmpty() ? binaryName : binaryName.substring(packageName.length() + 1)) + ConfigDescriptor.SUFFIX;
+        String typeName = type.getQualifiedName().toString();
+
+        Map<String, ExecutableElement> getters = new LinkedHashMap<>(16);
+        Map<String, ExecutableElement> setters = new HashMap<>(16);
+        Map<String, List<String>> validators = new HashMap<>(16);
+        Map<String, String[]> keyFunctions = new HashMap<>(16);
+        Set<String> signatures = new HashSet<>(32);
+        List<ExecutableElement> cachedHelpers = new ArrayList<>(4);
+        for (TypeElement clazz : this.hierarchy(type)) {
+            if (clazz.getQualifiedName().contentEquals(Config.class.getName())) {
+                continue;
+            }
+            for (ExecutableElement method : ElementFilter.methodsIn(clazz.getEnclosedElements())) {
+                Set<Modifier> modifiers = method.getModifiers();
+                if (modifiers.contains(Modifier.STATIC) || ! signatures.add(this.signature(method))) {
+                    continue;
+                }
+                HelperMethod helper = method.getAnnotation(HelperMethod.class);
+                if ((helper != null) && helper.cached()) {
+                    cachedHelpers.add(cachedHelper(method));
+                    continue;
+                }
+                if (this.scanFunctions(method, validators, keyFunctions) || modifiers.contains(Modifier.PRIVATE) ||
+                    (method.getAnnotation(HelperMethod.class) != null)) {
+                    continue;
+                }
+                String name = method.getSimpleName().toString();
+                TypeMirror returnType = method.getReturnType();
+                if (method.getParameters().isEmpty() && (returnType.getKind() != TypeKind.VOID)) {
+                    String propertyName = ConfigTemplateFactory.propertyName(name, returnType.getKind() == TypeKind.BOOLEAN);
+                    if (propertyName != null) {
+                        getters.putIfAbsent(propertyName, method);
+                        continue;
+                    }
+                }
+                if ((method.getParameters().size() == 1) && name.startsWith("set") && (name.length() > 3)) {
+                    setters.putIfAbsent(ConfigTemplateFactory.decapitalize(name.substring(3)), method);
+                    continue;
+                }
+                if (modifiers.contains(Modifier.ABSTRACT)) {
+                    throw new DescriptorException(method, "Abstract method is not a property, use @HelperMethod and provide implementation.");
+                }
+            }
+        }
+
+        StringBuilder properties = new StringBuilder(1024);
+        int index = 0;
+        for (Map.Entry<String, ExecutableElement> entry : getters.entrySet()) {
+            String name = entry.getKey();
+            ExecutableElement getter = entry.getValue();
+            ExecutableElement setter = setters.get(name);
+            if ((setter != null) &&
+                ! this.processingEnv.getTypeUtils().isSameType(setter.getParameters().get(0).asType(), getter.getReturnType())) {
+                throw new DescriptorException(setter, "Setter does not match type of getter.");
+            }
+            SerializedName serializedName = getter.getAnnotation(SerializedName.class);
+            Comment comment = getter.getAnnotation(Comment.class);
+            List<String> scriptValidators = new ArrayList<>(2);
+            scriptValidators(getter, scriptValidators);
+            if (setter != null) {
+                scriptValidators(setter, scriptValidators);
+            }
+            String[] functions = keyFunctions.getOrDefault(name, new String[4]);
+            AsMap asMap = getter.getAnnotation(AsMap.class);
+            if ((asMap != null) && ! asMap.createKey().isEmpty()) {
+                functions[0] = script(language(getter, AsMap.class), asMap.createKey());
+                functions[1] = null;
+            }
+            if ((asMap != null) && ! asMap.deserializeKey().isEmpty()) {
+                functions[2] = script(language(getter, AsMap.class), asMap.deserializeKey());
+                functions[3] = null;
+            }
+            AsList asList = getter.getAnnotation(AsList.class);
+
+            if (index != 0) {
+                properties.append(",\n");
+            }
+            properties.append("            new ConfigPropertyTemplate(").append(index++).append(", ").append(literal(name)).append(", ")
+                      .append(literal((serializedName == null) ? name : serializedName.value())).append(", ")
+                      .append(list((serializedName == null) ? new String[0] : serializedName.alternate())).append(",\n                ")
+                      .append(this.method(getter)).append(",\n                ")
+                      .append((setter == null) ? "null" : this.method(setter)).append(",\n                ")
+                      .append(list((comment == null) ? new String[0] : comment.value())).append(",\n                ")
+                      .append(hasNestedStyles(getter.getReturnType()) ? ("PropertyStyle.of(" + this.method(getter) + ")") : style(getter))
+                      .append(",\n                ")
+                      .append(list(validators.getOrDefault(name, List.of()).toArray(new String[0]))).append(",\n                ")
+                      .append("List.of(").append(String.join(", ", scriptValidators)).append("),\n                ")
+                      .append("new KeyFunctionsTemplate(").append(functions[0]).append(", ").append(literal(functions[1])).append(", ")
+                      .append(functions[2]).append(", ").append(literal(functions[3])).append("),\n                ")
+                      .append((asMap == null) ? "null" : ("new AsMapTemplate(" + list(asMap.keys()) + ", " + literal(asMap.simplify()) + ")"))
+                      .append(", ")
+                      .append((asList == null) ? "null" : literal(asList.keyProperty()))
+                      .append(")");
+        }
+
+        ConfigClass configClass = type.getAnnotation(ConfigClass.class);
+        Header header = type.getAnnotation(Header.class);
+        Footer footer = type.getAnnotation(Footer.class);
+        String[] headerLines = (header != null) ? header.value() : ((configClass != null) ? configClass.header().value() : new String[0]);
+        String[] footerLines = (footer != null) ? footer.value() : ((configClass != null) ? configClass.footer().value() : new String[0]);
+
+        try (Writer writer = this.processingEnv.getFiler().createSourceFile(packageName.isEmpty() ? simpleName : (packageName + "." + simpleName), type)
+                                              .openWriter()) {
+            if (! packageName.isEmpty()) {
+                writer.write("package " + packageName + ";\n\n");
+            }
+            writer.write("import java.lang.reflect.Method;\n" +
+                         "import java.util.List;\n" +
+                         "import org.diorite.configs.AsMapTemplate;\n" +
+                         "import org.diorite.configs.ConfigDescriptor;\n" +
+                         "import org.diorite.configs.ConfigPropertyTemplate;\n" +
+                         "import org.diorite.configs.KeyFunctionsTemplate;\n" +
+                         "import org.diorite.configs.scripts.ScriptTemplate;\n" +
+                         "import org.diorite.configs.scripts.ScriptValidatorTemplate;\n" +
+                         "import org.diorite.configs.style.PropertyStyle;\n\n");
+            writer.write("@javax.annotation.processing.Generated(\"" + this.getClass().getName() + "\")\n");
+            writer.write("public final class " + simpleName + " implements ConfigDescriptor<" + typeName + "> {\n");
+            writer.write("    @Override\n    public Class<" + typeName + "> getType() {\n        return " + typeName + ".class;\n    }\n\n");
+            writer.write("    @Override\n    public List<String> getHeader() {\n        return " + list(headerLines) + ";\n    }\n\n");
+            writer.write("    @Override\n    public List<String> getFooter() {\n        return " + list(footerLines) + ";\n    }\n\n");
+            writer.write("    @Override\n    public List<ConfigPropertyTemplate> createProperties() {\n" +
+                         "        ConfigDescriptor.Methods methods = new ConfigDescriptor.Methods();\n        return List.of(\n");
+            writer.write(properties.toString());
+            writer.write("\n        );\n    }\n\n");
+            writer.write("    @Override\n    public List<Method> getCachedHelpers() {\n");
+            if (cachedHelpers.isEmpty()) {
+                writer.write("        return List.of();\n    }\n}\n");
+            }
+            else {
+                StringJoiner helpers = new StringJoiner(",\n            ", "List.of(\n            ", "\n        )");
+                for (ExecutableElement helper : cachedHelpers) {
+                    helpers.add(this.method(helper));
+                }
+                writer.write("        ConfigDescriptor.Methods methods = new ConfigDescriptor.Methods();\n        return " + helpers + ";\n    }\n}\n");
+            }
+        }
+    }
+
+    /**
+     * Registers validators and key functions declared by given method, same rules as used by runtime scanning.
+     *
+     * @return true if method is a function and not a property.
+     */
+    private boolean scanFunctions(ExecutableElement method, Map<String, List<String>> validators, Map<String, String[]> keyFunctions) {
+        String methodName = method.getSimpleName().toString();
+        Validator validator = method.getAnnotation(Validator.class);
+        if (validator != null) {
+            String[] names = validator.value();
+            if (names.length == 0) {
+                if (! methodName.endsWith("Validator")) {
+                    throw new DescriptorException(method, "Validator does not use name pattern propertyValidator, provide property names.");
+                }
+                names = new String[]{methodName.substring(0, methodName.length() - "Validator".length())};
+            }
+            for (String name : names) {
+                validators.computeIfAbsent(name, k -> new ArrayList<>(2)).add(methodName);
+            }
+            return true;
+        }
+        boolean function = false;
+        GenerateKeyFromObjectFunction createKey = method.getAnnotation(GenerateKeyFromObjectFunction.class);
+        if (createKey != null) {
+            String[] functions = keyFunctions.computeIfAbsent(functionProperty(method, createKey.property(), createKey.value()), k -> new String[4]);
+            function = createKey.value().isEmpty();
+            functions[0] = function ? null : script(language(method, GenerateKeyFromObjectFunction.class), createKey.value());
+            functions[1] = function ? methodName : null;
+        }
+        DeserializeKeyFunction deserializeKey = method.getAnnotation(DeserializeKeyFunction.class);
+        if (deserializeKey != null) {
+            String[] functions =
+                keyFunctions.computeIfAbsent(functionProperty(method, deserializeKey.property(), deserializeKey.value()), k -> new String[4]);
+            function = deserializeKey.value().isEmpty();
+            functions[2] = function ? null : script(language(method, DeserializeKeyFunction.class), deserializeKey.value());
+            functions[3] = function ? methodName : null;
+        }
+        return function;
+    }
+
+    private static String functionProperty(ExecutableElement method, String property, String script) {
+        if (! property.isEmpty()) {
+            return property;
+        }
+        String getterName = (script.isEmpty() || ! method.getParameters().isEmpty()) ? null :
+                            ConfigTemplateFactory.propertyName(method.getSimpleName().toString(),
+                                method.getReturnType().getKind() == TypeKind.BOOLEAN);
+        if (getterName == null) {
+            throw new DescriptorException(method, "Key function must define name of property.");
+        }
+        return getterName;
+    }
+
+    /**
+     * Styles of type arguments of return type are read from annotated return type of getter at runtime.
+     *
+     * @return true if any type argument of given type is annotated by style annotation.
+     */
+    private static boolean hasNestedStyles(TypeMirror type) {
+        List<? extends TypeMirror> arguments;
+        if (type instanceof DeclaredType) {
+            arguments = ((DeclaredType) type).getTypeArguments();
+        }
+        else if (type instanceof ArrayType) {
+            arguments = List.of(((ArrayType) type).getComponentType());
+        }
+        else {
+            return false;
+        }
+        for (TypeMirror argument : arguments) {
+            if ((argument instanceof WildcardType) && (((WildcardType) argument).getExtendsBound() != null)) {
+                argument = ((WildcardType) argument).getExtendsBound();
+            }
+            for (AnnotationMirror mirror : argument.getAnnotationMirrors()) {
+                String name = ((TypeElement) mirror.getAnnotationType().asElement()).getQualifiedName().toString();
+                if (name.startsWith(STYLE_PACKAGE)) {
+                    return true;
+                }
+            }
+            if (hasNestedStyles(argument)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String style(ExecutableElement getter) {
+        StringBuilder result = new StringBuilder("PropertyStyle.DEFAULT");
+        Style style = getter.getAnnotation(Style.class);
+        if (style != null) {
+            result.append(".withStyle(org.diorite.configs.style.Styles.").append(style.value()).append(", ").append(style.depth()).append(")");
+        }
+        StringStyle stringStyle = getter.getAnnotation(StringStyle.class);
+        if (stringStyle != null) {
+            result.append(".withStringStyle(org.diorite.configs.style.StringStyles.").append(stringStyle.value()).append(", ")
+                  .append(stringStyle.depth()).append(")");
+        }
+        StringBlock block = getter.getAnnotation(StringBlock.class);
+        if (block != null) {
+            result.append(".withStringBlock(org.diorite.configs.style.StringBlockStyle.").append(block.style())
+                  .append(", org.diorite.configs.style.StringBlockNewLinesStyle.").append(block.linesStyle()).append(", ")
+                  .append(block.minimumLength()).append(", ").append(block.minimumLines()).append(", ").append(block.spacing()).append(", ")
+                  .append(block.depth()).append(")");
+        }
+        NumberStyle numberStyle = getter.getAnnotation(NumberStyle.class);
+        if (numberStyle != null) {
+            result.append(".withNumberStyle(").append(literal(numberStyle.value())).append(", ").append(numberStyle.depth()).append(")");
+        }
+        DateStyle dateStyle = getter.getAnnotation(DateStyle.class);
+        if (dateStyle != null) {
+            result.append(".withDateStyle(").append(literal(dateStyle.value())).append(", ").append(dateStyle.depth()).append(")");
+        }
+        BinaryStyle binaryStyle = getter.getAnnotation(BinaryStyle.class);
+        if (binaryStyle != null) {
+            result.append(".withBinaryStyle(org.diorite.configs.style.BinaryStyles.").append(binaryStyle.value()).append(", ")
+                  .append(binaryStyle.switchIfLongerThan()).append(", ").append(binaryStyle.switchIfShorterThan()).append(", ")
+                  .append(binaryStyle.depth()).append(")");
+            if (binaryStyle.fileIfLongerThan() >= 0) {
+                result.append(".withBinaryFile(").append(binaryStyle.fileIfLongerThan()).append(")");
+            }
+        }
+        BooleanStyle booleanStyle = getter.getAnnotation(BooleanStyle.class);
+        if (booleanStyle != null) {
+            result.append(".withBooleanStyle(").append(list(booleanStyle.trueValues())).append(", ").append(list(booleanStyle.falseValues()))
+                  .append(")");
+        }
+        NewLineBefore newLineBefore = getter.getAnnotation(NewLineBefore.class);
+        NewLineAfter newLineAfter = getter.getAnnotation(NewLineAfter.class);
+        if ((newLineBefore != null) || (newLineAfter != null)) {
+            result.append(".withNewLines(").append((newLineBefore == null) ? 0 : newLineBefore.value()).append(", ")
+                  .append((newLineAfter == null) ? 0 : newLineAfter.value()).append(")");
+        }
+        return result.toString();
+    }
+
+    /**
+     * Script validators are read from annotation mirrors, javac can't create proxy of nested {@link ScriptLanguage} when its default
+     * value is read from class file.
+     */
+    private static void scriptValidators(ExecutableElement method, List<String> result) {
+        for (AnnotationMirror mirror : method.getAnnotationMirrors()) {
+            String name = ((TypeElement) mirror.getAnnotationType().asElement()).getQualifiedName().toString();
+            if (name.equals(ScriptValidator.class.getName())) {
+                result.add(scriptValidator(mirror));
+            }
+            else if (name.equals(ScriptValidators.class.getName())) {
+                for (AnnotationValue validator : values(mirror, "value")) {
+                    result.add(scriptValidator((AnnotationMirror) validator.getValue()));
+                }
+            }
+        }
+    }
+
+    private static String scriptValidator(AnnotationMirror validator) {
+        String language = language(validator);
+        return "new ScriptValidatorTemplate(" + script(language, (String) value(validator, "isTrue")) + ", " +
+               script(language, (String) value(validator, "elseThrow")) + ")";
+    }
+
+    private static String language(Element element, Class<? extends Annotation> annotation) {
+        for (AnnotationMirror mirror : element.getAnnotationMirrors()) {
+            if (((TypeElement) mirror.getAnnotationType().asElement()).getQualifiedName().contentEquals(annotation.getName())) {
+                return language(mirror);
+            }
+        }
+        throw new DescriptorException(element, "Missing annotation: " + annotation.getName());
+    }
+
+    /**
+     * @return arguments of {@link ScriptTemplate} constructor describing language used by given annotation.
+     */
+    private static String language(AnnotationMirror mirror) {
+        String[] values;
+        boolean override;
+        try {
+            values = (String[]) ScriptLanguage.class.getMethod("value").getDefaultValue();
+            override = (Boolean) ScriptLanguage.class.getMethod("override").getDefaultValue();
+        }
+        catch (NoSuchMethodException e) {
+            throw new IllegalStateException(e);
+        }
+        Object language = value(mirror, "language");
+        if (language instanceof AnnotationMirror) {
+            List<? extends AnnotationValue> explicitValues = values((AnnotationMirror) language, "value");
+            if (explicitValues != null) {
+                values = new String[explicitValues.size()];
+                for (int i = 0; i < values.length; i++) {
+                    values[i] = (String) explicitValues.get(i).getValue();
+                }
+            }
+            Object explicitOverride = value((AnnotationMirror) language, "override");
+            if (explicitOverride != null) {
+                override = (Boolean) explicitOverride;
+            }
+        }
+        return list(values) + ", " + override;
+    }
+
+    @Nullable
+    private static Object value(AnnotationMirror mirror, String name) {
+        for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> entry : mirror.getElementValues().entrySet()) {
+            if (entry.getKey().getSimpleName().contentEquals(name)) {
+                return entry.getValue().getValue();
+            }
+        }
+        return null;
+    }
+
+    @Nullable
+    @SuppressWarnings("unchecked")
+    private static List<? extends AnnotationValue> values(AnnotationMirror mirror, String name) {
+        Object value = value(mirror, name);
+        if ((value == null) || (value instanceof List)) {
+            return (List<? extends AnnotationValue>) value;
+        }
+        // single value of array element can be written without braces
+        for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> entry : mirror.getElementValues().entrySet()) {
+            if (entry.getKey().getSimpleName().contentEquals(name)) {
+                return List.of(entry.getValue());
+            }
+        }
+        return null;
+    }
+
+    private static String script(String language, String source) {
+        return "new ScriptTemplate(" + language + ", " + literal(source) + ")";
+    }
+
+    private String method(ExecutableElement method) {
+        Types types = this.processingEnv.getTypeUtils();
+        StringBuilder result = new StringBuilder("methods.get(");
+        result.append(((TypeElement) method.getEnclosingElement()).getQualifiedName()).append(".class, ")
+              .append(literal(method.getSimpleName().toString()));
+        for (VariableElement parameter : method.getParameters()) {
+            result.append(", ").append(types.erasure(parameter.asType())).append(".class");
+        }
+        return result.append(")").toString();
+    }
+
+    /**
+     * Checks cached helper method using same rules as used by runtime scanning.
+     */
+    private static ExecutableElement cachedHelper(ExecutableElement method) {
+        Set<Modifier> modifiers = method.getModifiers();
+        if (modifiers.contains(Modifier.ABSTRACT) || modifiers.contains(Modifier.FINAL) || modifiers.contains(Modifier.PRIVATE)) {
+            throw new DescriptorException(method, "Cached helper method must be non-private non-final method with implementation.");
+        }
+        if (! method.getParameters().isEmpty() || (method.getReturnType().getKind() == TypeKind.VOID)) {
+            throw new DescriptorException(method, "Cached helper method must return value and can't have parameters.");
+        }
+        return method;
+    }
+
+    private String signature(ExecutableElement method) {
+        StringJoiner joiner = new StringJoiner(",", method.getSimpleName() + "(", ")");
+        for (VariableElement parameter : method.getParameters()) {
+            joiner.add(this.processingEnv.getTypeUtils().erasure(parameter.asType()).toString());
+        }
+        return joiner.toString();
+    }
+
+    /**
+     * @return given type and all its super types, most specific first.
+     */
+    private List<TypeElement> hierarchy(TypeElement type) {
+        List<TypeElement> result = new ArrayList<>(8);
+        List<TypeElement> queue = new ArrayList<>(8);
+        queue.add(type);
+        while (! queue.isEmpty()) {
+            TypeElement next = queue.remove(0);
+            if (result.contains(next) || next.getQualifiedName().contentEquals(Object.class.getName())) {
+                continue;
+            }
+            result.add(next);
+            for (TypeMirror supertype : this.processingEnv.getTypeUtils().directSupertypes(next.asType())) {
+                if (supertype.getKind() == TypeKind.DECLARED) {
+                    queue.add((TypeElement) ((DeclaredType) supertype).asElement());
+                }
+            }
+        }
+        return result;
+    }
+
+    private static String list(String[] values) {
+        StringJoiner joiner = new StringJoiner(", ", "List.of(", ")");
+        for (String value : values) {
+            joiner.add(literal(value));
+        }
+        return joiner.toString();
+    }
+
+    private static String literal(@Nullable String value) {
+        if (value == null) {
+            return "null";
+        }
+        StringBuilder result = new StringBuilder(value.length() + 2).append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"':
+                    result.append("\\\"");
+                    break;
+                case '\\':
+                    result.append("\\\\");
+                    break;
+                case '\n':
+                    result.append("\\n");
+                    break;
+                case '\r':
+                    result.append("\\r");
+                    break;
+                case '\t':
+                    result.append("\\t");
+                    break;
+                default:
+                    if ((c < ' ') || (c > '~')) {
+                        result.append(String.format("\\u%04x", (int) c));
+                    }
+                    else {
+                        result.append(c);
+                    }
+            }
+        }
+        return result.append('"').toString();
+    }
+
+    private static final class DescriptorException extends RuntimeException {
+        private static final long serialVersionUID = 0;
+        private final transient Element element;
+
+        DescriptorException(Element element, String message) {
+            super(message);
+            this.element = element;
+        }
+    }
+}
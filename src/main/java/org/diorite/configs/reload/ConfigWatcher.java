@@ -0,0 +1,183 @@
+package org.diorite.configs.reload;
+
+import org.diorite.configs.Config;
+import org.diorite.configs.ConfigManager;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Watches config files and reloads them when they are changed. <br/>
+ * Events are received by watcher thread, bursts of changes of single file are merged by waiting for debounce time since last change,
+ * then file is read and validated by separate reload thread. Both threads are daemon threads and are stopped by {@link #close()}. <br/>
+ * Directory is watched as long as any config in it is watched, {@link #unwatch(ReloadableConfig)} cancels watch key of directory when
+ * its last config is removed.
+ */
+public final class ConfigWatcher implements Closeable {
+    private final ConfigManager manager;
+    private final long debounce;
+    private final WatchService watchService;
+    private final Map<WatchKey, Path> directories = new ConcurrentHashMap<>(8);
+    private final Map<Path, List<ReloadableConfig<?>>> configs = new ConcurrentHashMap<>(8);
+    private final ScheduledThreadPoolExecutor reloader;
+
+    /**
+     * @param manager manager used to load configs.
+     * @param debounce time without changes of file before it is reloaded.
+     *
+     * @throws IOException if watch service can't be created.
+     */
+    public ConfigWatcher(ConfigManager manager, Duration debounce) throws IOException {
+        this.manager = manager;
+        this.debounce = debounce.toNanos();
+        this.watchService = FileSystems.getDefault().newWatchService();
+        this.reloader = new ScheduledThreadPoolExecutor(1, task -> {
+            Thread thread = new Thread(task, "config-reloader");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.reloader.setRemoveOnCancelPolicy(true);
+        Thread watcherThread = new Thread(this::processEvents, "config-watcher");
+        watcherThread.setDaemon(true);
+        watcherThread.start();
+    }
+
+    /**
+     * Loads config from given file and starts watching it.
+     *
+     * @param type config type.
+     * @param path path of yaml file, it must exist.
+     * @param <T> config type.
+     *
+     * @return reloadable config holding snapshot loaded from given file.
+     *
+     * @throws IOException if file can't be read or watched.
+     */
+    public <T extends Config<T>> ReloadableConfig<T> watch(Class<T> type, Path path) throws IOException {
+        Path file = path.toAbsolutePath().normalize();
+        ReloadableConfig<T> config = new ReloadableConfig<>(this.manager, type, file, this.manager.load(type, file));
+        Path directory = file.getParent();
+        synchronized (this.directories) {
+            WatchKey key = directory.register(this.watchService, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+            this.directories.put(key, directory);
+            this.configs.computeIfAbsent(file, f -> new CopyOnWriteArrayList<>()).add(config);
+        }
+        return config;
+    }
+
+    /**
+     * Stops watching file of given config, pending reload of config is cancelled. Watch key of directory is cancelled if no other
+     * watched config is stored in it.
+     *
+     * @param config config returned by {@link #watch(Class, Path)}.
+     *
+     * @return true if config was watched by this watcher.
+     */
+    public boolean unwatch(ReloadableConfig<?> config) {
+        synchronized (this.directories) {
+            List<ReloadableConfig<?>> configs = this.configs.get(config.getPath());
+            if ((configs == null) || ! configs.remove(config)) {
+                return false;
+            }
+            ScheduledFuture<?> pending = config.pendingReload;
+            if (pending != null) {
+                pending.cancel(false);
+            }
+            if (configs.isEmpty()) {
+                this.configs.remove(config.getPath());
+            }
+            Path directory = config.getPath().getParent();
+            if (this.configs.keySet().stream().noneMatch(file -> file.getParent().equals(directory))) {
+                this.directories.entrySet().removeIf(entry -> {
+                    if (! entry.getValue().equals(directory)) {
+                        return false;
+                    }
+                    entry.getKey().cancel();
+                    return true;
+                });
+            }
+            return true;
+        }
+    }
+
+    /**
+     * Stops watching files, watch keys and pending reloads are cancelled.
+     *
+     * @throws IOException if watch service can't be closed.
+     */
+    @Override
+    public void close() throws IOException {
+        this.reloader.shutdownNow();
+        synchronized (this.directories) {
+            for (WatchKey key : this.directories.keySet()) {
+                key.cancel();
+            }
+            this.directories.clear();
+            this.configs.clear();
+        }
+        this.watchService.close();
+    }
+
+    private void processEvents() {
+        try {
+            while (true) {
+                WatchKey key = this.watchService.take();
+                Path directory = this.directories.get(key);
+                for (WatchEvent<?> event : key.pollEvents()) {
+                    if (directory == null) {
+                        continue;
+                    }
+                    if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                        // changes were lost, all files in directory might be changed
+                        for (Map.Entry<Path, List<ReloadableConfig<?>>> entry : this.configs.entrySet()) {
+                            if (entry.getKey().startsWith(directory)) {
+                                this.scheduleReload(entry.getValue());
+                            }
+                        }
+                        continue;
+                    }
+                    List<ReloadableConfig<?>> configs = this.configs.get(directory.resolve((Path) event.context()));
+                    if (configs != null) {
+                        this.scheduleReload(configs);
+                    }
+                }
+                key.reset();
+            }
+        }
+        catch (InterruptedException | ClosedWatchServiceException e) {
+            // watcher closed
+        }
+    }
+
+    private void scheduleReload(List<ReloadableConfig<?>> configs) {
+        for (ReloadableConfig<?> config : configs) {
+            ScheduledFuture<?> pending = config.pendingReload;
+            if (pending != null) {
+                pending.cancel(false);
+            }
+            try {
+                config.pendingReload = this.reloader.schedule(config::reloadQuietly, this.debounce, TimeUnit.NANOSECONDS);
+            }
+            catch (RejectedExecutionException e) {
+                // watcher closed
+                return;
+            }
+        }
+    }
+}
@@ -0,0 +1,156 @@
+package org.diorite.configs.reload;
+
+import org.diorite.configs.Config;
+import org.diorite.configs.ConfigException;
+import org.diorite.configs.ConfigManager;
+import org.diorite.configs.impl.ConfigPropertyAccess;
+import org.diorite.configs.metrics.ConfigOperation;
+import org.diorite.configs.metrics.Instrumentation;
+import org.diorite.configs.yaml.LazyProperties;
+import org.diorite.configs.yaml.YamlDocument;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+/**
+ * Config file watched by {@link ConfigWatcher}, holds latest valid snapshot of config loaded from that file. <br/>
+ * New snapshot is fully read and validated before it is published by single volatile write, so threads using {@link #get()} never
+ * block and never see partially reloaded config. Values of lazy properties are read and validated before snapshot is published too.
+ * If changed file can't be read or any value is rejected by validators, old snapshot is kept, error listeners are notified and
+ * rejection is reported to instrumentation of manager. <br/>
+ * Reloads are serialized, so file is always read and published by one thread at a time and newer content of file is never replaced by
+ * snapshot of older content read by other thread. <br/>
+ * Snapshots are normal config instances, changes made by setters are lost when file is reloaded unless config is saved first.
+ *
+ * @param <T> type of config.
+ */
+public final class ReloadableConfig<T extends Config<T>> {
+    private final ConfigManager manager;
+    private final Class<T> type;
+    private final Path path;
+    private final List<Consumer<? super T>> reloadListeners = new CopyOnWriteArrayList<>();
+    private final List<BiConsumer<Path, ? super Exception>> errorListeners = new CopyOnWriteArrayList<>();
+    private final ReentrantLock reloadLock = new ReentrantLock();
+    private volatile T config;
+    // only set by watcher thread, cancelled also when config is unwatched
+    @Nullable
+    volatile ScheduledFuture<?> pendingReload;
+
+    ReloadableConfig(ConfigManager manager, Class<T> type, Path path, T config) {
+        this.manager = manager;
+        this.type = type;
+        this.path = path;
+        this.config = resolveLazy(config);
+    }
+
+    /**
+     * @return latest valid snapshot of config.
+     */
+    public T get() {
+        return this.config;
+    }
+
+    public Class<T> getType() {
+        return this.type;
+    }
+
+    public Path getPath() {
+        return this.path;
+    }
+
+    /**
+     * @param listener listener called with new snapshot after each successful reload.
+     */
+    public void onReload(Consumer<? super T> listener) {
+        this.reloadListeners.add(listener);
+    }
+
+    /**
+     * @param listener listener called with path of file and cause when reload was rejected.
+     */
+    public void onError(BiConsumer<Path, ? super Exception> listener) {
+        this.errorListeners.add(listener);
+    }
+
+    /**
+     * Reads and validates file in current thread and publishes new snapshot, file that did not change since last load or save is not
+     * read again. Waits for reload started by other thread to finish first, and reload listeners are called before lock is released,
+     * so they see snapshots in order of reloads.
+     *
+     * @return true if new snapshot was published.
+     *
+     * @throws IOException if file can't be read, old snapshot is kept.
+     * @throws ConfigException if file is invalid, old snapshot is kept.
+     */
+    public boolean reload() throws IOException {
+        this.reloadLock.lock();
+        try {
+            return this.reloadLocked();
+        }
+        finally {
+            this.reloadLock.unlock();
+        }
+    }
+
+    private boolean reloadLocked() throws IOException {
+        Instrumentation instrumentation = this.manager.getInstrumentation();
+        T config;
+        Instrumentation.Timer timer = instrumentation.start(this.type, ConfigOperation.RELOAD);
+        try {
+            String text = new String(Files.readAllBytes(this.path), StandardCharsets.UTF_8);
+            YamlDocument document = ((ConfigPropertyAccess) this.config).getDocument();
+            if ((document != null) && document.getText().equals(text)) {
+                return false;
+            }
+            config = resolveLazy(this.manager.getSerializers().getConfigSerializer(this.type).loadDocument(text, this.path));
+        }
+        catch (IOException | RuntimeException e) {
+            instrumentation.reloadRejected(this.type, this.path, e);
+            throw e;
+        }
+        finally {
+            timer.stop();
+        }
+        this.config = config;
+        for (Consumer<? super T> listener : this.reloadListeners) {
+            listener.accept(config);
+        }
+        return true;
+    }
+
+    /**
+     * Reads values of lazy properties of given snapshot, so snapshot is published only if they are valid too.
+     *
+     * @throws org.diorite.configs.ConfigException if value of any lazy property is invalid.
+     */
+    private static <T extends Config<T>> T resolveLazy(T config) {
+        LazyProperties lazy = ((ConfigPropertyAccess) config).getLazyProperties();
+        if (lazy != null) {
+            lazy.resolveAll();
+        }
+        return config;
+    }
+
+    /**
+     * Reloads file and reports errors to listeners instead of throwing them, used by watcher.
+     */
+    void reloadQuietly() {
+        try {
+            this.reload();
+        }
+        catch (IOException | RuntimeException e) {
+            for (BiConsumer<Path, ? super Exception> listener : this.errorListeners) {
+                listener.accept(this.path, e);
+            }
+        }
+    }
+}
@@ -0,0 +1,181 @@
+package org.diorite.configs.scripts;
+
+import org.diorite.configs.ConfigException;
+import org.diorite.configs.annotations.ScriptLanguage;
+
+import javax.script.Bindings;
+import javax.script.Compilable;
+import javax.script.CompiledScript;
+import javax.script.ScriptContext;
+import javax.script.ScriptEngine;
+import javax.script.ScriptEngineFactory;
+import javax.script.ScriptEngineManager;
+import javax.script.ScriptException;
+import javax.script.SimpleScriptContext;
+import java.lang.reflect.Method;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Pool of script engines shared by all config managers. <br/>
+ * Single engine is created for each distinct language and options array, see {@link ScriptLanguage#value()}, and each script source
+ * is compiled only once for given engine. Compiled scripts are evaluated using context of current thread, so each thread has own
+ * isolated variables and concurrent validations does not need to synchronize on engine. Contexts are created once per thread, so
+ * evaluation does not allocate new context like {@link CompiledScript#eval(Bindings)}.
+ */
+public final class ScriptEnginePool {
+    private static final ScriptEnginePool SHARED = new ScriptEnginePool();
+
+    private final ScriptEngineManager engineManager = new ScriptEngineManager(ScriptEnginePool.class.getClassLoader());
+    private final Map<List<String>, PooledEngine> engines = new ConcurrentHashMap<>(4);
+
+    /**
+     * @return pool shared by all config managers.
+     */
+    public static ScriptEnginePool shared() {
+        return SHARED;
+    }
+
+    /**
+     * @param language name of language/engine followed by engine options.
+     *
+     * @return engine for given language and options.
+     */
+    public ScriptEngine getEngine(List<String> language) {
+        return this.getPooledEngine(language).engine;
+    }
+
+    /**
+     * Returns bindings of current thread for engine of given language, bindings are created on first use in each thread. <br/>
+     * Variables set before evaluation of script should be restored to previous values after it, as same bindings are used by all
+     * scripts of this engine evaluated in this thread.
+     *
+     * @param language name of language/engine followed by engine options.
+     *
+     * @return bindings of current thread.
+     */
+    public Bindings getBindings(List<String> language) {
+        return this.getContext(language).getBindings(ScriptContext.ENGINE_SCOPE);
+    }
+
+    /**
+     * Returns context of current thread for engine of given language, with {@link #getBindings(List) bindings of current thread} as
+     * engine scope and with global scope, reader and writers of engine, like context created by {@link CompiledScript#eval(Bindings)}.
+     *
+     * @param language name of language/engine followed by engine options.
+     *
+     * @return context of current thread.
+     */
+    public ScriptContext getContext(List<String> language) {
+        return this.getPooledEngine(language).contexts.get();
+    }
+
+    /**
+     * Compiles given source using engine of given language, or returns already compiled script if same source was compiled before.
+     *
+     * @param language name of language/engine followed by engine options.
+     * @param source source of script.
+     *
+     * @return compiled script.
+     */
+    public CompiledScript compile(List<String> language, String source) {
+        PooledEngine engine = this.getPooledEngine(language);
+        return engine.scripts.computeIfAbsent(source, engine::compile);
+    }
+
+    private PooledEngine getPooledEngine(List<String> language) {
+        PooledEngine engine = this.engines.get(language);
+        if (engine != null) {
+            return engine;
+        }
+        return this.engines.computeIfAbsent(List.copyOf(language), key -> new PooledEngine(this.createEngine(key)));
+    }
+
+    private ScriptEngine createEngine(List<String> language) {
+        String name = language.get(0);
+        String[] options = language.subList(1, language.size()).toArray(new String[0]);
+        for (ScriptEngineFactory factory : this.engineManager.getEngineFactories()) {
+            if (! factory.getNames().contains(name) && ! factory.getLanguageName().equalsIgnoreCase(name)) {
+                continue;
+            }
+            if (options.length != 0) {
+                try {
+                    // nashorn accepts engine options only using own api
+                    Method withOptions = factory.getClass().getMethod("getScriptEngine", String[].class);
+                    return (ScriptEngine) withOptions.invoke(factory, (Object) options);
+                }
+                catch (NoSuchMethodException e) {
+                    // options are not supported by this engine
+                }
+                catch (ReflectiveOperationException e) {
+                    throw new ConfigException("Can't create script engine: " + language, e);
+                }
+            }
+            return factory.getScriptEngine();
+        }
+        throw new ConfigException("Script engine not found: " + name);
+    }
+
+    private static final class PooledEngine {
+        private final ScriptEngine engine;
+        private final ThreadLocal<ScriptContext> contexts;
+        private final Map<String, CompiledScript> scripts = new ConcurrentHashMap<>(16);
+
+        PooledEngine(ScriptEngine engine) {
+            this.engine = engine;
+            this.contexts = ThreadLocal.withInitial(this::createContext);
+        }
+
+        private ScriptContext createContext() {
+            ScriptContext engineContext = this.engine.getContext();
+            ScriptContext context = new SimpleScriptContext();
+            context.setBindings(this.engine.createBindings(), ScriptContext.ENGINE_SCOPE);
+            context.setBindings(engineContext.getBindings(ScriptContext.GLOBAL_SCOPE), ScriptContext.GLOBAL_SCOPE);
+            context.setReader(engineContext.getReader());
+            context.setWriter(engineContext.getWriter());
+            context.setErrorWriter(engineContext.getErrorWriter());
+            return context;
+        }
+
+        CompiledScript compile(String source) {
+            if (! (this.engine instanceof Compilable)) {
+                return new InterpretedScript(this.engine, source);
+            }
+            try {
+                return ((Compilable) this.engine).compile(source);
+            }
+            catch (ScriptException e) {
+                throw new ConfigException("Can't compile script: " + source, e);
+            }
+        }
+    }
+
+    /**
+     * Used for engines that can't compile scripts, source is evaluated on each call.
+     */
+    private static final class InterpretedScript extends CompiledScript {
+        private final ScriptEngine engine;
+        private final String source;
+
+        InterpretedScript(ScriptEngine engine, String source) {
+            this.engine = engine;
+            this.source = source;
+        }
+
+        @Override
+        public Object eval(ScriptContext context) throws ScriptException {
+            return this.engine.eval(this.source, context);
+        }
+
+        @Override
+        public Object eval(Bindings bindings) throws ScriptException {
+            return this.engine.eval(this.source, bindings);
+        }
+
+        @Override
+        public ScriptEngine getEngine() {
+            return this.engine;
+        }
+    }
+}
@@ -0,0 +1,163 @@
+package org.diorite.configs.scripts;
+
+import org.diorite.configs.annotations.ScriptLanguage;
+import org.jetbrains.annotations.Nullable;
+
+import javax.script.Bindings;
+import javax.script.CompiledScript;
+import javax.script.ScriptContext;
+import javax.script.ScriptEngine;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Resolves languages of scripts used by config annotations and compiles scripts for them. <br/>
+ * Engines and compiled scripts are shared using {@link ScriptEnginePool}, simple javascript expressions are compiled to java code and
+ * does not need script engine at all.
+ */
+public final class ScriptEngines {
+    /**
+     * Default value of {@link ScriptLanguage#value()}.
+     */
+    public static final List<String> DEFAULT_LANGUAGE;
+
+    static {
+        try {
+            DEFAULT_LANGUAGE = List.of((String[]) ScriptLanguage.class.getMethod("value").getDefaultValue());
+        }
+        catch (NoSuchMethodException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private final ScriptEnginePool pool;
+    private final List<String> defaultLanguage;
+
+    public ScriptEngines() {
+        this(DEFAULT_LANGUAGE);
+    }
+
+    /**
+     * @param defaultLanguage language used by scripts that does not select own language, see {@link ScriptLanguage#override()}.
+     */
+    public ScriptEngines(List<String> defaultLanguage) {
+        this(defaultLanguage, ScriptEnginePool.shared());
+    }
+
+    /**
+     * @param defaultLanguage language used by scripts that does not select own language, see {@link ScriptLanguage#override()}.
+     * @param pool pool of engines and compiled scripts.
+     */
+    public ScriptEngines(List<String> defaultLanguage, ScriptEnginePool pool) {
+        this.defaultLanguage = List.copyOf(defaultLanguage);
+        this.pool = pool;
+    }
+
+    public ScriptEnginePool getPool() {
+        return this.pool;
+    }
+
+    public List<String> getDefaultLanguage() {
+        return this.defaultLanguage;
+    }
+
+    /**
+     * @return language and options that should be used to run given script.
+     */
+    public List<String> languageOf(ScriptTemplate script) {
+        if (! script.isOverrideLanguage() && script.getLanguage().equals(DEFAULT_LANGUAGE)) {
+            return this.defaultLanguage;
+        }
+        return script.getLanguage();
+    }
+
+    /**
+     * @return engine for given language and options, engines are shared between all scripts using same language.
+     */
+    public ScriptEngine getEngine(List<String> language) {
+        return this.pool.getEngine(language);
+    }
+
+    /**
+     * @return bindings of current thread for engine used to run given script, see {@link ScriptEnginePool#getBindings(List)}.
+     */
+    public Bindings getBindings(ScriptTemplate script) {
+        return this.pool.getBindings(this.languageOf(script));
+    }
+
+    /**
+     * @return context of current thread for engine used to run given script, see {@link ScriptEnginePool#getContext(List)}.
+     */
+    public ScriptContext getContext(ScriptTemplate script) {
+        return this.pool.getContext(this.languageOf(script));
+    }
+
+    /**
+     * Compiles source of given script, scripts with same source and language are compiled only once.
+     *
+     * @param script script to compile.
+     *
+     * @return compiled script.
+     */
+    public CompiledScript compile(ScriptTemplate script) {
+        return this.compile(script, script.getSource());
+    }
+
+    /**
+     * Compiles source of given script as string template, like {@code "value ${x} is invalid"}, result of script is a string with all
+     * expressions replaced by their values.
+     *
+     * @param script script to compile.
+     *
+     * @return compiled script.
+     */
+    public CompiledScript compileTemplate(ScriptTemplate script) {
+        String source = script.getSource().replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n").replace("\r", "\\r");
+        return this.compile(script, '"' + source + '"');
+    }
+
+    /**
+     * Compiles given script to java code if it is simple javascript expression, see {@link SimpleExpressionCompiler}.
+     *
+     * @param script script to compile.
+     *
+     * @return compiled expression or null if script must be evaluated by script engine.
+     */
+    @Nullable
+    SimpleExpression compileSimple(ScriptTemplate script) {
+        if (! isJavaScript(this.languageOf(script))) {
+            return null;
+        }
+        return SimpleExpressionCompiler.compile(script.getSource());
+    }
+
+    /**
+     * Compiles given string template to java code if all expressions used in it are simple, see {@link #compileTemplate(ScriptTemplate)}.
+     *
+     * @param script string template to compile.
+     *
+     * @return compiled template or null if template must be evaluated by script engine.
+     */
+    @Nullable
+    SimpleExpression compileSimpleTemplate(ScriptTemplate script) {
+        List<String> language = this.languageOf(script);
+        if (! isJavaScript(language)) {
+            return null;
+        }
+        if (! language.contains("-scripting") && ! language.contains("-scripting=true")) {
+            // string interpolation is only supported in scripting mode
+            String message = script.getSource();
+            return (x, cfg) -> message;
+        }
+        return SimpleExpressionCompiler.compileTemplate(script.getSource());
+    }
+
+    private static boolean isJavaScript(List<String> language) {
+        String name = language.get(0).toLowerCase(Locale.ROOT);
+        return name.equals("javascript") || name.equals("js") || name.equals("nashorn") || name.equals("ecmascript");
+    }
+
+    private CompiledScript compile(ScriptTemplate script, String source) {
+        return this.pool.compile(this.languageOf(script), source);
+    }
+}
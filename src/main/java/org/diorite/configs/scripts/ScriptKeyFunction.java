@@ -0,0 +1,79 @@
+package org.diorite.configs.scripts;
+
+import org.diorite.configs.Config;
+import org.diorite.configs.ConfigException;
+import org.diorite.configs.annotations.AsMap;
+import org.diorite.configs.index.KeyFunction;
+import org.diorite.configs.metrics.ConfigOperation;
+import org.diorite.configs.metrics.Instrumentation;
+import org.jetbrains.annotations.Nullable;
+
+import javax.script.Bindings;
+import javax.script.CompiledScript;
+import javax.script.ScriptContext;
+import javax.script.ScriptException;
+
+/**
+ * Key function created from script of {@link AsMap#createKey()} or {@link org.diorite.configs.annotations.GenerateKeyFromObjectFunction}.
+ * <br/>
+ * Script is compiled on first use, so configs can be loaded even if their script engine is not available until their index is used.
+ * Element is available as {@code x} and config as {@code cfg}.
+ */
+public final class ScriptKeyFunction implements KeyFunction {
+    private final Class<?> type;
+    private final ScriptTemplate template;
+    private final ScriptEngines engines;
+    private final Instrumentation instrumentation;
+    @Nullable
+    private volatile SimpleExpression simple;
+    @Nullable
+    private volatile CompiledScript script;
+
+    public ScriptKeyFunction(Class<?> type, ScriptTemplate template, ScriptEngines engines, Instrumentation instrumentation) {
+        this.type = type;
+        this.template = template;
+        this.engines = engines;
+        this.instrumentation = instrumentation;
+    }
+
+    @Nullable
+    @Override
+    public Object createKey(Object element, Config<?> config) {
+        Instrumentation.Timer timer = this.instrumentation.start(this.type, ConfigOperation.SCRIPT);
+        try {
+            SimpleExpression simple = this.simple;
+            CompiledScript script = this.script;
+            if ((simple == null) && (script == null)) {
+                simple = this.engines.compileSimple(this.template);
+                if (simple == null) {
+                    script = this.engines.compile(this.template);
+                    this.script = script;
+                }
+                else {
+                    this.simple = simple;
+                }
+            }
+            if (simple != null) {
+                return simple.eval(element, config);
+            }
+            assert script != null;
+            ScriptContext context = this.engines.getContext(this.template);
+            Bindings bindings = context.getBindings(ScriptContext.ENGINE_SCOPE);
+            Object previousValue = bindings.put("x", element);
+            Object previousConfig = bindings.put("cfg", config);
+            try {
+                return script.eval(context);
+            }
+            finally {
+                bindings.put("x", previousValue);
+                bindings.put("cfg", previousConfig);
+            }
+        }
+        catch (ScriptException e) {
+            throw new ConfigException("Can't create key of " + element + " using: " + this.template, e);
+        }
+        finally {
+            timer.stop();
+        }
+    }
+}
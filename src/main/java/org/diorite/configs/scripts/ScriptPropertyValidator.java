@@ -0,0 +1,141 @@
+package org.diorite.configs.scripts;
+
+import org.diorite.configs.Config;
+import org.diorite.configs.ConfigPropertyTemplate;
+import org.diorite.configs.annotations.ScriptValidator;
+import org.diorite.configs.metrics.ConfigOperation;
+import org.diorite.configs.metrics.Instrumentation;
+import org.diorite.configs.validation.PropertyValidator;
+import org.diorite.configs.validation.ValidationException;
+import org.jetbrains.annotations.Nullable;
+
+import javax.script.Bindings;
+import javax.script.CompiledScript;
+import javax.script.ScriptContext;
+import javax.script.ScriptException;
+
+/**
+ * Validator created from {@link ScriptValidator}. <br/>
+ * Condition is compiled once when validator is created, error message is compiled on first failed validation. Simple javascript
+ * expressions are compiled to java code, other scripts are evaluated by shared script engine using context of current thread, see
+ * {@link ScriptEnginePool}. Property value is available as {@code x} and config as {@code cfg}.
+ */
+public final class ScriptPropertyValidator implements PropertyValidator {
+    private final Class<?> type;
+    private final ConfigPropertyTemplate property;
+    private final ScriptValidatorTemplate template;
+    private final ScriptEngines engines;
+    private final Instrumentation instrumentation;
+    @Nullable
+    private final SimpleExpression simpleIsTrue;
+    @Nullable
+    private final CompiledScript isTrue;
+    @Nullable
+    private volatile SimpleExpression simpleElseThrow;
+    @Nullable
+    private volatile CompiledScript elseThrow;
+
+    public ScriptPropertyValidator(Class<?> type, ConfigPropertyTemplate property, ScriptValidatorTemplate template, ScriptEngines engines,
+                                   Instrumentation instrumentation) {
+        this.type = type;
+        this.property = property;
+        this.template = template;
+        this.engines = engines;
+        this.instrumentation = instrumentation;
+        this.simpleIsTrue = engines.compileSimple(template.getIsTrue());
+        this.isTrue = (this.simpleIsTrue == null) ? engines.compile(template.getIsTrue()) : null;
+    }
+
+    /**
+     * @return true if this validator does not use script engine to validate values.
+     */
+    public boolean isSimple() {
+        return this.simpleIsTrue != null;
+    }
+
+    @Nullable
+    @Override
+    public Object validate(@Nullable Object value, Config<?> config) {
+        if (this.simpleIsTrue == null) {
+            return this.validateScript(value, config);
+        }
+        Instrumentation.Timer timer = this.instrumentation.start(this.type, ConfigOperation.SCRIPT);
+        try {
+            if (isTrue(this.simpleIsTrue.eval(value, config))) {
+                return value;
+            }
+        }
+        catch (ScriptException e) {
+            throw new ValidationException(this.property, "Can't validate " + this.property.getName() + " using: " + this.template, e);
+        }
+        finally {
+            timer.stop();
+        }
+        throw new ValidationException(this.property, this.message(value, config));
+    }
+
+    private Object validateScript(@Nullable Object value, Config<?> config) {
+        assert this.isTrue != null;
+        ScriptContext context = this.engines.getContext(this.template.getIsTrue());
+        Bindings bindings = context.getBindings(ScriptContext.ENGINE_SCOPE);
+        Object previousValue = bindings.put("x", value);
+        Object previousConfig = bindings.put("cfg", config);
+        Instrumentation.Timer timer = this.instrumentation.start(this.type, ConfigOperation.SCRIPT);
+        try {
+            if (isTrue(this.isTrue.eval(context))) {
+                return value;
+            }
+        }
+        catch (ScriptException e) {
+            throw new ValidationException(this.property, "Can't validate " + this.property.getName() + " using: " + this.template, e);
+        }
+        finally {
+            timer.stop();
+            bindings.put("x", previousValue);
+            bindings.put("cfg", previousConfig);
+        }
+        throw new ValidationException(this.property, this.message(value, config));
+    }
+
+    private String message(@Nullable Object value, Config<?> config) {
+        try {
+            SimpleExpression simpleElseThrow = this.simpleElseThrow;
+            CompiledScript elseThrow = this.elseThrow;
+            if ((simpleElseThrow == null) && (elseThrow == null)) {
+                simpleElseThrow = this.engines.compileSimpleTemplate(this.template.getElseThrow());
+                if (simpleElseThrow == null) {
+                    elseThrow = this.engines.compileTemplate(this.template.getElseThrow());
+                    this.elseThrow = elseThrow;
+                }
+                else {
+                    this.simpleElseThrow = simpleElseThrow;
+                }
+            }
+            if (simpleElseThrow != null) {
+                return String.valueOf(simpleElseThrow.eval(value, config));
+            }
+            assert elseThrow != null;
+            ScriptContext context = this.engines.getContext(this.template.getElseThrow());
+            Bindings bindings = context.getBindings(ScriptContext.ENGINE_SCOPE);
+            Object previousValue = bindings.put("x", value);
+            Object previousConfig = bindings.put("cfg", config);
+            try {
+                return String.valueOf(elseThrow.eval(context));
+            }
+            finally {
+                bindings.put("x", previousValue);
+                bindings.put("cfg", previousConfig);
+            }
+        }
+        catch (ScriptException e) {
+            return this.template.getElseThrow().getSource();
+        }
+    }
+
+    static boolean isTrue(@Nullable Object result) {
+        if (result instanceof Boolean) {
+            return (Boolean) result;
+        }
+        return result != null;
+    }
+}
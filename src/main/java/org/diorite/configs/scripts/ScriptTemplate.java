@@ -0,0 +1,46 @@
+package org.diorite.configs.scripts;
+
+import org.diorite.configs.annotations.ScriptLanguage;
+
+import java.util.List;
+
+/**
+ * Source of single script snippet used by config annotations, together with language and options of engine that should run it.
+ */
+public final class ScriptTemplate {
+    private final List<String> language;
+    private final boolean overrideLanguage;
+    private final String source;
+
+    /**
+     * @param language name of language/engine followed by engine options, see {@link ScriptLanguage#value()}.
+     * @param overrideLanguage see {@link ScriptLanguage#override()}.
+     * @param source script source.
+     */
+    public ScriptTemplate(List<String> language, boolean overrideLanguage, String source) {
+        this.language = List.copyOf(language);
+        this.overrideLanguage = overrideLanguage;
+        this.source = source;
+    }
+
+    public static ScriptTemplate of(ScriptLanguage language, String source) {
+        return new ScriptTemplate(List.of(language.value()), language.override(), source);
+    }
+
+    public List<String> getLanguage() {
+        return this.language;
+    }
+
+    public boolean isOverrideLanguage() {
+        return this.overrideLanguage;
+    }
+
+    public String getSource() {
+        return this.source;
+    }
+
+    @Override
+    public String toString() {
+        return this.source;
+    }
+}
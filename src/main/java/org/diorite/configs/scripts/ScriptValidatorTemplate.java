@@ -0,0 +1,34 @@
+package org.diorite.configs.scripts;
+
+import org.diorite.configs.annotations.ScriptValidator;
+
+/**
+ * Resolved {@link ScriptValidator}, condition and error message template.
+ */
+public final class ScriptValidatorTemplate {
+    private final ScriptTemplate isTrue;
+    private final ScriptTemplate elseThrow;
+
+    public ScriptValidatorTemplate(ScriptTemplate isTrue, ScriptTemplate elseThrow) {
+        this.isTrue = isTrue;
+        this.elseThrow = elseThrow;
+    }
+
+    public static ScriptValidatorTemplate of(ScriptValidator validator) {
+        return new ScriptValidatorTemplate(ScriptTemplate.of(validator.language(), validator.isTrue()),
+            ScriptTemplate.of(validator.language(), validator.elseThrow()));
+    }
+
+    public ScriptTemplate getIsTrue() {
+        return this.isTrue;
+    }
+
+    public ScriptTemplate getElseThrow() {
+        return this.elseThrow;
+    }
+
+    @Override
+    public String toString() {
+        return this.isTrue + " else " + this.elseThrow;
+    }
+}
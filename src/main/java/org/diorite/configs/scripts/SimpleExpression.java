@@ -0,0 +1,23 @@
+package org.diorite.configs.scripts;
+
+import org.diorite.configs.Config;
+import org.jetbrains.annotations.Nullable;
+
+import javax.script.ScriptException;
+
+/**
+ * Script compiled to java code by {@link SimpleExpressionCompiler}, evaluated without script engine.
+ */
+@FunctionalInterface
+interface SimpleExpression {
+    /**
+     * @param x value of {@code x} variable.
+     * @param cfg value of {@code cfg} variable.
+     *
+     * @return result of expression.
+     *
+     * @throws ScriptException if expression can't be evaluated for given values.
+     */
+    @Nullable
+    Object eval(@Nullable Object x, Config<?> cfg) throws ScriptException;
+}
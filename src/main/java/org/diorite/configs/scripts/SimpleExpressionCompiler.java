@@ -0,0 +1,900 @@
+package org.diorite.configs.scripts;
+
+import org.diorite.configs.Config;
+import org.jetbrains.annotations.Nullable;
+
+import javax.script.ScriptException;
+import java.lang.reflect.Array;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+/**
+ * Compiles simple javascript expressions to java code, so most common validators does not need to start script engine. <br/>
+ * Supported subset of javascript:
+ * <ul>
+ * <li>variables {@code x} and {@code cfg}, number, string, boolean, {@code null} and {@code undefined} literals,</li>
+ * <li>comparisons {@code < <= > >= == != === !==}, arithmetic {@code + - * / %}, boolean logic {@code ! && ||} and parentheses,</li>
+ * <li>{@code x.length}, {@code x.length()}, {@code x.size()} and {@code x.isEmpty()} of strings, arrays, collections and maps,</li>
+ * <li>regular expressions: {@code /regex/flags.test(x)} and {@code x.matches("regex")}.</li>
+ * </ul>
+ * Values are compared and converted like in javascript. Any other script is not compiled and must be evaluated by script engine.
+ */
+final class SimpleExpressionCompiler {
+    /**
+     * Value of javascript {@code undefined}.
+     */
+    static final Object UNDEFINED = new Object() {
+        @Override
+        public String toString() {
+            return "undefined";
+        }
+    };
+
+    // line terminators and whitespace of javascript regular expressions, as contents of character class
+    private static final String JS_LINE_TERMINATORS = "\\n\\r\\u2028\\u2029";
+    private static final String JS_WHITESPACE = "\\t\\n\\x0B\\f\\r \\u00A0\\u1680\\u2000-\\u200A\\u2028\\u2029\\u202F\\u205F\\u3000\\uFEFF";
+
+    private static final SimpleExpression X   = (x, cfg) -> x;
+    private static final SimpleExpression CFG = (x, cfg) -> cfg;
+
+    private final String source;
+    private       int    pos;
+
+    private SimpleExpressionCompiler(String source) {
+        this.source = source;
+    }
+
+    /**
+     * @param source source of expression.
+     *
+     * @return compiled expression or null if expression is not supported.
+     */
+    @Nullable
+    static SimpleExpression compile(String source) {
+        SimpleExpression expression = parse(source);
+        if (expression == null) {
+            return null;
+        }
+        return (x, cfg) -> {
+            Object result = expression.eval(x, cfg);
+            return (result == UNDEFINED) ? null : result;
+        };
+    }
+
+    /**
+     * Compiles string template, like {@code "value ${x} is invalid"}, each {@code ${expression}} is replaced by string value of
+     * expression.
+     *
+     * @param source source of template.
+     *
+     * @return compiled template or null if any of expressions is not supported.
+     */
+    @Nullable
+    static SimpleExpression compileTemplate(String source) {
+        List<Object> parts = new ArrayList<>(4);
+        int last = 0;
+        int start;
+        while ((start = source.indexOf("${", last)) != - 1) {
+            int end = source.indexOf('}', start);
+            if (end == - 1) {
+                return null;
+            }
+            if (start > last) {
+                parts.add(source.substring(last, start));
+            }
+            SimpleExpression expression = parse(source.substring(start + 2, end));
+            if (expression == null) {
+                return null;
+            }
+            parts.add(expression);
+            last = end + 1;
+        }
+        if (last < source.length()) {
+            parts.add(source.substring(last));
+        }
+        Object[] partsArray = parts.toArray();
+        return (x, cfg) -> {
+            StringBuilder result = new StringBuilder(source.length() + 16);
+            for (Object part : partsArray) {
+                if (part instanceof String) {
+                    result.append(part);
+                }
+                else {
+                    result.append(toJsString(((SimpleExpression) part).eval(x, cfg)));
+                }
+            }
+            return result.toString();
+        };
+    }
+
+    @Nullable
+    private static SimpleExpression parse(String source) {
+        try {
+            SimpleExpressionCompiler compiler = new SimpleExpressionCompiler(source);
+            SimpleExpression expression = compiler.parseExpression();
+            compiler.skipWhitespace();
+            return (compiler.pos == source.length()) ? expression : null;
+        }
+        catch (UnsupportedExpressionException e) {
+            return null;
+        }
+    }
+
+    private SimpleExpression parseExpression() {
+        SimpleExpression left = this.parseAnd();
+        while (this.match("||")) {
+            left = or(left, this.parseAnd());
+        }
+        return left;
+    }
+
+    private SimpleExpression parseAnd() {
+        SimpleExpression left = this.parseEquality();
+        while (this.match("&&")) {
+            left = and(left, this.parseEquality());
+        }
+        return left;
+    }
+
+    private SimpleExpression parseEquality() {
+        SimpleExpression left = this.parseRelational();
+        while (true) {
+            if (this.match("===")) {
+                left = equality(left, this.parseRelational(), true, false);
+            }
+            else if (this.match("!==")) {
+                left = equality(left, this.parseRelational(), true, true);
+            }
+            else if (this.match("==")) {
+                left = equality(left, this.parseRelational(), false, false);
+            }
+            else if (this.match("!=")) {
+                left = equality(left, this.parseRelational(), false, true);
+            }
+            else {
+                return left;
+            }
+        }
+    }
+
+    private SimpleExpression parseRelational() {
+        SimpleExpression left = this.parseAdditive();
+        while (true) {
+            if (this.match("<=")) {
+                left = relational(left, this.parseAdditive(), true, false);
+            }
+            else if (this.match(">=")) {
+                left = relational(this.parseAdditive(), left, true, true);
+            }
+            else if (this.match("<")) {
+                left = relational(left, this.parseAdditive(), false, false);
+            }
+            else if (this.match(">")) {
+                left = relational(this.parseAdditive(), left, false, true);
+            }
+            else {
+                return left;
+            }
+        }
+    }
+
+    private SimpleExpression parseAdditive() {
+        SimpleExpression left = this.parseMultiplicative();
+        while (true) {
+            if (this.match("+")) {
+                left = add(left, this.parseMultiplicative());
+            }
+            else if (this.match("-")) {
+                left = arithmetic(left, this.parseMultiplicative(), '-');
+            }
+            else {
+                return left;
+            }
+        }
+    }
+
+    private SimpleExpression parseMultiplicative() {
+        SimpleExpression left = this.parseUnary();
+        while (true) {
+            if (this.match("*")) {
+                left = arithmetic(left, this.parseUnary(), '*');
+            }
+            else if (this.match("/")) {
+                left = arithmetic(left, this.parseUnary(), '/');
+            }
+            else if (this.match("%")) {
+                left = arithmetic(left, this.parseUnary(), '%');
+            }
+            else {
+                return left;
+            }
+        }
+    }
+
+    private SimpleExpression parseUnary() {
+        if (this.match("!")) {
+            SimpleExpression expression = this.parseUnary();
+            return (x, cfg) -> ! isTruthy(expression.eval(x, cfg));
+        }
+        if (this.match("-")) {
+            SimpleExpression expression = this.parseUnary();
+            return (x, cfg) -> - toNumber(expression.eval(x, cfg));
+        }
+        return this.parsePostfix();
+    }
+
+    private SimpleExpression parsePostfix() {
+        SimpleExpression target = this.parsePrimary();
+        while (this.match(".")) {
+            if (target == CFG) {
+                // properties of config are not supported without script engine
+                throw UnsupportedExpressionException.INSTANCE;
+            }
+            String name = this.parseIdentifier();
+            if (! this.match("(")) {
+                if (! name.equals("length")) {
+                    throw UnsupportedExpressionException.INSTANCE;
+                }
+                target = length(target);
+                continue;
+            }
+            List<SimpleExpression> arguments = new ArrayList<>(1);
+            if (! this.match(")")) {
+                do {
+                    arguments.add(this.parseExpression());
+                }
+                while (this.match(","));
+                this.expect(")");
+            }
+            target = call(target, name, arguments);
+        }
+        return target;
+    }
+
+    private SimpleExpression parsePrimary() {
+        this.skipWhitespace();
+        if (this.pos >= this.source.length()) {
+            throw UnsupportedExpressionException.INSTANCE;
+        }
+        char c = this.source.charAt(this.pos);
+        if (c == '(') {
+            this.pos++;
+            SimpleExpression expression = this.parseExpression();
+            this.expect(")");
+            return expression;
+        }
+        if ((c == '"') || (c == '\'')) {
+            return new Constant(this.parseString(c));
+        }
+        if (c == '/') {
+            return this.parseRegexTest();
+        }
+        if (Character.isDigit(c) || ((c == '.') && (this.pos + 1 < this.source.length()) && Character.isDigit(this.source.charAt(this.pos + 1)))) {
+            return new Constant(this.parseNumber());
+        }
+        switch (this.parseIdentifier()) {
+            case "x":
+                return X;
+            case "cfg":
+                return CFG;
+            case "true":
+                return new Constant(Boolean.TRUE);
+            case "false":
+                return new Constant(Boolean.FALSE);
+            case "null":
+                return new Constant(null);
+            case "undefined":
+                return new Constant(UNDEFINED);
+            default:
+                throw UnsupportedExpressionException.INSTANCE;
+        }
+    }
+
+    private String parseIdentifier() {
+        this.skipWhitespace();
+        int start = this.pos;
+        while ((this.pos < this.source.length()) && Character.isJavaIdentifierPart(this.source.charAt(this.pos))) {
+            this.pos++;
+        }
+        if ((start == this.pos) || ! Character.isJavaIdentifierStart(this.source.charAt(start))) {
+            throw UnsupportedExpressionException.INSTANCE;
+        }
+        return this.source.substring(start, this.pos);
+    }
+
+    private Object parseNumber() {
+        int start = this.pos;
+        boolean decimal = false;
+        while (this.pos < this.source.length()) {
+            char c = this.source.charAt(this.pos);
+            if ((c == '.') || (c == 'e') || (c == 'E')) {
+                decimal = true;
+            }
+            else if (((c == '+') || (c == '-')) && ((this.source.charAt(this.pos - 1) == 'e') || (this.source.charAt(this.pos - 1) == 'E'))) {
+                decimal = true;
+            }
+            else if (! Character.isDigit(c)) {
+                break;
+            }
+            this.pos++;
+        }
+        if ((this.pos < this.source.length()) && Character.isJavaIdentifierPart(this.source.charAt(this.pos))) {
+            // hex, octal and other literals
+            throw UnsupportedExpressionException.INSTANCE;
+        }
+        String number = this.source.substring(start, this.pos);
+        try {
+            if (! decimal) {
+                return Long.parseLong(number);
+            }
+            return Double.parseDouble(number);
+        }
+        catch (NumberFormatException e) {
+            throw UnsupportedExpressionException.INSTANCE;
+        }
+    }
+
+    private String parseString(char quote) {
+        StringBuilder result = new StringBuilder(16);
+        this.pos++;
+        while (this.pos < this.source.length()) {
+            char c = this.source.charAt(this.pos++);
+            if (c == quote) {
+                return result.toString();
+            }
+            if (c != '\\') {
+                result.append(c);
+                continue;
+            }
+            if (this.pos >= this.source.length()) {
+                break;
+            }
+            char escaped = this.source.charAt(this.pos++);
+            switch (escaped) {
+                case 'n':
+                    result.append('\n');
+                    break;
+                case 't':
+                    result.append('\t');
+                    break;
+                case 'r':
+                    result.append('\r');
+                    break;
+                case '\\':
+                case '\'':
+                case '"':
+                    result.append(escaped);
+                    break;
+                default:
+                    throw UnsupportedExpressionException.INSTANCE;
+            }
+        }
+        throw UnsupportedExpressionException.INSTANCE;
+    }
+
+    private SimpleExpression parseRegexTest() {
+        int start = ++ this.pos;
+        boolean inClass = false;
+        while (true) {
+            if (this.pos >= this.source.length()) {
+                throw UnsupportedExpressionException.INSTANCE;
+            }
+            char c = this.source.charAt(this.pos);
+            if (c == '\\') {
+                this.pos += 2;
+                continue;
+            }
+            if (c == '[') {
+                inClass = true;
+            }
+            else if (c == ']') {
+                inClass = false;
+            }
+            else if ((c == '/') && ! inClass) {
+                break;
+            }
+            this.pos++;
+        }
+        String regex = this.source.substring(start, this.pos++);
+        int flags = 0;
+        while ((this.pos < this.source.length()) && Character.isLetter(this.source.charAt(this.pos))) {
+            switch (this.source.charAt(this.pos++)) {
+                case 'i':
+                    flags |= Pattern.CASE_INSENSITIVE | Pattern.UNICODE_CASE;
+                    break;
+                case 'm':
+                    flags |= Pattern.MULTILINE;
+                    break;
+                case 's':
+                    flags |= Pattern.DOTALL;
+                    break;
+                default:
+                    throw UnsupportedExpressionException.INSTANCE;
+            }
+        }
+        Pattern pattern = compilePattern(javaRegex(regex, flags), flags & ~ (Pattern.MULTILINE | Pattern.DOTALL));
+        this.expect(".");
+        if (! this.parseIdentifier().equals("test")) {
+            throw UnsupportedExpressionException.INSTANCE;
+        }
+        this.expect("(");
+        SimpleExpression argument = this.parseExpression();
+        this.expect(")");
+        return (x, cfg) -> pattern.matcher(toJsString(argument.eval(x, cfg))).find();
+    }
+
+    private void skipWhitespace() {
+        while ((this.pos < this.source.length()) && Character.isWhitespace(this.source.charAt(this.pos))) {
+            this.pos++;
+        }
+    }
+
+    private boolean match(String token) {
+        this.skipWhitespace();
+        if (! this.source.startsWith(token, this.pos)) {
+            return false;
+        }
+        int end = this.pos + token.length();
+        if ((end < this.source.length()) && (token.length() == 1) && isOperatorContinuation(token.charAt(0), this.source.charAt(end))) {
+            return false;
+        }
+        this.pos = end;
+        return true;
+    }
+
+    private void expect(String token) {
+        if (! this.match(token)) {
+            throw UnsupportedExpressionException.INSTANCE;
+        }
+    }
+
+    private static boolean isOperatorContinuation(char operator, char next) {
+        switch (operator) {
+            case '!':
+            case '<':
+            case '>':
+                return next == '=';
+            case '+':
+                return (next == '+') || (next == '=');
+            case '-':
+                return (next == '-') || (next == '=');
+            case '*':
+            case '/':
+            case '%':
+                return next == '=';
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * Translates javascript regular expression to java one with same meaning. Anchors, dots and whitespace classes are replaced by
+     * explicit classes of javascript line terminators and whitespace, as java {@code $} also matches before final line break and java
+     * line terminators include next line character (U+0085). Syntax that java and javascript read differently, like backreferences,
+     * unknown escapes, nested classes, inline flags and possessive quantifiers, is not supported.
+     *
+     * @param flags java flags matching flags of javascript expression.
+     */
+    private static String javaRegex(String regex, int flags) {
+        boolean multiline = (flags & Pattern.MULTILINE) != 0;
+        boolean dotAll = (flags & Pattern.DOTALL) != 0;
+        StringBuilder builder = new StringBuilder(regex.length() + 16);
+        boolean inClass = false;
+        for (int i = 0, length = regex.length(); i < length; i++) {
+            char c = regex.charAt(i);
+            if (c == '\\') {
+                i++;
+                if (i >= length) {
+                    throw UnsupportedExpressionException.INSTANCE;
+                }
+                appendEscape(builder, regex.charAt(i), inClass);
+                continue;
+            }
+            if (inClass) {
+                if ((c == '[') || ((c == '&') && ((i + 1) < length) && (regex.charAt(i + 1) == '&'))) {
+                    throw UnsupportedExpressionException.INSTANCE; // nested classes and intersections of java
+                }
+                if (c == ']') {
+                    inClass = false;
+                }
+                builder.append(c);
+                continue;
+            }
+            switch (c) {
+                case '[':
+                    inClass = true;
+                    builder.append(c);
+                    if (((i + 1) < length) && (regex.charAt(i + 1) == '^')) {
+                        builder.append('^');
+                        i++;
+                    }
+                    if (((i + 1) < length) && (regex.charAt(i + 1) == ']')) {
+                        throw UnsupportedExpressionException.INSTANCE; // empty class of javascript
+                    }
+                    break;
+                case '$':
+                    builder.append(multiline ? "(?![^" + JS_LINE_TERMINATORS + "])" : "(?![\\s\\S])");
+                    break;
+                case '^':
+                    // like in nashorn, line break at end of input does not start another line
+                    builder.append(multiline ? "(?:^|(?<=[" + JS_LINE_TERMINATORS + "])(?=[\\s\\S]))" : "^");
+                    break;
+                case '.':
+                    builder.append(dotAll ? "[\\s\\S]" : "[^" + JS_LINE_TERMINATORS + "]");
+                    break;
+                case '(':
+                    if (((i + 1) < length) && (regex.charAt(i + 1) == '?') && ! isJsGroup(regex, i + 2)) {
+                        throw UnsupportedExpressionException.INSTANCE;
+                    }
+                    builder.append(c);
+                    break;
+                case '*':
+                case '+':
+                case '?':
+                case '}':
+                    if (((i + 1) < length) && (regex.charAt(i + 1) == '+')) {
+                        throw UnsupportedExpressionException.INSTANCE; // possessive quantifier of java
+                    }
+                    builder.append(c);
+                    break;
+                default:
+                    builder.append(c);
+                    break;
+            }
+        }
+        return builder.toString();
+    }
+
+    private static void appendEscape(StringBuilder builder, char c, boolean inClass) {
+        switch (c) {
+            case 's':
+                builder.append(inClass ? JS_WHITESPACE : "[" + JS_WHITESPACE + "]");
+                return;
+            case 'S':
+                if (inClass) {
+                    throw UnsupportedExpressionException.INSTANCE;
+                }
+                builder.append("[^" + JS_WHITESPACE + "]");
+                return;
+            case 'v':
+                builder.append("\\x0B");
+                return;
+            case 'b':
+                builder.append(inClass ? "\\x08" : "\\b");
+                return;
+            case 'B':
+                if (inClass) {
+                    throw UnsupportedExpressionException.INSTANCE;
+                }
+                builder.append("\\B");
+                return;
+            case 'd':
+            case 'D':
+            case 'w':
+            case 'W':
+            case 't':
+            case 'n':
+            case 'r':
+            case 'f':
+            case 'x':
+            case 'u':
+                builder.append('\\').append(c);
+                return;
+            default:
+                if (Character.isLetterOrDigit(c)) {
+                    throw UnsupportedExpressionException.INSTANCE; // backreferences and escapes with other meaning in java
+                }
+                builder.append('\\').append(c);
+        }
+    }
+
+    /**
+     * @return true if group starting with {@code (?} at given index has same meaning in javascript and java.
+     */
+    private static boolean isJsGroup(String regex, int index) {
+        return regex.startsWith(":", index) || regex.startsWith("=", index) || regex.startsWith("!", index) ||
+               regex.startsWith("<=", index) || regex.startsWith("<!", index);
+    }
+
+    private static Pattern compilePattern(String regex, int flags) {
+        try {
+            return Pattern.compile(regex, flags);
+        }
+        catch (PatternSyntaxException e) {
+            throw UnsupportedExpressionException.INSTANCE;
+        }
+    }
+
+    private static SimpleExpression or(SimpleExpression left, SimpleExpression right) {
+        return (x, cfg) -> {
+            Object value = left.eval(x, cfg);
+            return isTruthy(value) ? value : right.eval(x, cfg);
+        };
+    }
+
+    private static SimpleExpression and(SimpleExpression left, SimpleExpression right) {
+        return (x, cfg) -> {
+            Object value = left.eval(x, cfg);
+            return isTruthy(value) ? right.eval(x, cfg) : value;
+        };
+    }
+
+    private static SimpleExpression equality(SimpleExpression left, SimpleExpression right, boolean strict, boolean negate) {
+        if (strict) {
+            return (x, cfg) -> negate != strictEquals(left.eval(x, cfg), right.eval(x, cfg));
+        }
+        return (x, cfg) -> negate != looseEquals(left.eval(x, cfg), right.eval(x, cfg));
+    }
+
+    /**
+     * Creates {@code left < right} or {@code left <= right} expression, greater than operators are created by swapping operands.
+     */
+    private static SimpleExpression relational(SimpleExpression left, SimpleExpression right, boolean orEqual, boolean swapped) {
+        return (x, cfg) -> {
+            Object a;
+            Object b;
+            if (swapped) {
+                b = toPrimitive(right.eval(x, cfg));
+                a = toPrimitive(left.eval(x, cfg));
+            }
+            else {
+                a = toPrimitive(left.eval(x, cfg));
+                b = toPrimitive(right.eval(x, cfg));
+            }
+            if ((a instanceof String) && (b instanceof String)) {
+                int compare = ((String) a).compareTo((String) b);
+                return orEqual ? (compare <= 0) : (compare < 0);
+            }
+            double numberA = toNumber(a);
+            double numberB = toNumber(b);
+            return orEqual ? (numberA <= numberB) : (numberA < numberB);
+        };
+    }
+
+    private static SimpleExpression add(SimpleExpression left, SimpleExpression right) {
+        return (x, cfg) -> {
+            Object a = toPrimitive(left.eval(x, cfg));
+            Object b = toPrimitive(right.eval(x, cfg));
+            if ((a instanceof String) || (b instanceof String)) {
+                return toJsString(a) + toJsString(b);
+            }
+            return toNumber(a) + toNumber(b);
+        };
+    }
+
+    private static SimpleExpression arithmetic(SimpleExpression left, SimpleExpression right, char operator) {
+        return (x, cfg) -> {
+            double a = toNumber(left.eval(x, cfg));
+            double b = toNumber(right.eval(x, cfg));
+            switch (operator) {
+                case '-':
+                    return a - b;
+                case '*':
+                    return a * b;
+                case '/':
+                    return a / b;
+                default:
+                    return a % b;
+            }
+        };
+    }
+
+    private static SimpleExpression length(SimpleExpression target) {
+        return (x, cfg) -> {
+            Object value = target.eval(x, cfg);
+            if (value instanceof CharSequence) {
+                return ((CharSequence) value).length();
+            }
+            if (value instanceof Collection) {
+                return ((Collection<?>) value).size();
+            }
+            if (value instanceof Map) {
+                return ((Map<?, ?>) value).size();
+            }
+            if ((value == null) || (value == UNDEFINED)) {
+                throw new ScriptException("Can't read length of " + value);
+            }
+            if (value.getClass().isArray()) {
+                return Array.getLength(value);
+            }
+            return UNDEFINED;
+        };
+    }
+
+    private static SimpleExpression call(SimpleExpression target, String name, List<SimpleExpression> arguments) {
+        switch (name) {
+            case "length":
+                requireArguments(arguments, 0);
+                return (x, cfg) -> {
+                    Object value = target.eval(x, cfg);
+                    if (value instanceof CharSequence) {
+                        return ((CharSequence) value).length();
+                    }
+                    throw cantInvoke(value, name);
+                };
+            case "size":
+                requireArguments(arguments, 0);
+                return (x, cfg) -> {
+                    Object value = target.eval(x, cfg);
+                    if (value instanceof Collection) {
+                        return ((Collection<?>) value).size();
+                    }
+                    if (value instanceof Map) {
+                        return ((Map<?, ?>) value).size();
+                    }
+                    throw cantInvoke(value, name);
+                };
+            case "isEmpty":
+                requireArguments(arguments, 0);
+                return (x, cfg) -> {
+                    Object value = target.eval(x, cfg);
+                    if (value instanceof CharSequence) {
+                        return ((CharSequence) value).length() == 0;
+                    }
+                    if (value instanceof Collection) {
+                        return ((Collection<?>) value).isEmpty();
+                    }
+                    if (value instanceof Map) {
+                        return ((Map<?, ?>) value).isEmpty();
+                    }
+                    throw cantInvoke(value, name);
+                };
+            case "matches":
+                requireArguments(arguments, 1);
+                if (! (arguments.get(0) instanceof Constant) || ! (((Constant) arguments.get(0)).value instanceof String)) {
+                    throw UnsupportedExpressionException.INSTANCE;
+                }
+                Pattern pattern = compilePattern((String) ((Constant) arguments.get(0)).value, 0);
+                return (x, cfg) -> {
+                    Object value = target.eval(x, cfg);
+                    if (value instanceof CharSequence) {
+                        return pattern.matcher((CharSequence) value).matches();
+                    }
+                    throw cantInvoke(value, name);
+                };
+            default:
+                throw UnsupportedExpressionException.INSTANCE;
+        }
+    }
+
+    private static void requireArguments(List<SimpleExpression> arguments, int count) {
+        if (arguments.size() != count) {
+            throw UnsupportedExpressionException.INSTANCE;
+        }
+    }
+
+    private static ScriptException cantInvoke(@Nullable Object value, String method) {
+        return new ScriptException("Can't invoke " + method + "() on " + ((value == null) ? "null" : value.getClass().getName()));
+    }
+
+    static boolean isTruthy(@Nullable Object value) {
+        if ((value == null) || (value == UNDEFINED)) {
+            return false;
+        }
+        if (value instanceof Boolean) {
+            return (Boolean) value;
+        }
+        if (value instanceof Number) {
+            double number = ((Number) value).doubleValue();
+            return (number != 0) && ! Double.isNaN(number);
+        }
+        if (value instanceof CharSequence) {
+            return ((CharSequence) value).length() != 0;
+        }
+        return true;
+    }
+
+    /**
+     * @return given value if it is null, undefined, number, string or boolean, or string value of it otherwise.
+     */
+    @Nullable
+    private static Object toPrimitive(@Nullable Object value) {
+        if ((value == null) || (value == UNDEFINED) || (value instanceof Number) || (value instanceof Boolean) || (value instanceof String)) {
+            return value;
+        }
+        return value.toString();
+    }
+
+    private static double toNumber(@Nullable Object value) {
+        if (value == null) {
+            return 0;
+        }
+        if (value instanceof Number) {
+            return ((Number) value).doubleValue();
+        }
+        if (value instanceof Boolean) {
+            return ((Boolean) value) ? 1 : 0;
+        }
+        if (value == UNDEFINED) {
+            return Double.NaN;
+        }
+        String string = value.toString().trim();
+        if (string.isEmpty()) {
+            return 0;
+        }
+        try {
+            return Double.parseDouble(string);
+        }
+        catch (NumberFormatException e) {
+            return Double.NaN;
+        }
+    }
+
+    static String toJsString(@Nullable Object value) {
+        if (value == null) {
+            return "null";
+        }
+        if ((value instanceof Double) || (value instanceof Float)) {
+            double number = ((Number) value).doubleValue();
+            if ((number == Math.rint(number)) && (Math.abs(number) < 1e21)) {
+                return Long.toString((long) number);
+            }
+        }
+        return value.toString();
+    }
+
+    private static boolean strictEquals(@Nullable Object a, @Nullable Object b) {
+        if ((a instanceof Number) && (b instanceof Number)) {
+            return ((Number) a).doubleValue() == ((Number) b).doubleValue();
+        }
+        if ((a instanceof String) && (b instanceof String)) {
+            return a.equals(b);
+        }
+        if ((a instanceof Boolean) && (b instanceof Boolean)) {
+            return a.equals(b);
+        }
+        return a == b;
+    }
+
+    private static boolean looseEquals(@Nullable Object a, @Nullable Object b) {
+        boolean nullA = (a == null) || (a == UNDEFINED);
+        boolean nullB = (b == null) || (b == UNDEFINED);
+        if (nullA || nullB) {
+            return nullA && nullB;
+        }
+        if (strictEquals(a, b)) {
+            return true;
+        }
+        if ((a instanceof Number) || (b instanceof Number) || (a instanceof Boolean) || (b instanceof Boolean)) {
+            Object primitiveA = toPrimitive(a);
+            Object primitiveB = toPrimitive(b);
+            return toNumber(primitiveA) == toNumber(primitiveB);
+        }
+        if ((a instanceof String) || (b instanceof String)) {
+            return toPrimitive(a).equals(toPrimitive(b));
+        }
+        return false;
+    }
+
+    private static final class Constant implements SimpleExpression {
+        @Nullable
+        private final Object value;
+
+        Constant(@Nullable Object value) {
+            this.value = value;
+        }
+
+        @Nullable
+        @Override
+        public Object eval(@Nullable Object x, Config<?> cfg) {
+            return this.value;
+        }
+    }
+
+    /**
+     * Thrown when parsed expression is not supported, shared instance without stack trace.
+     */
+    private static final class UnsupportedExpressionException extends RuntimeException {
+        private static final long serialVersionUID = 0;
+
+        static final UnsupportedExpressionException INSTANCE = new UnsupportedExpressionException();
+
+        private UnsupportedExpressionException() {
+            super(null, null, false, false);
+        }
+    }
+}
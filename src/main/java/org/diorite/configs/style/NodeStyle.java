@@ -0,0 +1,146 @@
+package org.diorite.configs.style;
+
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Style of nodes at single depth of property, resolved once from depths of all style annotations of {@link PropertyStyle}. <br/>
+ * Serializers get it by {@link PropertyStyle#at(int)}, so each written node reads resolved values instead of comparing its depth with
+ * depth of each style.
+ */
+public final class NodeStyle {
+    private final Styles style;
+    private final StringStyles stringStyle;
+    @Nullable
+    private final StringBlockStyle blockStyle;
+    private final StringBlockNewLinesStyle blockLinesStyle;
+    private final int blockMinimumLength;
+    private final int blockMinimumLines;
+    private final int blockSpacing;
+    @Nullable
+    private final String numberFormat;
+    @Nullable
+    private final String dateFormat;
+    @Nullable
+    private final BinaryStyles binaryStyle;
+    private final int binarySwitchIfLongerThan;
+    private final int binarySwitchIfShorterThan;
+    private final int binaryFileIfLongerThan;
+
+    NodeStyle(Styles style, StringStyles stringStyle, @Nullable StringBlockStyle blockStyle, StringBlockNewLinesStyle blockLinesStyle,
+              int blockMinimumLength, int blockMinimumLines, int blockSpacing, @Nullable String numberFormat, @Nullable String dateFormat,
+              @Nullable BinaryStyles binaryStyle, int binarySwitchIfLongerThan, int binarySwitchIfShorterThan, int binaryFileIfLongerThan) {
+        this.style = style;
+        this.stringStyle = stringStyle;
+        this.blockStyle = blockStyle;
+        this.blockLinesStyle = blockLinesStyle;
+        this.blockMinimumLength = blockMinimumLength;
+        this.blockMinimumLines = blockMinimumLines;
+        this.blockSpacing = blockSpacing;
+        this.numberFormat = numberFormat;
+        this.dateFormat = dateFormat;
+        this.binaryStyle = binaryStyle;
+        this.binarySwitchIfLongerThan = binarySwitchIfLongerThan;
+        this.binarySwitchIfShorterThan = binarySwitchIfShorterThan;
+        this.binaryFileIfLongerThan = binaryFileIfLongerThan;
+    }
+
+    /**
+     * @return collection style.
+     */
+    public Styles getStyle() {
+        return this.style;
+    }
+
+    /**
+     * @return string style.
+     */
+    public StringStyles getStringStyle() {
+        return this.stringStyle;
+    }
+
+    /**
+     * @return string block style, or null if strings don't use block style.
+     */
+    @Nullable
+    public StringBlockStyle getBlockStyle() {
+        return this.blockStyle;
+    }
+
+    public StringBlockNewLinesStyle getBlockLinesStyle() {
+        return this.blockLinesStyle;
+    }
+
+    public int getBlockMinimumLength() {
+        return this.blockMinimumLength;
+    }
+
+    public int getBlockMinimumLines() {
+        return this.blockMinimumLines;
+    }
+
+    public int getBlockSpacing() {
+        return this.blockSpacing;
+    }
+
+    /**
+     * @return number format, or null if numbers use default format.
+     */
+    @Nullable
+    public String getNumberFormat() {
+        return this.numberFormat;
+    }
+
+    /**
+     * @return date format, or null if dates use default format.
+     */
+    @Nullable
+    public String getDateFormat() {
+        return this.dateFormat;
+    }
+
+    /**
+     * @return binary style, or null if binary values use default style.
+     */
+    @Nullable
+    public BinaryStyles getBinaryStyle() {
+        return this.binaryStyle;
+    }
+
+    public int getBinarySwitchIfLongerThan() {
+        return this.binarySwitchIfLongerThan;
+    }
+
+    public int getBinarySwitchIfShorterThan() {
+        return this.binarySwitchIfShorterThan;
+    }
+
+    /**
+     * @return size above which binary values are stored in separate files, or -1 if they are always stored in yaml.
+     */
+    public int getBinaryFileIfLongerThan() {
+        return this.binaryFileIfLongerThan;
+    }
+
+    /**
+     * @param nested style of annotations of type argument at this depth.
+     *
+     * @return this style with values set by annotations of type argument replaced, or this style if they don't set any value.
+     */
+    NodeStyle with(NodeStyle nested) {
+        boolean block = nested.blockStyle != null;
+        boolean binary = nested.binaryStyle != null;
+        if ((nested.style == Styles.AUTO) && (nested.stringStyle == StringStyles.AUTO) && ! block && (nested.numberFormat == null) &&
+            (nested.dateFormat == null) && ! binary && (nested.binaryFileIfLongerThan < 0)) {
+            return this;
+        }
+        NodeStyle blockSource = block ? nested : this;
+        NodeStyle binarySource = binary ? nested : this;
+        return new NodeStyle((nested.style == Styles.AUTO) ? this.style : nested.style,
+            (nested.stringStyle == StringStyles.AUTO) ? this.stringStyle : nested.stringStyle, blockSource.blockStyle,
+            blockSource.blockLinesStyle, blockSource.blockMinimumLength, blockSource.blockMinimumLines, blockSource.blockSpacing,
+            (nested.numberFormat == null) ? this.numberFormat : nested.numberFormat,
+            (nested.dateFormat == null) ? this.dateFormat : nested.dateFormat,
+            binarySource.binaryStyle, binarySource.binarySwitchIfLongerThan, binarySource.binarySwitchIfShorterThan,
+            (nested.binaryFileIfLongerThan < 0) ? this.binaryFileIfLongerThan : nested.binaryFileIfLongerThan);
+    }
+}
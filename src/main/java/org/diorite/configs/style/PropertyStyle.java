@@ -0,0 +1,485 @@
+package org.diorite.configs.style;
+
+import org.diorite.configs.annotations.style.BinaryStyle;
+import org.diorite.configs.annotations.style.BooleanStyle;
+import org.diorite.configs.annotations.style.DateStyle;
+import org.diorite.configs.annotations.style.NewLineAfter;
+import org.diorite.configs.annotations.style.NewLineBefore;
+import org.diorite.configs.annotations.style.NumberStyle;
+import org.diorite.configs.annotations.style.Style;
+import org.diorite.configs.annotations.style.StringBlock;
+import org.diorite.configs.annotations.style.StringStyle;
+import org.jetbrains.annotations.Nullable;
+
+import java.lang.reflect.AnnotatedArrayType;
+import java.lang.reflect.AnnotatedElement;
+import java.lang.reflect.AnnotatedParameterizedType;
+import java.lang.reflect.AnnotatedType;
+import java.lang.reflect.AnnotatedWildcardType;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Resolved values of all style annotations of single property, {@link #DEFAULT} is used for properties without any style
+ * annotations. <br/>
+ * Instances are immutable, each {@code with*} method returns new instance. Styles of nodes at each depth are resolved when instance is
+ * created, so {@link #at(int)} and all methods taking depth are single array access. <br/>
+ * Style annotations on type arguments of return type of getter, like {@code Map<String, @StringStyle(QUOTED) String>}, apply to nodes
+ * at depth of that type argument, keys and values of maps are at same depth. Their own depth is counted from that node.
+ */
+public final class PropertyStyle {
+    // depths above this are resolved for each call, styles of nested nodes are rarely set that deep
+    private static final int MAX_RESOLVED_DEPTH = 32;
+
+    public static final PropertyStyle DEFAULT = new PropertyStyle().resolve();
+
+    private Styles style = Styles.AUTO;
+    private int styleDepth = 1;
+    private StringStyles stringStyle = StringStyles.AUTO;
+    private int stringStyleDepth = 1;
+    @Nullable
+    private StringBlockStyle blockStyle;
+    private StringBlockNewLinesStyle blockLinesStyle = StringBlockNewLinesStyle.TRIM_END;
+    private int blockMinimumLength = 1;
+    private int blockMinimumLines = 1;
+    private int blockSpacing = - 1;
+    private int blockDepth = 1;
+    @Nullable
+    private String numberFormat;
+    private int numberDepth = 1;
+    @Nullable
+    private String dateFormat;
+    private int dateDepth = 1;
+    @Nullable
+    private BinaryStyles binaryStyle;
+    private int binarySwitchIfLongerThan = - 1;
+    private int binarySwitchIfShorterThan = 10;
+    private int binaryDepth = 1;
+    private int binaryFileIfLongerThan = - 1;
+    private List<String> trueValues = List.of();
+    private List<String> falseValues = List.of();
+    private int newLinesBefore;
+    private int newLinesAfter;
+    // styles of annotated type arguments, outer arguments before their own arguments, so inner annotations are applied last
+    private List<Nested> nested = List.of();
+    private int maxDepth;
+    // style of node at depth d is at index d - 1, last element is used for all deeper nodes unless maxDepth is too big
+    private NodeStyle[] nodes;
+
+    private PropertyStyle() {
+    }
+
+    private PropertyStyle copy() {
+        PropertyStyle copy = new PropertyStyle();
+        copy.style = this.style;
+        copy.styleDepth = this.styleDepth;
+        copy.stringStyle = this.stringStyle;
+        copy.stringStyleDepth = this.stringStyleDepth;
+        copy.blockStyle = this.blockStyle;
+        copy.blockLinesStyle = this.blockLinesStyle;
+        copy.blockMinimumLength = this.blockMinimumLength;
+        copy.blockMinimumLines = this.blockMinimumLines;
+        copy.blockSpacing = this.blockSpacing;
+        copy.blockDepth = this.blockDepth;
+        copy.numberFormat = this.numberFormat;
+        copy.numberDepth = this.numberDepth;
+        copy.dateFormat = this.dateFormat;
+        copy.dateDepth = this.dateDepth;
+        copy.binaryStyle = this.binaryStyle;
+        copy.binarySwitchIfLongerThan = this.binarySwitchIfLongerThan;
+        copy.binarySwitchIfShorterThan = this.binarySwitchIfShorterThan;
+        copy.binaryDepth = this.binaryDepth;
+        copy.binaryFileIfLongerThan = this.binaryFileIfLongerThan;
+        copy.trueValues = this.trueValues;
+        copy.falseValues = this.falseValues;
+        copy.newLinesBefore = this.newLinesBefore;
+        copy.newLinesAfter = this.newLinesAfter;
+        copy.nested = this.nested;
+        return copy;
+    }
+
+    /**
+     * Reads all style annotations present on given element, and on type arguments of return type if element is a method.
+     *
+     * @param element annotated getter of property.
+     *
+     * @return resolved style.
+     */
+    public static PropertyStyle of(AnnotatedElement element) {
+        PropertyStyle result = ofAnnotations(element);
+        if (element instanceof Method) {
+            List<Nested> nested = new ArrayList<>(2);
+            // annotations of return type itself are also annotations of method
+            collectNested(((Method) element).getAnnotatedReturnType(), 1, nested);
+            if (! nested.isEmpty()) {
+                result = result.copy();
+                result.nested = List.copyOf(nested);
+                result = result.resolve();
+            }
+        }
+        return result;
+    }
+
+    private static void collectNested(AnnotatedType type, int depth, List<Nested> nested) {
+        AnnotatedType[] arguments;
+        if (type instanceof AnnotatedParameterizedType) {
+            arguments = ((AnnotatedParameterizedType) type).getAnnotatedActualTypeArguments();
+        }
+        else if (type instanceof AnnotatedArrayType) {
+            arguments = new AnnotatedType[] {((AnnotatedArrayType) type).getAnnotatedGenericComponentType()};
+        }
+        else {
+            return;
+        }
+        for (AnnotatedType argument : arguments) {
+            if (argument instanceof AnnotatedWildcardType) {
+                AnnotatedType[] bounds = ((AnnotatedWildcardType) argument).getAnnotatedUpperBounds();
+                argument = (bounds.length == 0) ? argument : bounds[0];
+            }
+            if (argument.getDeclaredAnnotations().length != 0) {
+                PropertyStyle style = ofAnnotations(argument);
+                if (style != DEFAULT) {
+                    nested.add(new Nested(depth + 1, style));
+                }
+            }
+            collectNested(argument, depth + 1, nested);
+        }
+    }
+
+    private static PropertyStyle ofAnnotations(AnnotatedElement element) {
+        PropertyStyle result = DEFAULT;
+        Style style = element.getAnnotation(Style.class);
+        if (style != null) {
+            result = result.withStyle(style.value(), style.depth());
+        }
+        StringStyle stringStyle = element.getAnnotation(StringStyle.class);
+        if (stringStyle != null) {
+            result = result.withStringStyle(stringStyle.value(), stringStyle.depth());
+        }
+        StringBlock block = element.getAnnotation(StringBlock.class);
+        if (block != null) {
+            result = result.withStringBlock(block.style(), block.linesStyle(), block.minimumLength(), block.minimumLines(), block.spacing(),
+                block.depth());
+        }
+        NumberStyle numberStyle = element.getAnnotation(NumberStyle.class);
+        if (numberStyle != null) {
+            result = result.withNumberStyle(numberStyle.value(), numberStyle.depth());
+        }
+        DateStyle dateStyle = element.getAnnotation(DateStyle.class);
+        if (dateStyle != null) {
+            result = result.withDateStyle(dateStyle.value(), dateStyle.depth());
+        }
+        BinaryStyle binaryStyle = element.getAnnotation(BinaryStyle.class);
+        if (binaryStyle != null) {
+            result = result.withBinaryStyle(binaryStyle.value(), binaryStyle.switchIfLongerThan(), binaryStyle.switchIfShorterThan(),
+                binaryStyle.depth());
+            if (binaryStyle.fileIfLongerThan() >= 0) {
+                result = result.withBinaryFile(binaryStyle.fileIfLongerThan());
+            }
+        }
+        BooleanStyle booleanStyle = element.getAnnotation(BooleanStyle.class);
+        if (booleanStyle != null) {
+            result = result.withBooleanStyle(List.of(booleanStyle.trueValues()), List.of(booleanStyle.falseValues()));
+        }
+        NewLineBefore newLineBefore = element.getAnnotation(NewLineBefore.class);
+        NewLineAfter newLineAfter = element.getAnnotation(NewLineAfter.class);
+        if ((newLineBefore != null) || (newLineAfter != null)) {
+            result = result.withNewLines((newLineBefore == null) ? 0 : newLineBefore.value(), (newLineAfter == null) ? 0 : newLineAfter.value());
+        }
+        return result;
+    }
+
+    public PropertyStyle withStyle(Styles style, int depth) {
+        PropertyStyle copy = this.copy();
+        copy.style = style;
+        copy.styleDepth = depth;
+        return copy.resolve();
+    }
+
+    public PropertyStyle withStringStyle(StringStyles style, int depth) {
+        PropertyStyle copy = this.copy();
+        copy.stringStyle = style;
+        copy.stringStyleDepth = depth;
+        return copy.resolve();
+    }
+
+    public PropertyStyle withStringBlock(StringBlockStyle style, StringBlockNewLinesStyle linesStyle, int minimumLength, int minimumLines,
+                                         int spacing, int depth) {
+        PropertyStyle copy = this.copy();
+        copy.blockStyle = style;
+        copy.blockLinesStyle = linesStyle;
+        copy.blockMinimumLength = minimumLength;
+        copy.blockMinimumLines = minimumLines;
+        copy.blockSpacing = spacing;
+        copy.blockDepth = depth;
+        return copy.resolve();
+    }
+
+    public PropertyStyle withNumberStyle(String format, int depth) {
+        PropertyStyle copy = this.copy();
+        copy.numberFormat = format;
+        copy.numberDepth = depth;
+        return copy.resolve();
+    }
+
+    public PropertyStyle withDateStyle(String format, int depth) {
+        PropertyStyle copy = this.copy();
+        copy.dateFormat = format;
+        copy.dateDepth = depth;
+        return copy.resolve();
+    }
+
+    public PropertyStyle withBinaryStyle(BinaryStyles style, int switchIfLongerThan, int switchIfShorterThan, int depth) {
+        PropertyStyle copy = this.copy();
+        copy.binaryStyle = style;
+        copy.binarySwitchIfLongerThan = switchIfLongerThan;
+        copy.binarySwitchIfShorterThan = switchIfShorterThan;
+        copy.binaryDepth = depth;
+        return copy.resolve();
+    }
+
+    public PropertyStyle withBinaryFile(int fileIfLongerThan) {
+        PropertyStyle copy = this.copy();
+        copy.binaryFileIfLongerThan = fileIfLongerThan;
+        return copy.resolve();
+    }
+
+    public PropertyStyle withBooleanStyle(List<String> trueValues, List<String> falseValues) {
+        PropertyStyle copy = this.copy();
+        copy.trueValues = List.copyOf(trueValues);
+        copy.falseValues = List.copyOf(falseValues);
+        return copy.resolve();
+    }
+
+    public PropertyStyle withNewLines(int before, int after) {
+        PropertyStyle copy = this.copy();
+        copy.newLinesBefore = before;
+        copy.newLinesAfter = after;
+        return copy.resolve();
+    }
+
+    /**
+     * Resolves styles of nodes at all depths, called for each created instance.
+     *
+     * @return this instance.
+     */
+    private PropertyStyle resolve() {
+        this.maxDepth = Math.max(Math.max(Math.max(this.styleDepth, this.stringStyleDepth), Math.max(this.blockDepth, this.numberDepth)),
+            Math.max(this.dateDepth, this.binaryDepth));
+        for (Nested nested : this.nested) {
+            this.maxDepth = Math.max(this.maxDepth, (nested.depth - 1) + nested.style.maxDepth);
+        }
+        this.nodes = new NodeStyle[Math.max(Math.min(this.maxDepth, MAX_RESOLVED_DEPTH), 0) + 1];
+        for (int i = 0; i < this.nodes.length; i++) {
+            this.nodes[i] = this.resolve(i + 1);
+        }
+        return this;
+    }
+
+    private NodeStyle resolve(int depth) {
+        NodeStyle node = this.resolveOwn(depth);
+        for (Nested nested : this.nested) {
+            if (depth >= nested.depth) {
+                node = node.with(nested.style.at((depth - nested.depth) + 1));
+            }
+        }
+        return node;
+    }
+
+    private NodeStyle resolveOwn(int depth) {
+        boolean block = depth <= this.blockDepth;
+        boolean binary = depth <= this.binaryDepth;
+        return new NodeStyle((depth <= this.styleDepth) ? this.style : Styles.AUTO,
+            (depth <= this.stringStyleDepth) ? this.stringStyle : StringStyles.AUTO, block ? this.blockStyle : null, this.blockLinesStyle,
+            this.blockMinimumLength, this.blockMinimumLines, this.blockSpacing, (depth <= this.numberDepth) ? this.numberFormat : null,
+            (depth <= this.dateDepth) ? this.dateFormat : null, binary ? this.binaryStyle : null, this.binarySwitchIfLongerThan,
+            this.binarySwitchIfShorterThan, binary ? this.binaryFileIfLongerThan : - 1);
+    }
+
+    /**
+     * @param depth depth of node in property, value of property itself is at depth 1.
+     *
+     * @return resolved style of nodes at given depth.
+     */
+    public NodeStyle at(int depth) {
+        if (depth > this.nodes.length) {
+            return (this.maxDepth >= this.nodes.length) ? this.resolve(depth) : this.nodes[this.nodes.length - 1];
+        }
+        return this.nodes[Math.max(depth, 1) - 1];
+    }
+
+    public Styles getStyle() {
+        return this.style;
+    }
+
+    public int getStyleDepth() {
+        return this.styleDepth;
+    }
+
+    public StringStyles getStringStyle() {
+        return this.stringStyle;
+    }
+
+    public int getStringStyleDepth() {
+        return this.stringStyleDepth;
+    }
+
+    /**
+     * @return block style from {@link StringBlock} or null if property does not use block style.
+     */
+    @Nullable
+    public StringBlockStyle getBlockStyle() {
+        return this.blockStyle;
+    }
+
+    public StringBlockNewLinesStyle getBlockLinesStyle() {
+        return this.blockLinesStyle;
+    }
+
+    public int getBlockMinimumLength() {
+        return this.blockMinimumLength;
+    }
+
+    public int getBlockMinimumLines() {
+        return this.blockMinimumLines;
+    }
+
+    public int getBlockSpacing() {
+        return this.blockSpacing;
+    }
+
+    public int getBlockDepth() {
+        return this.blockDepth;
+    }
+
+    @Nullable
+    public String getNumberFormat() {
+        return this.numberFormat;
+    }
+
+    public int getNumberDepth() {
+        return this.numberDepth;
+    }
+
+    @Nullable
+    public String getDateFormat() {
+        return this.dateFormat;
+    }
+
+    public int getDateDepth() {
+        return this.dateDepth;
+    }
+
+    @Nullable
+    public BinaryStyles getBinaryStyle() {
+        return this.binaryStyle;
+    }
+
+    public int getBinarySwitchIfLongerThan() {
+        return this.binarySwitchIfLongerThan;
+    }
+
+    public int getBinarySwitchIfShorterThan() {
+        return this.binarySwitchIfShorterThan;
+    }
+
+    public int getBinaryDepth() {
+        return this.binaryDepth;
+    }
+
+    public int getBinaryFileIfLongerThan() {
+        return this.binaryFileIfLongerThan;
+    }
+
+    public List<String> getTrueValues() {
+        return this.trueValues;
+    }
+
+    public List<String> getFalseValues() {
+        return this.falseValues;
+    }
+
+    /**
+     * @param depth depth of node in property, value of property itself is at depth 1.
+     *
+     * @return collection style used at given depth.
+     */
+    public Styles getStyle(int depth) {
+        return this.at(depth).getStyle();
+    }
+
+    /**
+     * @param depth depth of node in property, value of property itself is at depth 1.
+     *
+     * @return string style used at given depth.
+     */
+    public StringStyles getStringStyle(int depth) {
+        return this.at(depth).getStringStyle();
+    }
+
+    /**
+     * @param depth depth of node in property, value of property itself is at depth 1.
+     *
+     * @return string block style used at given depth, or null if strings at given depth does not use block style.
+     */
+    @Nullable
+    public StringBlockStyle getBlockStyle(int depth) {
+        return this.at(depth).getBlockStyle();
+    }
+
+    /**
+     * @param depth depth of node in property, value of property itself is at depth 1.
+     *
+     * @return number format used at given depth, or null if numbers at given depth use default format.
+     */
+    @Nullable
+    public String getNumberFormat(int depth) {
+        return this.at(depth).getNumberFormat();
+    }
+
+    /**
+     * @param depth depth of node in property, value of property itself is at depth 1.
+     *
+     * @return date format used at given depth, or null if dates at given depth use default format.
+     */
+    @Nullable
+    public String getDateFormat(int depth) {
+        return this.at(depth).getDateFormat();
+    }
+
+    /**
+     * @param depth depth of node in property, value of property itself is at depth 1.
+     *
+     * @return binary style used at given depth, or null if binary values at given depth use default style.
+     */
+    @Nullable
+    public BinaryStyles getBinaryStyle(int depth) {
+        return this.at(depth).getBinaryStyle();
+    }
+
+    /**
+     * @return size above which binary values at given depth are stored in separate files, or -1 if they are always stored in yaml.
+     */
+    public int getBinaryFileIfLongerThan(int depth) {
+        return this.at(depth).getBinaryFileIfLongerThan();
+    }
+
+    public int getNewLinesBefore() {
+        return this.newLinesBefore;
+    }
+
+    public int getNewLinesAfter() {
+        return this.newLinesAfter;
+    }
+
+    private static final class Nested {
+        private final int depth;
+        private final PropertyStyle style;
+
+        Nested(int depth, PropertyStyle style) {
+            this.depth = depth;
+            this.style = style;
+        }
+    }
+}
@@ -0,0 +1,153 @@
+package org.diorite.configs.validation;
+
+import org.diorite.configs.Config;
+import org.diorite.configs.ConfigException;
+import org.diorite.configs.ConfigPropertyTemplate;
+import org.diorite.configs.impl.ConfigPropertyAccess;
+import org.diorite.configs.metrics.ConfigOperation;
+import org.diorite.configs.metrics.Instrumentation;
+import org.diorite.configs.scripts.ScriptEngines;
+import org.diorite.configs.scripts.ScriptPropertyValidator;
+import org.diorite.configs.scripts.ScriptValidatorTemplate;
+import org.diorite.configs.yaml.LazyProperties;
+import org.jetbrains.annotations.Nullable;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * All validators of single config type, created once per template. <br/>
+ * Generated setters of properties with validators call {@link #validate(int, Object, Config)} before storing new value.
+ */
+public final class ConfigValidation {
+    private static final PropertyValidator[] EMPTY = new PropertyValidator[0];
+
+    private final Class<?> type;
+    private final List<ConfigPropertyTemplate> properties;
+    private final PropertyValidator[][] validators;
+    private final Instrumentation instrumentation;
+
+    public ConfigValidation(Class<?> type, List<ConfigPropertyTemplate> properties, ScriptEngines engines,
+                            Instrumentation instrumentation) {
+        this.type = type;
+        this.properties = properties;
+        this.instrumentation = instrumentation;
+        this.validators = new PropertyValidator[properties.size()][];
+        for (ConfigPropertyTemplate property : properties) {
+            List<PropertyValidator> validators = new ArrayList<>(2);
+            for (String methodName : property.getValidatorMethods()) {
+                Method method = findValidator(type, methodName);
+                try {
+                    validators.add(new MethodPropertyValidator(property, MethodHandles.privateLookupIn(method.getDeclaringClass(),
+                        MethodHandles.lookup()), method));
+                }
+                catch (IllegalAccessException e) {
+                    throw new ConfigException("Can't access validator " + method, e);
+                }
+            }
+            for (ScriptValidatorTemplate validator : property.getScriptValidators()) {
+                validators.add(new ScriptPropertyValidator(type, property, validator, engines, instrumentation));
+            }
+            this.validators[property.getIndex()] = validators.isEmpty() ? EMPTY : validators.toArray(EMPTY);
+        }
+    }
+
+    /**
+     * @param index index of property.
+     *
+     * @return true if given property has any validators.
+     */
+    public boolean hasValidators(int index) {
+        return this.validators[index].length != 0;
+    }
+
+    /**
+     * Validates new value of property.
+     *
+     * @param index index of property.
+     * @param value new value of property.
+     * @param config config instance.
+     *
+     * @return value that should be stored.
+     *
+     * @throws ValidationException if value is invalid, failure is reported to instrumentation.
+     */
+    @Nullable
+    public Object validate(int index, @Nullable Object value, Config<?> config) {
+        try {
+            for (PropertyValidator validator : this.validators[index]) {
+                value = validator.validate(value, config);
+            }
+            return value;
+        }
+        catch (ValidationException e) {
+            this.instrumentation.validationFailed(this.type, e);
+            throw e;
+        }
+    }
+
+    /**
+     * Validates current values of all properties of given config, used after loading values from file.
+     *
+     * @param config generated config instance.
+     *
+     * @throws ValidationException if any value is invalid.
+     */
+    public void validateAll(Config<?> config) {
+        ConfigPropertyAccess access = (ConfigPropertyAccess) config;
+        LazyProperties lazy = access.getLazyProperties();
+        Instrumentation.Timer timer = this.instrumentation.start(this.type, ConfigOperation.VALIDATE);
+        try {
+            for (ConfigPropertyTemplate property : this.properties) {
+                int index = property.getIndex();
+                if (! this.hasValidators(index) || ((lazy != null) && lazy.isPending(index))) {
+                    continue; // lazy values are validated when they are read
+                }
+                Object value = access.getProperty(index);
+                Object validated = this.validate(index, value, config);
+                if (validated != value) {
+                    access.setProperty(index, validated);
+                }
+            }
+        }
+        finally {
+            timer.stop();
+        }
+    }
+
+    private static Method findValidator(Class<?> type, String name) {
+        Method method = findValidator(type, name, new ArrayList<>(4));
+        if (method == null) {
+            throw new ConfigException("Validator method " + name + " not found in " + type.getName());
+        }
+        return method;
+    }
+
+    @Nullable
+    private static Method findValidator(@Nullable Class<?> type, String name, List<Class<?>> visited) {
+        if ((type == null) || (type == Object.class) || visited.contains(type)) {
+            return null;
+        }
+        visited.add(type);
+        Method method = findDeclaredValidator(type, name);
+        if (method == null) {
+            method = findValidator(type.getSuperclass(), name, visited);
+        }
+        for (int i = 0; (method == null) && (i < type.getInterfaces().length); i++) {
+            method = findValidator(type.getInterfaces()[i], name, visited);
+        }
+        return method;
+    }
+
+    @Nullable
+    private static Method findDeclaredValidator(Class<?> type, String name) {
+        for (Method method : type.getDeclaredMethods()) {
+            if (method.getName().equals(name) && (method.getParameterCount() == 1)) {
+                return method;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,55 @@
+package org.diorite.configs.validation;
+
+import org.diorite.configs.Config;
+import org.diorite.configs.ConfigException;
+import org.diorite.configs.ConfigPropertyTemplate;
+import org.diorite.configs.annotations.Validator;
+import org.jetbrains.annotations.Nullable;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+
+/**
+ * Validator that invokes method of config annotated with {@link Validator}. <br/>
+ * Method must take single argument of property type, and can return corrected value of that type or void.
+ */
+final class MethodPropertyValidator implements PropertyValidator {
+    private final ConfigPropertyTemplate property;
+    private final MethodHandle handle;
+    private final boolean returnsValue;
+
+    MethodPropertyValidator(ConfigPropertyTemplate property, MethodHandles.Lookup lookup, Method method) {
+        if ((method.getParameterCount() != 1) || ! method.getParameterTypes()[0].isAssignableFrom(property.getRawType())) {
+            throw new ConfigException("Validator " + method + " must take single argument of type " + property.getRawType().getName());
+        }
+        this.property = property;
+        this.returnsValue = method.getReturnType() != void.class;
+        try {
+            MethodHandle handle = lookup.unreflect(method);
+            this.handle = handle.asType(MethodType.methodType(this.returnsValue ? Object.class : void.class, Object.class, Object.class));
+        }
+        catch (IllegalAccessException e) {
+            throw new ConfigException("Can't access validator " + method, e);
+        }
+    }
+
+    @Nullable
+    @Override
+    public Object validate(@Nullable Object value, Config<?> config) {
+        try {
+            if (this.returnsValue) {
+                return this.handle.invokeExact((Object) config, value);
+            }
+            this.handle.invokeExact((Object) config, value);
+            return value;
+        }
+        catch (ValidationException e) {
+            throw e;
+        }
+        catch (Throwable e) {
+            throw new ValidationException(this.property, "Invalid value of " + this.property.getName() + ": " + e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package org.diorite.configs.validation;
+
+import org.diorite.configs.Config;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Validates values of single property.
+ */
+@FunctionalInterface
+public interface PropertyValidator {
+    /**
+     * Validates given value, validator can also return different value to correct invalid one.
+     *
+     * @param value value to validate, primitives are boxed.
+     * @param config config instance that owns this value.
+     *
+     * @return value that should be stored.
+     *
+     * @throws ValidationException if value is invalid.
+     */
+    @Nullable
+    Object validate(@Nullable Object value, Config<?> config);
+}
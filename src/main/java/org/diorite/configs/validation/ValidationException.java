@@ -0,0 +1,30 @@
+package org.diorite.configs.validation;
+
+import org.diorite.configs.ConfigException;
+import org.diorite.configs.ConfigPropertyTemplate;
+
+/**
+ * Thrown when value of property is rejected by one of its validators.
+ */
+public class ValidationException extends ConfigException {
+    private static final long serialVersionUID = 0;
+
+    private final transient ConfigPropertyTemplate property;
+
+    public ValidationException(ConfigPropertyTemplate property, String message) {
+        super(message);
+        this.property = property;
+    }
+
+    public ValidationException(ConfigPropertyTemplate property, String message, Throwable cause) {
+        super(message, cause);
+        this.property = property;
+    }
+
+    /**
+     * @return property that failed validation.
+     */
+    public ConfigPropertyTemplate getProperty() {
+        return this.property;
+    }
+}
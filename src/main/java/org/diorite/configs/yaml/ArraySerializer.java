@@ -0,0 +1,73 @@
+package org.diorite.configs.yaml;
+
+import org.diorite.configs.style.PropertyStyle;
+import org.yaml.snakeyaml.events.Event.ID;
+
+import java.lang.reflect.Array;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Serializer of arrays, stored as sequences.
+ */
+final class ArraySerializer extends ValueSerializer {
+    private final Class<?> componentType;
+    private final ValueSerializer elementSerializer;
+
+    ArraySerializer(Class<?> componentType, ValueSerializer elementSerializer) {
+        this.componentType = componentType;
+        this.elementSerializer = elementSerializer;
+    }
+
+    @Override
+    public Object read(YamlReader reader) {
+        reader.expect(ID.SequenceStart);
+        List<Object> elements = new ArrayList<>(16);
+        while (! reader.isNext(ID.SequenceEnd)) {
+            Object element = reader.read(this.elementSerializer);
+            if ((element == null) && this.componentType.isPrimitive()) {
+                throw reader.error("Null element in array of " + this.componentType.getName());
+            }
+            elements.add(element);
+        }
+        reader.next();
+        Object array = Array.newInstance(this.componentType, elements.size());
+        for (int i = 0, size = elements.size(); i < size; i++) {
+            Array.set(array, i, elements.get(i));
+        }
+        return array;
+    }
+
+    @Override
+    public void write(YamlWriter writer, Object value, PropertyStyle style, int depth) {
+        int length = Array.getLength(value);
+        writer.startSequence(style.getStyle(depth), length);
+        for (int i = 0; i < length; i++) {
+            writer.write(this.elementSerializer, Array.get(value, i), style, depth + 1);
+        }
+        writer.endSequence();
+    }
+
+    @Override
+    public void writeSnapshot(SnapshotOutput output, Object value) {
+        int length = Array.getLength(value);
+        output.writeSize(length);
+        for (int i = 0; i < length; i++) {
+            output.write(this.elementSerializer, Array.get(value, i));
+        }
+    }
+
+    @Override
+    public Object readSnapshot(SnapshotInput input) {
+        int length = input.readSize();
+        Object array = Array.newInstance(this.componentType, length);
+        for (int i = 0; i < length; i++) {
+            Object element = input.read(this.elementSerializer);
+            if ((element == null) && this.componentType.isPrimitive()) {
+                throw input.error("Null element in array of " + this.componentType.getName());
+            }
+            Array.set(array, i, element);
+        }
+        return array;
+    }
+}
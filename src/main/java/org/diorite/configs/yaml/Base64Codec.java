@@ -0,0 +1,107 @@
+package org.diorite.configs.yaml;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Base64 encoding of binary values without intermediate strings or arrays, values are encoded directly into lines of output and decoded
+ * directly from text of scalar into array of final size. Decoding ignores only spaces and line breaks of block scalars, any other
+ * character outside of base64 alphabet is an error.
+ */
+final class Base64Codec {
+    private static final char[] ALPHABET = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789+/".toCharArray();
+    private static final byte[] VALUES = new byte[128];
+
+    static {
+        Arrays.fill(VALUES, (byte) - 1);
+        for (int i = 0; i < ALPHABET.length; i++) {
+            VALUES[ALPHABET[i]] = (byte) i;
+        }
+    }
+
+    private Base64Codec() {
+    }
+
+    /**
+     * Encodes as many bytes from given buffer as fit into given array, position of buffer is moved after encoded bytes.
+     *
+     * @param source source of bytes.
+     * @param target target array, its length should be multiple of 4.
+     *
+     * @return amount of written characters.
+     */
+    static int encode(ByteBuffer source, char[] target) {
+        int length = 0;
+        while (source.hasRemaining() && ((length + 4) <= target.length)) {
+            int bytes = Math.min(3, source.remaining());
+            int bits = (source.get() & 0xFF) << 16;
+            if (bytes > 1) {
+                bits |= (source.get() & 0xFF) << 8;
+            }
+            if (bytes > 2) {
+                bits |= source.get() & 0xFF;
+            }
+            target[length++] = ALPHABET[(bits >>> 18) & 0x3F];
+            target[length++] = ALPHABET[(bits >>> 12) & 0x3F];
+            target[length++] = (bytes > 1) ? ALPHABET[(bits >>> 6) & 0x3F] : '=';
+            target[length++] = (bytes > 2) ? ALPHABET[bits & 0x3F] : '=';
+        }
+        return length;
+    }
+
+    /**
+     * @param text base64 encoded text, spaces, tabs and line breaks are ignored, padding ends the value.
+     *
+     * @return decoded bytes.
+     *
+     * @throws IllegalArgumentException if text isn't valid base64 value.
+     */
+    static byte[] decode(String text) {
+        int chars = 0;
+        int padding = 0;
+        int end = text.length();
+        for (int i = 0, length = text.length(); i < length; i++) {
+            char c = text.charAt(i);
+            if (isWhitespace(c)) {
+                continue;
+            }
+            if (c == '=') {
+                end = Math.min(end, i);
+                padding++;
+            }
+            else if ((c >= 128) || (VALUES[c] == - 1)) {
+                throw new IllegalArgumentException("Invalid character of base64 value: " + c);
+            }
+            else if (padding != 0) {
+                throw new IllegalArgumentException("Data after padding of base64 value");
+            }
+            else {
+                chars++;
+            }
+        }
+        if (((chars % 4) == 1) || (padding > 2) || ((padding != 0) && (((chars + padding) % 4) != 0))) {
+            throw new IllegalArgumentException("Invalid length of base64 value");
+        }
+        byte[] bytes = new byte[(chars * 6) / 8];
+        int index = 0;
+        int bits = 0;
+        int bitCount = 0;
+        for (int i = 0; i < end; i++) {
+            char c = text.charAt(i);
+            if (isWhitespace(c)) {
+                continue;
+            }
+            bits = (bits << 6) | VALUES[c];
+            bitCount += 6;
+            if (bitCount >= 8) {
+                bitCount -= 8;
+                bytes[index++] = (byte) (bits >>> bitCount);
+            }
+        }
+        return bytes;
+    }
+
+    private static boolean isWhitespace(char c) {
+        return (c == ' ') || (c == '\n') || (c == '\r') || (c == '\t');
+    }
+}
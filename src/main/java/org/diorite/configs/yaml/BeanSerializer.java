@@ -0,0 +1,258 @@
+package org.diorite.configs.yaml;
+
+import org.diorite.configs.ConfigException;
+import org.diorite.configs.style.PropertyStyle;
+import org.diorite.configs.style.StringStyles;
+import org.jetbrains.annotations.Nullable;
+import org.yaml.snakeyaml.events.Event.ID;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.reflect.Array;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Serializer of simple objects stored as mappings of their fields. <br/>
+ * Objects are created using constructor without parameters, or constructor with parameters matching types of all fields in order of
+ * declaration. Fields and their serializers are resolved on first use, so objects may contain values of own type.
+ */
+final class BeanSerializer extends ValueSerializer {
+    private final Class<?> type;
+    private final ValueSerializers serializers;
+    @Nullable
+    private volatile Bean bean;
+
+    BeanSerializer(Class<?> type, ValueSerializers serializers) {
+        this.type = type;
+        this.serializers = serializers;
+    }
+
+    private Bean getBean() {
+        Bean bean = this.bean;
+        if (bean == null) {
+            bean = new Bean(this.type, this.serializers);
+            this.bean = bean;
+        }
+        return bean;
+    }
+
+    @Override
+    public Object read(YamlReader reader) {
+        Bean bean = this.getBean();
+        reader.expect(ID.MappingStart);
+        Object[] values = bean.defaults.clone();
+        boolean[] present = new boolean[values.length];
+        while (! reader.isNext(ID.MappingEnd)) {
+            Integer index = bean.indices.get(reader.nextScalar().getValue());
+            if (index == null) {
+                reader.skipValue();
+                continue;
+            }
+            Object value = reader.read(bean.fieldSerializers[index]);
+            if ((value != null) || ! bean.fields[index].getType().isPrimitive()) {
+                values[index] = value;
+                present[index] = true;
+            }
+        }
+        reader.next();
+        try {
+            return bean.create(values, present);
+        }
+        catch (Error e) {
+            throw e;
+        }
+        catch (Throwable e) {
+            throw reader.error("Can't create instance of " + this.type.getName(), e);
+        }
+    }
+
+    @Override
+    public void write(YamlWriter writer, Object value, PropertyStyle style, int depth) {
+        Bean bean = this.getBean();
+        writer.startMapping(style.getStyle(depth), bean.fields.length);
+        for (int i = 0; i < bean.fields.length; i++) {
+            Object fieldValue;
+            try {
+                fieldValue = bean.getters[i].invoke(value);
+            }
+            catch (Error | RuntimeException e) {
+                throw e;
+            }
+            catch (Throwable e) {
+                throw new ConfigException("Can't read field " + bean.fields[i].getName() + " of " + this.type.getName(), e);
+            }
+            writer.string(bean.fields[i].getName(), StringStyles.AUTO);
+            writer.write(bean.fieldSerializers[i], fieldValue, style, depth + 1);
+        }
+        writer.endMapping();
+    }
+
+    /**
+     * Writes hash of fields followed by values of all fields, so snapshot of changed class is rejected.
+     */
+    @Override
+    public void writeSnapshot(SnapshotOutput output, Object value) {
+        Bean bean = this.getBean();
+        output.writeLong(bean.schemaHash);
+        for (int i = 0; i < bean.fields.length; i++) {
+            Object fieldValue;
+            try {
+                fieldValue = bean.getters[i].invoke(value);
+            }
+            catch (Error | RuntimeException e) {
+                throw e;
+            }
+            catch (Throwable e) {
+                throw new ConfigException("Can't read field " + bean.fields[i].getName() + " of " + this.type.getName(), e);
+            }
+            output.write(bean.fieldSerializers[i], fieldValue);
+        }
+    }
+
+    @Override
+    public Object readSnapshot(SnapshotInput input) {
+        Bean bean = this.getBean();
+        if (input.readLong() != bean.schemaHash) {
+            throw input.error("Fields of " + this.type.getName() + " were changed");
+        }
+        Object[] values = bean.defaults.clone();
+        boolean[] present = new boolean[values.length];
+        for (int i = 0; i < values.length; i++) {
+            Object value = input.read(bean.fieldSerializers[i]);
+            if ((value != null) || ! bean.fields[i].getType().isPrimitive()) {
+                values[i] = value;
+                present[i] = true;
+            }
+        }
+        try {
+            return bean.create(values, present);
+        }
+        catch (Error e) {
+            throw e;
+        }
+        catch (Throwable e) {
+            throw new ConfigException("Can't create instance of " + this.type.getName(), e);
+        }
+    }
+
+    private static final class Bean {
+        private final Field[] fields;
+        private final Map<String, Integer> indices;
+        private final ValueSerializer[] fieldSerializers;
+        private final Object[] defaults;
+        @Nullable
+        private final MethodHandle constructor;
+        @Nullable
+        private final MethodHandle fieldsConstructor;
+        private final MethodHandle[] setters;
+        private final MethodHandle[] getters;
+        private final long schemaHash;
+
+        Bean(Class<?> type, ValueSerializers serializers) {
+            List<Field> fields = new ArrayList<>(8);
+            collectFields(type, fields);
+            this.fields = fields.toArray(new Field[0]);
+            this.indices = new HashMap<>(this.fields.length * 2);
+            this.fieldSerializers = new ValueSerializer[this.fields.length];
+            this.defaults = new Object[this.fields.length];
+            this.setters = new MethodHandle[this.fields.length];
+            this.getters = new MethodHandle[this.fields.length];
+            try {
+                MethodHandles.Lookup lookup = MethodHandles.lookup();
+                for (int i = 0; i < this.fields.length; i++) {
+                    this.getters[i] = lookup.unreflectGetter(this.fields[i]);
+                }
+                Constructor<?> constructor = findConstructor(type, this.fields);
+                if (constructor.getParameterCount() == 0) {
+                    this.constructor = lookup.unreflectConstructor(constructor);
+                    this.fieldsConstructor = null;
+                    for (int i = 0; i < this.fields.length; i++) {
+                        this.setters[i] = lookup.unreflectSetter(this.fields[i]);
+                    }
+                }
+                else {
+                    this.constructor = null;
+                    this.fieldsConstructor = lookup.unreflectConstructor(constructor);
+                }
+            }
+            catch (IllegalAccessException | RuntimeException e) {
+                throw new ConfigException("Can't access " + type.getName() + ", it can't be serialized.", e);
+            }
+            StringBuilder schema = new StringBuilder(this.fields.length * 32);
+            for (int i = 0; i < this.fields.length; i++) {
+                Field field = this.fields[i];
+                schema.append(field.getName()).append(':').append(field.getGenericType().getTypeName()).append(';');
+                this.indices.put(field.getName(), i);
+                this.fieldSerializers[i] = serializers.get(field.getGenericType());
+                if (field.getType().isPrimitive()) {
+                    this.defaults[i] = Array.get(Array.newInstance(field.getType(), 1), 0);
+                }
+            }
+            this.schemaHash = SnapshotCache.hash(schema);
+        }
+
+        Object create(Object[] values, boolean[] present) throws Throwable {
+            if (this.fieldsConstructor != null) {
+                return this.fieldsConstructor.invokeWithArguments(values);
+            }
+            assert this.constructor != null;
+            Object instance = this.constructor.invoke();
+            for (int i = 0; i < values.length; i++) {
+                if (present[i]) {
+                    this.setters[i].invoke(instance, values[i]);
+                }
+            }
+            return instance;
+        }
+
+        private static void collectFields(Class<?> type, List<Field> fields) {
+            if ((type.getSuperclass() != null) && (type.getSuperclass() != Object.class)) {
+                collectFields(type.getSuperclass(), fields);
+            }
+            for (Field field : type.getDeclaredFields()) {
+                int modifiers = field.getModifiers();
+                if (Modifier.isStatic(modifiers) || Modifier.isTransient(modifiers) || field.isSynthetic()) {
+                    continue;
+                }
+                field.setAccessible(true);
+                fields.add(field);
+            }
+        }
+
+        private static Constructor<?> findConstructor(Class<?> type, Field[] fields) {
+            Constructor<?> fieldsConstructor = null;
+            for (Constructor<?> constructor : type.getDeclaredConstructors()) {
+                if (constructor.getParameterCount() == 0) {
+                    constructor.setAccessible(true);
+                    return constructor;
+                }
+                if ((fieldsConstructor == null) && matches(constructor.getParameterTypes(), fields)) {
+                    fieldsConstructor = constructor;
+                }
+            }
+            if (fieldsConstructor == null) {
+                throw new ConfigException("No constructor without parameters or with parameters matching all fields found in " + type.getName());
+            }
+            fieldsConstructor.setAccessible(true);
+            return fieldsConstructor;
+        }
+
+        private static boolean matches(Class<?>[] parameters, Field[] fields) {
+            if (parameters.length != fields.length) {
+                return false;
+            }
+            for (int i = 0; i < parameters.length; i++) {
+                if (parameters[i] != fields[i].getType()) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
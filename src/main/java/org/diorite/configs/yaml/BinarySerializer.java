@@ -0,0 +1,224 @@
+package org.diorite.configs.yaml;
+
+import org.diorite.configs.style.BinaryStyles;
+import org.diorite.configs.style.NodeStyle;
+import org.diorite.configs.style.PropertyStyle;
+import org.diorite.configs.style.Styles;
+import org.yaml.snakeyaml.events.Event.ID;
+import org.yaml.snakeyaml.events.ScalarEvent;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * Serializer of byte arrays and byte buffers, stored as base64 encoded {@code !!binary} scalar or as sequence of numbers. <br/>
+ * Values longer than {@link PropertyStyle#getBinaryFileIfLongerThan(int)} are stored in separate files in {@value #FILES_SUFFIX}
+ * directory next to yaml file, named by SHA-256 hash of their content, and referenced by {@code !file} scalar. Such files are
+ * memory mapped when read as byte buffers. Byte buffers are always returned as read-only views.
+ */
+final class BinarySerializer extends ValueSerializer {
+    static final BinarySerializer INSTANCE = new BinarySerializer(false);
+    static final BinarySerializer BUFFER = new BinarySerializer(true);
+
+    static final String FILE_TAG = "file";
+    static final String FILES_SUFFIX = ".files";
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    private final boolean buffer;
+
+    private BinarySerializer(boolean buffer) {
+        this.buffer = buffer;
+    }
+
+    @Override
+    public Object read(YamlReader reader) {
+        if (! reader.isNext(ID.SequenceStart)) {
+            ScalarEvent event = reader.nextScalar();
+            if (("!" + FILE_TAG).equals(event.getTag())) {
+                ByteBuffer data = readFile(reader, event.getValue());
+                return this.buffer ? data : toArray(data);
+            }
+            try {
+                return this.result(Base64Codec.decode(event.getValue()));
+            }
+            catch (IllegalArgumentException e) {
+                throw reader.error("Invalid base64 value", e);
+            }
+        }
+        reader.next();
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(32);
+        while (! reader.isNext(ID.SequenceEnd)) {
+            String value = reader.nextScalar().getValue();
+            long number;
+            try {
+                number = YamlScalars.parseInteger(value).longValue();
+            }
+            catch (NumberFormatException | ArithmeticException e) {
+                throw reader.error("Invalid byte: " + value, e);
+            }
+            // signed and unsigned values are accepted, like 0xFF and -1
+            if ((number < Byte.MIN_VALUE) || (number > 0xFF)) {
+                throw reader.error("Invalid byte: " + value);
+            }
+            bytes.write((int) number);
+        }
+        reader.next();
+        return this.result(bytes.toByteArray());
+    }
+
+    @Override
+    public void write(YamlWriter writer, Object value, PropertyStyle style, int depth) {
+        ByteBuffer data = (value instanceof ByteBuffer) ? ((ByteBuffer) value).duplicate() : ByteBuffer.wrap((byte[]) value);
+        int length = data.remaining();
+        NodeStyle node = style.at(depth);
+        int fileLongerThan = node.getBinaryFileIfLongerThan();
+        if ((fileLongerThan >= 0) && (length > fileLongerThan) && (writer.getPath() != null)) {
+            writer.tagged(FILE_TAG, writeFile(writer.getPath(), data));
+            return;
+        }
+        BinaryStyles binaryStyle = node.getBinaryStyle();
+        if (binaryStyle == BinaryStyles.ARRAY) {
+            int longerThan = node.getBinarySwitchIfLongerThan();
+            if ((longerThan < 0) || (length <= longerThan)) {
+                writeArray(writer, data, node.getStyle());
+                return;
+            }
+        }
+        else if ((binaryStyle == BinaryStyles.BINARY) && (length < node.getBinarySwitchIfShorterThan())) {
+            writeArray(writer, data, node.getStyle());
+            return;
+        }
+        writer.binary(data);
+    }
+
+    private static void writeArray(YamlWriter writer, ByteBuffer data, Styles style) {
+        writer.startSequence((style == Styles.AUTO) ? Styles.INLINE : style, data.remaining());
+        for (int i = data.position(); i < data.limit(); i++) {
+            writer.plain(Byte.toString(data.get(i)));
+        }
+        writer.endSequence();
+    }
+
+    private Object result(byte[] bytes) {
+        return this.buffer ? ByteBuffer.wrap(bytes).asReadOnlyBuffer() : bytes;
+    }
+
+    private static byte[] toArray(ByteBuffer data) {
+        byte[] bytes = new byte[data.remaining()];
+        data.get(bytes);
+        return bytes;
+    }
+
+    /**
+     * Maps file referenced by {@code !file} scalar, file must be inside files directory of read yaml file.
+     *
+     * @return read-only buffer with content of file.
+     */
+    static ByteBuffer readFile(YamlReader reader, String name) {
+        Path path = reader.getPath();
+        if (path == null) {
+            throw reader.error("Binary file " + name + " can't be read, yaml document isn't read from file");
+        }
+        Path directory = filesDirectory(path).toAbsolutePath().normalize();
+        Path file = path.resolveSibling(name).toAbsolutePath().normalize();
+        if (! file.startsWith(directory)) {
+            throw reader.error("Binary file " + name + " is outside of " + directory);
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        catch (IOException e) {
+            throw reader.error("Can't read binary file " + file, e);
+        }
+    }
+
+    /**
+     * Writes given data to files directory of given yaml file, file with same content is reused.
+     *
+     * @return name of file relative to directory of yaml file.
+     */
+    private static String writeFile(Path path, ByteBuffer data) {
+        String name = path.getFileName() + FILES_SUFFIX + "/" + sha256(data.duplicate()) + ".bin";
+        Path file = path.resolveSibling(name);
+        if (Files.exists(file)) {
+            return name;
+        }
+        try {
+            Files.createDirectories(file.getParent());
+            // unique temporary file, so concurrent saves of same content never write to the same file
+            Path temp = Files.createTempFile(file.getParent(), file.getFileName().toString(), ".tmp");
+            try {
+                try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+                    ByteBuffer source = data.duplicate();
+                    while (source.hasRemaining()) {
+                        channel.write(source);
+                    }
+                }
+                try {
+                    Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE);
+                }
+                catch (AtomicMoveNotSupportedException e) {
+                    Files.move(temp, file);
+                }
+            }
+            catch (FileAlreadyExistsException e) {
+                // same content was written by other save
+            }
+            finally {
+                Files.deleteIfExists(temp);
+            }
+        }
+        catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return name;
+    }
+
+    static Path filesDirectory(Path path) {
+        return path.resolveSibling(path.getFileName() + FILES_SUFFIX);
+    }
+
+    private static String sha256(ByteBuffer data) {
+        byte[] hash;
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(data);
+            hash = digest.digest();
+        }
+        catch (NoSuchAlgorithmException e) {
+            throw new AssertionError(e);
+        }
+        char[] chars = new char[hash.length * 2];
+        for (int i = 0; i < hash.length; i++) {
+            chars[i * 2] = HEX[(hash[i] >>> 4) & 0xF];
+            chars[(i * 2) + 1] = HEX[hash[i] & 0xF];
+        }
+        return new String(chars);
+    }
+
+    @Override
+    public void writeSnapshot(SnapshotOutput output, Object value) {
+        if (value instanceof ByteBuffer) {
+            output.writeBytes((ByteBuffer) value);
+        }
+        else {
+            output.writeBytes((byte[]) value);
+        }
+    }
+
+    @Override
+    public Object readSnapshot(SnapshotInput input) {
+        return this.buffer ? input.readBuffer() : input.readBytes();
+    }
+}
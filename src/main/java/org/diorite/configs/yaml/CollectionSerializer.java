@@ -0,0 +1,59 @@
+package org.diorite.configs.yaml;
+
+import org.diorite.configs.style.PropertyStyle;
+import org.yaml.snakeyaml.events.Event.ID;
+
+import java.util.Collection;
+import java.util.function.Supplier;
+
+/**
+ * Serializer of collections, stored as sequences.
+ */
+final class CollectionSerializer extends ValueSerializer {
+    private final Supplier<? extends Collection<Object>> factory;
+    private final ValueSerializer elementSerializer;
+
+    CollectionSerializer(Supplier<? extends Collection<Object>> factory, ValueSerializer elementSerializer) {
+        this.factory = factory;
+        this.elementSerializer = elementSerializer;
+    }
+
+    @Override
+    public Object read(YamlReader reader) {
+        reader.expect(ID.SequenceStart);
+        Collection<Object> collection = this.factory.get();
+        while (! reader.isNext(ID.SequenceEnd)) {
+            collection.add(reader.read(this.elementSerializer));
+        }
+        reader.next();
+        return collection;
+    }
+
+    @Override
+    public void write(YamlWriter writer, Object value, PropertyStyle style, int depth) {
+        Collection<?> collection = (Collection<?>) value;
+        writer.startSequence(style.getStyle(depth), collection.size());
+        for (Object element : collection) {
+            writer.write(this.elementSerializer, element, style, depth + 1);
+        }
+        writer.endSequence();
+    }
+
+    @Override
+    public void writeSnapshot(SnapshotOutput output, Object value) {
+        Collection<?> collection = (Collection<?>) value;
+        output.writeSize(collection.size());
+        for (Object element : collection) {
+            output.write(this.elementSerializer, element);
+        }
+    }
+
+    @Override
+    public Object readSnapshot(SnapshotInput input) {
+        Collection<Object> collection = this.factory.get();
+        for (int i = input.readSize(); i > 0; i--) {
+            collection.add(input.read(this.elementSerializer));
+        }
+        return collection;
+    }
+}
@@ -0,0 +1,571 @@
+package org.diorite.configs.yaml;
+
+import org.diorite.configs.Config;
+import org.diorite.configs.ConfigException;
+import org.diorite.configs.ConfigPropertyTemplate;
+import org.diorite.configs.ConfigTemplate;
+import org.diorite.configs.impl.ConfigImplementation;
+import org.diorite.configs.impl.ConfigPropertyAccess;
+import org.diorite.configs.impl.ConfigState;
+import org.diorite.configs.impl.ConfigStateReference;
+import org.diorite.configs.metrics.ConfigOperation;
+import org.diorite.configs.metrics.Instrumentation;
+import org.diorite.configs.style.PropertyStyle;
+import org.diorite.configs.style.StringStyles;
+import org.diorite.configs.style.Styles;
+import org.jetbrains.annotations.Nullable;
+import org.yaml.snakeyaml.events.CollectionStartEvent;
+import org.yaml.snakeyaml.events.Event;
+import org.yaml.snakeyaml.events.Event.ID;
+import org.yaml.snakeyaml.events.ScalarEvent;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * Serializer of config types, values are read directly into properties of config instance. <br/>
+ * Keys are matched using serialized and alternate names of properties, unknown keys are skipped without reading their values. <br/>
+ * Properties are written in order of declaration, using serialized names, comments and styles of properties. Configs loaded from
+ * text remember their {@link YamlDocument}, so later saves only replace entries of properties changed by setters. <br/>
+ * Mappings and sequences of lazy properties are stored in {@link LazyProperties} of config and read when they are used first time.
+ *
+ * @param <T> type of config.
+ */
+public final class ConfigSerializer<T extends Config<T>> extends ValueSerializer {
+    private final ConfigTemplate<T> template;
+    private final ValueSerializers serializers;
+    private final Instrumentation instrumentation;
+    private final PropertyNames byName;
+    private final long schemaHash;
+    @Nullable
+    private volatile ValueSerializer[] propertySerializers;
+
+    ConfigSerializer(ConfigTemplate<T> template, ValueSerializers serializers, Instrumentation instrumentation) {
+        this.template = template;
+        this.serializers = serializers;
+        this.instrumentation = instrumentation;
+        this.byName = PropertyNames.of(template.getProperties());
+        StringBuilder schema = new StringBuilder(template.getProperties().size() * 32);
+        for (ConfigPropertyTemplate property : template.getProperties()) {
+            schema.append(property.getSerializedName()).append(':').append(property.getGenericType().getTypeName()).append(';');
+        }
+        this.schemaHash = SnapshotCache.hash(schema);
+    }
+
+    public ConfigTemplate<T> getTemplate() {
+        return this.template;
+    }
+
+    /**
+     * @param name name of key in configuration file.
+     *
+     * @return property using given serialized or alternate name, or null if there is no such property.
+     */
+    @Nullable
+    public ConfigPropertyTemplate getPropertyBySerializedName(String name) {
+        return this.byName.get(name);
+    }
+
+    /**
+     * Reads new config instance from given yaml document.
+     *
+     * @param reader source of yaml document.
+     *
+     * @return new config instance, properties missing in document are set to default values.
+     */
+    public T load(Reader reader) {
+        T config = this.template.create();
+        this.loadInto(config, reader);
+        return config;
+    }
+
+    /**
+     * Reads values from given yaml document into existing config instance, properties missing in document are not changed. <br/>
+     * Source document remembered by config is forgotten, so next save writes whole document. Concurrent configs are loaded in single
+     * transaction, so readers see new values only after all of them are read and validated.
+     *
+     * @param config config instance.
+     * @param reader source of yaml document.
+     */
+    public void loadInto(T config, Reader reader) {
+        ConfigPropertyAccess access = (ConfigPropertyAccess) config;
+        access.setDocument(null);
+        ConfigStateReference state = access.getStateReference();
+        if (state != null) {
+            state.transaction(() -> this.readAll(config, reader));
+        }
+        else {
+            this.readAll(config, reader);
+        }
+        this.template.getImplementation().getIndexes().buildAll(config);
+    }
+
+    private void readAll(T config, Reader reader) {
+        Instrumentation.Timer timer = this.instrumentation.start(this.template.getType(), ConfigOperation.READ);
+        try {
+            YamlReader yaml = new YamlReader(reader);
+            yaml.setStringDeduplicator(this.serializers.getStringDeduplicator());
+            if (! yaml.startDocument()) {
+                return;
+            }
+            Event event = yaml.peek();
+            if (! event.is(ID.Scalar) || ! YamlReader.isNull((ScalarEvent) event)) {
+                this.readInto(yaml, config);
+            }
+            else {
+                yaml.next();
+            }
+            yaml.endDocument();
+        }
+        finally {
+            timer.stop();
+        }
+        this.template.getImplementation().getValidation().validateAll(config);
+    }
+
+    /**
+     * Reads new config instance from given yaml text, config remembers source document, so later saves only write changed properties.
+     *
+     * @param text yaml document.
+     *
+     * @return new config instance, properties missing in document are set to default values.
+     */
+    public T loadDocument(String text) {
+        return this.loadDocument(text, null);
+    }
+
+    /**
+     * Reads new config instance from given yaml text, config remembers source document, so later saves only write changed properties.
+     *
+     * @param text yaml document.
+     * @param path path of yaml file, used to read binary values stored in separate files, or null if text isn't read from file.
+     *
+     * @return new config instance, properties missing in document are set to default values.
+     */
+    public T loadDocument(String text, @Nullable Path path) {
+        T config = this.template.create();
+        ConfigPropertyAccess access = (ConfigPropertyAccess) config;
+        YamlDocument document;
+        Instrumentation.Timer timer = this.instrumentation.start(this.template.getType(), ConfigOperation.READ);
+        try {
+            document = this.readDocument(text, config, path);
+        }
+        finally {
+            timer.stop();
+        }
+        this.template.getImplementation().getValidation().validateAll(config);
+        this.template.getImplementation().getIndexes().buildAll(config);
+        access.setDocument(document);
+        access.getDirtyProperties().clear();
+        return config;
+    }
+
+    @Override
+    public Object read(YamlReader reader) {
+        T config = this.template.create();
+        this.readInto(reader, config);
+        this.template.getImplementation().getValidation().validateAll(config);
+        this.template.getImplementation().getIndexes().buildAll(config);
+        return config;
+    }
+
+    /**
+     * Reads mapping of property values into given config, values are stored directly, without validation.
+     *
+     * @param reader yaml reader.
+     * @param config config instance.
+     */
+    public void readInto(YamlReader reader, T config) {
+        this.readProperties(reader, config, null, null);
+    }
+
+    /**
+     * Reads mapping of property values, optionally recording span of each property in source text.
+     *
+     * @param config config instance, or null if values should be skipped.
+     * @param starts array filled with start indices of keys of properties, or null.
+     * @param ends array filled with end indices of values of properties, or null.
+     */
+    private void readProperties(YamlReader reader, @Nullable T config, @Nullable int[] starts, @Nullable int[] ends) {
+        ValueSerializer[] propertySerializers = this.getPropertySerializers();
+        ConfigImplementation<T> implementation = this.template.getImplementation();
+        reader.expect(ID.MappingStart);
+        while (! reader.isNext(ID.MappingEnd)) {
+            if (! reader.isNext(ID.Scalar)) {
+                reader.skipValue();
+                reader.skipValue();
+                continue;
+            }
+            ScalarEvent key = reader.nextScalar();
+            ConfigPropertyTemplate property = this.byName.get(key.getValue());
+            if (property == null) {
+                reader.skipValue();
+                continue;
+            }
+            if (config == null) {
+                reader.skipValue();
+            }
+            else {
+                ValueSerializer serializer = propertySerializers[property.getIndex()];
+                ConfigPropertyAccess access = (ConfigPropertyAccess) config;
+                Object value = implementation.isLazy(property.getIndex()) ? reader.readLazy(serializer) : reader.read(serializer);
+                if (value instanceof LazyValue) {
+                    access.getLazyProperties().defer(property.getIndex(), (LazyValue) value);
+                }
+                else if ((value != null) || ! property.getRawType().isPrimitive()) {
+                    access.setProperty(property.getIndex(), implementation.shareDefault(property.getIndex(), value));
+                }
+            }
+            if ((starts != null) && (ends != null)) {
+                starts[property.getIndex()] = key.getStartMark().getIndex();
+                ends[property.getIndex()] = reader.getEnd();
+            }
+        }
+        reader.next();
+    }
+
+    /**
+     * Reads given yaml text into config and indexes spans of its properties.
+     *
+     * @param config config instance, or null if document should be only indexed.
+     * @param path path of yaml file, or null.
+     *
+     * @return indexed document, or null if document can't be patched, as it isn't a block mapping or it uses anchors.
+     */
+    @Nullable
+    private YamlDocument readDocument(String text, @Nullable T config, @Nullable Path path) {
+        YamlReader reader = new YamlReader(new StringReader(text));
+        reader.setPath(path);
+        reader.setStringDeduplicator(this.serializers.getStringDeduplicator());
+        if (! reader.startDocument()) {
+            return null;
+        }
+        Event event = reader.peek();
+        YamlDocument document = null;
+        if (event.is(ID.MappingStart) && ! Boolean.TRUE.equals(((CollectionStartEvent) event).getFlowStyle())) {
+            int[] starts = new int[this.template.getProperties().size()];
+            int[] ends = new int[starts.length];
+            Arrays.fill(starts, - 1);
+            this.readProperties(reader, config, starts, ends);
+            if (! reader.hasAnchors()) {
+                document = new YamlDocument(text, starts, ends, reader.getEnd());
+            }
+        }
+        else if ((config != null) && (! event.is(ID.Scalar) || ! YamlReader.isNull((ScalarEvent) event))) {
+            this.readProperties(reader, config, null, null);
+        }
+        else {
+            reader.skipValue();
+        }
+        reader.endDocument();
+        return document;
+    }
+
+    /**
+     * Writes given config as yaml document, with header and footer comments of config. If config remembers its source document, that
+     * document is written with entries of changed properties replaced.
+     *
+     * @param config config instance.
+     * @param writer target of yaml document.
+     */
+    public void save(T config, Writer writer) {
+        ConfigPropertyAccess access = (ConfigPropertyAccess) config;
+        BitSet dirty = new BitSet();
+        ConfigState state = snapshot(access, dirty);
+        YamlDocument document = access.getDocument();
+        if (document == null) {
+            this.writeDocument(access, state, writer, null);
+            this.clearSaved(access, state, null);
+            return;
+        }
+        YamlDocument updated = document.apply(document.edits(this.renderDirty(access, state, dirty, document, null)));
+        try {
+            writer.write(updated.getText());
+            writer.flush();
+        }
+        catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        access.setDocument(updated);
+        this.clearSaved(access, state, dirty);
+    }
+
+    /**
+     * Writes given config to yaml file. If config remembers its source document, only entries of changed properties are replaced,
+     * and if file was not modified since last load or save, only changed part of file is written. <br/>
+     * Otherwise whole document is written, and config remembers it for next saves.
+     *
+     * @param config config instance.
+     * @param path path of file.
+     *
+     * @throws IOException if file can't be written.
+     */
+    public void save(T config, Path path) throws IOException {
+        ConfigPropertyAccess access = (ConfigPropertyAccess) config;
+        BitSet dirty = new BitSet();
+        ConfigState state = snapshot(access, dirty);
+        YamlDocument document = access.getDocument();
+        if (document == null) {
+            StringWriter writer = new StringWriter(1024);
+            this.writeDocument(access, state, writer, path);
+            String text = writer.toString();
+            YamlDocument.write(path, text);
+            access.setDocument(this.readDocument(text, null, path));
+            this.clearSaved(access, state, null);
+            return;
+        }
+        List<YamlDocument.Edit> edits = document.edits(this.renderDirty(access, state, dirty, document, path));
+        YamlDocument updated = document.apply(edits);
+        document.write(path, edits, updated);
+        access.setDocument(updated);
+        this.clearSaved(access, state, dirty);
+    }
+
+    /**
+     * Takes state of concurrent config together with its dirty properties, so saved values and cleared dirty properties always belong
+     * to the same change. Properties of other configs are read from config itself.
+     *
+     * @param dirty set that receives dirty properties of config.
+     *
+     * @return state of concurrent config, or null if config is not concurrent.
+     */
+    @Nullable
+    private static ConfigState snapshot(ConfigPropertyAccess access, BitSet dirty) {
+        ConfigStateReference reference = access.getStateReference();
+        if (reference == null) {
+            dirty.or(access.getDirtyProperties());
+            return null;
+        }
+        return reference.snapshot(dirty);
+    }
+
+    /**
+     * Clears dirty properties that were saved, properties of concurrent config changed after its state was taken stay dirty.
+     *
+     * @param state state properties were saved from, or null if config is not concurrent.
+     * @param saved saved properties, or null if all properties were saved.
+     */
+    private void clearSaved(ConfigPropertyAccess access, @Nullable ConfigState state, @Nullable BitSet saved) {
+        if (saved == null) {
+            saved = new BitSet();
+            saved.set(0, this.template.getProperties().size());
+        }
+        ConfigStateReference reference = access.getStateReference();
+        if ((state == null) || (reference == null)) {
+            access.getDirtyProperties().andNot(saved);
+        }
+        else {
+            reference.clearDirty(state, saved);
+        }
+    }
+
+    /**
+     * @return new entries of all dirty properties, entries of properties missing in document also contain comments of property.
+     */
+    private String[] renderDirty(ConfigPropertyAccess access, @Nullable ConfigState state, BitSet dirty, YamlDocument document,
+                                 @Nullable Path path) {
+        ValueSerializer[] propertySerializers = this.getPropertySerializers();
+        List<ConfigPropertyTemplate> properties = this.template.getProperties();
+        String[] entries = new String[properties.size()];
+        for (int i = dirty.nextSetBit(0); i >= 0; i = dirty.nextSetBit(i + 1)) {
+            StringWriter entry = new StringWriter(64);
+            YamlWriter yaml = new YamlWriter(entry, this.serializers);
+            yaml.setPath(path);
+            yaml.startMapping(Styles.NEXTLINE, 1);
+            this.writeProperty(yaml, properties.get(i), value(access, state, i), propertySerializers, ! document.contains(i));
+            yaml.endMapping();
+            entries[i] = entry.toString();
+        }
+        return entries;
+    }
+
+    private void writeDocument(ConfigPropertyAccess access, @Nullable ConfigState state, Writer writer, @Nullable Path path) {
+        YamlWriter yaml = new YamlWriter(writer, this.serializers);
+        yaml.setPath(path);
+        List<String> header = this.template.getHeader();
+        if (! header.isEmpty()) {
+            yaml.comment(header);
+            yaml.emptyLines(1);
+        }
+        this.writeProperties(yaml, access, state, PropertyStyle.DEFAULT, 0);
+        List<String> footer = this.template.getFooter();
+        if (! footer.isEmpty()) {
+            yaml.emptyLines(1);
+            yaml.comment(footer);
+        }
+        yaml.flush();
+    }
+
+    @Override
+    public void write(YamlWriter writer, Object value, PropertyStyle style, int depth) {
+        ConfigPropertyAccess access = (ConfigPropertyAccess) value;
+        ConfigStateReference reference = access.getStateReference();
+        this.writeProperties(writer, access, (reference == null) ? null : reference.get(), style, depth);
+    }
+
+    private void writeProperties(YamlWriter writer, ConfigPropertyAccess access, @Nullable ConfigState state, PropertyStyle style,
+                                 int depth) {
+        ValueSerializer[] propertySerializers = this.getPropertySerializers();
+        List<ConfigPropertyTemplate> properties = this.template.getProperties();
+        writer.startMapping(style.getStyle(depth), properties.size());
+        for (ConfigPropertyTemplate property : properties) {
+            this.writeProperty(writer, property, value(access, state, property.getIndex()), propertySerializers, true);
+        }
+        writer.endMapping();
+    }
+
+    /**
+     * @param layout true if comments and empty lines around property should be written.
+     */
+    private void writeProperty(YamlWriter writer, ConfigPropertyTemplate property, @Nullable Object value,
+                               ValueSerializer[] propertySerializers, boolean layout) {
+        PropertyStyle style = property.getStyle();
+        if (layout) {
+            writer.emptyLines(style.getNewLinesBefore());
+            writer.comment(property.getComments());
+        }
+        writer.string(property.getSerializedName(), StringStyles.AUTO);
+        writer.write(propertySerializers[property.getIndex()], value, style, 1);
+        if (layout) {
+            writer.emptyLines(style.getNewLinesAfter());
+        }
+    }
+
+    /**
+     * @param state state of concurrent config, or null if value should be read from config.
+     *
+     * @return value of property, all values of concurrent config are read from the same state.
+     */
+    @Nullable
+    private static Object value(ConfigPropertyAccess access, @Nullable ConfigState state, int index) {
+        return (state == null) ? access.getProperty(index) : state.get(index);
+    }
+
+    /**
+     * Writes hash of properties followed by values of all properties, so snapshot of changed config type is rejected. Values of lazy
+     * properties that weren't read yet are written as their stored events, without reading them.
+     */
+    @Override
+    public void writeSnapshot(SnapshotOutput output, Object value) {
+        ValueSerializer[] propertySerializers = this.getPropertySerializers();
+        ConfigImplementation<T> implementation = this.template.getImplementation();
+        ConfigPropertyAccess access = (ConfigPropertyAccess) value;
+        LazyProperties lazy = access.getLazyProperties();
+        output.writeLong(this.schemaHash);
+        for (int i = 0; i < propertySerializers.length; i++) {
+            if (implementation.isLazy(i)) {
+                LazyValue pending = (lazy == null) ? null : lazy.get(i);
+                output.writeBoolean(pending != null);
+                if (pending != null) {
+                    pending.writeSnapshot(output);
+                    continue;
+                }
+            }
+            output.write(propertySerializers[i], access.getProperty(i));
+        }
+    }
+
+    /**
+     * Reads config from snapshot, values are validated again, as validators could be changed since snapshot was written. Values of lazy
+     * properties that weren't read are stored again, and validated when they are used first time.
+     */
+    @Override
+    public Object readSnapshot(SnapshotInput input) {
+        T config = this.template.create();
+        this.readSnapshotInto(input, config);
+        return config;
+    }
+
+    private void readSnapshotInto(SnapshotInput input, T config) {
+        if (input.readLong() != this.schemaHash) {
+            throw input.error("Properties of " + this.template.getType().getName() + " were changed");
+        }
+        ValueSerializer[] propertySerializers = this.getPropertySerializers();
+        ConfigImplementation<T> implementation = this.template.getImplementation();
+        ConfigPropertyAccess access = (ConfigPropertyAccess) config;
+        for (ConfigPropertyTemplate property : this.template.getProperties()) {
+            if (implementation.isLazy(property.getIndex()) && input.readBoolean()) {
+                LazyValue pending = LazyValue.readSnapshot(input, propertySerializers[property.getIndex()], input.getPath());
+                access.getLazyProperties().defer(property.getIndex(), pending);
+                continue;
+            }
+            Object value = input.read(propertySerializers[property.getIndex()]);
+            if ((value != null) || ! property.getRawType().isPrimitive()) {
+                access.setProperty(property.getIndex(), implementation.shareDefault(property.getIndex(), value));
+            }
+        }
+        implementation.getValidation().validateAll(config);
+        implementation.getIndexes().buildAll(config);
+    }
+
+    /**
+     * @param config config loaded from yaml file.
+     * @param fileHash hash of content of yaml file.
+     *
+     * @return snapshot of given config and index of its document.
+     */
+    byte[] writeFileSnapshot(T config, byte[] fileHash) {
+        SnapshotOutput output = new SnapshotOutput(this.serializers);
+        SnapshotCache.writeHeader(output, fileHash);
+        YamlDocument document = ((ConfigPropertyAccess) config).getDocument();
+        output.writeBoolean(document != null);
+        if (document != null) {
+            document.writeSnapshot(output);
+        }
+        this.writeSnapshot(output, config);
+        return output.toByteArray();
+    }
+
+    /**
+     * @param snapshot content of snapshot file.
+     * @param fileHash hash of content of yaml file.
+     * @param text content of yaml file.
+     * @param path path of yaml file.
+     *
+     * @return config read from snapshot, or null if snapshot was created for other content of yaml file.
+     *
+     * @throws ConfigException if snapshot is invalid or was created for other version of config type.
+     */
+    @Nullable
+    T readFileSnapshot(ByteBuffer snapshot, byte[] fileHash, String text, @Nullable Path path) {
+        Instrumentation.Timer timer = this.instrumentation.start(this.template.getType(), ConfigOperation.READ);
+        try {
+            SnapshotInput input = new SnapshotInput(this.serializers, snapshot, path);
+            if (! SnapshotCache.readHeader(input, fileHash)) {
+                return null;
+            }
+            int size = this.template.getProperties().size();
+            YamlDocument document = input.readBoolean() ? YamlDocument.readSnapshot(input, text, size) : null;
+            T config = this.template.create();
+            this.readSnapshotInto(input, config);
+            ConfigPropertyAccess access = (ConfigPropertyAccess) config;
+            access.setDocument(document);
+            access.getDirtyProperties().clear();
+            return config;
+        }
+        finally {
+            timer.stop();
+        }
+    }
+
+    private ValueSerializer[] getPropertySerializers() {
+        ValueSerializer[] propertySerializers = this.propertySerializers;
+        if (propertySerializers == null) {
+            propertySerializers = new ValueSerializer[this.template.getProperties().size()];
+            for (ConfigPropertyTemplate property : this.template.getProperties()) {
+                propertySerializers[property.getIndex()] = this.serializers.forProperty(property);
+            }
+            this.propertySerializers = propertySerializers;
+        }
+        return propertySerializers;
+    }
+}
@@ -0,0 +1,166 @@
+package org.diorite.configs.yaml;
+
+import org.diorite.configs.style.PropertyStyle;
+import org.jetbrains.annotations.Nullable;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.TemporalAccessor;
+import java.time.temporal.TemporalQueries;
+import java.util.Date;
+
+/**
+ * Serializer of dates, dates are read using format from date style of property or as yaml timestamps, dates without time zone are
+ * in UTC.
+ */
+final class DateSerializer extends ValueSerializer {
+    private static final FormatCache<DateTimeFormatter> FORMATTERS = new FormatCache<>(256, DateTimeFormatter::ofPattern);
+
+    private final Class<?> type;
+    @Nullable
+    private final DateTimeFormatter formatter;
+
+    DateSerializer(Class<?> type, @Nullable String format) {
+        this.type = type;
+        this.formatter = (format == null) ? null : FORMATTERS.get(format);
+    }
+
+    static boolean isDate(Class<?> type) {
+        return (type == Date.class) || (type == Instant.class) || (type == LocalDate.class) || (type == LocalDateTime.class) ||
+               (type == LocalTime.class) || (type == OffsetDateTime.class) || (type == ZonedDateTime.class);
+    }
+
+    @Override
+    public Object read(YamlReader reader) {
+        String value = reader.nextScalar().getValue().trim();
+        try {
+            return this.parse(value);
+        }
+        catch (DateTimeParseException e) {
+            throw reader.error("Invalid date: " + value, e);
+        }
+    }
+
+    @Override
+    public void write(YamlWriter writer, Object value, PropertyStyle style, int depth) {
+        Object date = (value instanceof Date) ? ((Date) value).toInstant() : value;
+        if (this.formatter == null) {
+            writer.plain(date.toString());
+        }
+        else if (date instanceof Instant) {
+            writer.plain(this.formatter.format(((Instant) date).atZone(ZoneOffset.UTC)));
+        }
+        else {
+            writer.plain(this.formatter.format((TemporalAccessor) date));
+        }
+    }
+
+    @Override
+    public void writeSnapshot(SnapshotOutput output, Object value) {
+        output.writeString(((value instanceof Date) ? ((Date) value).toInstant() : value).toString());
+    }
+
+    /**
+     * Snapshots store dates in iso format of their type, so they are read without formatter of property.
+     */
+    @Override
+    public Object readSnapshot(SnapshotInput input) {
+        String value = input.readString();
+        try {
+            if (this.type == LocalDate.class) {
+                return LocalDate.parse(value);
+            }
+            if (this.type == LocalTime.class) {
+                return LocalTime.parse(value);
+            }
+            if (this.type == LocalDateTime.class) {
+                return LocalDateTime.parse(value);
+            }
+            if (this.type == ZonedDateTime.class) {
+                return ZonedDateTime.parse(value);
+            }
+            if (this.type == OffsetDateTime.class) {
+                return OffsetDateTime.parse(value);
+            }
+            Instant instant = Instant.parse(value);
+            return (this.type == Instant.class) ? instant : Date.from(instant);
+        }
+        catch (DateTimeParseException e) {
+            throw input.error("Invalid date: " + value);
+        }
+    }
+
+    private Object parse(String value) {
+        if (this.type == LocalDate.class) {
+            return (this.formatter == null) ? LocalDate.parse(value) : LocalDate.parse(value, this.formatter);
+        }
+        if (this.type == LocalTime.class) {
+            return (this.formatter == null) ? LocalTime.parse(value) : LocalTime.parse(value, this.formatter);
+        }
+        if (this.type == LocalDateTime.class) {
+            return (this.formatter == null) ? LocalDateTime.parse(timestamp(value)) : LocalDateTime.parse(value, this.formatter);
+        }
+        ZonedDateTime dateTime = this.parseZoned(value);
+        if (this.type == ZonedDateTime.class) {
+            return dateTime;
+        }
+        if (this.type == OffsetDateTime.class) {
+            return dateTime.toOffsetDateTime();
+        }
+        if (this.type == Instant.class) {
+            return dateTime.toInstant();
+        }
+        return Date.from(dateTime.toInstant());
+    }
+
+    private ZonedDateTime parseZoned(String value) {
+        if (this.formatter != null) {
+            return toZoned(this.formatter.parse(value), value);
+        }
+        String timestamp = timestamp(value);
+        if (timestamp.length() <= 10) {
+            return LocalDate.parse(timestamp).atStartOfDay(ZoneOffset.UTC);
+        }
+        try {
+            return ZonedDateTime.parse(timestamp);
+        }
+        catch (DateTimeParseException e) {
+            return LocalDateTime.parse(timestamp).atZone(ZoneOffset.UTC);
+        }
+    }
+
+    /**
+     * Creates date from fields parsed once, like {@link DateTimeFormatter#parseBest} for zoned date time, local date time and local
+     * date, but without querying parsed value for each type.
+     */
+    private static ZonedDateTime toZoned(TemporalAccessor parsed, String value) {
+        LocalDate date = parsed.query(TemporalQueries.localDate());
+        if (date == null) {
+            throw new DateTimeParseException("Date is missing", value, 0);
+        }
+        LocalTime time = parsed.query(TemporalQueries.localTime());
+        if (time == null) {
+            return date.atStartOfDay(ZoneOffset.UTC);
+        }
+        ZoneId zone = parsed.query(TemporalQueries.zone());
+        return ZonedDateTime.of(date, time, (zone == null) ? ZoneOffset.UTC : zone);
+    }
+
+    /**
+     * Converts yaml timestamp with space between date and time, like {@code 2001-12-14 21:59:43.10 Z}, to iso format.
+     */
+    private static String timestamp(String value) {
+        if ((value.length() <= 10) || (value.charAt(10) != ' ')) {
+            return value;
+        }
+        return value.substring(0, 10) + 'T' + value.substring(11).replace(" ", "");
+    }
+}
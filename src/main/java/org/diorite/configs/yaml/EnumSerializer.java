@@ -0,0 +1,58 @@
+package org.diorite.configs.yaml;
+
+import org.diorite.configs.style.PropertyStyle;
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Serializer of enum constants, names are matched ignoring case.
+ */
+final class EnumSerializer extends ValueSerializer {
+    private final Class<?> type;
+    private final Map<String, Object> constants;
+
+    EnumSerializer(Class<? extends Enum<?>> type) {
+        this.type = type;
+        Enum<?>[] constants = type.getEnumConstants();
+        this.constants = new HashMap<>(constants.length * 2);
+        for (Enum<?> constant : constants) {
+            this.constants.put(constant.name(), constant);
+            this.constants.putIfAbsent(constant.name().toLowerCase(Locale.ROOT), constant);
+        }
+    }
+
+    @Override
+    public Object read(YamlReader reader) {
+        String value = reader.nextScalar().getValue();
+        Object constant = this.constants.get(value);
+        if (constant == null) {
+            constant = this.constants.get(value.toLowerCase(Locale.ROOT));
+        }
+        if (constant == null) {
+            throw reader.error("Unknown constant of " + this.type.getName() + ": " + value);
+        }
+        return constant;
+    }
+
+    @Override
+    public void write(YamlWriter writer, Object value, PropertyStyle style, int depth) {
+        writer.string(((Enum<?>) value).name(), style.getStringStyle(depth));
+    }
+
+    @Override
+    public void writeSnapshot(SnapshotOutput output, Object value) {
+        output.writeString(((Enum<?>) value).name());
+    }
+
+    @Override
+    public Object readSnapshot(SnapshotInput input) {
+        String name = input.readString();
+        Object constant = this.constants.get(name);
+        if (constant == null) {
+            throw input.error("Unknown constant of " + this.type.getName() + ": " + name);
+        }
+        return constant;
+    }
+}
@@ -0,0 +1,46 @@
+package org.diorite.configs.yaml;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Bounded cache of immutable formatters compiled from patterns of style annotations, shared by all configs. <br/>
+ * Patterns come from annotations, so there are only few distinct patterns and each is compiled once. If patterns are created
+ * dynamically and cache becomes full, it is cleared.
+ *
+ * @param <T> type of compiled formatter.
+ */
+final class FormatCache<T> {
+    private final int capacity;
+    private final Function<String, T> compiler;
+    private final Map<String, T> formats;
+
+    /**
+     * @param capacity maximum amount of cached formatters.
+     * @param compiler creates formatter from pattern, may throw exception if pattern is invalid.
+     */
+    FormatCache(int capacity, Function<String, T> compiler) {
+        this.capacity = capacity;
+        this.compiler = compiler;
+        this.formats = new ConcurrentHashMap<>(16);
+    }
+
+    /**
+     * @param pattern pattern of formatter.
+     *
+     * @return cached or compiled formatter of given pattern.
+     */
+    T get(String pattern) {
+        T format = this.formats.get(pattern);
+        if (format != null) {
+            return format;
+        }
+        if (this.formats.size() >= this.capacity) {
+            this.formats.clear();
+        }
+        format = this.compiler.apply(pattern);
+        T previous = this.formats.putIfAbsent(pattern, format);
+        return (previous == null) ? format : previous;
+    }
+}
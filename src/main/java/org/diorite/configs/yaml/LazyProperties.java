@@ -0,0 +1,102 @@
+package org.diorite.configs.yaml;
+
+import org.diorite.configs.Config;
+import org.diorite.configs.impl.ConfigPropertyAccess;
+import org.diorite.configs.validation.ConfigValidation;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Values of {@link org.diorite.configs.annotations.Lazy} properties of single config instance that weren't read yet. <br/>
+ * Loaders store yaml events of lazy properties here instead of reading them, and generated getters of lazy properties call {@link
+ * #resolve(int)} before reading their field, so value is read and validated only when it is used first time. Setters discard stored
+ * value. Check of property without stored value is a single volatile read, reading is synchronized, so each value is read once.
+ */
+public final class LazyProperties {
+    private final Config<?> config;
+    private final ConfigValidation validation;
+    private final AtomicReferenceArray<LazyValue> values;
+
+    /**
+     * @param config config instance.
+     * @param validation validation of config type, used to validate values when they are read.
+     * @param size amount of properties of config.
+     */
+    public LazyProperties(Config<?> config, ConfigValidation validation, int size) {
+        this.config = config;
+        this.validation = validation;
+        this.values = new AtomicReferenceArray<>(size);
+    }
+
+    /**
+     * Reads stored value of property into config, called by generated getters of lazy properties.
+     *
+     * @param index index of property.
+     *
+     * @throws org.diorite.configs.ConfigException if stored value is invalid, value stays stored, so next call throws again.
+     */
+    public void resolve(int index) {
+        if (this.values.get(index) == null) {
+            return;
+        }
+        synchronized (this) {
+            LazyValue value = this.values.get(index);
+            if (value == null) {
+                return;
+            }
+            Object read = this.validation.validate(index, value.read(), this.config);
+            // generated setProperty discards stored value after field is written, so getters never see old value
+            ((ConfigPropertyAccess) this.config).setProperty(index, read);
+        }
+    }
+
+    /**
+     * Reads and validates all stored values, used when config must be fully valid before it is published.
+     *
+     * @throws org.diorite.configs.ConfigException if any stored value is invalid.
+     */
+    public void resolveAll() {
+        for (int i = 0; i < this.values.length(); i++) {
+            this.resolve(i);
+        }
+    }
+
+    /**
+     * Discards stored value of property, called by generated setters of lazy properties.
+     *
+     * @param index index of property.
+     */
+    public void discard(int index) {
+        this.values.set(index, null);
+    }
+
+    /**
+     * @param index index of property.
+     *
+     * @return true if value of property is stored and wasn't read yet.
+     */
+    public boolean isPending(int index) {
+        return this.values.get(index) != null;
+    }
+
+    /**
+     * @param index index of property.
+     *
+     * @return stored value of property, or null if property has no stored value.
+     */
+    @Nullable
+    LazyValue get(int index) {
+        return this.values.get(index);
+    }
+
+    /**
+     * Stores value of property to read it when it is used first time.
+     *
+     * @param index index of property.
+     * @param value stored events of value.
+     */
+    void defer(int index, LazyValue value) {
+        this.values.set(index, value);
+    }
+}
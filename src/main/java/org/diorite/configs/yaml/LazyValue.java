@@ -0,0 +1,223 @@
+package org.diorite.configs.yaml;
+
+import org.jetbrains.annotations.Nullable;
+import org.yaml.snakeyaml.error.Mark;
+import org.yaml.snakeyaml.events.CollectionStartEvent;
+import org.yaml.snakeyaml.events.Event;
+import org.yaml.snakeyaml.events.Event.ID;
+import org.yaml.snakeyaml.events.ImplicitTuple;
+import org.yaml.snakeyaml.events.MappingEndEvent;
+import org.yaml.snakeyaml.events.MappingStartEvent;
+import org.yaml.snakeyaml.events.ScalarEvent;
+import org.yaml.snakeyaml.events.SequenceEndEvent;
+import org.yaml.snakeyaml.events.SequenceStartEvent;
+import org.yaml.snakeyaml.parser.Parser;
+
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.List;
+
+/**
+ * Value of lazy property that wasn't read yet, stored as parser events of its mapping or sequence. <br/>
+ * Events keep only line and column of their start, so source text is not retained and errors still point to position in source file.
+ * Events are also written to snapshots of config, so values that weren't read are not read to create snapshot.
+ */
+final class LazyValue {
+    private static final int SCALAR = 0;
+    private static final int MAPPING_START = 1;
+    private static final int SEQUENCE_START = 2;
+    private static final int MAPPING_END = 3;
+    private static final int SEQUENCE_END = 4;
+
+    private final Event[] events;
+    private final ValueSerializer serializer;
+    @Nullable
+    private final Path path;
+    private final StringDeduplicator strings;
+
+    /**
+     * @param events events of value, without anchors and aliases.
+     * @param serializer serializer of property.
+     * @param path path of source yaml file, or null.
+     * @param strings deduplicator of read string values.
+     */
+    LazyValue(List<Event> events, ValueSerializer serializer, @Nullable Path path, StringDeduplicator strings) {
+        this(new Event[events.size()], serializer, path, strings);
+        for (int i = 0; i < this.events.length; i++) {
+            this.events[i] = compact(events.get(i));
+        }
+    }
+
+    private LazyValue(Event[] events, ValueSerializer serializer, @Nullable Path path, StringDeduplicator strings) {
+        this.events = events;
+        this.serializer = serializer;
+        this.path = path;
+        this.strings = strings;
+    }
+
+    /**
+     * @return value read from stored events, new value is read on each call.
+     */
+    @Nullable
+    Object read() {
+        YamlReader reader = new YamlReader(new EventParser(this.events), new HashMap<>(4));
+        reader.setPath(this.path);
+        reader.setStringDeduplicator(this.strings);
+        return reader.read(this.serializer);
+    }
+
+    /**
+     * Writes stored events to snapshot, so value is stored in snapshot without reading it.
+     *
+     * @param output snapshot output.
+     */
+    void writeSnapshot(SnapshotOutput output) {
+        output.writeSize(this.events.length);
+        for (Event event : this.events) {
+            Mark mark = event.getStartMark();
+            if (event instanceof ScalarEvent) {
+                ScalarEvent scalar = (ScalarEvent) event;
+                output.writeByte(SCALAR);
+                writeTag(output, scalar.getTag());
+                output.writeBoolean(scalar.getImplicit().canOmitTagInPlainScalar());
+                output.writeBoolean(scalar.getImplicit().canOmitTagInNonPlainScalar());
+                output.writeString(scalar.getValue());
+                output.writeBoolean(scalar.getStyle() != null);
+                if (scalar.getStyle() != null) {
+                    output.writeChar(scalar.getStyle());
+                }
+            }
+            else if (event instanceof CollectionStartEvent) {
+                CollectionStartEvent collection = (CollectionStartEvent) event;
+                output.writeByte(event.is(ID.MappingStart) ? MAPPING_START : SEQUENCE_START);
+                writeTag(output, collection.getTag());
+                output.writeBoolean(collection.getImplicit());
+                Boolean flowStyle = collection.getFlowStyle();
+                output.writeByte((flowStyle == null) ? 0 : (flowStyle ? 1 : 2));
+            }
+            else {
+                output.writeByte(event.is(ID.MappingEnd) ? MAPPING_END : SEQUENCE_END);
+            }
+            output.writeSize(mark.getIndex());
+            output.writeSize(mark.getLine());
+            output.writeSize(mark.getColumn());
+        }
+    }
+
+    /**
+     * Reads value stored by {@link #writeSnapshot(SnapshotOutput)}.
+     *
+     * @param input snapshot input.
+     * @param serializer serializer of property.
+     * @param path path of source yaml file, or null.
+     *
+     * @return value that will be read when it is used first time.
+     */
+    static LazyValue readSnapshot(SnapshotInput input, ValueSerializer serializer, @Nullable Path path) {
+        Event[] events = new Event[input.readSize()];
+        for (int i = 0; i < events.length; i++) {
+            int kind = input.readByte();
+            if (kind == SCALAR) {
+                String tag = readTag(input);
+                ImplicitTuple implicit = new ImplicitTuple(input.readBoolean(), input.readBoolean());
+                String value = input.readString();
+                Character style = input.readBoolean() ? input.readChar() : null;
+                Mark mark = readMark(input);
+                events[i] = new ScalarEvent(null, tag, implicit, value, mark, mark, style);
+            }
+            else if ((kind == MAPPING_START) || (kind == SEQUENCE_START)) {
+                String tag = readTag(input);
+                boolean implicit = input.readBoolean();
+                int flowStyle = input.readByte();
+                Boolean flow = (flowStyle == 0) ? null : (flowStyle == 1);
+                Mark mark = readMark(input);
+                events[i] = (kind == MAPPING_START) ? new MappingStartEvent(null, tag, implicit, mark, mark, flow) :
+                            new SequenceStartEvent(null, tag, implicit, mark, mark, flow);
+            }
+            else if ((kind == MAPPING_END) || (kind == SEQUENCE_END)) {
+                Mark mark = readMark(input);
+                events[i] = (kind == MAPPING_END) ? new MappingEndEvent(mark, mark) : new SequenceEndEvent(mark, mark);
+            }
+            else {
+                throw input.error("Invalid event of lazy value: " + kind);
+            }
+        }
+        return new LazyValue(events, serializer, path, input.getSerializers().getStringDeduplicator());
+    }
+
+    private static void writeTag(SnapshotOutput output, @Nullable String tag) {
+        output.writeBoolean(tag != null);
+        if (tag != null) {
+            output.writeString(tag);
+        }
+    }
+
+    @Nullable
+    private static String readTag(SnapshotInput input) {
+        return input.readBoolean() ? input.readString() : null;
+    }
+
+    private static Mark readMark(SnapshotInput input) {
+        int index = input.readSize();
+        int line = input.readSize();
+        int column = input.readSize();
+        return new Mark("", index, line, column, null, 0);
+    }
+
+    /**
+     * @return copy of given event with single mark without source buffer.
+     */
+    private static Event compact(Event event) {
+        Mark start = event.getStartMark();
+        Mark mark = new Mark("", start.getIndex(), start.getLine(), start.getColumn(), null, 0);
+        if (event instanceof ScalarEvent) {
+            ScalarEvent scalar = (ScalarEvent) event;
+            return new ScalarEvent(null, scalar.getTag(), scalar.getImplicit(), scalar.getValue(), mark, mark, scalar.getStyle());
+        }
+        if (event instanceof MappingStartEvent) {
+            MappingStartEvent mapping = (MappingStartEvent) event;
+            return new MappingStartEvent(null, mapping.getTag(), mapping.getImplicit(), mark, mark, mapping.getFlowStyle());
+        }
+        if (event instanceof SequenceStartEvent) {
+            SequenceStartEvent sequence = (SequenceStartEvent) event;
+            return new SequenceStartEvent(null, sequence.getTag(), sequence.getImplicit(), mark, mark, sequence.getFlowStyle());
+        }
+        if (event.is(ID.MappingEnd)) {
+            return new MappingEndEvent(mark, mark);
+        }
+        if (event.is(ID.SequenceEnd)) {
+            return new SequenceEndEvent(mark, mark);
+        }
+        return event;
+    }
+
+    /**
+     * Parser returning stored events.
+     */
+    static final class EventParser implements Parser {
+        private final Event[] events;
+        private int next;
+
+        EventParser(Event[] events) {
+            this.events = events;
+        }
+
+        @Override
+        public boolean checkEvent(ID choice) {
+            Event event = this.peekEvent();
+            return (event != null) && event.is(choice);
+        }
+
+        @Nullable
+        @Override
+        public Event peekEvent() {
+            return (this.next < this.events.length) ? this.events[this.next] : null;
+        }
+
+        @Nullable
+        @Override
+        public Event getEvent() {
+            return (this.next < this.events.length) ? this.events[this.next++] : null;
+        }
+    }
+}
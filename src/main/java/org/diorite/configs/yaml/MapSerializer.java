@@ -0,0 +1,65 @@
+package org.diorite.configs.yaml;
+
+import org.diorite.configs.style.PropertyStyle;
+import org.yaml.snakeyaml.events.Event.ID;
+
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Serializer of maps, stored as mappings.
+ */
+final class MapSerializer extends ValueSerializer {
+    private final Supplier<? extends Map<Object, Object>> factory;
+    private final ValueSerializer keySerializer;
+    private final ValueSerializer valueSerializer;
+
+    MapSerializer(Supplier<? extends Map<Object, Object>> factory, ValueSerializer keySerializer, ValueSerializer valueSerializer) {
+        this.factory = factory;
+        this.keySerializer = keySerializer;
+        this.valueSerializer = valueSerializer;
+    }
+
+    @Override
+    public Object read(YamlReader reader) {
+        reader.expect(ID.MappingStart);
+        Map<Object, Object> map = this.factory.get();
+        while (! reader.isNext(ID.MappingEnd)) {
+            Object key = reader.read(this.keySerializer);
+            map.put(key, reader.read(this.valueSerializer));
+        }
+        reader.next();
+        return map;
+    }
+
+    @Override
+    public void write(YamlWriter writer, Object value, PropertyStyle style, int depth) {
+        Map<?, ?> map = (Map<?, ?>) value;
+        writer.startMapping(style.getStyle(depth), map.size());
+        for (Map.Entry<?, ?> entry : map.entrySet()) {
+            writer.write(this.keySerializer, entry.getKey(), style, depth + 1);
+            writer.write(this.valueSerializer, entry.getValue(), style, depth + 1);
+        }
+        writer.endMapping();
+    }
+
+    @Override
+    public void writeSnapshot(SnapshotOutput output, Object value) {
+        Map<?, ?> map = (Map<?, ?>) value;
+        output.writeSize(map.size());
+        for (Map.Entry<?, ?> entry : map.entrySet()) {
+            output.write(this.keySerializer, entry.getKey());
+            output.write(this.valueSerializer, entry.getValue());
+        }
+    }
+
+    @Override
+    public Object readSnapshot(SnapshotInput input) {
+        Map<Object, Object> map = this.factory.get();
+        for (int i = input.readSize(); i > 0; i--) {
+            Object key = input.read(this.keySerializer);
+            map.put(key, input.read(this.valueSerializer));
+        }
+        return map;
+    }
+}
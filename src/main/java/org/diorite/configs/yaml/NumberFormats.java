@@ -0,0 +1,60 @@
+package org.diorite.configs.yaml;
+
+import org.diorite.configs.annotations.style.NumberStyle;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Formats numbers using formats of {@link NumberStyle}, numbers without format are written in yaml compatible form.
+ */
+final class NumberFormats {
+    private static final FormatCache<NumberFormatter> FORMATTERS = new FormatCache<>(256, NumberFormatter::compile);
+
+    private NumberFormats() {
+    }
+
+    /**
+     * @param number number to format.
+     * @param format format from {@link NumberStyle}, or null to use default format.
+     *
+     * @return formatted number.
+     */
+    static String format(Number number, @Nullable String format) {
+        if ((format == null) || format.isEmpty()) {
+            return toYaml(number);
+        }
+        return FORMATTERS.get(format).format(number);
+    }
+
+    /**
+     * @param format non empty format from {@link NumberStyle}.
+     *
+     * @return cached formatter of given format.
+     */
+    static NumberFormatter formatter(String format) {
+        return FORMATTERS.get(format);
+    }
+
+    /**
+     * @return number in form that will be resolved to int or float by yaml parsers.
+     */
+    static String toYaml(Number number) {
+        if ((number instanceof Double) || (number instanceof Float)) {
+            double value = number.doubleValue();
+            if (Double.isNaN(value)) {
+                return ".nan";
+            }
+            if (Double.isInfinite(value)) {
+                return (value > 0) ? ".inf" : "-.inf";
+            }
+            String text = (number instanceof Float) ? number.toString() : Double.toString(value);
+            int exponent = text.indexOf('E');
+            if (exponent == - 1) {
+                return text;
+            }
+            // yaml 1.1 requires sign of exponent
+            String sign = (text.charAt(exponent + 1) == '-') ? "" : "+";
+            return text.substring(0, exponent) + 'e' + sign + text.substring(exponent + 1);
+        }
+        return number.toString();
+    }
+}
@@ -0,0 +1,289 @@
+package org.diorite.configs.yaml;
+
+import org.diorite.configs.annotations.style.NumberStyle;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.RoundingMode;
+
+/**
+ * Immutable formatter of single {@link NumberStyle} pattern, compiled once by {@link NumberFormats#formatter(String)}. <br/>
+ * Decimal patterns are formatted like {@link java.text.DecimalFormat} with {@link RoundingMode#HALF_UP}, but integers and integral
+ * floating point numbers are written directly from their digits, only fractions that must be rounded use {@link BigDecimal}.
+ */
+final class NumberFormatter {
+    // double values with smaller magnitude are exactly representable as long
+    private static final double MAX_EXACT_LONG = 0x1p53;
+
+    private final Kind kind;
+    private final int digits;
+    private final boolean sign;
+    private final boolean grouping;
+    private final int minimumIntegerDigits;
+    private final int minimumFractionDigits;
+    private final int maximumFractionDigits;
+
+    private NumberFormatter(Kind kind, int digits, boolean sign, boolean grouping, int minimumIntegerDigits, int minimumFractionDigits,
+                            int maximumFractionDigits) {
+        this.kind = kind;
+        this.digits = digits;
+        this.sign = sign;
+        this.grouping = grouping;
+        this.minimumIntegerDigits = minimumIntegerDigits;
+        this.minimumFractionDigits = minimumFractionDigits;
+        this.maximumFractionDigits = maximumFractionDigits;
+    }
+
+    /**
+     * @param format non empty format from {@link NumberStyle}.
+     *
+     * @return formatter of given format.
+     */
+    static NumberFormatter compile(String format) {
+        if (format.startsWith("0x")) {
+            return new NumberFormatter(Kind.HEX, format.length() - 2, false, false, 0, 0, 0);
+        }
+        if (format.startsWith("0o")) {
+            return new NumberFormatter(Kind.OCTAL, format.length() - 2, false, false, 0, 0, 0);
+        }
+        if (format.startsWith("0b")) {
+            return new NumberFormatter(Kind.BINARY, format.length() - 2, false, false, 0, 0, 0);
+        }
+        if (format.equals("H:M:S")) {
+            return new NumberFormatter(Kind.SEXAGESIMAL, 3, false, false, 0, 0, 0);
+        }
+        if (format.equals("H:M")) {
+            return new NumberFormatter(Kind.SEXAGESIMAL, 2, false, false, 0, 0, 0);
+        }
+        if (format.equals(".")) {
+            return new NumberFormatter(Kind.YAML_FLOAT, 0, false, false, 0, 0, 0);
+        }
+        boolean sign = format.startsWith("+");
+        boolean grouping = format.indexOf(',') != - 1;
+        String pattern = format.replace("+", "").replace(",", "");
+        int dot = pattern.indexOf('.');
+        String integer = (dot == - 1) ? pattern : pattern.substring(0, dot);
+        if (dot == - 1) {
+            // fraction of floating point numbers is kept as is
+            return new NumberFormatter(Kind.DECIMAL, 0, sign, grouping, count(integer, '0'), 0, 340);
+        }
+        String fraction = pattern.substring(dot + 1);
+        return new NumberFormatter(Kind.DECIMAL, 0, sign, grouping, count(integer, '0'), count(fraction, '0'), fraction.length());
+    }
+
+    String format(Number number) {
+        if (this.kind == Kind.YAML_FLOAT) {
+            return NumberFormats.toYaml(number.doubleValue());
+        }
+        if ((number instanceof Double) || (number instanceof Float)) {
+            if (! Double.isFinite(number.doubleValue())) {
+                return NumberFormats.toYaml(number);
+            }
+            if (number instanceof Float) {
+                return (this.kind == Kind.DECIMAL) ? this.decimal(new BigDecimal(number.toString()), isNegative(number.doubleValue())) :
+                       this.format(number.doubleValue());
+            }
+            return this.format(number.doubleValue());
+        }
+        if (number instanceof BigInteger) {
+            BigInteger value = (BigInteger) number;
+            switch (this.kind) {
+                case HEX:
+                case OCTAL:
+                case BINARY:
+                    return this.radix(value.signum() < 0, value.abs().toString(this.kind.radix));
+                case DECIMAL:
+                    return this.decimal(value.signum() < 0, value.abs().toString(), 0);
+                default:
+                    return sexagesimal(value.longValue(), this.digits);
+            }
+        }
+        if (number instanceof BigDecimal) {
+            if (this.kind == Kind.DECIMAL) {
+                BigDecimal value = (BigDecimal) number;
+                return this.decimal(value, value.signum() < 0);
+            }
+            return this.format(number.longValue());
+        }
+        return this.format(number.longValue());
+    }
+
+    String format(long value) {
+        switch (this.kind) {
+            case HEX:
+            case OCTAL:
+            case BINARY:
+                return this.radix(value < 0, Long.toUnsignedString((value < 0) ? - value : value, this.kind.radix));
+            case SEXAGESIMAL:
+                return sexagesimal(value, this.digits);
+            case YAML_FLOAT:
+                return NumberFormats.toYaml((double) value);
+            default:
+                return this.decimal(value < 0, Long.toUnsignedString((value < 0) ? - value : value), 0);
+        }
+    }
+
+    String format(double value) {
+        if (! Double.isFinite(value)) {
+            return NumberFormats.toYaml(value);
+        }
+        switch (this.kind) {
+            case YAML_FLOAT:
+                return NumberFormats.toYaml(value);
+            case DECIMAL:
+                if ((Math.rint(value) == value) && (Math.abs(value) < MAX_EXACT_LONG)) {
+                    long integer = (long) Math.abs(value);
+                    return this.decimal(isNegative(value), Long.toString(integer), 0);
+                }
+                BigDecimal decimal = BigDecimal.valueOf(value);
+                if (decimal.scale() > this.maximumFractionDigits) {
+                    // shortest representation can't decide ties, like DecimalFormat exact binary value is rounded
+                    decimal = new BigDecimal(value);
+                }
+                return this.decimal(decimal, isNegative(value));
+            default:
+                return this.format((long) value);
+        }
+    }
+
+    private String decimal(BigDecimal value, boolean negative) {
+        BigDecimal rounded = value;
+        if (rounded.scale() > this.maximumFractionDigits) {
+            rounded = rounded.setScale(this.maximumFractionDigits, RoundingMode.HALF_UP);
+        }
+        else if (rounded.scale() < 0) {
+            rounded = rounded.setScale(0, RoundingMode.UNNECESSARY);
+        }
+        return this.decimal(negative, rounded.unscaledValue().abs().toString(), rounded.scale());
+    }
+
+    /**
+     * @param negative true if number is negative, sign of numbers rounded to zero is kept.
+     * @param digits absolute unscaled value of number.
+     * @param scale amount of fraction digits in given digits.
+     */
+    private String decimal(boolean negative, String digits, int scale) {
+        int integerEnd = digits.length() - scale;
+        int integerStart = 0;
+        while ((integerStart < integerEnd) && (digits.charAt(integerStart) == '0')) {
+            integerStart++;
+        }
+        int fractionEnd = digits.length();
+        int fractionStart = Math.max(integerEnd, 0);
+        while ((fractionEnd > fractionStart) && (digits.charAt(fractionEnd - 1) == '0')) {
+            fractionEnd--;
+        }
+        int leadingFractionZeros = (fractionEnd == fractionStart) ? 0 : Math.max(- integerEnd, 0);
+        int fractionLength = leadingFractionZeros + (fractionEnd - fractionStart);
+        int integerLength = Math.max(integerEnd - integerStart, this.minimumIntegerDigits);
+        if ((integerLength == 0) && (fractionLength == 0) && (this.minimumFractionDigits == 0)) {
+            integerLength = 1;
+        }
+
+        StringBuilder builder = new StringBuilder(integerLength + (integerLength / 3) + Math.max(fractionLength, this.minimumFractionDigits) + 3);
+        if (negative) {
+            builder.append('-');
+        }
+        else if (this.sign) {
+            builder.append('+');
+        }
+        int significant = Math.max(integerEnd - integerStart, 0);
+        for (int i = integerLength; i > 0; i--) {
+            builder.append((i > significant) ? '0' : digits.charAt(integerEnd - i));
+            if (this.grouping && (i > 1) && (((i - 1) % 3) == 0)) {
+                builder.append(',');
+            }
+        }
+        if (Math.max(fractionLength, this.minimumFractionDigits) > 0) {
+            builder.append('.');
+            for (int i = 0; i < leadingFractionZeros; i++) {
+                builder.append('0');
+            }
+            if (fractionLength > 0) {
+                builder.append(digits, fractionStart, fractionEnd);
+            }
+            for (int i = fractionLength; i < this.minimumFractionDigits; i++) {
+                builder.append('0');
+            }
+        }
+        return builder.toString();
+    }
+
+    private String radix(boolean negative, String text) {
+        StringBuilder builder = new StringBuilder(this.kind.prefix.length() + Math.max(this.digits, text.length()) + 1);
+        if (negative) {
+            builder.append('-');
+        }
+        builder.append(this.kind.prefix);
+        for (int i = text.length(); i < this.digits; i++) {
+            builder.append('0');
+        }
+        for (int i = 0; i < text.length(); i++) {
+            builder.append(Character.toUpperCase(text.charAt(i)));
+        }
+        return builder.toString();
+    }
+
+    /**
+     * Formats number of seconds or minutes as sexagesimal number, leading zero parts are omitted as yaml does not allow them.
+     */
+    private static String sexagesimal(long value, int parts) {
+        StringBuilder builder = new StringBuilder(16);
+        if (value < 0) {
+            builder.append('-');
+        }
+        long rest = Math.abs(value);
+        long[] values = new long[parts];
+        for (int i = parts - 1; i > 0; i--) {
+            values[i] = rest % 60;
+            rest /= 60;
+        }
+        values[0] = rest;
+        boolean started = false;
+        for (int i = 0; i < parts; i++) {
+            if (! started && (values[i] == 0) && (i < (parts - 1))) {
+                continue;
+            }
+            if (started) {
+                builder.append(':');
+                if (values[i] < 10) {
+                    builder.append('0');
+                }
+            }
+            builder.append(values[i]);
+            started = true;
+        }
+        return builder.toString();
+    }
+
+    private static boolean isNegative(double value) {
+        return (value < 0) || ((value == 0) && (Double.doubleToRawLongBits(value) != 0));
+    }
+
+    private static int count(String text, char c) {
+        int count = 0;
+        for (int i = 0; i < text.length(); i++) {
+            if (text.charAt(i) == c) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private enum Kind {
+        HEX(16, "0x"),
+        OCTAL(8, "0"),
+        BINARY(2, "0b"),
+        SEXAGESIMAL(10, ""),
+        YAML_FLOAT(10, ""),
+        DECIMAL(10, "");
+
+        private final int radix;
+        private final String prefix;
+
+        Kind(int radix, String prefix) {
+            this.radix = radix;
+            this.prefix = prefix;
+        }
+    }
+}
@@ -0,0 +1,247 @@
+package org.diorite.configs.yaml;
+
+import org.diorite.configs.style.PropertyStyle;
+import org.yaml.snakeyaml.events.Event.ID;
+import org.yaml.snakeyaml.events.ScalarEvent;
+import org.yaml.snakeyaml.nodes.NodeId;
+import org.yaml.snakeyaml.nodes.Tag;
+import org.yaml.snakeyaml.resolver.Resolver;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Serializer of values with unknown type, scalars are resolved using yaml rules, sequences are read as {@link ArrayList} and mappings as
+ * {@link LinkedHashMap}. <br/>
+ * Values are written using serializer of their runtime type, maps and collections are written as untyped mappings and sequences.
+ */
+final class ObjectSerializer extends ValueSerializer {
+    static final ObjectSerializer INSTANCE = new ObjectSerializer();
+
+    private static final Resolver RESOLVER = new Resolver();
+
+    private static final int MAP = 0;
+    private static final int LIST = 1;
+    private static final int STRING = 2;
+    private static final int INT = 3;
+    private static final int LONG = 4;
+    private static final int DOUBLE = 5;
+    private static final int BOOLEAN = 6;
+    private static final int BINARY = 7;
+    private static final int OTHER = 8;
+
+    private final Class<?> type;
+
+    private ObjectSerializer() {
+        this(Object.class);
+    }
+
+    /**
+     * @param type expected type of value, read value must be instance of this type.
+     */
+    ObjectSerializer(Class<?> type) {
+        this.type = type;
+    }
+
+    @Override
+    public Object read(YamlReader reader) {
+        Object value = this.readUntyped(reader);
+        if ((value != null) && ! this.type.isInstance(value)) {
+            throw reader.error("Expected " + this.type.getName() + " but found " + value.getClass().getName());
+        }
+        return value;
+    }
+
+    @Override
+    public void write(YamlWriter writer, Object value, PropertyStyle style, int depth) {
+        if (value instanceof Map) {
+            Map<?, ?> map = (Map<?, ?>) value;
+            writer.startMapping(style.getStyle(depth), map.size());
+            for (Map.Entry<?, ?> entry : map.entrySet()) {
+                writer.write(INSTANCE, entry.getKey(), style, depth + 1);
+                writer.write(INSTANCE, entry.getValue(), style, depth + 1);
+            }
+            writer.endMapping();
+            return;
+        }
+        if (value instanceof Collection) {
+            Collection<?> collection = (Collection<?>) value;
+            writer.startSequence(style.getStyle(depth), collection.size());
+            for (Object element : collection) {
+                writer.write(INSTANCE, element, style, depth + 1);
+            }
+            writer.endSequence();
+            return;
+        }
+        writer.getSerializers().forValue(value).write(writer, value, style, depth);
+    }
+
+    /**
+     * Values of types that can be read from yaml without type information are stored in binary form, values of other types are stored
+     * as yaml text, so they are read back as they would be read from yaml document.
+     */
+    @Override
+    public void writeSnapshot(SnapshotOutput output, Object value) {
+        if (value instanceof Map) {
+            Map<?, ?> map = (Map<?, ?>) value;
+            output.writeByte(MAP);
+            output.writeSize(map.size());
+            for (Map.Entry<?, ?> entry : map.entrySet()) {
+                output.write(INSTANCE, entry.getKey());
+                output.write(INSTANCE, entry.getValue());
+            }
+        }
+        else if (value instanceof Collection) {
+            Collection<?> collection = (Collection<?>) value;
+            output.writeByte(LIST);
+            output.writeSize(collection.size());
+            for (Object element : collection) {
+                output.write(INSTANCE, element);
+            }
+        }
+        else if (value instanceof String) {
+            output.writeByte(STRING);
+            output.writeString((String) value);
+        }
+        else if (value instanceof Integer) {
+            output.writeByte(INT);
+            output.writeInt((Integer) value);
+        }
+        else if (value instanceof Long) {
+            output.writeByte(LONG);
+            output.writeLong((Long) value);
+        }
+        else if (value instanceof Double) {
+            output.writeByte(DOUBLE);
+            output.writeDouble((Double) value);
+        }
+        else if (value instanceof Boolean) {
+            output.writeByte(BOOLEAN);
+            output.writeBoolean((Boolean) value);
+        }
+        else if (value instanceof byte[]) {
+            output.writeByte(BINARY);
+            output.writeBytes((byte[]) value);
+        }
+        else {
+            output.writeByte(OTHER);
+            super.writeSnapshot(output, value);
+        }
+    }
+
+    @Override
+    public Object readSnapshot(SnapshotInput input) {
+        Object value = this.readUntypedSnapshot(input);
+        if ((value != null) && ! this.type.isInstance(value)) {
+            throw input.error("Expected " + this.type.getName() + " but found " + value.getClass().getName());
+        }
+        return value;
+    }
+
+    private Object readUntypedSnapshot(SnapshotInput input) {
+        int type = input.readByte();
+        switch (type) {
+            case MAP:
+                int size = input.readSize();
+                Map<Object, Object> map = new LinkedHashMap<>(Math.max(16, size * 2));
+                for (int i = 0; i < size; i++) {
+                    Object key = input.read(INSTANCE);
+                    map.put(key, input.read(INSTANCE));
+                }
+                return map;
+            case LIST:
+                int length = input.readSize();
+                List<Object> list = new ArrayList<>(length);
+                for (int i = 0; i < length; i++) {
+                    list.add(input.read(INSTANCE));
+                }
+                return list;
+            case STRING:
+                return input.getSerializers().getStringDeduplicator().deduplicate(input.readString());
+            case INT:
+                return input.readInt();
+            case LONG:
+                return input.readLong();
+            case DOUBLE:
+                return input.readDouble();
+            case BOOLEAN:
+                return input.readBoolean();
+            case BINARY:
+                return input.readBytes();
+            case OTHER:
+                return super.readSnapshot(input);
+            default:
+                throw input.error("Invalid value type: " + type);
+        }
+    }
+
+    private Object readUntyped(YamlReader reader) {
+        if (reader.isNext(ID.SequenceStart)) {
+            reader.next();
+            List<Object> list = new ArrayList<>(10);
+            while (! reader.isNext(ID.SequenceEnd)) {
+                list.add(reader.read(INSTANCE));
+            }
+            reader.next();
+            return list;
+        }
+        if (reader.isNext(ID.MappingStart)) {
+            reader.next();
+            Map<Object, Object> map = new LinkedHashMap<>(16);
+            while (! reader.isNext(ID.MappingEnd)) {
+                Object key = reader.read(INSTANCE);
+                map.put(key, reader.read(INSTANCE));
+            }
+            reader.next();
+            return map;
+        }
+        return resolveScalar(reader.nextScalar(), reader);
+    }
+
+    /**
+     * Creates value of given scalar using its tag, or implicit tag resolved from value of plain scalars.
+     *
+     * @param event scalar event.
+     * @param reader yaml reader, used to report errors and deduplicate strings.
+     *
+     * @return value of scalar.
+     */
+    static Object resolveScalar(ScalarEvent event, YamlReader reader) {
+        String value = event.getValue();
+        String tag = event.getTag();
+        if (tag == null) {
+            tag = RESOLVER.resolve(NodeId.scalar, value, event.getImplicit().canOmitTagInPlainScalar()).getValue();
+        }
+        try {
+            if (tag.equals(Tag.INT.getValue())) {
+                Number number = YamlScalars.parseInteger(value);
+                if ((number instanceof Long) && (number.longValue() == number.intValue())) {
+                    return number.intValue();
+                }
+                return number;
+            }
+            if (tag.equals(Tag.FLOAT.getValue())) {
+                return YamlScalars.parseDouble(value);
+            }
+        }
+        catch (NumberFormatException | ArithmeticException e) {
+            throw reader.error("Invalid number: " + value, e);
+        }
+        if (tag.equals(Tag.BOOL.getValue())) {
+            Boolean bool = YamlScalars.parseBoolean(value, List.of(), List.of());
+            return (bool == null) ? value : bool;
+        }
+        if (tag.equals(Tag.BINARY.getValue())) {
+            try {
+                return Base64Codec.decode(value);
+            }
+            catch (IllegalArgumentException e) {
+                throw reader.error("Invalid base64 value", e);
+            }
+        }
+        return reader.getStringDeduplicator().deduplicate(value);
+    }
+}
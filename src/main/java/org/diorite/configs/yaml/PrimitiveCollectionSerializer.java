@@ -0,0 +1,362 @@
+package org.diorite.configs.yaml;
+
+import org.diorite.configs.ConfigException;
+import org.diorite.configs.collections.DoubleList;
+import org.diorite.configs.collections.IntList;
+import org.diorite.configs.collections.IntSet;
+import org.diorite.configs.collections.LongList;
+import org.diorite.configs.collections.LongSet;
+import org.diorite.configs.style.PropertyStyle;
+import org.jetbrains.annotations.Nullable;
+import org.yaml.snakeyaml.events.Event;
+import org.yaml.snakeyaml.events.Event.ID;
+import org.yaml.snakeyaml.events.ScalarEvent;
+
+import java.util.Arrays;
+import java.util.Collection;
+
+/**
+ * Serializer of int, long and double arrays, lists and sets, stored as sequences. <br/>
+ * Plain scalar elements are parsed directly into primitive arrays, so values are never boxed, lists and sets are created as primitive
+ * collections from {@code org.diorite.configs.collections}. Other collections assigned to property are written as boxed values.
+ */
+final class PrimitiveCollectionSerializer extends ValueSerializer {
+    private final Element element;
+    private final Shape shape;
+    private final ValueSerializer elementSerializer;
+
+    /**
+     * @param element type of elements.
+     * @param shape type of created values.
+     * @param elementSerializer serializer of boxed elements, used for elements that aren't plain scalars, like aliases.
+     */
+    PrimitiveCollectionSerializer(Element element, Shape shape, ValueSerializer elementSerializer) {
+        this.element = element;
+        this.shape = shape;
+        this.elementSerializer = elementSerializer;
+    }
+
+    @Override
+    public Object read(YamlReader reader) {
+        reader.expect(ID.SequenceStart);
+        int size = 0;
+        switch (this.element) {
+            case INT:
+                int[] ints = new int[16];
+                while (! reader.isNext(ID.SequenceEnd)) {
+                    if (size == ints.length) {
+                        ints = Arrays.copyOf(ints, size * 2);
+                    }
+                    ints[size++] = (int) readLong(reader, this.elementSerializer);
+                }
+                reader.next();
+                return this.create(ints, size);
+            case LONG:
+                long[] longs = new long[16];
+                while (! reader.isNext(ID.SequenceEnd)) {
+                    if (size == longs.length) {
+                        longs = Arrays.copyOf(longs, size * 2);
+                    }
+                    longs[size++] = readLong(reader, this.elementSerializer);
+                }
+                reader.next();
+                return this.create(longs, size);
+            case DOUBLE:
+                double[] doubles = new double[16];
+                while (! reader.isNext(ID.SequenceEnd)) {
+                    if (size == doubles.length) {
+                        doubles = Arrays.copyOf(doubles, size * 2);
+                    }
+                    doubles[size++] = readDouble(reader, this.elementSerializer);
+                }
+                reader.next();
+                return this.create(doubles, size);
+            default:
+                throw new AssertionError(this.element);
+        }
+    }
+
+    @Override
+    public void write(YamlWriter writer, Object value, PropertyStyle style, int depth) {
+        Object values = this.values(value);
+        if (values == null) {
+            Collection<?> collection = (Collection<?>) value;
+            writer.startSequence(style.getStyle(depth), collection.size());
+            for (Object element : collection) {
+                writer.write(this.elementSerializer, element, style, depth + 1);
+            }
+            writer.endSequence();
+            return;
+        }
+        String format = style.getNumberFormat(depth + 1);
+        NumberFormatter formatter = ((format == null) || format.isEmpty()) ? null : NumberFormats.formatter(format);
+        switch (this.element) {
+            case INT:
+                int[] ints = (int[]) values;
+                writer.startSequence(style.getStyle(depth), ints.length);
+                for (int element : ints) {
+                    writer.plain((formatter == null) ? Integer.toString(element) : formatter.format(element));
+                }
+                break;
+            case LONG:
+                long[] longs = (long[]) values;
+                writer.startSequence(style.getStyle(depth), longs.length);
+                for (long element : longs) {
+                    writer.plain((formatter == null) ? Long.toString(element) : formatter.format(element));
+                }
+                break;
+            case DOUBLE:
+                double[] doubles = (double[]) values;
+                writer.startSequence(style.getStyle(depth), doubles.length);
+                for (double element : doubles) {
+                    writer.plain((formatter == null) ? NumberFormats.toYaml(element) : formatter.format(element));
+                }
+                break;
+            default:
+                throw new AssertionError(this.element);
+        }
+        writer.endSequence();
+    }
+
+    @Override
+    public void writeSnapshot(SnapshotOutput output, Object value) {
+        Object values = this.values(value);
+        if (values == null) {
+            values = this.unbox((Collection<?>) value);
+        }
+        switch (this.element) {
+            case INT:
+                int[] ints = (int[]) values;
+                output.writeSize(ints.length);
+                for (int element : ints) {
+                    output.writeInt(element);
+                }
+                break;
+            case LONG:
+                long[] longs = (long[]) values;
+                output.writeSize(longs.length);
+                for (long element : longs) {
+                    output.writeLong(element);
+                }
+                break;
+            case DOUBLE:
+                double[] doubles = (double[]) values;
+                output.writeSize(doubles.length);
+                for (double element : doubles) {
+                    output.writeDouble(element);
+                }
+                break;
+            default:
+                throw new AssertionError(this.element);
+        }
+    }
+
+    @Override
+    public Object readSnapshot(SnapshotInput input) {
+        int size = input.readSize();
+        switch (this.element) {
+            case INT:
+                int[] ints = new int[size];
+                for (int i = 0; i < size; i++) {
+                    ints[i] = input.readInt();
+                }
+                return this.create(ints, size);
+            case LONG:
+                long[] longs = new long[size];
+                for (int i = 0; i < size; i++) {
+                    longs[i] = input.readLong();
+                }
+                return this.create(longs, size);
+            case DOUBLE:
+                double[] doubles = new double[size];
+                for (int i = 0; i < size; i++) {
+                    doubles[i] = input.readDouble();
+                }
+                return this.create(doubles, size);
+            default:
+                throw new AssertionError(this.element);
+        }
+    }
+
+    private Object create(int[] values, int size) {
+        switch (this.shape) {
+            case ARRAY:
+                return (size == values.length) ? values : Arrays.copyOf(values, size);
+            case LIST:
+                return IntList.of(values, size);
+            default:
+                return IntSet.of(values, size);
+        }
+    }
+
+    private Object create(long[] values, int size) {
+        switch (this.shape) {
+            case ARRAY:
+                return (size == values.length) ? values : Arrays.copyOf(values, size);
+            case LIST:
+                return LongList.of(values, size);
+            default:
+                return LongSet.of(values, size);
+        }
+    }
+
+    private Object create(double[] values, int size) {
+        if (this.shape == Shape.ARRAY) {
+            return (size == values.length) ? values : Arrays.copyOf(values, size);
+        }
+        return DoubleList.of(values, size);
+    }
+
+    /**
+     * @return primitive array with elements of given value, or null if value isn't an array or primitive collection.
+     */
+    @Nullable
+    private Object values(Object value) {
+        if ((value instanceof int[]) || (value instanceof long[]) || (value instanceof double[])) {
+            return value;
+        }
+        if (value instanceof IntList) {
+            return ((IntList) value).toIntArray();
+        }
+        if (value instanceof IntSet) {
+            return ((IntSet) value).toIntArray();
+        }
+        if (value instanceof LongList) {
+            return ((LongList) value).toLongArray();
+        }
+        if (value instanceof LongSet) {
+            return ((LongSet) value).toLongArray();
+        }
+        if (value instanceof DoubleList) {
+            return ((DoubleList) value).toDoubleArray();
+        }
+        return null;
+    }
+
+    private Object unbox(Collection<?> collection) {
+        Object[] elements = collection.toArray();
+        int[] ints = (this.element == Element.INT) ? new int[elements.length] : null;
+        long[] longs = (this.element == Element.LONG) ? new long[elements.length] : null;
+        double[] doubles = (this.element == Element.DOUBLE) ? new double[elements.length] : null;
+        for (int i = 0; i < elements.length; i++) {
+            if (elements[i] == null) {
+                throw new ConfigException("Null values are not supported by primitive collections");
+            }
+            Number number = (Number) elements[i];
+            if (ints != null) {
+                ints[i] = number.intValue();
+            }
+            else if (longs != null) {
+                longs[i] = number.longValue();
+            }
+            else {
+                doubles[i] = number.doubleValue();
+            }
+        }
+        return (ints != null) ? ints : ((longs != null) ? longs : doubles);
+    }
+
+    /**
+     * Reads integer element, plain scalars are parsed without boxing, other values are read by given serializer of boxed values.
+     *
+     * @throws ConfigException if value is not a valid number or is null.
+     */
+    static long readLong(YamlReader reader, ValueSerializer boxed) {
+        ScalarEvent scalar = plainScalar(reader);
+        if (scalar == null) {
+            return number(reader, reader.read(boxed)).longValue();
+        }
+        reader.next();
+        try {
+            return YamlScalars.parseLong(scalar.getValue());
+        }
+        catch (NumberFormatException | ArithmeticException e) {
+            throw reader.error("Invalid number: " + scalar.getValue(), e);
+        }
+    }
+
+    /**
+     * Reads floating point element, plain scalars are parsed without boxing, other values are read by given serializer of boxed values.
+     *
+     * @throws ConfigException if value is not a valid number or is null.
+     */
+    static double readDouble(YamlReader reader, ValueSerializer boxed) {
+        ScalarEvent scalar = plainScalar(reader);
+        if (scalar == null) {
+            return number(reader, reader.read(boxed)).doubleValue();
+        }
+        reader.next();
+        try {
+            return YamlScalars.parseDouble(scalar.getValue());
+        }
+        catch (NumberFormatException | ArithmeticException e) {
+            throw reader.error("Invalid number: " + scalar.getValue(), e);
+        }
+    }
+
+    /**
+     * @return next event if it is a scalar without anchor that isn't null, such values don't need to be handled by {@link
+     * YamlReader#read(ValueSerializer)}.
+     */
+    @Nullable
+    private static ScalarEvent plainScalar(YamlReader reader) {
+        Event event = reader.peek();
+        if (! event.is(ID.Scalar)) {
+            return null;
+        }
+        ScalarEvent scalar = (ScalarEvent) event;
+        return ((scalar.getAnchor() == null) && ! YamlReader.isNull(scalar)) ? scalar : null;
+    }
+
+    private static Number number(YamlReader reader, @Nullable Object value) {
+        if (value == null) {
+            throw reader.error("Null values are not supported by primitive collections");
+        }
+        return (Number) value;
+    }
+
+    /**
+     * Type of elements.
+     */
+    enum Element {
+        INT(Integer.class),
+        LONG(Long.class),
+        DOUBLE(Double.class);
+
+        private final Class<?> boxedType;
+
+        Element(Class<?> boxedType) {
+            this.boxedType = boxedType;
+        }
+
+        Class<?> getBoxedType() {
+            return this.boxedType;
+        }
+
+        /**
+         * @return element type of given boxed or primitive type, or null if given type isn't int, long or double.
+         */
+        @Nullable
+        static Element of(Class<?> type) {
+            if ((type == int.class) || (type == Integer.class)) {
+                return INT;
+            }
+            if ((type == long.class) || (type == Long.class)) {
+                return LONG;
+            }
+            if ((type == double.class) || (type == Double.class)) {
+                return DOUBLE;
+            }
+            return null;
+        }
+    }
+
+    /**
+     * Type of created values.
+     */
+    enum Shape {
+        ARRAY,
+        LIST,
+        SET
+    }
+}
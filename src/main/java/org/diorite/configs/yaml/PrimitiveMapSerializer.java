@@ -0,0 +1,139 @@
+package org.diorite.configs.yaml;
+
+import org.diorite.configs.ConfigException;
+import org.diorite.configs.collections.ObjectDoubleMap;
+import org.diorite.configs.collections.ObjectIntMap;
+import org.diorite.configs.collections.ObjectLongMap;
+import org.diorite.configs.style.PropertyStyle;
+import org.diorite.configs.yaml.PrimitiveCollectionSerializer.Element;
+import org.yaml.snakeyaml.events.Event.ID;
+
+import java.util.Arrays;
+import java.util.Map;
+
+/**
+ * Serializer of maps with int, long or double values, stored as mappings. <br/>
+ * Plain scalar values are parsed without boxing and maps are created as primitive maps from {@code org.diorite.configs.collections}.
+ * Values are written by serializer of boxed values.
+ */
+final class PrimitiveMapSerializer extends ValueSerializer {
+    private final Element element;
+    private final ValueSerializer keySerializer;
+    private final ValueSerializer valueSerializer;
+
+    /**
+     * @param element type of values.
+     * @param keySerializer serializer of keys.
+     * @param valueSerializer serializer of boxed values, used for values that aren't plain scalars, like aliases.
+     */
+    PrimitiveMapSerializer(Element element, ValueSerializer keySerializer, ValueSerializer valueSerializer) {
+        this.element = element;
+        this.keySerializer = keySerializer;
+        this.valueSerializer = valueSerializer;
+    }
+
+    @Override
+    public Object read(YamlReader reader) {
+        reader.expect(ID.MappingStart);
+        Object[] keys = new Object[16];
+        int[] ints = (this.element == Element.INT) ? new int[16] : null;
+        long[] longs = (this.element == Element.LONG) ? new long[16] : null;
+        double[] doubles = (this.element == Element.DOUBLE) ? new double[16] : null;
+        int size = 0;
+        while (! reader.isNext(ID.MappingEnd)) {
+            if (size == keys.length) {
+                keys = Arrays.copyOf(keys, size * 2);
+                ints = (ints == null) ? null : Arrays.copyOf(ints, size * 2);
+                longs = (longs == null) ? null : Arrays.copyOf(longs, size * 2);
+                doubles = (doubles == null) ? null : Arrays.copyOf(doubles, size * 2);
+            }
+            keys[size] = reader.read(this.keySerializer);
+            if (ints != null) {
+                ints[size] = (int) PrimitiveCollectionSerializer.readLong(reader, this.valueSerializer);
+            }
+            else if (longs != null) {
+                longs[size] = PrimitiveCollectionSerializer.readLong(reader, this.valueSerializer);
+            }
+            else {
+                doubles[size] = PrimitiveCollectionSerializer.readDouble(reader, this.valueSerializer);
+            }
+            size++;
+        }
+        reader.next();
+        if (ints != null) {
+            return ObjectIntMap.of(keys, ints, size);
+        }
+        if (longs != null) {
+            return ObjectLongMap.of(keys, longs, size);
+        }
+        return ObjectDoubleMap.of(keys, doubles, size);
+    }
+
+    @Override
+    public void write(YamlWriter writer, Object value, PropertyStyle style, int depth) {
+        Map<?, ?> map = (Map<?, ?>) value;
+        writer.startMapping(style.getStyle(depth), map.size());
+        for (Map.Entry<?, ?> entry : map.entrySet()) {
+            writer.write(this.keySerializer, entry.getKey(), style, depth + 1);
+            writer.write(this.valueSerializer, entry.getValue(), style, depth + 1);
+        }
+        writer.endMapping();
+    }
+
+    @Override
+    public void writeSnapshot(SnapshotOutput output, Object value) {
+        Map<?, ?> map = (Map<?, ?>) value;
+        output.writeSize(map.size());
+        for (Map.Entry<?, ?> entry : map.entrySet()) {
+            output.write(this.keySerializer, entry.getKey());
+            Number number = (Number) entry.getValue();
+            if (number == null) {
+                throw new ConfigException("Null values are not supported by primitive collections");
+            }
+            switch (this.element) {
+                case INT:
+                    output.writeInt(number.intValue());
+                    break;
+                case LONG:
+                    output.writeLong(number.longValue());
+                    break;
+                case DOUBLE:
+                    output.writeDouble(number.doubleValue());
+                    break;
+                default:
+                    throw new AssertionError(this.element);
+            }
+        }
+    }
+
+    @Override
+    public Object readSnapshot(SnapshotInput input) {
+        int size = input.readSize();
+        Object[] keys = new Object[size];
+        switch (this.element) {
+            case INT:
+                int[] ints = new int[size];
+                for (int i = 0; i < size; i++) {
+                    keys[i] = input.read(this.keySerializer);
+                    ints[i] = input.readInt();
+                }
+                return ObjectIntMap.of(keys, ints, size);
+            case LONG:
+                long[] longs = new long[size];
+                for (int i = 0; i < size; i++) {
+                    keys[i] = input.read(this.keySerializer);
+                    longs[i] = input.readLong();
+                }
+                return ObjectLongMap.of(keys, longs, size);
+            case DOUBLE:
+                double[] doubles = new double[size];
+                for (int i = 0; i < size; i++) {
+                    keys[i] = input.read(this.keySerializer);
+                    doubles[i] = input.readDouble();
+                }
+                return ObjectDoubleMap.of(keys, doubles, size);
+            default:
+                throw new AssertionError(this.element);
+        }
+    }
+}
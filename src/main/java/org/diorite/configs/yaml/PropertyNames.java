@@ -0,0 +1,174 @@
+package org.diorite.configs.yaml;
+
+import org.diorite.configs.ConfigPropertyTemplate;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Perfect hash table of serialized and alternate names of properties of single config type, built once per {@link ConfigSerializer}.
+ * <br/>
+ * Names are grouped into buckets by first hash, and each bucket gets displacement that moves its names to free slots of table, like
+ * in hash and displace algorithm, so each name has its own slot and table has at most twice as many slots as names. Key is resolved
+ * by single pass over its characters and comparison with single name, without walking buckets of hash map. <br/>
+ * Serialized names override alternate names of other properties.
+ */
+final class PropertyNames {
+    // seeds of hash functions tried before size of table is doubled
+    private static final int SEEDS_PER_SIZE = 8;
+
+    private final int seed;
+    private final int mask;
+    private final int[] displacements;
+    private final String[] names;
+    private final ConfigPropertyTemplate[] properties;
+
+    private PropertyNames(int seed, int[] displacements, String[] names, ConfigPropertyTemplate[] properties) {
+        this.seed = seed;
+        this.mask = names.length - 1;
+        this.displacements = displacements;
+        this.names = names;
+        this.properties = properties;
+    }
+
+    /**
+     * @param properties properties of config type.
+     *
+     * @return table of names of given properties.
+     */
+    static PropertyNames of(Iterable<ConfigPropertyTemplate> properties) {
+        Map<String, ConfigPropertyTemplate> byName = new LinkedHashMap<>(32);
+        for (ConfigPropertyTemplate property : properties) {
+            for (String alternateName : property.getAlternateNames()) {
+                byName.put(alternateName, property);
+            }
+        }
+        for (ConfigPropertyTemplate property : properties) {
+            byName.put(property.getSerializedName(), property);
+        }
+        for (int size = Integer.highestOneBit((Math.max(byName.size(), 1) * 2) - 1); ; size <<= 1) {
+            for (int seed = 0; seed < SEEDS_PER_SIZE; seed++) {
+                PropertyNames table = build(byName, size, seed);
+                if (table != null) {
+                    return table;
+                }
+            }
+        }
+    }
+
+    /**
+     * @return table of given size, or null if displacement of some bucket can't be found.
+     */
+    @Nullable
+    private static PropertyNames build(Map<String, ConfigPropertyTemplate> byName, int size, int seed) {
+        int mask = size - 1;
+        List<List<String>> buckets = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            buckets.add(new ArrayList<>(2));
+        }
+        for (String name : byName.keySet()) {
+            buckets.get(bucket(hash(name, seed), mask)).add(name);
+        }
+        Integer[] order = new Integer[size];
+        for (int i = 0; i < size; i++) {
+            order[i] = i;
+        }
+        // largest buckets are placed first, while most of slots are free
+        Arrays.sort(order, (a, b) -> Integer.compare(buckets.get(b).size(), buckets.get(a).size()));
+
+        int[] displacements = new int[size];
+        String[] names = new String[size];
+        ConfigPropertyTemplate[] properties = new ConfigPropertyTemplate[size];
+        int[] slots = new int[byName.size()];
+        for (int bucket : order) {
+            List<String> members = buckets.get(bucket);
+            if (members.isEmpty()) {
+                break;
+            }
+            int displacement = displace(members, names, slots, seed, mask);
+            if (displacement == - 1) {
+                return null;
+            }
+            displacements[bucket] = displacement;
+            for (int i = 0; i < members.size(); i++) {
+                names[slots[i]] = members.get(i);
+                properties[slots[i]] = byName.get(members.get(i));
+            }
+        }
+        return new PropertyNames(seed, displacements, names, properties);
+    }
+
+    /**
+     * Finds displacement that moves all names of bucket to distinct free slots, slots are stored in given array.
+     *
+     * @return found displacement, or -1 if there is no such displacement.
+     */
+    private static int displace(List<String> members, String[] names, int[] slots, int seed, int mask) {
+        int size = mask + 1;
+        for (int displacement = 0; displacement < (size * size); displacement++) {
+            boolean free = true;
+            for (int i = 0; free && (i < members.size()); i++) {
+                int slot = slot(hash(members.get(i), seed), displacement, mask);
+                free = names[slot] == null;
+                for (int j = 0; free && (j < i); j++) {
+                    free = slots[j] != slot;
+                }
+                slots[i] = slot;
+            }
+            if (free) {
+                return displacement;
+            }
+        }
+        return - 1;
+    }
+
+    /**
+     * @param name name of key in configuration file.
+     *
+     * @return property using given serialized or alternate name, or null if there is no such property.
+     */
+    @Nullable
+    ConfigPropertyTemplate get(String name) {
+        long hash = hash(name, this.seed);
+        int slot = slot(hash, this.displacements[bucket(hash, this.mask)], this.mask);
+        String candidate = this.names[slot];
+        if ((candidate == null) || ! candidate.equals(name)) {
+            return null;
+        }
+        return this.properties[slot];
+    }
+
+    private static int bucket(long hash, int mask) {
+        return (int) (hash >>> 32) & mask;
+    }
+
+    /**
+     * @param displacement displacement of bucket, pair of multiplier of second hash and offset.
+     */
+    private static int slot(long hash, int displacement, int mask) {
+        int size = mask + 1;
+        int step = (((int) hash) >>> 16) | 1;
+        return ((int) hash + ((displacement / size) * step) + (displacement % size)) & mask;
+    }
+
+    /**
+     * @return two independent 32 bit hashes of given name computed in single pass, first in high bits.
+     */
+    private static long hash(String name, int seed) {
+        int first = 0x811C9DC5 ^ (seed * 0x9E3779B9);
+        int second = seed;
+        for (int i = 0, length = name.length(); i < length; i++) {
+            char c = name.charAt(i);
+            first = (first ^ c) * 0x01000193;
+            second = (second * 31) + c;
+        }
+        second ^= second >>> 16;
+        second *= 0x85EBCA6B;
+        second ^= second >>> 13;
+        return ((long) first << 32) | (second & 0xFFFFFFFFL);
+    }
+}
@@ -0,0 +1,217 @@
+package org.diorite.configs.yaml;
+
+import org.yaml.snakeyaml.nodes.NodeId;
+import org.yaml.snakeyaml.nodes.Tag;
+import org.yaml.snakeyaml.resolver.Resolver;
+
+/**
+ * Decides which scalar styles can represent a string, in single pass over its characters using table of ascii characters. <br/>
+ * Result is packed into single int: flags of allowed styles and amount of lines. Results of short strings are cached by identity of
+ * string, so interned strings, like names of properties, and values shared between saves, like default values, are analysed once.
+ */
+final class ScalarAnalysis {
+    /**
+     * String can be written as plain scalar in block context.
+     */
+    static final int PLAIN = 1;
+    /**
+     * String can be written as plain scalar inside flow collection.
+     */
+    static final int PLAIN_FLOW = 1 << 1;
+    /**
+     * String can be written as single quoted scalar.
+     */
+    static final int SINGLE_QUOTED = 1 << 2;
+    /**
+     * String can be written as literal or folded block.
+     */
+    static final int BLOCK = 1 << 3;
+    /**
+     * Plain scalar would be resolved by yaml parsers as other type than string, like number or boolean, only checked if requested.
+     */
+    static final int IMPLICIT_TYPE = 1 << 4;
+
+    private static final int LINES_SHIFT = 8;
+    private static final int MAX_LINES = Integer.MAX_VALUE >>> LINES_SHIFT;
+    // longer strings are rarely interned, and caching them would keep large values in memory
+    private static final int MAX_CACHED_LENGTH = 64;
+    private static final int CACHE_SIZE = 1024;
+    // longest word that is implicitly resolved as other type than string, like "false"
+    private static final int MAX_IMPLICIT_WORD = 5;
+
+    private static final byte PRINTABLE = 1;
+    private static final byte INDICATOR = 1 << 1;
+    private static final byte INDICATOR_BEFORE_SPACE = 1 << 2;
+    private static final byte FLOW_INDICATOR = 1 << 3;
+    private static final byte IMPLICIT_START = 1 << 4;
+    private static final byte[] ASCII = new byte[128];
+
+    private static final Resolver RESOLVER = new Resolver();
+    private static final Entry[] CACHE = new Entry[CACHE_SIZE];
+
+    static {
+        for (char c = 0x20; c <= 0x7E; c++) {
+            ASCII[c] = PRINTABLE;
+        }
+        flag("#,[]{}&*!|>'\"%@`", INDICATOR);
+        flag("-?:", INDICATOR_BEFORE_SPACE);
+        flag(",[]{}", FLOW_INDICATOR);
+        // first characters of values resolved by snakeyaml as booleans, numbers, nulls, timestamps, merge and value keys
+        flag("yYnNtTfFoO-+.0123456789<~=", IMPLICIT_START);
+    }
+
+    private ScalarAnalysis() {
+    }
+
+    /**
+     * @param value string to analyse.
+     * @param resolve if {@link #IMPLICIT_TYPE} should be checked.
+     *
+     * @return flags of allowed styles and amount of lines of given string.
+     */
+    static int analyse(String value, boolean resolve) {
+        if (! resolve || (value.length() > MAX_CACHED_LENGTH)) {
+            return compute(value, resolve);
+        }
+        int index = System.identityHashCode(value) & (CACHE_SIZE - 1);
+        Entry entry = CACHE[index];
+        if ((entry != null) && (entry.value == value)) {
+            return entry.result;
+        }
+        int result = compute(value, true);
+        CACHE[index] = new Entry(value, result);
+        return result;
+    }
+
+    /**
+     * @param result result of {@link #analyse(String, boolean)}.
+     *
+     * @return amount of lines of analysed string.
+     */
+    static int lines(int result) {
+        return result >>> LINES_SHIFT;
+    }
+
+    /**
+     * Surrogates are not printable by themselves, pairs of surrogates are checked by {@link #isSurrogatePair(String, int)}. Next line
+     * (U+0085) is a line break for yaml parsers, so it is not printable too.
+     */
+    static boolean isPrintable(char c) {
+        if (c < 0x80) {
+            return (ASCII[c] & PRINTABLE) != 0;
+        }
+        return ((c >= 0xA0) && (c <= 0xD7FF) && (c != 0x2028) && (c != 0x2029)) || ((c >= 0xE000) && (c <= 0xFFFD) && (c != 0xFEFF));
+    }
+
+    /**
+     * @return true if character at given index is high surrogate followed by low surrogate.
+     */
+    static boolean isSurrogatePair(String value, int index) {
+        return Character.isHighSurrogate(value.charAt(index)) && ((index + 1) < value.length()) &&
+               Character.isLowSurrogate(value.charAt(index + 1));
+    }
+
+    private static int compute(String value, boolean resolve) {
+        int length = value.length();
+        int flags = PLAIN | PLAIN_FLOW | SINGLE_QUOTED | BLOCK;
+        if (length == 0) {
+            return (flags & ~ (PLAIN | PLAIN_FLOW)) | (1 << LINES_SHIFT);
+        }
+        char first = value.charAt(0);
+        int firstType = type(first);
+        if ((first == ' ') || (value.charAt(length - 1) == ' ') || ((firstType & INDICATOR) != 0) || isDocumentMarker(value)) {
+            flags &= ~ (PLAIN | PLAIN_FLOW);
+        }
+        else if ((firstType & INDICATOR_BEFORE_SPACE) != 0) {
+            if ((length == 1) || (value.charAt(1) == ' ')) {
+                flags &= ~ (PLAIN | PLAIN_FLOW);
+            }
+            else if ((type(value.charAt(1)) & FLOW_INDICATOR) != 0) {
+                flags &= ~ PLAIN_FLOW;
+            }
+        }
+
+        int lines = 1;
+        char previous = 0;
+        for (int i = 0; i < length; i++) {
+            char c = value.charAt(i);
+            int type = type(c);
+            if (((type & PRINTABLE) == 0) && isSurrogatePair(value, i)) {
+                i++; // pair is printable character outside of basic plane
+                previous = value.charAt(i);
+                continue;
+            }
+            if (((type & PRINTABLE) == 0) || (c == '\t')) {
+                flags &= ~ (PLAIN | PLAIN_FLOW | SINGLE_QUOTED);
+                if (c == '\n') {
+                    lines++;
+                }
+                else if ((c != '\t') && ((type & PRINTABLE) == 0)) {
+                    flags &= ~ BLOCK;
+                }
+            }
+            else if (c == ':') {
+                if ((i == (length - 1)) || (value.charAt(i + 1) == ' ')) {
+                    flags &= ~ (PLAIN | PLAIN_FLOW);
+                }
+                else if ((type(value.charAt(i + 1)) & FLOW_INDICATOR) != 0) {
+                    flags &= ~ PLAIN_FLOW;
+                }
+            }
+            else if ((c == '#') && (previous == ' ')) {
+                flags &= ~ (PLAIN | PLAIN_FLOW);
+            }
+            if ((type & FLOW_INDICATOR) != 0) {
+                flags &= ~ PLAIN_FLOW;
+            }
+            previous = c;
+        }
+        if (resolve && ((flags & (PLAIN | PLAIN_FLOW)) != 0) && isImplicitType(value, firstType)) {
+            flags |= IMPLICIT_TYPE;
+        }
+        return flags | (Math.min(lines, MAX_LINES) << LINES_SHIFT);
+    }
+
+    /**
+     * Only strings that may be resolved as other type than string, judging by first character and length of words, are checked by
+     * regular expressions of yaml resolver.
+     */
+    private static boolean isImplicitType(String value, int firstType) {
+        if ((firstType & IMPLICIT_START) == 0) {
+            return false;
+        }
+        char first = value.charAt(0);
+        if (Character.isLetter(first) && (value.length() > MAX_IMPLICIT_WORD)) {
+            return false;
+        }
+        return ! Tag.STR.equals(RESOLVER.resolve(NodeId.scalar, value, true));
+    }
+
+    private static boolean isDocumentMarker(String value) {
+        return (value.length() >= 3) && (((value.charAt(0) == '-') && (value.charAt(1) == '-') && (value.charAt(2) == '-')) ||
+                                         ((value.charAt(0) == '.') && (value.charAt(1) == '.') && (value.charAt(2) == '.')));
+    }
+
+    private static int type(char c) {
+        if (c < 0x80) {
+            return ASCII[c];
+        }
+        return isPrintable(c) ? PRINTABLE : 0;
+    }
+
+    private static void flag(String chars, byte flag) {
+        for (int i = 0; i < chars.length(); i++) {
+            ASCII[chars.charAt(i)] |= flag;
+        }
+    }
+
+    private static final class Entry {
+        private final String value;
+        private final int result;
+
+        private Entry(String value, int result) {
+            this.value = value;
+            this.result = result;
+        }
+    }
+}
@@ -0,0 +1,269 @@
+package org.diorite.configs.yaml;
+
+import org.diorite.configs.style.PropertyStyle;
+import org.jetbrains.annotations.Nullable;
+import org.yaml.snakeyaml.events.ScalarEvent;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.List;
+
+/**
+ * Serializer of strings, booleans, characters and numbers.
+ */
+final class ScalarSerializer extends ValueSerializer {
+    private static final int BYTE_KIND = Kind.BYTE.ordinal();
+    private static final int BIG_DECIMAL_KIND = Kind.BIG_DECIMAL.ordinal();
+
+    private final Kind kind;
+    private final List<String> trueValues;
+    private final List<String> falseValues;
+
+    private ScalarSerializer(Kind kind, List<String> trueValues, List<String> falseValues) {
+        this.kind = kind;
+        this.trueValues = trueValues;
+        this.falseValues = falseValues;
+    }
+
+    /**
+     * @param type type of value.
+     * @param trueValues additional true values of booleans.
+     * @param falseValues additional false values of booleans.
+     *
+     * @return serializer of given type or null if given type isn't a simple scalar type.
+     */
+    @Nullable
+    static ScalarSerializer of(Class<?> type, List<String> trueValues, List<String> falseValues) {
+        Kind kind = Kind.of(type);
+        if (kind == null) {
+            return null;
+        }
+        if (kind != Kind.BOOLEAN) {
+            return new ScalarSerializer(kind, List.of(), List.of());
+        }
+        return new ScalarSerializer(kind, trueValues, falseValues);
+    }
+
+    @Override
+    public Object read(YamlReader reader) {
+        ScalarEvent event = reader.nextScalar();
+        String value = event.getValue();
+        try {
+            switch (this.kind) {
+                case STRING:
+                    return reader.getStringDeduplicator().deduplicate(value);
+                case BOOLEAN:
+                    Boolean result = YamlScalars.parseBoolean(value, this.trueValues, this.falseValues);
+                    if (result == null) {
+                        throw reader.error("Invalid boolean value: " + value);
+                    }
+                    return result;
+                case CHARACTER:
+                    if (value.length() != 1) {
+                        throw reader.error("Expected single character but found: " + value);
+                    }
+                    return value.charAt(0);
+                case BYTE:
+                    return (byte) YamlScalars.parseLong(value);
+                case SHORT:
+                    return (short) YamlScalars.parseLong(value);
+                case INT:
+                    return (int) YamlScalars.parseLong(value);
+                case LONG:
+                    return YamlScalars.parseLong(value);
+                case FLOAT:
+                    return (float) YamlScalars.parseDouble(value);
+                case DOUBLE:
+                    return YamlScalars.parseDouble(value);
+                case BIG_INTEGER:
+                    Number integer = YamlScalars.parseInteger(value);
+                    return (integer instanceof BigInteger) ? integer : BigInteger.valueOf(integer.longValue());
+                case BIG_DECIMAL:
+                    return YamlScalars.parseDecimal(value);
+                case NUMBER:
+                    Object number = ObjectSerializer.resolveScalar(event, reader);
+                    if (! (number instanceof Number)) {
+                        throw reader.error("Invalid number: " + value);
+                    }
+                    return number;
+                default:
+                    throw new AssertionError(this.kind);
+            }
+        }
+        catch (NumberFormatException | ArithmeticException e) {
+            throw reader.error("Invalid number: " + value, e);
+        }
+    }
+
+    @Override
+    public void write(YamlWriter writer, Object value, PropertyStyle style, int depth) {
+        switch (this.kind) {
+            case STRING:
+            case CHARACTER:
+                writer.string(value.toString(), style, depth);
+                break;
+            case BOOLEAN:
+                List<String> values = ((Boolean) value) ? this.trueValues : this.falseValues;
+                writer.plain(values.isEmpty() ? value.toString() : values.get(0));
+                break;
+            default:
+                writer.plain(NumberFormats.format((Number) value, style.getNumberFormat(depth)));
+                break;
+        }
+    }
+
+    @Override
+    public void writeSnapshot(SnapshotOutput output, Object value) {
+        writeSnapshot(output, this.kind, value);
+    }
+
+    private static void writeSnapshot(SnapshotOutput output, Kind kind, Object value) {
+        switch (kind) {
+            case STRING:
+                output.writeString(value.toString());
+                break;
+            case BOOLEAN:
+                output.writeBoolean((Boolean) value);
+                break;
+            case CHARACTER:
+                output.writeChar((Character) value);
+                break;
+            case BYTE:
+                output.writeByte((Byte) value);
+                break;
+            case SHORT:
+                output.writeShort((Short) value);
+                break;
+            case INT:
+                output.writeInt((Integer) value);
+                break;
+            case LONG:
+                output.writeLong((Long) value);
+                break;
+            case FLOAT:
+                output.writeFloat((Float) value);
+                break;
+            case DOUBLE:
+                output.writeDouble((Double) value);
+                break;
+            case BIG_INTEGER:
+            case BIG_DECIMAL:
+                output.writeString(value.toString());
+                break;
+            case NUMBER:
+                // numbers of other types are stored as decimals
+                Kind numberKind = Kind.of(value.getClass());
+                if ((numberKind == null) || (numberKind == Kind.NUMBER)) {
+                    output.writeByte(BIG_DECIMAL_KIND);
+                    output.writeString(new BigDecimal(value.toString()).toString());
+                    return;
+                }
+                output.writeByte(numberKind.ordinal());
+                writeSnapshot(output, numberKind, value);
+                break;
+            default:
+                throw new AssertionError(kind);
+        }
+    }
+
+    @Override
+    public Object readSnapshot(SnapshotInput input) {
+        return readSnapshot(input, this.kind);
+    }
+
+    private static Object readSnapshot(SnapshotInput input, Kind kind) {
+        try {
+            switch (kind) {
+                case STRING:
+                    return input.getSerializers().getStringDeduplicator().deduplicate(input.readString());
+                case BOOLEAN:
+                    return input.readBoolean();
+                case CHARACTER:
+                    return input.readChar();
+                case BYTE:
+                    return input.readByte();
+                case SHORT:
+                    return input.readShort();
+                case INT:
+                    return input.readInt();
+                case LONG:
+                    return input.readLong();
+                case FLOAT:
+                    return input.readFloat();
+                case DOUBLE:
+                    return input.readDouble();
+                case BIG_INTEGER:
+                    return new BigInteger(input.readString());
+                case BIG_DECIMAL:
+                    return new BigDecimal(input.readString());
+                case NUMBER:
+                    int numberKind = input.readByte();
+                    if ((numberKind < BYTE_KIND) || (numberKind > BIG_DECIMAL_KIND)) {
+                        throw input.error("Invalid number type: " + numberKind);
+                    }
+                    return readSnapshot(input, Kind.values()[numberKind]);
+                default:
+                    throw new AssertionError(kind);
+            }
+        }
+        catch (NumberFormatException e) {
+            throw input.error("Invalid number");
+        }
+    }
+
+    private enum Kind {
+        STRING,
+        BOOLEAN,
+        CHARACTER,
+        BYTE,
+        SHORT,
+        INT,
+        LONG,
+        FLOAT,
+        DOUBLE,
+        BIG_INTEGER,
+        BIG_DECIMAL,
+        NUMBER;
+
+        @Nullable
+        static Kind of(Class<?> type) {
+            if ((type == String.class) || (type == CharSequence.class)) {
+                return STRING;
+            }
+            if ((type == boolean.class) || (type == Boolean.class)) {
+                return BOOLEAN;
+            }
+            if ((type == char.class) || (type == Character.class)) {
+                return CHARACTER;
+            }
+            if ((type == byte.class) || (type == Byte.class)) {
+                return BYTE;
+            }
+            if ((type == short.class) || (type == Short.class)) {
+                return SHORT;
+            }
+            if ((type == int.class) || (type == Integer.class)) {
+                return INT;
+            }
+            if ((type == long.class) || (type == Long.class)) {
+                return LONG;
+            }
+            if ((type == float.class) || (type == Float.class)) {
+                return FLOAT;
+            }
+            if ((type == double.class) || (type == Double.class)) {
+                return DOUBLE;
+            }
+            if (type == BigInteger.class) {
+                return BIG_INTEGER;
+            }
+            if (type == BigDecimal.class) {
+                return BIG_DECIMAL;
+            }
+            if (type == Number.class) {
+                return NUMBER;
+            }
+            return null;
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package org.diorite.configs.yaml;
+
+import org.diorite.configs.Config;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+
+/**
+ * Binary snapshots of configs loaded from yaml files, stored next to yaml file with {@value #EXTENSION} extension. <br/>
+ * Snapshot contains values of all properties after they were read and validated, and index of yaml document used by incremental saves.
+ * Values of lazy properties that weren't read yet are stored unread. Validators of config type are not part of snapshot, so values
+ * read from snapshot are validated again. Snapshot is used only if SHA-256 hash of yaml file and hash of properties of config type
+ * match, otherwise yaml file is parsed and snapshot is replaced. Snapshot files are memory mapped and read directly.
+ */
+public final class SnapshotCache {
+    public static final String EXTENSION = ".snapshot";
+
+    private static final int MAGIC = 0x44435346; // DCSF
+    private static final int VERSION = 2;
+
+    private SnapshotCache() {
+    }
+
+    /**
+     * @param path path of yaml file.
+     *
+     * @return path of snapshot of given yaml file.
+     */
+    public static Path snapshotPath(Path path) {
+        return path.resolveSibling(path.getFileName() + EXTENSION);
+    }
+
+    /**
+     * Loads config from snapshot of given yaml file if it is up to date, otherwise config is loaded from yaml and new snapshot is saved.
+     * Snapshots that can't be read or written are ignored.
+     *
+     * @param serializer serializer of config type.
+     * @param path path of yaml file.
+     * @param <T> config type.
+     *
+     * @return loaded config instance.
+     *
+     * @throws IOException if yaml file can't be read.
+     */
+    public static <T extends Config<T>> T load(ConfigSerializer<T> serializer, Path path) throws IOException {
+        byte[] bytes = Files.readAllBytes(path);
+        byte[] hash = sha256(bytes);
+        String text = new String(bytes, StandardCharsets.UTF_8);
+        Path snapshot = snapshotPath(path);
+        T config = read(serializer, path, hash, text);
+        if (config != null) {
+            return config;
+        }
+        config = serializer.loadDocument(text, path);
+        try {
+            write(snapshot, serializer.writeFileSnapshot(config, hash));
+        }
+        catch (IOException e) {
+            // snapshots are only a cache, config can be still loaded from yaml
+        }
+        return config;
+    }
+
+    @Nullable
+    private static <T extends Config<T>> T read(ConfigSerializer<T> serializer, Path path, byte[] hash, String text) throws IOException {
+        try (FileChannel channel = FileChannel.open(snapshotPath(path), StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            return serializer.readFileSnapshot(buffer, hash, text, path);
+        }
+        catch (NoSuchFileException e) {
+            return null;
+        }
+        catch (RuntimeException e) {
+            // snapshot of other version of config type or damaged file
+            return null;
+        }
+    }
+
+    private static void write(Path snapshot, byte[] data) throws IOException {
+        Path absolute = snapshot.toAbsolutePath();
+        // unique temporary file, so concurrent loads of the same file never write to the same file
+        Path temp = Files.createTempFile(absolute.getParent(), absolute.getFileName().toString(), ".tmp");
+        try {
+            Files.write(temp, data);
+            try {
+                Files.move(temp, snapshot, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            }
+            catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, snapshot, StandardCopyOption.REPLACE_EXISTING);
+            }
+        }
+        finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    static void writeHeader(SnapshotOutput output, byte[] fileHash) {
+        output.writeInt(MAGIC);
+        output.writeInt(VERSION);
+        output.writeBytes(fileHash);
+    }
+
+    /**
+     * @return true if snapshot was created by this version for yaml file with given hash.
+     */
+    static boolean readHeader(SnapshotInput input, byte[] fileHash) {
+        return (input.readInt() == MAGIC) && (input.readInt() == VERSION) && Arrays.equals(input.readBytes(), fileHash);
+    }
+
+    /**
+     * @return 64-bit FNV-1a hash of given text, used to detect changes of types stored in snapshots.
+     */
+    static long hash(CharSequence text) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            hash = (hash ^ (c & 0xFF)) * 0x100000001b3L;
+            hash = (hash ^ (c >>> 8)) * 0x100000001b3L;
+        }
+        return hash;
+    }
+
+    private static byte[] sha256(byte[] bytes) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(bytes);
+        }
+        catch (NoSuchAlgorithmException e) {
+            throw new AssertionError(e);
+        }
+    }
+}
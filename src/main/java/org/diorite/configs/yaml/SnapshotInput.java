@@ -0,0 +1,155 @@
+package org.diorite.configs.yaml;
+
+import org.diorite.configs.ConfigException;
+import org.jetbrains.annotations.Nullable;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+
+/**
+ * Reads values from binary snapshot of config written by {@link SnapshotOutput}, usually directly from memory mapped file. <br/>
+ * Invalid or truncated data is reported as {@link ConfigException}, in such case snapshot is ignored and config is read from yaml.
+ */
+public final class SnapshotInput {
+    private final ValueSerializers serializers;
+    private final ByteBuffer buffer;
+    @Nullable
+    private final Path path;
+
+    /**
+     * @param path path of yaml file snapshot was created for, or null.
+     */
+    SnapshotInput(ValueSerializers serializers, ByteBuffer buffer, @Nullable Path path) {
+        this.serializers = serializers;
+        this.buffer = buffer;
+        this.path = path;
+    }
+
+    public ValueSerializers getSerializers() {
+        return this.serializers;
+    }
+
+    /**
+     * @return path of yaml file snapshot was created for, used by values read from yaml later, or null.
+     */
+    @Nullable
+    public Path getPath() {
+        return this.path;
+    }
+
+    /**
+     * Reads value using given serializer, null values are read by this method.
+     *
+     * @param serializer serializer of value.
+     *
+     * @return read value.
+     */
+    @Nullable
+    public Object read(ValueSerializer serializer) {
+        if (! this.readBoolean()) {
+            return null;
+        }
+        return serializer.readSnapshot(this);
+    }
+
+    public boolean readBoolean() {
+        return this.readByte() != 0;
+    }
+
+    public byte readByte() {
+        this.require(1);
+        return this.buffer.get();
+    }
+
+    public short readShort() {
+        this.require(2);
+        return this.buffer.getShort();
+    }
+
+    public char readChar() {
+        this.require(2);
+        return this.buffer.getChar();
+    }
+
+    public int readInt() {
+        this.require(4);
+        return this.buffer.getInt();
+    }
+
+    public long readLong() {
+        this.require(8);
+        return this.buffer.getLong();
+    }
+
+    public float readFloat() {
+        this.require(4);
+        return this.buffer.getFloat();
+    }
+
+    public double readDouble() {
+        this.require(8);
+        return this.buffer.getDouble();
+    }
+
+    public int readSize() {
+        int value = 0;
+        for (int shift = 0; shift < 32; shift += 7) {
+            byte b = this.readByte();
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                if (value < 0) {
+                    break;
+                }
+                return value;
+            }
+        }
+        throw this.error("Invalid size");
+    }
+
+    public String readString() {
+        int length = this.readSize();
+        this.require(length);
+        if (this.buffer.hasArray()) {
+            String value = new String(this.buffer.array(), this.buffer.arrayOffset() + this.buffer.position(), length, StandardCharsets.UTF_8);
+            this.buffer.position(this.buffer.position() + length);
+            return value;
+        }
+        byte[] bytes = new byte[length];
+        this.buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    public byte[] readBytes() {
+        int length = this.readSize();
+        this.require(length);
+        byte[] bytes = new byte[length];
+        this.buffer.get(bytes);
+        return bytes;
+    }
+
+    /**
+     * @return read-only view of bytes inside snapshot, without copying them.
+     */
+    public ByteBuffer readBuffer() {
+        int length = this.readSize();
+        this.require(length);
+        ByteBuffer view = this.buffer.slice();
+        view.limit(length);
+        this.buffer.position(this.buffer.position() + length);
+        return view.asReadOnlyBuffer();
+    }
+
+    /**
+     * @return exception reporting invalid snapshot data at current position.
+     */
+    public ConfigException error(String message) {
+        return new ConfigException(message + " (snapshot offset " + this.buffer.position() + ")");
+    }
+
+    private void require(int bytes) {
+        if (this.buffer.remaining() < bytes) {
+            throw this.error("Unexpected end of snapshot");
+        }
+    }
+}
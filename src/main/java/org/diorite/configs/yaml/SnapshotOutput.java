@@ -0,0 +1,123 @@
+package org.diorite.configs.yaml;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Writes values to binary snapshot of config, see {@link SnapshotCache}. <br/>
+ * Numbers are written in big endian order, sizes and lengths as variable length integers.
+ */
+public final class SnapshotOutput {
+    private final ValueSerializers serializers;
+    private byte[] buffer = new byte[256];
+    private int size;
+
+    SnapshotOutput(ValueSerializers serializers) {
+        this.serializers = serializers;
+    }
+
+    public ValueSerializers getSerializers() {
+        return this.serializers;
+    }
+
+    /**
+     * Writes value using given serializer, null values are written by this method.
+     *
+     * @param serializer serializer of value.
+     * @param value value to write.
+     */
+    public void write(ValueSerializer serializer, @Nullable Object value) {
+        if (value == null) {
+            this.writeBoolean(false);
+            return;
+        }
+        this.writeBoolean(true);
+        serializer.writeSnapshot(this, value);
+    }
+
+    public void writeBoolean(boolean value) {
+        this.writeByte(value ? 1 : 0);
+    }
+
+    public void writeByte(int value) {
+        this.ensure(1);
+        this.buffer[this.size++] = (byte) value;
+    }
+
+    public void writeShort(int value) {
+        this.ensure(2);
+        this.buffer[this.size++] = (byte) (value >>> 8);
+        this.buffer[this.size++] = (byte) value;
+    }
+
+    public void writeChar(char value) {
+        this.writeShort(value);
+    }
+
+    public void writeInt(int value) {
+        this.ensure(4);
+        for (int shift = 24; shift >= 0; shift -= 8) {
+            this.buffer[this.size++] = (byte) (value >>> shift);
+        }
+    }
+
+    public void writeLong(long value) {
+        this.ensure(8);
+        for (int shift = 56; shift >= 0; shift -= 8) {
+            this.buffer[this.size++] = (byte) (value >>> shift);
+        }
+    }
+
+    public void writeFloat(float value) {
+        this.writeInt(Float.floatToRawIntBits(value));
+    }
+
+    public void writeDouble(double value) {
+        this.writeLong(Double.doubleToRawLongBits(value));
+    }
+
+    /**
+     * @param value non-negative size, written using 7 bits per byte.
+     */
+    public void writeSize(int value) {
+        this.ensure(5);
+        while ((value & ~ 0x7F) != 0) {
+            this.buffer[this.size++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        this.buffer[this.size++] = (byte) value;
+    }
+
+    public void writeString(String value) {
+        this.writeBytes(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public void writeBytes(byte[] value) {
+        this.writeSize(value.length);
+        this.ensure(value.length);
+        System.arraycopy(value, 0, this.buffer, this.size, value.length);
+        this.size += value.length;
+    }
+
+    public void writeBytes(ByteBuffer value) {
+        ByteBuffer source = value.duplicate();
+        int length = source.remaining();
+        this.writeSize(length);
+        this.ensure(length);
+        source.get(this.buffer, this.size, length);
+        this.size += length;
+    }
+
+    byte[] toByteArray() {
+        return Arrays.copyOf(this.buffer, this.size);
+    }
+
+    private void ensure(int bytes) {
+        if ((this.size + bytes) > this.buffer.length) {
+            this.buffer = Arrays.copyOf(this.buffer, Math.max(this.buffer.length * 2, this.size + bytes));
+        }
+    }
+}
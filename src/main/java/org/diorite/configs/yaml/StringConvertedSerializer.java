@@ -0,0 +1,93 @@
+package org.diorite.configs.yaml;
+
+import org.diorite.configs.style.PropertyStyle;
+import org.jetbrains.annotations.Nullable;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.UUID;
+
+/**
+ * Serializer of types that can be created from string, using {@code fromString}, {@code valueOf} or {@code parse} static method, or
+ * using constructor with single string parameter, like {@link UUID}.
+ */
+final class StringConvertedSerializer extends ValueSerializer {
+    private final Class<?> type;
+    private final MethodHandle fromString;
+
+    private StringConvertedSerializer(Class<?> type, MethodHandle fromString) {
+        this.type = type;
+        this.fromString = fromString;
+    }
+
+    /**
+     * @param type type of value.
+     *
+     * @return serializer of given type or null if there is no public way to create given type from string.
+     */
+    @Nullable
+    static StringConvertedSerializer of(Class<?> type) {
+        if (! Modifier.isPublic(type.getModifiers())) {
+            return null;
+        }
+        MethodHandles.Lookup lookup = MethodHandles.publicLookup();
+        for (String name : new String[]{"fromString", "valueOf", "parse"}) {
+            try {
+                Method method = type.getMethod(name, String.class);
+                if (Modifier.isStatic(method.getModifiers()) && type.isAssignableFrom(method.getReturnType())) {
+                    return new StringConvertedSerializer(type, lookup.unreflect(method));
+                }
+            }
+            catch (NoSuchMethodException | IllegalAccessException e) {
+                // try next method
+            }
+        }
+        try {
+            return new StringConvertedSerializer(type, lookup.findConstructor(type, MethodType.methodType(void.class, String.class)));
+        }
+        catch (NoSuchMethodException | IllegalAccessException e) {
+            return null;
+        }
+    }
+
+    @Override
+    public Object read(YamlReader reader) {
+        String value = reader.nextScalar().getValue();
+        try {
+            return this.fromString.invoke(value);
+        }
+        catch (Error e) {
+            throw e;
+        }
+        catch (Throwable e) {
+            throw reader.error("Invalid value of " + this.type.getName() + ": " + value, e);
+        }
+    }
+
+    @Override
+    public void write(YamlWriter writer, Object value, PropertyStyle style, int depth) {
+        writer.string(value.toString(), style.getStringStyle(depth));
+    }
+
+    @Override
+    public void writeSnapshot(SnapshotOutput output, Object value) {
+        output.writeString(value.toString());
+    }
+
+    @Override
+    public Object readSnapshot(SnapshotInput input) {
+        String value = input.readString();
+        try {
+            return this.fromString.invoke(value);
+        }
+        catch (Error e) {
+            throw e;
+        }
+        catch (Throwable e) {
+            throw input.error("Invalid value of " + this.type.getName() + ": " + value);
+        }
+    }
+}
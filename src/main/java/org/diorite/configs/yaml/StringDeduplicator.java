@@ -0,0 +1,21 @@
+package org.diorite.configs.yaml;
+
+/**
+ * Stage of loader called for each string value read from yaml or snapshot, so equal strings of loaded configs can share single
+ * instance. <br/>
+ * Used by string serializers of {@link ValueSerializers}, see {@link ValueSerializers#setStringDeduplicator(StringDeduplicator)}.
+ */
+@FunctionalInterface
+public interface StringDeduplicator {
+    /**
+     * Deduplicator returning given strings.
+     */
+    StringDeduplicator NONE = value -> value;
+
+    /**
+     * @param value read string.
+     *
+     * @return given string, or equal string instance that should be used instead.
+     */
+    String deduplicate(String value);
+}
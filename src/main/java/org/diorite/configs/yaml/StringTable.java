@@ -0,0 +1,122 @@
+package org.diorite.configs.yaml;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded intern table of strings, safe to use from multiple threads. <br/>
+ * Strings are stored in fixed array of slots, each string can be stored in one of two slots chosen by its hash. If both slots are used
+ * by other strings, one of them is replaced, so table never grows and rarely used strings are eventually dropped. Lookup doesn't lock
+ * and only stores string when it wasn't found, so table may sometimes keep two equal instances, this doesn't affect returned values.
+ * Long strings are not stored, as they are rarely repeated.
+ */
+public final class StringTable implements StringDeduplicator {
+    private static final StringTable SHARED = new StringTable(8192, 128);
+
+    private final AtomicReferenceArray<String> slots;
+    private final int mask;
+    private final int maxLength;
+    private final LongAdder deduplicated = new LongAdder();
+    private final LongAdder bytesSaved = new LongAdder();
+
+    /**
+     * @param capacity amount of slots, rounded up to power of two.
+     * @param maxLength max length of stored strings.
+     */
+    public StringTable(int capacity, int maxLength) {
+        if ((capacity <= 0) || (capacity > (1 << 30))) {
+            throw new IllegalArgumentException("Invalid capacity: " + capacity);
+        }
+        int size = Integer.highestOneBit(capacity);
+        if (size < capacity) {
+            size <<= 1;
+        }
+        this.slots = new AtomicReferenceArray<>(size);
+        this.mask = size - 1;
+        this.maxLength = maxLength;
+    }
+
+    /**
+     * @return table shared by all loaded configs, used by default by {@link ValueSerializers}.
+     */
+    public static StringTable shared() {
+        return SHARED;
+    }
+
+    @Override
+    public String deduplicate(String value) {
+        int length = value.length();
+        if ((length == 0) || (length > this.maxLength)) {
+            return value;
+        }
+        int hash = value.hashCode();
+        hash ^= hash >>> 16;
+        int first = hash & this.mask;
+        int second = (first + 1 + ((hash >>> 8) | 1)) & this.mask;
+        String current = this.slots.get(first);
+        if (value.equals(current)) {
+            return this.found(current);
+        }
+        String other = this.slots.get(second);
+        if (value.equals(other)) {
+            return this.found(other);
+        }
+        if (current == null) {
+            this.slots.compareAndSet(first, null, value);
+        }
+        else if (other == null) {
+            this.slots.compareAndSet(second, null, value);
+        }
+        else {
+            // both slots are used, string of slot chosen by hash bit is replaced
+            this.slots.set(((hash & 0x10000) == 0) ? first : second, value);
+        }
+        return value;
+    }
+
+    private String found(String value) {
+        this.deduplicated.increment();
+        this.bytesSaved.add(size(value));
+        return value;
+    }
+
+    /**
+     * @return amount of strings replaced by stored instances.
+     */
+    public long getDeduplicated() {
+        return this.deduplicated.sum();
+    }
+
+    /**
+     * @return estimated amount of bytes of heap saved by replaced strings, each replaced string is counted as size of string object and
+     * its array, assuming compressed object pointers.
+     */
+    public long getBytesSaved() {
+        return this.bytesSaved.sum();
+    }
+
+    /**
+     * Removes all stored strings, counters are not reset.
+     */
+    public void clear() {
+        for (int i = 0; i <= this.mask; i++) {
+            this.slots.set(i, null);
+        }
+    }
+
+    /**
+     * @return estimated size of given string, 24 bytes of string object and array of 16 bytes header with 1 byte per character, or 2
+     * bytes if string can't be stored as latin-1, rounded to 8 bytes.
+     */
+    private static long size(String value) {
+        int length = value.length();
+        int bytesPerChar = 1;
+        for (int i = 0; i < length; i++) {
+            if (value.charAt(i) > 0xFF) {
+                bytesPerChar = 2;
+                break;
+            }
+        }
+        return 24 + (((16L + ((long) length * bytesPerChar)) + 7) & ~ 7L);
+    }
+}
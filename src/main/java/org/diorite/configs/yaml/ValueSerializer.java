@@ -0,0 +1,69 @@
+package org.diorite.configs.yaml;
+
+import org.diorite.configs.style.PropertyStyle;
+
+import java.io.StringReader;
+import java.io.StringWriter;
+
+/**
+ * Reads values of single type directly from yaml events and writes them directly to yaml output, serializers are created once for
+ * each property type by {@link ValueSerializers}. <br/>
+ * Serializers can also store values in binary snapshots used by {@link SnapshotCache}, by default values are stored there as yaml
+ * text, built-in serializers use compact binary form.
+ */
+public abstract class ValueSerializer {
+    /**
+     * Reads single value, aliases and null values are already handled by {@link YamlReader#read(ValueSerializer)}, nested values
+     * should be also read using that method.
+     *
+     * @param reader yaml reader.
+     *
+     * @return read value.
+     */
+    public abstract Object read(YamlReader reader);
+
+    /**
+     * Writes single non-null value, nested values should be written using {@link YamlWriter#write(ValueSerializer, Object,
+     * PropertyStyle, int)} with depth increased by one.
+     *
+     * @param writer yaml writer.
+     * @param value value to write.
+     * @param style style of property containing this value.
+     * @param depth depth of value in property, property value itself is at depth 1.
+     */
+    public abstract void write(YamlWriter writer, Object value, PropertyStyle style, int depth);
+
+    /**
+     * Writes single non-null value to binary snapshot, nested values should be written using {@link SnapshotOutput#write(ValueSerializer,
+     * Object)}. Default implementation writes value as yaml text.
+     *
+     * @param output snapshot output.
+     * @param value value to write.
+     */
+    public void writeSnapshot(SnapshotOutput output, Object value) {
+        StringWriter text = new StringWriter(64);
+        YamlWriter writer = new YamlWriter(text, output.getSerializers());
+        writer.write(this, value, PropertyStyle.DEFAULT, 1);
+        writer.flush();
+        output.writeString(text.toString());
+    }
+
+    /**
+     * Reads single value written by {@link #writeSnapshot(SnapshotOutput, Object)}, nested values should be read using {@link
+     * SnapshotInput#read(ValueSerializer)}. Default implementation reads value from yaml text.
+     *
+     * @param input snapshot input.
+     *
+     * @return read value.
+     */
+    public Object readSnapshot(SnapshotInput input) {
+        YamlReader reader = new YamlReader(new StringReader(input.readString()));
+        reader.setStringDeduplicator(input.getSerializers().getStringDeduplicator());
+        if (! reader.startDocument()) {
+            throw input.error("Missing value");
+        }
+        Object value = reader.read(this);
+        reader.endDocument();
+        return value;
+    }
+}
@@ -0,0 +1,414 @@
+package org.diorite.configs.yaml;
+
+import org.diorite.configs.Config;
+import org.diorite.configs.ConfigException;
+import org.diorite.configs.ConfigManager;
+import org.diorite.configs.ConfigPropertyTemplate;
+import org.diorite.configs.annotations.Unmodifiable;
+import org.diorite.configs.collections.DoubleList;
+import org.diorite.configs.collections.IntList;
+import org.diorite.configs.collections.IntSet;
+import org.diorite.configs.collections.LongList;
+import org.diorite.configs.collections.LongSet;
+import org.diorite.configs.collections.ObjectDoubleMap;
+import org.diorite.configs.collections.ObjectIntMap;
+import org.diorite.configs.collections.ObjectLongMap;
+import org.diorite.configs.style.PropertyStyle;
+import org.diorite.configs.yaml.PrimitiveCollectionSerializer.Element;
+import org.diorite.configs.yaml.PrimitiveCollectionSerializer.Shape;
+import org.jetbrains.annotations.Nullable;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Array;
+import java.lang.reflect.GenericArrayType;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.lang.reflect.TypeVariable;
+import java.lang.reflect.WildcardType;
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.SortedSet;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+
+/**
+ * Creates and caches {@link ValueSerializer}s of types used by config properties. <br/>
+ * Serializers of types without style specific settings are shared, serializers affected by style of property are created once for
+ * each property.
+ */
+public final class ValueSerializers {
+    private final ConfigManager manager;
+    private final Map<Type, ValueSerializer> serializers = new ConcurrentHashMap<>(32);
+    private final Map<Class<?>, ValueSerializer> custom = new ConcurrentHashMap<>(8);
+    private volatile StringDeduplicator strings = StringTable.shared();
+
+    public ValueSerializers(ConfigManager manager) {
+        this.manager = manager;
+    }
+
+    /**
+     * Registers custom serializer for given type, custom serializers must be registered before any config using that type is loaded.
+     *
+     * @param type type of values.
+     * @param serializer serializer of given type.
+     */
+    public void register(Class<?> type, ValueSerializer serializer) {
+        this.custom.put(type, serializer);
+        this.serializers.clear();
+    }
+
+    /**
+     * @return deduplicator of string values read by loaders, {@link StringTable#shared()} by default.
+     */
+    public StringDeduplicator getStringDeduplicator() {
+        return this.strings;
+    }
+
+    /**
+     * Sets deduplicator of string values read by loaders, use {@link StringDeduplicator#NONE} to disable deduplication. <br/>
+     * Strings of configs loaded before this call are not affected.
+     *
+     * @param strings deduplicator of string values.
+     */
+    public void setStringDeduplicator(StringDeduplicator strings) {
+        this.strings = strings;
+    }
+
+    /**
+     * @return serializer of given property, using style of that property. {@link Unmodifiable} lists, sets and maps of ints, longs and
+     * doubles are read as primitive collections.
+     */
+    public ValueSerializer forProperty(ConfigPropertyTemplate property) {
+        if (property.getGetter().isAnnotationPresent(Unmodifiable.class)) {
+            ValueSerializer primitive =
+                this.primitiveCollection(property.getGenericType(), property.getRawType(), true, property.getStyle(), 1);
+            if (primitive != null) {
+                return primitive;
+            }
+        }
+        return this.get(property.getGenericType(), property.getStyle(), 1);
+    }
+
+    /**
+     * @return serializer of given type, using default style.
+     */
+    public ValueSerializer get(Type type) {
+        return this.get(type, PropertyStyle.DEFAULT, 1);
+    }
+
+    /**
+     * @return serializer of runtime type of given value, for config instances serializer of their config type is returned.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    ValueSerializer forValue(Object value) {
+        Class<?> type = value.getClass();
+        if (value instanceof Enum) {
+            type = ((Enum<?>) value).getDeclaringClass();
+        }
+        else if (value instanceof Config) {
+            type = configType(type);
+        }
+        else if (value instanceof ByteBuffer) {
+            type = ByteBuffer.class;
+        }
+        return this.get(type);
+    }
+
+    /**
+     * @return serializer of given config type.
+     */
+    @SuppressWarnings("unchecked")
+    public <T extends Config<T>> ConfigSerializer<T> getConfigSerializer(Class<T> type) {
+        ValueSerializer serializer = this.serializers.get(type);
+        if (serializer == null) {
+            serializer = new ConfigSerializer<>(this.manager.getTemplate(type), this, this.manager.getInstrumentation());
+            ValueSerializer previous = this.serializers.putIfAbsent(type, serializer);
+            if (previous != null) {
+                serializer = previous;
+            }
+        }
+        return (ConfigSerializer<T>) serializer;
+    }
+
+    /**
+     * @param type type of value.
+     * @param style style of property.
+     * @param depth depth of value in property, property value itself is at depth 1.
+     *
+     * @return serializer of given type.
+     */
+    ValueSerializer get(Type type, PropertyStyle style, int depth) {
+        if (isStyled(style, depth)) {
+            return this.create(type, style, depth);
+        }
+        ValueSerializer serializer = this.serializers.get(type);
+        if (serializer == null) {
+            // not using computeIfAbsent as serializers of nested types are created recursively
+            serializer = this.create(type, PropertyStyle.DEFAULT, depth);
+            ValueSerializer previous = this.serializers.putIfAbsent(type, serializer);
+            if (previous != null) {
+                serializer = previous;
+            }
+        }
+        return serializer;
+    }
+
+    /**
+     * @return true if reading values at given depth is affected by given style.
+     */
+    private static boolean isStyled(PropertyStyle style, int depth) {
+        if (style == PropertyStyle.DEFAULT) {
+            return false;
+        }
+        return ! style.getTrueValues().isEmpty() || ! style.getFalseValues().isEmpty() ||
+               ((style.getDateFormat() != null) && (depth <= style.getDateDepth()));
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private ValueSerializer create(Type type, PropertyStyle style, int depth) {
+        Class<?> raw = rawType(type);
+        ValueSerializer custom = this.custom.get(raw);
+        if (custom != null) {
+            return custom;
+        }
+        if (Config.class.isAssignableFrom(raw) && (raw != Config.class)) {
+            return this.getConfigSerializer((Class) raw);
+        }
+        ValueSerializer scalar = ScalarSerializer.of(raw, style.getTrueValues(), style.getFalseValues());
+        if (scalar != null) {
+            return scalar;
+        }
+        if (raw.isEnum()) {
+            return new EnumSerializer((Class<? extends Enum<?>>) raw);
+        }
+        if (DateSerializer.isDate(raw)) {
+            return new DateSerializer(raw, (depth <= style.getDateDepth()) ? style.getDateFormat() : null);
+        }
+        if (raw == byte[].class) {
+            return BinarySerializer.INSTANCE;
+        }
+        if (raw == ByteBuffer.class) {
+            return BinarySerializer.BUFFER;
+        }
+        ValueSerializer primitive = this.primitiveCollection(type, raw, false, style, depth);
+        if (primitive != null) {
+            return primitive;
+        }
+        if (raw.isArray()) {
+            Type componentType = (type instanceof GenericArrayType) ? ((GenericArrayType) type).getGenericComponentType() : raw.getComponentType();
+            return new ArraySerializer(raw.getComponentType(), this.get(componentType, style, depth + 1));
+        }
+        if (Collection.class.isAssignableFrom(raw)) {
+            return new CollectionSerializer(collectionFactory(raw), this.get(typeArgument(type, 0), style, depth + 1));
+        }
+        if (Map.class.isAssignableFrom(raw)) {
+            Type keyType = typeArgument(type, 0);
+            return new MapSerializer(mapFactory(raw, rawType(keyType)), this.get(keyType, style, depth + 1),
+                this.get(typeArgument(type, 1), style, depth + 1));
+        }
+        if (raw == Object.class) {
+            return ObjectSerializer.INSTANCE;
+        }
+        if (raw.isInterface() || Modifier.isAbstract(raw.getModifiers())) {
+            return new ObjectSerializer(raw);
+        }
+        ValueSerializer fromString = StringConvertedSerializer.of(raw);
+        if (fromString != null) {
+            return fromString;
+        }
+        return new BeanSerializer(raw, this);
+    }
+
+    /**
+     * @param type type of value.
+     * @param raw raw type of value.
+     * @param unmodifiable if list, set and map interfaces should be also read as primitive collections.
+     * @param style style of property.
+     * @param depth depth of value in property.
+     *
+     * @return serializer of int, long or double array or primitive collection, or null if given type isn't one of them.
+     */
+    @Nullable
+    private ValueSerializer primitiveCollection(Type type, Class<?> raw, boolean unmodifiable, PropertyStyle style, int depth) {
+        if (raw.isArray()) {
+            Class<?> componentType = raw.getComponentType();
+            Element element = componentType.isPrimitive() ? Element.of(componentType) : null;
+            if (element == null) {
+                return null;
+            }
+            return new PrimitiveCollectionSerializer(element, Shape.ARRAY, this.get(componentType, style, depth + 1));
+        }
+        if (Map.class.isAssignableFrom(raw)) {
+            Element element = null;
+            if (raw == ObjectIntMap.class) {
+                element = Element.INT;
+            }
+            else if (raw == ObjectLongMap.class) {
+                element = Element.LONG;
+            }
+            else if (raw == ObjectDoubleMap.class) {
+                element = Element.DOUBLE;
+            }
+            else if (unmodifiable && (raw == Map.class)) {
+                element = Element.of(rawType(typeArgument(type, 1)));
+            }
+            if (element == null) {
+                return null;
+            }
+            return new PrimitiveMapSerializer(element, this.get(typeArgument(type, 0), style, depth + 1),
+                this.get(element.getBoxedType(), style, depth + 1));
+        }
+        Element element;
+        Shape shape;
+        if ((raw == IntList.class) || (raw == IntSet.class)) {
+            element = Element.INT;
+            shape = (raw == IntSet.class) ? Shape.SET : Shape.LIST;
+        }
+        else if ((raw == LongList.class) || (raw == LongSet.class)) {
+            element = Element.LONG;
+            shape = (raw == LongSet.class) ? Shape.SET : Shape.LIST;
+        }
+        else if (raw == DoubleList.class) {
+            element = Element.DOUBLE;
+            shape = Shape.LIST;
+        }
+        else if (unmodifiable && ((raw == List.class) || (raw == Collection.class) || (raw == Set.class))) {
+            element = Element.of(rawType(typeArgument(type, 0)));
+            shape = (raw == Set.class) ? Shape.SET : Shape.LIST;
+            // sets of doubles are left boxed, as equality of doubles makes them rarely useful
+            if ((element == null) || ((element == Element.DOUBLE) && (shape == Shape.SET))) {
+                return null;
+            }
+        }
+        else {
+            return null;
+        }
+        return new PrimitiveCollectionSerializer(element, shape, this.get(element.getBoxedType(), style, depth + 1));
+    }
+
+    /**
+     * @return config type implemented by given generated implementation.
+     */
+    private static Class<?> configType(Class<?> implementation) {
+        Class<?> superclass = implementation.getSuperclass();
+        if ((superclass != null) && Config.class.isAssignableFrom(superclass)) {
+            return superclass;
+        }
+        for (Class<?> type : implementation.getInterfaces()) {
+            if (Config.class.isAssignableFrom(type)) {
+                return type;
+            }
+        }
+        return implementation;
+    }
+
+    private static Supplier<Collection<Object>> collectionFactory(Class<?> type) {
+        if (! type.isInterface() && ! Modifier.isAbstract(type.getModifiers())) {
+            return factory(type);
+        }
+        if (SortedSet.class.isAssignableFrom(type)) {
+            return TreeSet::new;
+        }
+        if (Set.class.isAssignableFrom(type)) {
+            return LinkedHashSet::new;
+        }
+        if (Queue.class.isAssignableFrom(type)) {
+            return ArrayDeque::new;
+        }
+        if (type.isAssignableFrom(ArrayList.class)) {
+            return ArrayList::new;
+        }
+        throw new ConfigException("Unsupported collection type: " + type.getName());
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Supplier<Map<Object, Object>> mapFactory(Class<?> type, Class<?> keyType) {
+        if (type == EnumMap.class) {
+            return () -> new EnumMap(keyType);
+        }
+        if (! type.isInterface() && ! Modifier.isAbstract(type.getModifiers())) {
+            return factory(type);
+        }
+        if (SortedMap.class.isAssignableFrom(type)) {
+            return TreeMap::new;
+        }
+        if (ConcurrentMap.class.isAssignableFrom(type)) {
+            return ConcurrentHashMap::new;
+        }
+        if (type.isAssignableFrom(LinkedHashMap.class)) {
+            return LinkedHashMap::new;
+        }
+        throw new ConfigException("Unsupported map type: " + type.getName());
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> Supplier<T> factory(Class<?> type) {
+        MethodHandle constructor;
+        try {
+            constructor = MethodHandles.publicLookup().findConstructor(type, MethodType.methodType(void.class));
+        }
+        catch (NoSuchMethodException | IllegalAccessException e) {
+            throw new ConfigException("Type " + type.getName() + " must have public constructor without parameters", e);
+        }
+        return () -> {
+            try {
+                return (T) constructor.invoke();
+            }
+            catch (RuntimeException | Error e) {
+                throw e;
+            }
+            catch (Throwable e) {
+                throw new ConfigException("Can't create instance of " + type.getName(), e);
+            }
+        };
+    }
+
+    static Class<?> rawType(Type type) {
+        if (type instanceof Class) {
+            return (Class<?>) type;
+        }
+        if (type instanceof ParameterizedType) {
+            return rawType(((ParameterizedType) type).getRawType());
+        }
+        if (type instanceof GenericArrayType) {
+            return Array.newInstance(rawType(((GenericArrayType) type).getGenericComponentType()), 0).getClass();
+        }
+        if (type instanceof WildcardType) {
+            return rawType(((WildcardType) type).getUpperBounds()[0]);
+        }
+        if (type instanceof TypeVariable) {
+            return rawType(((TypeVariable<?>) type).getBounds()[0]);
+        }
+        return Object.class;
+    }
+
+    private static Type typeArgument(Type type, int index) {
+        if (type instanceof ParameterizedType) {
+            Type[] arguments = ((ParameterizedType) type).getActualTypeArguments();
+            if (index < arguments.length) {
+                Type argument = arguments[index];
+                if (argument instanceof WildcardType) {
+                    return ((WildcardType) argument).getUpperBounds()[0];
+                }
+                return argument;
+            }
+        }
+        return Object.class;
+    }
+}
@@ -0,0 +1,389 @@
+package org.diorite.configs.yaml;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * Source text of yaml document with index of spans of root properties of config loaded from it. <br/>
+ * Used to save only changed properties of config, text outside of changed spans, like comments and user formatting, is preserved
+ * byte-for-byte. Documents are immutable, each save creates new document with updated text and spans.
+ */
+public final class YamlDocument {
+    private static final Pattern KEEP_HEADER = Pattern.compile("[|>][1-9]?\\+");
+
+    private final String text;
+    private final int[] starts;
+    private final int[] ends;
+    private final int end;
+
+    /**
+     * @param text source text of document.
+     * @param starts index of first character of key of each property, or -1 if property is missing in document.
+     * @param ends index of character after value of each property.
+     * @param end index of character after last entry of root mapping, missing properties are inserted there.
+     */
+    YamlDocument(String text, int[] starts, int[] ends, int end) {
+        this.text = text;
+        this.starts = starts;
+        this.ends = ends;
+        this.end = end;
+        for (int i = 0; i < starts.length; i++) {
+            if (starts[i] != - 1) {
+                ends[i] = this.trimEnd(starts[i], ends[i]);
+            }
+        }
+    }
+
+    /**
+     * Block scalars end after following empty lines, these lines are excluded from span unless they are part of value.
+     */
+    private int trimEnd(int start, int end) {
+        if ((end < 2) || (this.text.charAt(end - 1) != '\n')) {
+            return end;
+        }
+        int lineEnd = this.text.indexOf('\n', start);
+        if (KEEP_HEADER.matcher(this.text.substring(start, lineEnd)).find()) {
+            return end;
+        }
+        // end of last line that is not empty
+        int trimmed = end;
+        for (int i = end - 2; i >= start; i--) {
+            char c = this.text.charAt(i);
+            if (c == '\n') {
+                trimmed = i + 1;
+            }
+            else if (! Character.isWhitespace(c)) {
+                break;
+            }
+        }
+        return trimmed;
+    }
+
+    public String getText() {
+        return this.text;
+    }
+
+    /**
+     * @param index index of property.
+     *
+     * @return true if given property is present in this document.
+     */
+    public boolean contains(int index) {
+        return this.starts[index] != - 1;
+    }
+
+    /**
+     * Creates edits replacing spans of given properties by new entries, properties missing in document are inserted after last entry.
+     *
+     * @param entries new text of entries of properties, ending with new line, or null for properties that should not be changed.
+     *
+     * @return edits sorted by their position.
+     */
+    List<Edit> edits(@Nullable String[] entries) {
+        List<Edit> edits = new ArrayList<>(4);
+        for (int i = 0; i < entries.length; i++) {
+            String entry = entries[i];
+            if (entry == null) {
+                continue;
+            }
+            if (this.starts[i] != - 1) {
+                edits.add(new Edit(this.starts[i], this.ends[i], this.fit(entry, this.ends[i]), 0, i));
+            }
+            else if ((this.end == 0) || (this.text.charAt(this.end - 1) == '\n')) {
+                edits.add(new Edit(this.end, this.end, entry, keyOffset(entry), i));
+            }
+            else {
+                edits.add(new Edit(this.end, this.end, "\n" + this.fit(entry, this.end), keyOffset(entry) + 1, i));
+            }
+        }
+        edits.sort((a, b) -> (a.start != b.start) ? Integer.compare(a.start, b.start) : Integer.compare(a.property, b.property));
+        return edits;
+    }
+
+    /**
+     * @return index of key in entry of property, after its comments and empty lines.
+     */
+    private static int keyOffset(String entry) {
+        int offset = 0;
+        while ((offset < entry.length()) && ((entry.charAt(offset) == '#') || (entry.charAt(offset) == '\n'))) {
+            int lineEnd = entry.indexOf('\n', offset);
+            if (lineEnd == - 1) {
+                break;
+            }
+            offset = lineEnd + 1;
+        }
+        return offset;
+    }
+
+    /**
+     * Spans of values that are not block scalars end in the same line as value, so entry is used without its last line break and rest
+     * of that line, like comment after value, is kept.
+     */
+    private String fit(String entry, int end) {
+        if ((end > 0) && (this.text.charAt(end - 1) == '\n')) {
+            return entry;
+        }
+        return entry.endsWith("\n") ? entry.substring(0, entry.length() - 1) : entry;
+    }
+
+    /**
+     * @param edits edits sorted by their position.
+     *
+     * @return new document with given edits applied.
+     */
+    YamlDocument apply(List<Edit> edits) {
+        int length = this.text.length();
+        for (Edit edit : edits) {
+            length += edit.text.length() - (edit.end - edit.start);
+        }
+        StringBuilder builder = new StringBuilder(length);
+        int[] starts = new int[this.starts.length];
+        int[] ends = new int[this.ends.length];
+        for (int i = 0; i < starts.length; i++) {
+            starts[i] = (this.starts[i] == - 1) ? - 1 : this.shift(edits, this.starts[i], false);
+            ends[i] = (this.starts[i] == - 1) ? - 1 : this.shift(edits, this.ends[i], false);
+        }
+        int last = 0;
+        for (Edit edit : edits) {
+            builder.append(this.text, last, edit.start);
+            starts[edit.property] = builder.length() + edit.offset;
+            builder.append(edit.text);
+            ends[edit.property] = builder.length();
+            last = edit.end;
+        }
+        builder.append(this.text, last, this.text.length());
+        int end = this.shift(edits, this.end, true);
+        return new YamlDocument(builder.toString(), starts, ends, end);
+    }
+
+    private int shift(List<Edit> edits, int position, boolean includeInserted) {
+        int shift = 0;
+        for (Edit edit : edits) {
+            if ((edit.end < position) || ((edit.end == position) && (includeInserted || (edit.start < position)))) {
+                shift += edit.text.length() - (edit.end - edit.start);
+            }
+        }
+        return position + shift;
+    }
+
+    /**
+     * Writes changes of this document to given file. File is replaced by temporary file, so save that fails or is interrupted never
+     * leaves partially written config. If file still contains this document, checked by its size and original bytes of spans replaced
+     * by edits, unchanged bytes are copied from file and only edits are encoded. In any other case whole new document is written.
+     *
+     * @param path path of file.
+     * @param edits edits sorted by their position.
+     * @param updated document with edits applied.
+     *
+     * @throws IOException if file can't be written.
+     */
+    void write(Path path, List<Edit> edits, YamlDocument updated) throws IOException {
+        if (edits.isEmpty() && Files.exists(path)) {
+            return;
+        }
+        Path temp = createTemp(path);
+        try {
+            try (FileChannel target = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+                if (edits.isEmpty() || ! Files.exists(path) || ! this.patch(path, edits, target)) {
+                    writeFully(target, updated.text);
+                }
+                target.force(false);
+            }
+            replace(temp, path);
+        }
+        finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * Writes given text to given file, file is replaced by temporary file, so it always contains old or whole new text.
+     *
+     * @param path path of file.
+     * @param text new content of file.
+     *
+     * @throws IOException if file can't be written.
+     */
+    static void write(Path path, String text) throws IOException {
+        Path temp = createTemp(path);
+        try {
+            try (FileChannel target = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+                writeFully(target, text);
+                target.force(false);
+            }
+            replace(temp, path);
+        }
+        finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * Writes content of given file with edits applied to target channel, unchanged bytes are transferred from file.
+     *
+     * @return false if file does not contain this document anymore, nothing is written then.
+     */
+    private boolean patch(Path path, List<Edit> edits, FileChannel target) throws IOException {
+        try (FileChannel source = FileChannel.open(path, StandardOpenOption.READ)) {
+            if (source.size() != utf8Length(this.text, 0, this.text.length())) {
+                return false;
+            }
+            long[] positions = new long[edits.size()];
+            long position = 0;
+            int last = 0;
+            for (int i = 0; i < edits.size(); i++) {
+                Edit edit = edits.get(i);
+                position += utf8Length(this.text, last, edit.start);
+                positions[i] = position;
+                byte[] original = this.text.substring(edit.start, edit.end).getBytes(StandardCharsets.UTF_8);
+                if (! contains(source, position, original)) {
+                    return false; // file was changed since it was loaded or saved
+                }
+                position += original.length;
+                last = edit.end;
+            }
+            long copied = 0;
+            for (int i = 0; i < edits.size(); i++) {
+                Edit edit = edits.get(i);
+                transferFully(source, copied, positions[i] - copied, target);
+                writeFully(target, edit.text);
+                copied = positions[i] + utf8Length(this.text, edit.start, edit.end);
+            }
+            transferFully(source, copied, source.size() - copied, target);
+            return true;
+        }
+    }
+
+    /**
+     * @return true if file contains given bytes at given position.
+     */
+    private static boolean contains(FileChannel channel, long position, byte[] bytes) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(bytes.length);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) == - 1) {
+                return false;
+            }
+        }
+        return Arrays.equals(buffer.array(), bytes);
+    }
+
+    private static Path createTemp(Path path) throws IOException {
+        Path absolute = path.toAbsolutePath();
+        // unique temporary file, so concurrent saves never write to the same file
+        return Files.createTempFile(absolute.getParent(), absolute.getFileName().toString(), ".tmp");
+    }
+
+    private static void replace(Path temp, Path path) throws IOException {
+        try {
+            Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        }
+        catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    private static void transferFully(FileChannel source, long position, long count, FileChannel target) throws IOException {
+        long transferred = 0;
+        while (transferred < count) {
+            transferred += source.transferTo(position + transferred, count - transferred, target);
+        }
+    }
+
+    private static void writeFully(FileChannel channel, String text) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(text.getBytes(StandardCharsets.UTF_8));
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    private static long utf8Length(String text, int from, int to) {
+        long length = 0;
+        for (int i = from; i < to; i++) {
+            char c = text.charAt(i);
+            if (c < 0x80) {
+                length++;
+            }
+            else if (c < 0x800) {
+                length += 2;
+            }
+            else if (Character.isHighSurrogate(c) && ((i + 1) < to) && Character.isLowSurrogate(text.charAt(i + 1))) {
+                length += 4;
+                i++;
+            }
+            else {
+                length += 3;
+            }
+        }
+        return length;
+    }
+
+    void writeSnapshot(SnapshotOutput output) {
+        output.writeSize(this.starts.length);
+        for (int i = 0; i < this.starts.length; i++) {
+            output.writeInt(this.starts[i]);
+            output.writeInt(this.ends[i]);
+        }
+        output.writeInt(this.end);
+    }
+
+    /**
+     * @param text source text of document.
+     * @param properties number of properties of config.
+     *
+     * @return document read from snapshot.
+     */
+    static YamlDocument readSnapshot(SnapshotInput input, String text, int properties) {
+        if (input.readSize() != properties) {
+            throw input.error("Invalid number of properties");
+        }
+        int[] starts = new int[properties];
+        int[] ends = new int[properties];
+        for (int i = 0; i < properties; i++) {
+            starts[i] = input.readInt();
+            ends[i] = input.readInt();
+            if ((starts[i] < - 1) || (starts[i] > ends[i]) || (ends[i] > text.length())) {
+                throw input.error("Invalid span of property");
+            }
+        }
+        int end = input.readInt();
+        if ((end < 0) || (end > text.length())) {
+            throw input.error("Invalid end of document");
+        }
+        return new YamlDocument(text, starts, ends, end);
+    }
+
+    /**
+     * Replacement of span of document text.
+     */
+    static final class Edit {
+        private final int start;
+        private final int end;
+        private final String text;
+        private final int offset;
+        private final int property;
+
+        /**
+         * @param offset index of property entry in replacement text.
+         */
+        Edit(int start, int end, String text, int offset, int property) {
+            this.start = start;
+            this.end = end;
+            this.text = text;
+            this.offset = offset;
+            this.property = property;
+        }
+    }
+}
@@ -0,0 +1,326 @@
+package org.diorite.configs.yaml;
+
+import org.diorite.configs.ConfigException;
+import org.jetbrains.annotations.Nullable;
+import org.yaml.snakeyaml.error.Mark;
+import org.yaml.snakeyaml.error.YAMLException;
+import org.yaml.snakeyaml.events.AliasEvent;
+import org.yaml.snakeyaml.events.CollectionEndEvent;
+import org.yaml.snakeyaml.events.Event;
+import org.yaml.snakeyaml.events.Event.ID;
+import org.yaml.snakeyaml.events.NodeEvent;
+import org.yaml.snakeyaml.events.ScalarEvent;
+import org.yaml.snakeyaml.nodes.Tag;
+import org.yaml.snakeyaml.parser.Parser;
+import org.yaml.snakeyaml.parser.ParserImpl;
+import org.yaml.snakeyaml.reader.StreamReader;
+
+import java.io.Reader;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reads yaml document as stream of parser events, values are created directly from events by {@link ValueSerializer}s without
+ * building node graph of whole document. <br/>
+ * Anchored values are remembered after they are read, so aliases can return same object.
+ */
+public final class YamlReader {
+    private final Parser parser;
+    private final Map<String, Object> anchors;
+    @Nullable
+    private Event last;
+    private int end;
+    private boolean anchored;
+    @Nullable
+    private Path path;
+    private StringDeduplicator strings = StringDeduplicator.NONE;
+
+    public YamlReader(Reader reader) {
+        this(new ParserImpl(new StreamReader(reader)), new HashMap<>(4));
+    }
+
+    /**
+     * @param parser source of events.
+     * @param anchors anchored values, shared with reader of outer document when events of its value are read again.
+     */
+    YamlReader(Parser parser, Map<String, Object> anchors) {
+        this.parser = parser;
+        this.anchors = anchors;
+    }
+
+    /**
+     * @return path of read yaml file, or null if document is not read from file.
+     */
+    @Nullable
+    public Path getPath() {
+        return this.path;
+    }
+
+    /**
+     * @param path path of read yaml file, binary values stored in separate files are resolved against it.
+     */
+    public void setPath(@Nullable Path path) {
+        this.path = path;
+    }
+
+    /**
+     * @return deduplicator of read string values.
+     */
+    public StringDeduplicator getStringDeduplicator() {
+        return this.strings;
+    }
+
+    /**
+     * @param strings deduplicator of read string values.
+     */
+    public void setStringDeduplicator(StringDeduplicator strings) {
+        this.strings = strings;
+    }
+
+    /**
+     * @return next event, without consuming it.
+     */
+    public Event peek() {
+        try {
+            return this.parser.peekEvent();
+        }
+        catch (YAMLException e) {
+            throw new ConfigException("Invalid yaml: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * @return next event.
+     */
+    public Event next() {
+        try {
+            Event event = this.parser.getEvent();
+            this.last = event;
+            // ends of block collections are reported at start of next token, so they are not part of value
+            if (! (event instanceof CollectionEndEvent) || (event.getStartMark().getIndex() != event.getEndMark().getIndex())) {
+                this.end = event.getEndMark().getIndex();
+            }
+            if ((event instanceof NodeEvent) && (((NodeEvent) event).getAnchor() != null)) {
+                this.anchored = true;
+            }
+            return event;
+        }
+        catch (YAMLException e) {
+            throw new ConfigException("Invalid yaml: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * @return index of character after last consumed value, ends of block collections are not included, so value ends with its last
+     * scalar or flow collection.
+     */
+    public int getEnd() {
+        return this.end;
+    }
+
+    /**
+     * @return true if any consumed event used anchor or alias.
+     */
+    public boolean hasAnchors() {
+        return this.anchored;
+    }
+
+    /**
+     * @param id type of event.
+     *
+     * @return true if next event is of given type.
+     */
+    public boolean isNext(ID id) {
+        return this.peek().is(id);
+    }
+
+    /**
+     * Consumes next event, that must be of given type.
+     *
+     * @param id type of event.
+     *
+     * @return consumed event.
+     *
+     * @throws ConfigException if next event is of different type.
+     */
+    public Event expect(ID id) {
+        if (! this.isNext(id)) {
+            throw this.error("Expected " + id + " but found " + this.peek());
+        }
+        return this.next();
+    }
+
+    /**
+     * @return next event, that must be a scalar.
+     *
+     * @throws ConfigException if next event is not a scalar.
+     */
+    public ScalarEvent nextScalar() {
+        return (ScalarEvent) this.expect(ID.Scalar);
+    }
+
+    /**
+     * Consumes start of stream and document.
+     *
+     * @return false if stream does not contain any document.
+     */
+    public boolean startDocument() {
+        if (this.isNext(ID.StreamStart)) {
+            this.next();
+        }
+        if (this.isNext(ID.StreamEnd)) {
+            return false;
+        }
+        this.expect(ID.DocumentStart);
+        return true;
+    }
+
+    /**
+     * Consumes end of document.
+     */
+    public void endDocument() {
+        this.expect(ID.DocumentEnd);
+    }
+
+    /**
+     * Reads next value using given serializer, null values, aliases and anchors are handled here, so serializers only need to read
+     * their own type.
+     *
+     * @param serializer serializer of expected type.
+     *
+     * @return read value.
+     */
+    @Nullable
+    public Object read(ValueSerializer serializer) {
+        Event event = this.peek();
+        if (event.is(ID.Alias)) {
+            this.next();
+            String anchor = ((AliasEvent) event).getAnchor();
+            if (! this.anchors.containsKey(anchor)) {
+                throw this.error("Unknown or skipped anchor: " + anchor);
+            }
+            return this.anchors.get(anchor);
+        }
+        if (event.is(ID.Scalar) && isNull((ScalarEvent) event)) {
+            this.next();
+            return null;
+        }
+        String anchor = (event instanceof NodeEvent) ? ((NodeEvent) event).getAnchor() : null;
+        Object value = serializer.read(this);
+        if (anchor != null) {
+            this.anchors.put(anchor, value);
+        }
+        return value;
+    }
+
+    /**
+     * Reads next value lazily, events of mappings and sequences are stored in {@link LazyValue} and read by given serializer when value
+     * is needed. Scalars, and collections using anchors or aliases, are read immediately, as they may be referenced by other values.
+     *
+     * @param serializer serializer of expected type.
+     *
+     * @return {@link LazyValue} or already read value.
+     */
+    @Nullable
+    Object readLazy(ValueSerializer serializer) {
+        Event event = this.peek();
+        if (! event.is(ID.MappingStart) && ! event.is(ID.SequenceStart)) {
+            return this.read(serializer);
+        }
+        List<Event> events = new ArrayList<>(32);
+        boolean anchored = false;
+        int depth = 0;
+        do {
+            event = this.next();
+            events.add(event);
+            if (event.is(ID.MappingStart) || event.is(ID.SequenceStart)) {
+                depth++;
+            }
+            else if (event.is(ID.MappingEnd) || event.is(ID.SequenceEnd)) {
+                depth--;
+            }
+            anchored |= event.is(ID.Alias) || ((event instanceof NodeEvent) && (((NodeEvent) event).getAnchor() != null));
+        }
+        while (depth > 0);
+        if (anchored) {
+            YamlReader reader = new YamlReader(new LazyValue.EventParser(events.toArray(new Event[0])), this.anchors);
+            reader.setPath(this.path);
+            reader.setStringDeduplicator(this.strings);
+            return reader.read(serializer);
+        }
+        return new LazyValue(events, serializer, this.path, this.strings);
+    }
+
+    /**
+     * Skips next value, including all nested values, without creating any objects.
+     */
+    public void skipValue() {
+        int depth = 0;
+        do {
+            Event event = this.next();
+            if (event.is(ID.MappingStart) || event.is(ID.SequenceStart)) {
+                depth++;
+            }
+            else if (event.is(ID.MappingEnd) || event.is(ID.SequenceEnd)) {
+                depth--;
+            }
+        }
+        while (depth > 0);
+    }
+
+    /**
+     * @param message error message.
+     *
+     * @return exception with given message and position of last read event.
+     */
+    public ConfigException error(String message) {
+        return this.error(message, null);
+    }
+
+    /**
+     * @param message error message.
+     * @param cause cause of error.
+     *
+     * @return exception with given message and position of last read event.
+     */
+    public ConfigException error(String message, @Nullable Throwable cause) {
+        Mark mark = (this.last == null) ? null : this.last.getStartMark();
+        if (mark != null) {
+            message += " (line " + (mark.getLine() + 1) + ", column " + (mark.getColumn() + 1) + ")";
+        }
+        return new ConfigException(message, cause);
+    }
+
+    /**
+     * @return true if given scalar is a plain null value, like {@code ~} or empty value, or is explicitly tagged as null.
+     */
+    static boolean isNull(ScalarEvent event) {
+        String tag = event.getTag();
+        if (tag != null) {
+            return tag.equals(Tag.NULL.getValue());
+        }
+        if (! event.getImplicit().canOmitTagInPlainScalar()) {
+            return false;
+        }
+        switch (event.getValue()) {
+            case "":
+            case "~":
+            case "null":
+            case "Null":
+            case "NULL":
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * @return true if given scalar is not quoted or tagged, so its type should be resolved from its value.
+     */
+    static boolean isPlain(ScalarEvent event) {
+        return (event.getTag() == null) && event.getImplicit().canOmitTagInPlainScalar();
+    }
+}
@@ -0,0 +1,246 @@
+package org.diorite.configs.yaml;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Parses yaml scalars, supports all yaml 1.1 number formats (hex, octal, binary, sexagesimal) and grouping separators written by
+ * number styles.
+ */
+final class YamlScalars {
+    private YamlScalars() {
+    }
+
+    /**
+     * @param text text of scalar.
+     *
+     * @return parsed integer, as {@link Long} or {@link BigInteger} if value does not fit in long.
+     *
+     * @throws NumberFormatException if text isn't a valid integer.
+     */
+    static Number parseInteger(String text) {
+        String value = clean(text);
+        boolean negative = false;
+        if (! value.isEmpty() && ((value.charAt(0) == '-') || (value.charAt(0) == '+'))) {
+            negative = value.charAt(0) == '-';
+            value = value.substring(1);
+        }
+        int radix = 10;
+        if (value.startsWith("0x") || value.startsWith("0X")) {
+            radix = 16;
+            value = value.substring(2);
+        }
+        else if (value.startsWith("0b") || value.startsWith("0B")) {
+            radix = 2;
+            value = value.substring(2);
+        }
+        else if (value.startsWith("0o")) {
+            radix = 8;
+            value = value.substring(2);
+        }
+        else if (value.indexOf(':') != - 1) {
+            long result = 0;
+            for (String part : value.split(":")) {
+                result = (result * 60) + Long.parseLong(part);
+            }
+            return negative ? - result : result;
+        }
+        else if ((value.length() > 1) && (value.charAt(0) == '0') && isOctal(value)) {
+            radix = 8;
+        }
+        if (value.isEmpty()) {
+            throw new NumberFormatException("Empty number: " + text);
+        }
+        if (negative) {
+            value = '-' + value;
+        }
+        try {
+            return Long.parseLong(value, radix);
+        }
+        catch (NumberFormatException e) {
+            if ((value.indexOf('.') != - 1) || (value.indexOf('e') != - 1) || (value.indexOf('E') != - 1)) {
+                BigDecimal decimal = new BigDecimal(value);
+                return decimal.toBigIntegerExact();
+            }
+            return new BigInteger(value, radix);
+        }
+    }
+
+    /**
+     * Parses integer as long, decimal values with grouping separators and hex, octal and binary values with prefix, as written by
+     * number styles, are parsed without creating any objects, other formats are parsed by {@link #parseInteger(String)}.
+     *
+     * @param text text of scalar.
+     *
+     * @return parsed integer, truncated to long.
+     *
+     * @throws NumberFormatException if text isn't a valid integer.
+     */
+    static long parseLong(String text) {
+        int length = text.length();
+        int start = ((length > 1) && ((text.charAt(0) == '-') || (text.charAt(0) == '+'))) ? 1 : 0;
+        int radix = 10;
+        if (((length - start) > 2) && (text.charAt(start) == '0')) {
+            char prefix = text.charAt(start + 1);
+            radix = (prefix == 'x') ? 16 : ((prefix == 'o') ? 8 : ((prefix == 'b') ? 2 : 10));
+            start += (radix == 10) ? 0 : 2;
+        }
+        // leading zero without prefix means octal number in yaml 1.1
+        if ((length > start) && ((radix != 10) || (text.charAt(start) != '0') || (length == (start + 1)))) {
+            // amount of digits that always fit in long
+            int maxDigits = (radix == 10) ? 18 : (62 / Integer.numberOfTrailingZeros(radix));
+            long result = 0;
+            int digits = 0;
+            int i = start;
+            for (; i < length; i++) {
+                char c = text.charAt(i);
+                if ((c == ',') || (c == '_')) {
+                    continue;
+                }
+                int digit = Character.digit(c, radix);
+                if ((digit < 0) || (++digits > maxDigits)) {
+                    break;
+                }
+                result = (result * radix) + digit;
+            }
+            if ((i == length) && (digits > 0)) {
+                return (text.charAt(0) == '-') ? - result : result;
+            }
+        }
+        return parseInteger(text).longValue();
+    }
+
+    /**
+     * @param text text of scalar.
+     *
+     * @return parsed floating point number.
+     *
+     * @throws NumberFormatException if text isn't a valid number.
+     */
+    static double parseDouble(String text) {
+        String value = clean(text);
+        switch (value.toLowerCase(Locale.ROOT)) {
+            case ".inf":
+            case "+.inf":
+                return Double.POSITIVE_INFINITY;
+            case "-.inf":
+                return Double.NEGATIVE_INFINITY;
+            case ".nan":
+                return Double.NaN;
+            default:
+                break;
+        }
+        if (value.indexOf(':') != - 1) {
+            boolean negative = value.startsWith("-");
+            double result = 0;
+            for (String part : value.replace("-", "").replace("+", "").split(":")) {
+                result = (result * 60) + Double.parseDouble(part);
+            }
+            return negative ? - result : result;
+        }
+        try {
+            return Double.parseDouble(value);
+        }
+        catch (NumberFormatException e) {
+            return parseInteger(value).doubleValue();
+        }
+    }
+
+    /**
+     * @param text text of scalar.
+     *
+     * @return parsed decimal number.
+     *
+     * @throws NumberFormatException if text isn't a valid number.
+     */
+    static BigDecimal parseDecimal(String text) {
+        try {
+            return new BigDecimal(clean(text));
+        }
+        catch (NumberFormatException e) {
+            Number integer = parseInteger(text);
+            return (integer instanceof BigInteger) ? new BigDecimal((BigInteger) integer) : BigDecimal.valueOf(integer.longValue());
+        }
+    }
+
+    /**
+     * Parses boolean using yaml values, additional diorite values and custom values from boolean style of property.
+     *
+     * @param text text of scalar.
+     * @param trueValues additional true values.
+     * @param falseValues additional false values.
+     *
+     * @return parsed value or null if text isn't a boolean value.
+     */
+    @Nullable
+    static Boolean parseBoolean(String text, List<String> trueValues, List<String> falseValues) {
+        for (String trueValue : trueValues) {
+            if (trueValue.equalsIgnoreCase(text)) {
+                return Boolean.TRUE;
+            }
+        }
+        for (String falseValue : falseValues) {
+            if (falseValue.equalsIgnoreCase(text)) {
+                return Boolean.FALSE;
+            }
+        }
+        switch (text.toLowerCase(Locale.ROOT)) {
+            case "y":
+            case "yes":
+            case "true":
+            case "on":
+            case "enabled":
+            case "enable":
+            case "active":
+            case "activated":
+            case "allow":
+            case "allowed":
+                return Boolean.TRUE;
+            case "n":
+            case "no":
+            case "false":
+            case "off":
+            case "disabled":
+            case "disable":
+            case "inactive":
+            case "deactivated":
+            case "disallow":
+            case "disallowed":
+                return Boolean.FALSE;
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * Removes underscores and grouping separators from number.
+     */
+    private static String clean(String text) {
+        String value = text.trim();
+        if ((value.indexOf('_') == - 1) && (value.indexOf(',') == - 1)) {
+            return value;
+        }
+        StringBuilder builder = new StringBuilder(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if ((c != '_') && (c != ',')) {
+                builder.append(c);
+            }
+        }
+        return builder.toString();
+    }
+
+    private static boolean isOctal(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if ((c < '0') || (c > '7')) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
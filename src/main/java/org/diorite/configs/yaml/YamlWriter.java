@@ -0,0 +1,731 @@
+package org.diorite.configs.yaml;
+
+import org.diorite.configs.style.NodeStyle;
+import org.diorite.configs.style.PropertyStyle;
+import org.diorite.configs.style.StringBlockNewLinesStyle;
+import org.diorite.configs.style.StringBlockStyle;
+import org.diorite.configs.style.StringStyles;
+import org.diorite.configs.style.Styles;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * Writes yaml document directly to character stream, values are written by {@link ValueSerializer}s without building node graph
+ * of whole document. <br/>
+ * Collections must be started and ended explicitly, nodes inside mapping are alternately keys and values. Block styles are replaced
+ * by flow or quoted styles where yaml does not allow them, like inside flow collections or in keys, and comments or empty lines
+ * inside flow collections are skipped. <br/>
+ * I/O errors are thrown as {@link UncheckedIOException}.
+ */
+public final class YamlWriter implements Flushable {
+    private static final int BINARY_LINE_LENGTH = 76;
+    private static final int MAX_INDENT_INDICATOR = 9;
+    private static final char[] HEX = "0123456789ABCDEF".toCharArray();
+
+    private final Writer out;
+    private final ValueSerializers serializers;
+    private final int indent;
+    private final int width;
+    private final Deque<Context> contexts = new ArrayDeque<>(16);
+    private Context context = new Context(Kind.ROOT, 0, false);
+    private boolean lineStart = true;
+    private boolean pendingSpace;
+    @Nullable
+    private Path path;
+
+    public YamlWriter(Writer out, ValueSerializers serializers) {
+        this(out, serializers, 2, 80);
+    }
+
+    /**
+     * @param out target of yaml document.
+     * @param serializers serializers used for values of unknown types.
+     * @param indent indentation of nested block collections.
+     * @param width preferred width of lines of folded strings.
+     */
+    public YamlWriter(Writer out, ValueSerializers serializers, int indent, int width) {
+        if ((indent < 1) || (indent > MAX_INDENT_INDICATOR)) {
+            throw new IllegalArgumentException("Indent must be between 1 and " + MAX_INDENT_INDICATOR);
+        }
+        this.out = out;
+        this.serializers = serializers;
+        this.indent = indent;
+        this.width = width;
+    }
+
+    public ValueSerializers getSerializers() {
+        return this.serializers;
+    }
+
+    /**
+     * @return path of written yaml file, or null if document is not written to file.
+     */
+    @Nullable
+    public Path getPath() {
+        return this.path;
+    }
+
+    /**
+     * @param path path of written yaml file, required to store large binary values in separate files.
+     */
+    public void setPath(@Nullable Path path) {
+        this.path = path;
+    }
+
+    /**
+     * Writes single value using given serializer, or null node if value is null.
+     *
+     * @param serializer serializer of value.
+     * @param value value to write.
+     * @param style style of property.
+     * @param depth depth of value in property, property value itself is at depth 1.
+     */
+    public void write(ValueSerializer serializer, @Nullable Object value, PropertyStyle style, int depth) {
+        if (value == null) {
+            this.scalar("~");
+            return;
+        }
+        serializer.write(this, value, style, depth);
+    }
+
+    /**
+     * Writes comment lines, comments are written only between entries of block collections and around root node.
+     *
+     * @param lines lines of comment.
+     */
+    public void comment(List<String> lines) {
+        if (lines.isEmpty() || this.context.kind.flow) {
+            return;
+        }
+        this.breakCompact();
+        for (String comment : lines) {
+            for (String line : comment.split("\n", - 1)) {
+                this.startLine(this.context.indent);
+                this.write(line.isEmpty() ? "#" : ("# " + line));
+                this.lineBreak();
+            }
+        }
+    }
+
+    /**
+     * Writes empty lines, empty lines are written only between entries of block collections and around root node.
+     *
+     * @param count amount of empty lines.
+     */
+    public void emptyLines(int count) {
+        if ((count <= 0) || this.context.kind.flow) {
+            return;
+        }
+        this.breakCompact();
+        this.endLine();
+        for (int i = 0; i < count; i++) {
+            this.lineBreak();
+        }
+    }
+
+    /**
+     * Starts mapping, empty mappings are always written in flow style.
+     *
+     * @param style style of mapping.
+     * @param size amount of entries in mapping.
+     */
+    public void startMapping(Styles style, int size) {
+        this.startCollection(true, style, size);
+    }
+
+    public void endMapping() {
+        if ((this.context.nodes & 1) != 0) {
+            throw new IllegalStateException("Missing value of last key in mapping");
+        }
+        this.endCollection(Kind.FLOW_MAPPING, "}");
+    }
+
+    /**
+     * Starts sequence, empty sequences are always written in flow style.
+     *
+     * @param style style of sequence, {@link Styles#EXPLICIT} is same as {@link Styles#NEXTLINE} for sequences.
+     * @param size amount of elements in sequence.
+     */
+    public void startSequence(Styles style, int size) {
+        this.startCollection(false, style, size);
+    }
+
+    public void endSequence() {
+        this.endCollection(Kind.FLOW_SEQUENCE, "]");
+    }
+
+    /**
+     * Writes string using string and string block styles of given property style.
+     *
+     * @param value string to write.
+     * @param style style of property.
+     * @param depth depth of value in property.
+     */
+    public void string(String value, PropertyStyle style, int depth) {
+        NodeStyle node = style.at(depth);
+        StringBlockStyle blockStyle = node.getBlockStyle();
+        StringStyles stringStyle = node.getStringStyle();
+        int analysis = ScalarAnalysis.analyse(value, stringStyle == StringStyles.AUTO);
+        if ((blockStyle != null) && (value.length() >= node.getBlockMinimumLength()) &&
+            (ScalarAnalysis.lines(analysis) >= node.getBlockMinimumLines())) {
+            this.block(value, analysis, blockStyle, node.getBlockLinesStyle(), node.getBlockSpacing());
+            return;
+        }
+        this.string(value, stringStyle, analysis);
+    }
+
+    /**
+     * Writes string as plain or quoted scalar, plain style is used only if value would be read back as the same string.
+     *
+     * @param value string to write.
+     * @param style preferred string style.
+     */
+    public void string(String value, StringStyles style) {
+        this.string(value, style, (style == StringStyles.QUOTED_DOUBLE) ? 0 : ScalarAnalysis.analyse(value, style == StringStyles.AUTO));
+    }
+
+    /**
+     * Writes value of other type than string, like number or boolean, as plain scalar if possible, value is quoted only if it can't be
+     * represented as plain scalar.
+     *
+     * @param value text of value.
+     */
+    public void plain(String value) {
+        this.beforeNode(false);
+        if (this.isPlainAllowed(ScalarAnalysis.analyse(value, false))) {
+            this.write(value);
+        }
+        else {
+            this.writeDoubleQuoted(value);
+        }
+        this.afterNode();
+    }
+
+    /**
+     * Writes string as literal or folded block, block is replaced by quoted scalar if it is not allowed in current context or can't
+     * represent given value.
+     *
+     * @param value string to write.
+     * @param style block style.
+     * @param linesStyle style of new lines at the end of string.
+     * @param spacing indentation of lines relative to parent collection, values below 1 use default indentation.
+     */
+    public void block(String value, StringBlockStyle style, StringBlockNewLinesStyle linesStyle, int spacing) {
+        this.block(value, ScalarAnalysis.analyse(value, false), style, linesStyle, spacing);
+    }
+
+    /**
+     * @param analysis result of {@link ScalarAnalysis#analyse(String, boolean)} for given value, implicit type is checked only for
+     * {@link StringStyles#AUTO}.
+     */
+    private void string(String value, StringStyles style, int analysis) {
+        this.beforeNode(false);
+        switch (style) {
+            case QUOTED:
+            case QUOTED_SINGLE:
+                if ((analysis & ScalarAnalysis.SINGLE_QUOTED) != 0) {
+                    this.writeSingleQuoted(value);
+                }
+                else {
+                    this.writeDoubleQuoted(value);
+                }
+                break;
+            case QUOTED_DOUBLE:
+                this.writeDoubleQuoted(value);
+                break;
+            default:
+                if (this.isPlainAllowed(analysis) && ((analysis & ScalarAnalysis.IMPLICIT_TYPE) == 0)) {
+                    this.write(value);
+                }
+                else if ((analysis & ScalarAnalysis.SINGLE_QUOTED) != 0) {
+                    this.writeSingleQuoted(value);
+                }
+                else {
+                    this.writeDoubleQuoted(value);
+                }
+                break;
+        }
+        this.afterNode();
+    }
+
+    private void block(String value, int analysis, StringBlockStyle style, StringBlockNewLinesStyle linesStyle, int spacing) {
+        int end = value.length();
+        while ((end > 0) && (value.charAt(end - 1) == '\n')) {
+            end--;
+        }
+        if ((end == 0) || this.context.kind.flow || (this.context.kind == Kind.ROOT) || this.isKey() ||
+            ((analysis & ScalarAnalysis.BLOCK) == 0)) {
+            this.string(value, StringStyles.QUOTED_DOUBLE, analysis);
+            return;
+        }
+        String[] lines = value.substring(0, end).split("\n", - 1);
+        int trailing = value.length() - end;
+        String chomping;
+        switch (linesStyle) {
+            case KEEP:
+                chomping = (trailing == 0) ? "-" : "+";
+                break;
+            case ON_END:
+                chomping = "";
+                trailing = 1;
+                break;
+            default:
+                chomping = "-";
+                trailing = 0;
+                break;
+        }
+        boolean folded = (style == StringBlockStyle.FOLDED) && ! hasIndentedLine(lines);
+        boolean indented = firstLineIndented(lines);
+        int parentIndent = this.context.indent;
+        int blockIndent = parentIndent + ((spacing > 0) ? Math.min(spacing, MAX_INDENT_INDICATOR) : this.indent);
+
+        this.beforeNode(false);
+        this.write(folded ? ">" : "|");
+        this.write(chomping);
+        if ((spacing > 0) || indented) {
+            this.write(Integer.toString(blockIndent - parentIndent));
+        }
+        this.lineBreak();
+        for (int i = 0; i < lines.length; i++) {
+            String line = lines[i];
+            if (! line.isEmpty()) {
+                if (folded) {
+                    this.writeFolded(line, blockIndent);
+                }
+                else {
+                    this.startLine(blockIndent);
+                    this.write(line);
+                    this.lineBreak();
+                }
+                if (folded && (i < (lines.length - 1))) {
+                    // single line break between lines of folded block is read as space
+                    this.lineBreak();
+                }
+            }
+            else {
+                this.lineBreak();
+            }
+        }
+        for (int i = 1; i < trailing; i++) {
+            this.lineBreak();
+        }
+        this.afterNode();
+    }
+
+    /**
+     * Writes binary value as base64 encoded {@code !!binary} scalar, in block style if possible.
+     *
+     * @param data binary value.
+     */
+    public void binary(byte[] data) {
+        this.binary(ByteBuffer.wrap(data));
+    }
+
+    /**
+     * Writes remaining bytes of given buffer as base64 encoded {@code !!binary} scalar, in block style if possible. <br/>
+     * Bytes are encoded directly to output line by line, position of buffer is not changed.
+     *
+     * @param data binary value.
+     */
+    public void binary(ByteBuffer data) {
+        ByteBuffer source = data.duplicate();
+        char[] line = new char[BINARY_LINE_LENGTH];
+        this.beforeNode(false);
+        this.write("!!binary ");
+        if (! source.hasRemaining() || this.context.kind.flow || (this.context.kind == Kind.ROOT) || this.isKey()) {
+            this.write("\"");
+            while (source.hasRemaining()) {
+                this.write(line, Base64Codec.encode(source, line));
+            }
+            this.write("\"");
+        }
+        else {
+            int blockIndent = this.context.indent + this.indent;
+            this.write("|-");
+            this.lineBreak();
+            while (source.hasRemaining()) {
+                this.startLine(blockIndent);
+                this.write(line, Base64Codec.encode(source, line));
+                this.lineBreak();
+            }
+        }
+        this.afterNode();
+    }
+
+    /**
+     * Writes scalar with given local tag, like {@code !file name}.
+     *
+     * @param tag tag of value, without leading {@code !}.
+     * @param value text of value.
+     */
+    public void tagged(String tag, String value) {
+        this.beforeNode(false);
+        this.write("!" + tag + " ");
+        if (this.isPlainAllowed(ScalarAnalysis.analyse(value, false))) {
+            this.write(value);
+        }
+        else {
+            this.writeDoubleQuoted(value);
+        }
+        this.afterNode();
+    }
+
+    @Override
+    public void flush() {
+        try {
+            this.out.flush();
+        }
+        catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void scalar(String text) {
+        this.beforeNode(false);
+        this.write(text);
+        this.afterNode();
+    }
+
+    private void startCollection(boolean mapping, Styles style, int size) {
+        boolean flow = (size == 0) || (style == Styles.INLINE) || this.context.kind.flow || this.isKey();
+        this.beforeNode(! flow);
+        Context parent = this.context;
+        this.contexts.push(parent);
+        if (flow) {
+            this.write(mapping ? "{" : "[");
+            this.context = new Context(mapping ? Kind.FLOW_MAPPING : Kind.FLOW_SEQUENCE, parent.indent, false);
+            return;
+        }
+        Kind kind = mapping ? ((style == Styles.EXPLICIT) ? Kind.EXPLICIT_MAPPING : Kind.BLOCK_MAPPING) : Kind.BLOCK_SEQUENCE;
+        switch (parent.kind) {
+            case ROOT:
+                this.context = new Context(kind, 0, false);
+                break;
+            case BLOCK_MAPPING:
+                // sequences in block mappings are not indented
+                this.context = new Context(kind, mapping ? (parent.indent + this.indent) : parent.indent, false);
+                break;
+            case BLOCK_SEQUENCE:
+                // first entry is written in the same line as sequence entry indicator
+                this.context = new Context(kind, parent.indent + 2, true);
+                break;
+            default:
+                this.context = new Context(kind, parent.indent + this.indent, false);
+                break;
+        }
+    }
+
+    private void endCollection(Kind flowKind, String end) {
+        if (this.contexts.isEmpty()) {
+            throw new IllegalStateException("No collection to end");
+        }
+        if ((this.context.kind.mapping != flowKind.mapping)) {
+            throw new IllegalStateException("Can't end " + this.context.kind + " as " + flowKind);
+        }
+        if (this.context.kind == flowKind) {
+            this.write(end);
+        }
+        this.context = this.contexts.pop();
+        this.afterNode();
+    }
+
+    private boolean isKey() {
+        return this.context.kind.mapping && ((this.context.nodes & 1) == 0);
+    }
+
+    private void beforeNode(boolean blockCollection) {
+        Context context = this.context;
+        switch (context.kind) {
+            case ROOT:
+                if (context.nodes > 0) {
+                    throw new IllegalStateException("Document already contains root node");
+                }
+                break;
+            case BLOCK_MAPPING:
+                if (this.isKey()) {
+                    this.startEntry(context);
+                }
+                else if (blockCollection) {
+                    this.lineBreak();
+                }
+                else {
+                    this.pendingSpace = true;
+                }
+                break;
+            case EXPLICIT_MAPPING:
+                if (this.isKey()) {
+                    this.startEntry(context);
+                    this.write("?");
+                }
+                else {
+                    this.startLine(context.indent);
+                    this.write(":");
+                }
+                if (blockCollection) {
+                    this.lineBreak();
+                }
+                else {
+                    this.pendingSpace = true;
+                }
+                break;
+            case BLOCK_SEQUENCE:
+                this.startEntry(context);
+                this.write("-");
+                this.pendingSpace = true;
+                break;
+            case FLOW_MAPPING:
+            case FLOW_SEQUENCE:
+                if ((context.nodes > 0) && ((context.kind == Kind.FLOW_SEQUENCE) || this.isKey())) {
+                    this.write(",");
+                    this.pendingSpace = true;
+                }
+                break;
+            default:
+                throw new AssertionError(context.kind);
+        }
+    }
+
+    private void afterNode() {
+        Context context = this.context;
+        boolean key = this.isKey();
+        context.nodes++;
+        if (key && (context.kind == Kind.BLOCK_MAPPING)) {
+            this.write(":");
+        }
+        else if (key && (context.kind == Kind.FLOW_MAPPING)) {
+            this.write(":");
+            this.pendingSpace = true;
+        }
+        else if (! context.kind.flow) {
+            this.endLine();
+        }
+    }
+
+    private void startEntry(Context context) {
+        if (context.compact) {
+            context.compact = false;
+        }
+        else {
+            this.startLine(context.indent);
+        }
+    }
+
+    /**
+     * Moves first entry of collection nested in block sequence to new line, so comments and empty lines can be written before it.
+     */
+    private void breakCompact() {
+        if (this.context.compact) {
+            this.context.compact = false;
+            this.lineBreak();
+        }
+    }
+
+    private void writeFolded(String line, int blockIndent) {
+        int available = Math.max(this.width - blockIndent, 20);
+        int start = 0;
+        while ((line.length() - start) > available) {
+            int split = - 1;
+            for (int i = start + available; i > start; i--) {
+                if (isFoldPoint(line, i)) {
+                    split = i;
+                    break;
+                }
+            }
+            if (split == - 1) {
+                for (int i = start + available + 1; i < line.length(); i++) {
+                    if (isFoldPoint(line, i)) {
+                        split = i;
+                        break;
+                    }
+                }
+            }
+            if (split == - 1) {
+                break;
+            }
+            this.startLine(blockIndent);
+            this.write(line.substring(start, split));
+            this.lineBreak();
+            start = split + 1;
+        }
+        this.startLine(blockIndent);
+        this.write(line.substring(start));
+        this.lineBreak();
+    }
+
+    /**
+     * @return true if space at given index of line can be replaced by line break of folded block.
+     */
+    private static boolean isFoldPoint(String line, int index) {
+        return (index > 0) && (index < (line.length() - 1)) && (line.charAt(index) == ' ') && (line.charAt(index - 1) != ' ') &&
+               (line.charAt(index + 1) != ' ');
+    }
+
+    private void writeSingleQuoted(String value) {
+        this.write("'" + value.replace("'", "''") + "'");
+    }
+
+    private void writeDoubleQuoted(String value) {
+        StringBuilder builder = new StringBuilder(value.length() + 8);
+        builder.append('"');
+        for (int i = 0, length = value.length(); i < length; i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"':
+                    builder.append("\\\"");
+                    break;
+                case '\\':
+                    builder.append("\\\\");
+                    break;
+                case '\n':
+                    builder.append("\\n");
+                    break;
+                case '\t':
+                    builder.append("\\t");
+                    break;
+                case '\r':
+                    builder.append("\\r");
+                    break;
+                case '\0':
+                    builder.append("\\0");
+                    break;
+                case 0x85:
+                    builder.append("\\N"); // next line, read as line break if written as is
+                    break;
+                default:
+                    if (ScalarAnalysis.isPrintable(c)) {
+                        builder.append(c);
+                    }
+                    else if (ScalarAnalysis.isSurrogatePair(value, i)) {
+                        builder.append(c).append(value.charAt(i + 1));
+                        i++;
+                    }
+                    else if (c <= 0xFF) {
+                        builder.append("\\x").append(HEX[c >> 4]).append(HEX[c & 0xF]);
+                    }
+                    else {
+                        builder.append("\\u").append(HEX[c >> 12]).append(HEX[(c >> 8) & 0xF]).append(HEX[(c >> 4) & 0xF])
+                               .append(HEX[c & 0xF]);
+                    }
+                    break;
+            }
+        }
+        builder.append('"');
+        this.write(builder.toString());
+    }
+
+    /**
+     * @return true if analysed value can be written as plain scalar in current context, without checking implicit type of value.
+     */
+    private boolean isPlainAllowed(int analysis) {
+        return (analysis & (this.context.kind.flow ? ScalarAnalysis.PLAIN_FLOW : ScalarAnalysis.PLAIN)) != 0;
+    }
+
+    private static boolean hasIndentedLine(String[] lines) {
+        for (String line : lines) {
+            if (! line.isEmpty() && ((line.charAt(0) == ' ') || (line.charAt(0) == '\t'))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean firstLineIndented(String[] lines) {
+        for (String line : lines) {
+            if (! line.isEmpty()) {
+                return (line.charAt(0) == ' ') || (line.charAt(0) == '\t');
+            }
+        }
+        return false;
+    }
+
+    private void startLine(int indent) {
+        this.endLine();
+        for (int i = 0; i < indent; i++) {
+            this.write(" ");
+        }
+    }
+
+    private void endLine() {
+        if (! this.lineStart) {
+            this.lineBreak();
+        }
+    }
+
+    private void lineBreak() {
+        this.pendingSpace = false;
+        this.lineStart = true;
+        try {
+            this.out.write('\n');
+        }
+        catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void write(char[] text, int length) {
+        try {
+            if (this.pendingSpace) {
+                this.pendingSpace = false;
+                this.out.write(' ');
+            }
+            this.out.write(text, 0, length);
+        }
+        catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        this.lineStart = false;
+    }
+
+    private void write(String text) {
+        try {
+            if (this.pendingSpace) {
+                this.pendingSpace = false;
+                this.out.write(' ');
+            }
+            this.out.write(text);
+        }
+        catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        this.lineStart = false;
+    }
+
+    private enum Kind {
+        ROOT(false, false),
+        BLOCK_MAPPING(false, true),
+        EXPLICIT_MAPPING(false, true),
+        BLOCK_SEQUENCE(false, false),
+        FLOW_MAPPING(true, true),
+        FLOW_SEQUENCE(true, false);
+
+        private final boolean flow;
+        private final boolean mapping;
+
+        Kind(boolean flow, boolean mapping) {
+            this.flow = flow;
+            this.mapping = mapping;
+        }
+    }
+
+    private static final class Context {
+        private final Kind kind;
+        private final int indent;
+        private boolean compact;
+        private int nodes;
+
+        Context(Kind kind, int indent, boolean compact) {
+            this.kind = kind;
+            this.indent = indent;
+            this.compact = compact;
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package org.diorite.configs;
+
+import org.diorite.configs.validation.ValidatedTestConfig;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LoadResultsTest {
+    private final ConfigManager manager = ConfigManager.createInstance();
+
+    @Test
+    void allFilesAreLoadedInOrder(@TempDir Path directory) throws IOException {
+        List<ConfigFile<ExampleInterfaceConfig>> files = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            files.add(ConfigFile.of(ExampleInterfaceConfig.class, write(directory.resolve(i + ".yml"), "value: " + i + "\n")));
+        }
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        LoadResults results;
+        try {
+            results = this.manager.loadAll(files, executor);
+        }
+        finally {
+            executor.shutdown();
+        }
+        assertTrue(results.isSuccessful());
+        assertEquals(files, new ArrayList<>(results.getConfigs().keySet()));
+        for (int i = 0; i < files.size(); i++) {
+            assertEquals(i, results.get(files.get(i)).getValue());
+        }
+        results.throwIfFailed();
+    }
+
+    @Test
+    void failedFilesDoNotStopLoading(@TempDir Path directory) throws IOException {
+        Path validPath = write(directory.resolve("valid.yml"), "value: 3\n");
+        Path invalidPath = write(directory.resolve("invalid.yml"), "amount: -1\n");
+        ConfigFile<ExampleInterfaceConfig> valid = ConfigFile.of(ExampleInterfaceConfig.class, validPath);
+        ConfigFile<ExampleInterfaceConfig> missing = ConfigFile.of(ExampleInterfaceConfig.class, directory.resolve("missing.yml"));
+        ConfigFile<ValidatedTestConfig> invalid = ConfigFile.of(ValidatedTestConfig.class, invalidPath);
+        LoadResults results = this.manager.loadAll(List.of(valid, missing, invalid));
+
+        assertFalse(results.isSuccessful());
+        assertEquals(3, results.get(valid).getValue());
+        assertNull(results.get(missing));
+        assertTrue(results.getFailure(missing) instanceof IOException, String.valueOf(results.getFailure(missing)));
+        assertTrue(results.getFailure(invalid) instanceof ConfigException, String.valueOf(results.getFailure(invalid)));
+        assertNull(results.getFailure(valid));
+        ConfigException exception = assertThrows(ConfigException.class, results::throwIfFailed);
+        assertEquals("Can't load 2 of 3 config files", exception.getMessage());
+        assertEquals(2, exception.getSuppressed().length);
+    }
+
+    private static Path write(Path path, String text) throws IOException {
+        return Files.write(path, text.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,59 @@
+package org.diorite.configs.collections;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PrimitiveCollectionsTest {
+    @Test
+    void listBehavesLikeListOfBoxedValues() {
+        IntList list = IntList.of(3, 1, 3);
+        assertEquals(List.of(3, 1, 3), list);
+        assertEquals(List.of(3, 1, 3).hashCode(), list.hashCode());
+        assertEquals(1, list.getInt(1));
+        assertEquals(2, list.lastIndexOf(3));
+        assertEquals(- 1, list.indexOf(2));
+        assertFalse(list.contains(3L));
+        assertArrayEquals(new int[]{3, 1, 3}, list.toIntArray());
+        assertThrows(IndexOutOfBoundsException.class, () -> list.getInt(3));
+        assertThrows(UnsupportedOperationException.class, () -> list.add(4));
+        assertEquals(List.of(1.5, - 0.0), DoubleList.of(1.5, - 0.0));
+        assertEquals(List.of(1L << 40), LongList.of(1L << 40));
+    }
+
+    @Test
+    void setSkipsDuplicatesAndKeepsOrder() {
+        int[] values = new int[200];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = (i * 7) % 100;
+        }
+        IntSet set = IntSet.of(values);
+        assertEquals(100, set.size());
+        assertTrue(set.containsInt(63));
+        assertFalse(set.containsInt(100));
+        assertEquals(0, set.toIntArray()[0]);
+        assertEquals(7, set.toIntArray()[1]);
+        assertEquals(Set.of(1L, - 1L), LongSet.of(- 1L, 1L, - 1L));
+        assertThrows(UnsupportedOperationException.class, () -> set.remove(63));
+    }
+
+    @Test
+    void mapKeepsFirstPositionAndLastValueOfKey() {
+        ObjectIntMap<String> map = ObjectIntMap.of(new String[]{"a", "b", "a", "unused"}, new int[]{1, 2, 3, 4}, 3);
+        assertEquals(Map.of("a", 3, "b", 2), map);
+        assertArrayEquals(new int[]{3, 2}, map.toIntArray());
+        assertEquals(3, map.getInt("a", 0));
+        assertEquals(- 1, map.getInt("c", - 1));
+        assertNull(map.get("c"));
+        assertThrows(UnsupportedOperationException.class, () -> map.put("c", 1));
+    }
+}
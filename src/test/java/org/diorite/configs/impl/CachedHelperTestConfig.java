@@ -0,0 +1,41 @@
+package org.diorite.configs.impl;
+
+import org.diorite.configs.Config;
+import org.diorite.configs.annotations.HelperMethod;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+public interface CachedHelperTestConfig extends Config<CachedHelperTestConfig> {
+    AtomicInteger DESCRIBE_CALLS = new AtomicInteger();
+    AtomicInteger TITLE_CALLS = new AtomicInteger();
+
+    default String getName() {
+        return "a";
+    }
+
+    void setName(String name);
+
+    default int getValue() {
+        return 1;
+    }
+
+    void setValue(int value);
+
+    default int getOther() {
+        return 0;
+    }
+
+    void setOther(int other);
+
+    @HelperMethod(cached = true)
+    default String describe() {
+        DESCRIBE_CALLS.incrementAndGet();
+        return this.getName() + "=" + this.getValue();
+    }
+
+    @HelperMethod(cached = true)
+    default String title() {
+        TITLE_CALLS.incrementAndGet();
+        return this.describe().toUpperCase();
+    }
+}
@@ -0,0 +1,34 @@
+package org.diorite.configs.impl;
+
+import org.diorite.configs.Config;
+import org.diorite.configs.annotations.ConfigClass;
+
+import java.util.List;
+import java.util.Map;
+
+@ConfigClass(concurrent = true)
+public interface ConcurrentTestConfig extends Config<ConcurrentTestConfig> {
+    default int getFirst() {
+        return 0;
+    }
+
+    void setFirst(int first);
+
+    default int getSecond() {
+        return 0;
+    }
+
+    void setSecond(int second);
+
+    default List<String> getNames() {
+        return List.of("a");
+    }
+
+    void setNames(List<String> names);
+
+    default Map<String, List<Integer>> getGroups() {
+        return Map.of();
+    }
+
+    void setGroups(Map<String, List<Integer>> groups);
+}
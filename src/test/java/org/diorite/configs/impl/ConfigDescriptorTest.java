@@ -0,0 +1,52 @@
+package org.diorite.configs.impl;
+
+import org.diorite.configs.ConfigDescriptor;
+import org.diorite.configs.ConfigException;
+import org.diorite.configs.ConfigManager;
+import org.diorite.configs.ConfigPropertyTemplate;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Method;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ConfigDescriptorTest {
+    @Test
+    void descriptorListsMethodsOfConfig() throws ReflectiveOperationException {
+        ConfigDescriptor<?> descriptor = descriptor(HelperTestConfig.class);
+        assertEquals(List.of(HelperTestConfig.class.getDeclaredMethod("total")), descriptor.getCachedHelpers());
+        List<ConfigPropertyTemplate> properties = descriptor.createProperties();
+        assertEquals(2, properties.size());
+        assertEquals(HelperTestConfig.class.getDeclaredMethod("getFirst"), properties.get(0).getGetter());
+        assertEquals(HelperTestConfig.class.getDeclaredMethod("setFirst", int.class), properties.get(0).getSetter());
+        assertEquals(HelperTestConfig.class.getDeclaredMethod("getSecond"), properties.get(1).getGetter());
+        assertNull(properties.get(1).getSetter());
+    }
+
+    @Test
+    void cachedHelpersOfDescriptorAreUsed() {
+        HelperTestConfig config = ConfigManager.createInstance().create(HelperTestConfig.class);
+        int calls = HelperTestConfig.CALLS.get();
+        assertEquals(3, config.total());
+        assertEquals(3, config.total());
+        assertEquals(calls + 1, HelperTestConfig.CALLS.get());
+        config.setFirst(5);
+        assertEquals(7, config.total());
+        assertEquals(calls + 2, HelperTestConfig.CALLS.get());
+    }
+
+    @Test
+    void missingMethodIsReported() {
+        ConfigDescriptor.Methods methods = new ConfigDescriptor.Methods();
+        assertThrows(ConfigException.class, () -> methods.get(HelperTestConfig.class, "setFirst", long.class));
+        assertThrows(ConfigException.class, () -> methods.get(HelperTestConfig.class, "getThird"));
+    }
+
+    private static ConfigDescriptor<?> descriptor(Class<?> type) throws ReflectiveOperationException {
+        Class<?> descriptorType = Class.forName(type.getName() + ConfigDescriptor.SUFFIX);
+        return (ConfigDescriptor<?>) descriptorType.getConstructor().newInstance();
+    }
+}
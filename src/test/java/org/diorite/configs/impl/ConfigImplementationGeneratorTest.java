@@ -0,0 +1,57 @@
+package org.diorite.configs.impl;
+
+import org.diorite.configs.ConfigManager;
+import org.diorite.configs.ExampleInterfaceConfig;
+import org.junit.jupiter.api.Test;
+
+import java.io.StringReader;
+import java.io.StringWriter;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ConfigImplementationGeneratorTest {
+    private final ConfigManager manager = ConfigManager.createInstance();
+
+    @Test
+    void createsInterfaceConfigReadingDefaults() {
+        ExampleInterfaceConfig config = this.manager.create(ExampleInterfaceConfig.class);
+        assertEquals(5, config.getValue());
+        assertEquals(5, config.getSecondValue());
+        assertEquals(5, config.defaults().getValue());
+        // defaults() and config() have the same erased descriptor, both must be implemented by every generated class
+        ExampleInterfaceConfig defaults = config.defaults();
+        assertSame(defaults, defaults.defaults());
+        assertSame(defaults, defaults.config());
+        assertEquals(5, defaults.getSecondValue());
+        assertSame(config.config(), config.config().config());
+        assertSame(defaults, config.config().defaults());
+    }
+
+    @Test
+    void setterDefaultMethodWritesThroughRawConfig() {
+        ExampleInterfaceConfig config = this.manager.create(ExampleInterfaceConfig.class);
+        config.setValue(- 7);
+        assertEquals(7, config.getValue());
+        assertEquals(7, config.config().getValue());
+        assertEquals(5, config.getSecondValue());
+    }
+
+    @Test
+    void loadsAndSavesInterfaceConfig() {
+        ExampleInterfaceConfig loaded = this.manager.load(ExampleInterfaceConfig.class, new StringReader("value: 12\nsecondValue: 3\n"));
+        assertEquals(12, loaded.getValue());
+        assertEquals(3, loaded.getSecondValue());
+
+        StringWriter writer = new StringWriter();
+        this.manager.save(ExampleInterfaceConfig.class, loaded, writer);
+        String yaml = writer.toString();
+        assertTrue(yaml.contains("value: 12"), yaml);
+        assertTrue(yaml.contains("secondValue: 3"), yaml);
+
+        ExampleInterfaceConfig reloaded = this.manager.load(ExampleInterfaceConfig.class, new StringReader(yaml));
+        assertEquals(12, reloaded.getValue());
+        assertEquals(3, reloaded.getSecondValue());
+    }
+}
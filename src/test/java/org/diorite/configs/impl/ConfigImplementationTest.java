@@ -0,0 +1,47 @@
+package org.diorite.configs.impl;
+
+import org.diorite.configs.ConfigManager;
+import org.junit.jupiter.api.Test;
+
+import java.io.StringReader;
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class ConfigImplementationTest {
+    private final ConfigManager manager = ConfigManager.createInstance();
+
+    @Test
+    void immutableDefaultsAreShared() {
+        DefaultsTestConfig first = this.manager.create(DefaultsTestConfig.class);
+        DefaultsTestConfig second = this.manager.create(DefaultsTestConfig.class);
+        assertSame(first.getPrice(), second.getPrice());
+        assertSame(first.getFixed(), second.getFixed());
+    }
+
+    @Test
+    void mutableDefaultsAreCreatedForEachInstance() {
+        DefaultsTestConfig first = this.manager.create(DefaultsTestConfig.class);
+        DefaultsTestConfig second = this.manager.create(DefaultsTestConfig.class);
+        assertNotSame(first.getItems(), second.getItems());
+        assertSame(first.getItems(), first.config().getItems());
+        first.getItems().add("b");
+        assertEquals(List.of("a", "b"), first.getItems());
+        assertEquals(List.of("a"), second.getItems());
+        assertEquals(List.of("a"), this.manager.create(DefaultsTestConfig.class).getItems());
+    }
+
+    @Test
+    void loadedValuesEqualToDefaultsShareDefaultInstance() {
+        DefaultsTestConfig created = this.manager.create(DefaultsTestConfig.class);
+        DefaultsTestConfig loaded = this.manager.load(DefaultsTestConfig.class, new StringReader("price: 1.50\nfixed: [x]\nitems: [a]\n"));
+        assertSame(created.getPrice(), loaded.getPrice());
+        // scale is part of value of BigDecimal, so only equal values are shared
+        assertEquals(new BigDecimal("1.5"), this.manager.load(DefaultsTestConfig.class, new StringReader("price: 1.5\n")).getPrice());
+        loaded.getItems().add("b");
+        assertEquals(List.of("a"), this.manager.create(DefaultsTestConfig.class).getItems());
+    }
+}
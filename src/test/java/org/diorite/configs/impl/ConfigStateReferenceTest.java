@@ -0,0 +1,178 @@
+package org.diorite.configs.impl;
+
+import org.diorite.configs.ConfigManager;
+import org.diorite.configs.ConfigTemplate;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ConfigStateReferenceTest {
+    private static final int WRITES = 20_000;
+    private static final int READERS = 3;
+
+    private final ConfigManager manager = ConfigManager.createInstance();
+    private final ConfigTemplate<ConcurrentTestConfig> template = this.manager.getTemplate(ConcurrentTestConfig.class);
+
+    private int index(String name) {
+        return this.template.getProperty(name).getIndex();
+    }
+
+    @Test
+    void copiesCollectionsBeforePublishing() {
+        ConcurrentTestConfig config = this.manager.create(ConcurrentTestConfig.class);
+        List<String> names = new ArrayList<>(List.of("x", "y"));
+        config.setNames(names);
+        names.add("z");
+        assertEquals(List.of("x", "y"), config.getNames());
+        assertThrows(UnsupportedOperationException.class, () -> config.getNames().add("z"));
+
+        List<Integer> group = new ArrayList<>(List.of(1, 2));
+        Map<String, List<Integer>> groups = new HashMap<>();
+        groups.put("group", group);
+        config.setGroups(groups);
+        group.add(3);
+        groups.put("other", List.of());
+        assertEquals(Map.of("group", List.of(1, 2)), config.getGroups());
+        assertThrows(UnsupportedOperationException.class, () -> config.getGroups().get("group").add(3));
+        assertThrows(UnsupportedOperationException.class, () -> config.getGroups().clear());
+    }
+
+    @Test
+    void uncommittedValuesAreVisibleOnlyToTransactionThread() throws Exception {
+        ConcurrentTestConfig config = this.manager.create(ConcurrentTestConfig.class);
+        ConfigPropertyAccess access = (ConfigPropertyAccess) config;
+        int first = this.index("first");
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            this.manager.update(config, changed -> {
+                changed.setFirst(7);
+                assertEquals(7, access.getProperty(first));
+                assertEquals(0, changed.getFirst());
+                try {
+                    assertEquals(0, executor.submit(() -> access.getProperty(first)).get());
+                    assertEquals(0, executor.submit(config::getFirst).get());
+                }
+                catch (Exception e) {
+                    throw new AssertionError(e);
+                }
+            });
+            assertEquals(7, config.getFirst());
+            assertEquals(7, executor.submit(() -> access.getProperty(first)).get());
+        }
+        finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void failedTransactionIsNotPublished() {
+        ConcurrentTestConfig config = this.manager.create(ConcurrentTestConfig.class);
+        assertThrows(IllegalStateException.class, () -> this.manager.update(config, changed -> {
+            changed.setFirst(1);
+            changed.setSecond(- 1);
+            throw new IllegalStateException();
+        }));
+        assertEquals(0, config.getFirst());
+        assertEquals(0, config.getSecond());
+        assertTrue(((ConfigPropertyAccess) config).getDirtyProperties().isEmpty());
+    }
+
+    @Test
+    void propertiesChangedAfterSnapshotStayDirty() {
+        ConcurrentTestConfig config = this.manager.create(ConcurrentTestConfig.class);
+        ConfigPropertyAccess access = (ConfigPropertyAccess) config;
+        ConfigStateReference reference = access.getStateReference();
+        assertNotNull(reference);
+        config.setFirst(1);
+        config.setSecond(2);
+        BitSet dirty = new BitSet();
+        ConfigState saved = reference.snapshot(dirty);
+        assertEquals(access.getDirtyProperties(), dirty);
+
+        config.setFirst(3);
+        config.setNames(List.of("b"));
+        reference.clearDirty(saved, dirty);
+        BitSet expected = new BitSet();
+        expected.set(this.index("first"));
+        expected.set(this.index("names"));
+        assertEquals(expected, access.getDirtyProperties());
+    }
+
+    @Test
+    void readersSeeOnlyCommittedTransactions() throws Exception {
+        ConcurrentTestConfig config = this.manager.create(ConcurrentTestConfig.class);
+        ConfigStateReference reference = ((ConfigPropertyAccess) config).getStateReference();
+        assertNotNull(reference);
+        config.setNames(List.of("0"));
+        int firstIndex = this.index("first");
+        int secondIndex = this.index("second");
+        int namesIndex = this.index("names");
+        ExecutorService executor = Executors.newFixedThreadPool(READERS + 1);
+        AtomicBoolean running = new AtomicBoolean(true);
+        CountDownLatch started = new CountDownLatch(READERS + 1);
+        try {
+            List<Future<Integer>> readers = new ArrayList<>(READERS);
+            for (int i = 0; i < READERS; i++) {
+                readers.add(executor.submit(() -> {
+                    started.countDown();
+                    int checked = 0;
+                    int last = 0;
+                    while (running.get() || (checked == 0)) {
+                        ConfigState state = reference.get();
+                        int first = (int) state.get(firstIndex);
+                        int second = (int) state.get(secondIndex);
+                        List<?> names = (List<?>) state.get(namesIndex);
+                        // properties changed by single transaction are always seen together, and published states never go back
+                        assertEquals(first, - second);
+                        assertEquals(Integer.toString(first), names.get(0));
+                        assertTrue(first >= last);
+                        last = first;
+                        checked++;
+                    }
+                    return checked;
+                }));
+            }
+            Future<?> writer = executor.submit(() -> {
+                started.countDown();
+                for (int i = 1; i <= WRITES; i++) {
+                    int value = i;
+                    List<String> names = new ArrayList<>(List.of(Integer.toString(value)));
+                    this.manager.update(config, changed -> {
+                        changed.setFirst(value);
+                        changed.setNames(names);
+                        changed.setSecond(- value);
+                    });
+                    names.set(0, "changed");
+                }
+                return null;
+            });
+            writer.get(1, TimeUnit.MINUTES);
+            running.set(false);
+            for (Future<Integer> reader : readers) {
+                assertTrue(reader.get(1, TimeUnit.MINUTES) > 0);
+            }
+            assertEquals(WRITES, config.getFirst());
+            assertEquals(- WRITES, config.getSecond());
+            assertEquals(List.of(Integer.toString(WRITES)), config.getNames());
+        }
+        finally {
+            running.set(false);
+            executor.shutdownNow();
+        }
+    }
+}
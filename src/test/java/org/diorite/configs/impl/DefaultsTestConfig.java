@@ -0,0 +1,23 @@
+package org.diorite.configs.impl;
+
+import org.diorite.configs.Config;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+public interface DefaultsTestConfig extends Config<DefaultsTestConfig> {
+    default BigDecimal getPrice() {
+        return new BigDecimal("1.50");
+    }
+
+    default List<String> getFixed() {
+        return List.of("x");
+    }
+
+    default List<String> getItems() {
+        return new ArrayList<>(List.of("a"));
+    }
+
+    void setItems(List<String> items);
+}
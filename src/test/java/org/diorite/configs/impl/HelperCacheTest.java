@@ -0,0 +1,56 @@
+package org.diorite.configs.impl;
+
+import org.diorite.configs.ConfigManager;
+import org.junit.jupiter.api.Test;
+
+import java.io.StringReader;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class HelperCacheTest {
+    private final ConfigManager manager = ConfigManager.createInstance();
+
+    @Test
+    void valueIsComputedAgainOnlyAfterReadPropertyChanges() {
+        CachedHelperTestConfig config = this.manager.create(CachedHelperTestConfig.class);
+        int calls = CachedHelperTestConfig.DESCRIBE_CALLS.get();
+        assertEquals("a=1", config.describe());
+        assertEquals("a=1", config.describe());
+        config.setOther(5);
+        assertEquals("a=1", config.describe());
+        assertEquals(calls + 1, CachedHelperTestConfig.DESCRIBE_CALLS.get());
+        config.setValue(2);
+        assertEquals("a=2", config.describe());
+        assertEquals(calls + 2, CachedHelperTestConfig.DESCRIBE_CALLS.get());
+    }
+
+    @Test
+    void helperDependsOnPropertiesOfCalledHelpers() {
+        CachedHelperTestConfig config = this.manager.create(CachedHelperTestConfig.class);
+        int calls = CachedHelperTestConfig.TITLE_CALLS.get();
+        assertEquals("A=1", config.title());
+        assertEquals("A=1", config.title());
+        assertEquals(calls + 1, CachedHelperTestConfig.TITLE_CALLS.get());
+        config.setName("b");
+        assertEquals("B=1", config.title());
+        assertEquals(calls + 2, CachedHelperTestConfig.TITLE_CALLS.get());
+    }
+
+    @Test
+    void loadedValuesDiscardCachedValues() {
+        CachedHelperTestConfig config = this.manager.create(CachedHelperTestConfig.class);
+        assertEquals("a=1", config.describe());
+        this.manager.loadInto(CachedHelperTestConfig.class, config, new StringReader("name: c\n"));
+        assertEquals("c=1", config.describe());
+    }
+
+    @Test
+    void instancesHaveSeparateCaches() {
+        CachedHelperTestConfig first = this.manager.create(CachedHelperTestConfig.class);
+        CachedHelperTestConfig second = this.manager.create(CachedHelperTestConfig.class);
+        assertEquals("a=1", first.describe());
+        second.setName("d");
+        assertEquals("d=1", second.describe());
+        assertEquals("a=1", first.describe());
+    }
+}
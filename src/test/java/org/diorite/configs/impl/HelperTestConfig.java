@@ -0,0 +1,26 @@
+package org.diorite.configs.impl;
+
+import org.diorite.configs.Config;
+import org.diorite.configs.annotations.HelperMethod;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+public interface HelperTestConfig extends Config<HelperTestConfig> {
+    AtomicInteger CALLS = new AtomicInteger();
+
+    default int getFirst() {
+        return 1;
+    }
+
+    void setFirst(int first);
+
+    default int getSecond() {
+        return 2;
+    }
+
+    @HelperMethod(cached = true)
+    default int total() {
+        CALLS.incrementAndGet();
+        return this.getFirst() + this.getSecond();
+    }
+}
@@ -0,0 +1,77 @@
+package org.diorite.configs.index;
+
+import org.diorite.configs.ConfigException;
+import org.diorite.configs.ConfigManager;
+import org.junit.jupiter.api.Test;
+
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class AsMapIndexTest {
+    private final ConfigManager manager = ConfigManager.createInstance();
+
+    @Test
+    void elementsAreFoundByKey() {
+        IndexedTestConfig config = this.manager.create(IndexedTestConfig.class);
+        Map<Object, Map<String, Object>> index = this.manager.getIndex(IndexedTestConfig.class, config, "byId");
+        assertEquals(0, index.size());
+        List<Map<String, Object>> elements = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            elements.add(Map.of("id", "e" + i, "value", i));
+        }
+        config.setById(elements);
+        assertEquals(100, index.size());
+        assertSame(elements.get(42), index.get("e42"));
+        assertNull(index.get("e100"));
+        assertFalse(index.containsKey(42));
+    }
+
+    @Test
+    void changedElementsAreReindexed() {
+        IndexedTestConfig config = this.manager.create(IndexedTestConfig.class);
+        Map<Object, Map<String, Object>> index = this.manager.getIndex(IndexedTestConfig.class, config, "byId");
+        List<Map<String, Object>> elements = new ArrayList<>(List.of(Map.of("id", "a"), Map.of("id", "b")));
+        config.setById(elements);
+        elements.set(1, Map.of("id", "c"));
+        config.setById(elements);
+        assertNull(index.get("b"));
+        assertSame(elements.get(1), index.get("c"));
+        assertEquals(2, index.size());
+    }
+
+    @Test
+    void lastElementWithSameKeyIsIndexed() {
+        IndexedTestConfig config = this.manager.create(IndexedTestConfig.class);
+        Map<Object, Map<String, Object>> index = this.manager.getIndex(IndexedTestConfig.class, config, "byId");
+        Map<String, Object> last = Map.of("id", "a", "value", 2);
+        config.setById(Arrays.asList(Map.of("id", "a", "value", 1), null, last));
+        assertEquals(1, index.size());
+        assertSame(last, index.get("a"));
+    }
+
+    @Test
+    void keyFunctionMethodIsUsed() {
+        IndexedTestConfig config = this.manager.load(IndexedTestConfig.class,
+            new StringReader("byMethod:\n- {category: X, internalID: 54}\n- {category: Y, internalID: 1}\n"));
+        Map<Object, Map<String, Object>> index = this.manager.getIndex(IndexedTestConfig.class, config, "byMethod");
+        assertEquals(2, index.size());
+        assertEquals(54, index.get("X:54").get("internalID"));
+        assertEquals("Y", index.get("Y:1").get("category"));
+    }
+
+    @Test
+    void propertyWithoutIndexIsRejected() {
+        IndexedTestConfig config = this.manager.create(IndexedTestConfig.class);
+        assertThrows(ConfigException.class, () -> this.manager.getIndex(IndexedTestConfig.class, config, "plain"));
+        assertThrows(ConfigException.class, () -> this.manager.getIndex(IndexedTestConfig.class, config, "missing"));
+    }
+}
@@ -0,0 +1,34 @@
+package org.diorite.configs.index;
+
+import org.diorite.configs.Config;
+import org.diorite.configs.annotations.AsMap;
+import org.diorite.configs.annotations.GenerateKeyFromObjectFunction;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+public interface IndexedTestConfig extends Config<IndexedTestConfig> {
+    @AsMap(keys = "id")
+    default List<Map<String, Object>> getById() {
+        return new ArrayList<>();
+    }
+
+    void setById(List<Map<String, Object>> byId);
+
+    @AsMap(keys = {"category", "internalID"})
+    default List<Map<String, Object>> getByMethod() {
+        return new ArrayList<>();
+    }
+
+    void setByMethod(List<Map<String, Object>> byMethod);
+
+    @GenerateKeyFromObjectFunction(property = "byMethod")
+    private static String byMethodKey(Map<String, Object> element) {
+        return element.get("category") + ":" + element.get("internalID");
+    }
+
+    default int getPlain() {
+        return 0;
+    }
+}
@@ -0,0 +1,59 @@
+package org.diorite.configs.metrics;
+
+import org.diorite.configs.ConfigManager;
+import org.diorite.configs.validation.ValidatedTestConfig;
+import org.diorite.configs.validation.ValidationException;
+import org.junit.jupiter.api.Test;
+
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HistogramInstrumentationTest {
+    @Test
+    void lifecycleOperationsAreRecorded() {
+        ConfigManager manager = ConfigManager.createInstance();
+        HistogramInstrumentation histograms = new HistogramInstrumentation();
+        manager.getInstrumentation().set(histograms);
+
+        ValidatedTestConfig config = manager.load(ValidatedTestConfig.class, new StringReader("amount: 2\n"));
+        manager.save(ValidatedTestConfig.class, config, new StringWriter());
+        assertThrows(ValidationException.class, () -> config.setAmount(- 1));
+
+        assertEquals(Set.of(ValidatedTestConfig.class), histograms.getTypes());
+        assertEquals(1, histograms.getHistogram(ValidatedTestConfig.class, ConfigOperation.LOAD).getCount());
+        assertEquals(1, histograms.getHistogram(ValidatedTestConfig.class, ConfigOperation.READ).getCount());
+        assertEquals(1, histograms.getHistogram(ValidatedTestConfig.class, ConfigOperation.VALIDATE).getCount());
+        assertEquals(1, histograms.getHistogram(ValidatedTestConfig.class, ConfigOperation.SAVE).getCount());
+        assertTrue(histograms.getHistogram(ValidatedTestConfig.class, ConfigOperation.SCRIPT).getCount() >= 2);
+        assertEquals(0, histograms.getHistogram(ValidatedTestConfig.class, ConfigOperation.RELOAD).getCount());
+        assertEquals(1, histograms.getValidationFailures(ValidatedTestConfig.class));
+        assertEquals(Map.of("amount", 1L), histograms.getValidationFailuresByProperty(ValidatedTestConfig.class));
+
+        manager.getInstrumentation().set(ConfigInstrumentation.NONE);
+        manager.load(ValidatedTestConfig.class, new StringReader("amount: 2\n"));
+        assertEquals(1, histograms.getHistogram(ValidatedTestConfig.class, ConfigOperation.LOAD).getCount());
+    }
+
+    @Test
+    void percentilesAreAccurateToFactorOfTwo() {
+        OperationHistogram histogram = new HistogramInstrumentation().getHistogram(Object.class, ConfigOperation.LOAD);
+        assertEquals(0, histogram.getPercentileNanos(50));
+        for (long nanos = 1; nanos <= 1000; nanos++) {
+            histogram.record(nanos, nanos);
+        }
+        assertEquals(1000, histogram.getCount());
+        assertEquals(500, histogram.getMeanNanos());
+        assertEquals(1000, histogram.getMaxNanos());
+        assertEquals(1000, histogram.getPercentileNanos(100));
+        long median = histogram.getPercentileNanos(50);
+        assertTrue((median >= 500) && (median < 1000), String.valueOf(median));
+        assertEquals(500, histogram.getMeanAllocatedBytes());
+        assertThrows(IllegalArgumentException.class, () -> histogram.getPercentileNanos(101));
+    }
+}
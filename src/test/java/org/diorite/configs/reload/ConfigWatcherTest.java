@@ -0,0 +1,81 @@
+package org.diorite.configs.reload;
+
+import org.diorite.configs.ConfigManager;
+import org.diorite.configs.ExampleInterfaceConfig;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ConfigWatcherTest {
+    private static final Duration DEBOUNCE = Duration.ofMillis(300);
+    private static final int WRITES = 5;
+
+    private final ConfigManager manager = ConfigManager.createInstance();
+
+    private static void write(Path path, int value) throws IOException {
+        Files.write(path, ("value: " + value + "\n").getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void burstOfWritesIsReloadedOnce(@TempDir Path directory) throws Exception {
+        Path path = directory.resolve("config.yml");
+        write(path, 0);
+        try (ConfigWatcher watcher = new ConfigWatcher(this.manager, DEBOUNCE)) {
+            ReloadableConfig<ExampleInterfaceConfig> config = watcher.watch(ExampleInterfaceConfig.class, path);
+            List<Integer> reloaded = new CopyOnWriteArrayList<>();
+            CountDownLatch first = new CountDownLatch(1);
+            config.onReload(snapshot -> {
+                reloaded.add(snapshot.getValue());
+                first.countDown();
+            });
+            for (int i = 1; i <= WRITES; i++) {
+                write(path, i);
+                Thread.sleep(10);
+            }
+            assertTrue(first.await(30, TimeUnit.SECONDS));
+            Thread.sleep(DEBOUNCE.toMillis() * 3);
+            assertEquals(List.of(WRITES), reloaded);
+            assertEquals(WRITES, config.get().getValue());
+        }
+    }
+
+    @Test
+    void unwatchedConfigIsNotReloaded(@TempDir Path directory) throws Exception {
+        Path path = directory.resolve("config.yml");
+        Path other = directory.resolve("other.yml");
+        write(path, 0);
+        write(other, 0);
+        try (ConfigWatcher watcher = new ConfigWatcher(this.manager, DEBOUNCE)) {
+            ReloadableConfig<ExampleInterfaceConfig> config = watcher.watch(ExampleInterfaceConfig.class, path);
+            ReloadableConfig<ExampleInterfaceConfig> otherConfig = watcher.watch(ExampleInterfaceConfig.class, other);
+            assertTrue(watcher.unwatch(config));
+            assertFalse(watcher.unwatch(config));
+
+            // directory is still watched for other config
+            CountDownLatch reloaded = new CountDownLatch(1);
+            otherConfig.onReload(snapshot -> reloaded.countDown());
+            write(path, 1);
+            write(other, 1);
+            assertTrue(reloaded.await(30, TimeUnit.SECONDS));
+            assertEquals(0, config.get().getValue());
+
+            assertTrue(watcher.unwatch(otherConfig));
+            write(other, 2);
+            Thread.sleep(DEBOUNCE.toMillis() * 3);
+            assertEquals(1, otherConfig.get().getValue());
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package org.diorite.configs.reload;
+
+import org.diorite.configs.ConfigException;
+import org.diorite.configs.ConfigManager;
+import org.diorite.configs.ExampleInterfaceConfig;
+import org.diorite.configs.yaml.LazyTestConfig;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ReloadableConfigTest {
+    private static final int WRITES = 300;
+    private static final int RELOADERS = 3;
+
+    private final ConfigManager manager = ConfigManager.createInstance();
+
+    private static void write(Path path, int value) throws IOException {
+        Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+        Files.write(temp, ("value: " + value + "\n").getBytes(StandardCharsets.UTF_8));
+        Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private ReloadableConfig<ExampleInterfaceConfig> watch(Path path) throws IOException {
+        return new ReloadableConfig<>(this.manager, ExampleInterfaceConfig.class, path, this.manager.load(ExampleInterfaceConfig.class, path));
+    }
+
+    @Test
+    void unchangedFileIsNotReloaded(@TempDir Path directory) throws IOException {
+        Path path = directory.resolve("config.yml");
+        write(path, 1);
+        ReloadableConfig<ExampleInterfaceConfig> config = this.watch(path);
+        assertFalse(config.reload());
+        write(path, 2);
+        assertTrue(config.reload());
+        assertEquals(2, config.get().getValue());
+        assertFalse(config.reload());
+    }
+
+    @Test
+    void invalidLazyValueKeepsOldSnapshot(@TempDir Path directory) throws IOException {
+        Path path = directory.resolve("config.yml");
+        Files.write(path, "weights: {a: 1}\n".getBytes(StandardCharsets.UTF_8));
+        ReloadableConfig<LazyTestConfig> config =
+            new ReloadableConfig<>(this.manager, LazyTestConfig.class, path, this.manager.load(LazyTestConfig.class, path));
+        LazyTestConfig loaded = config.get();
+        Files.write(path, "weights: {a: heavy}\n".getBytes(StandardCharsets.UTF_8));
+        assertThrows(ConfigException.class, config::reload);
+        assertSame(loaded, config.get());
+        assertEquals(Map.of("a", 1), config.get().getWeights());
+    }
+
+    @Test
+    void concurrentReloadsPublishSnapshotsInOrder(@TempDir Path directory) throws Exception {
+        Path path = directory.resolve("config.yml");
+        write(path, 0);
+        ReloadableConfig<ExampleInterfaceConfig> config = this.watch(path);
+        List<Integer> published = new ArrayList<>(WRITES);
+        config.onReload(snapshot -> published.add(snapshot.getValue()));
+        AtomicBoolean running = new AtomicBoolean(true);
+        ExecutorService executor = Executors.newFixedThreadPool(RELOADERS);
+        try {
+            List<Future<?>> reloaders = new ArrayList<>(RELOADERS);
+            for (int i = 0; i < RELOADERS; i++) {
+                reloaders.add(executor.submit(() -> {
+                    while (running.get()) {
+                        config.reload();
+                    }
+                    return null;
+                }));
+            }
+            for (int i = 1; i <= WRITES; i++) {
+                write(path, i);
+            }
+            running.set(false);
+            for (Future<?> reloader : reloaders) {
+                reloader.get(1, TimeUnit.MINUTES);
+            }
+        }
+        finally {
+            running.set(false);
+            executor.shutdownNow();
+        }
+        config.reload();
+        assertEquals(WRITES, config.get().getValue());
+        for (int i = 1; i < published.size(); i++) {
+            assertTrue(published.get(i - 1) < published.get(i), () -> "Snapshots published out of order: " + published);
+        }
+    }
+}
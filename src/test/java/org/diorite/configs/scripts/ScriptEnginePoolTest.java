@@ -0,0 +1,84 @@
+package org.diorite.configs.scripts;
+
+import org.diorite.configs.ConfigException;
+import org.junit.jupiter.api.Test;
+
+import javax.script.Bindings;
+import javax.script.CompiledScript;
+import javax.script.ScriptContext;
+import javax.script.ScriptEngineManager;
+import javax.script.ScriptException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+class ScriptEnginePoolTest {
+    private final ScriptEnginePool pool = new ScriptEnginePool();
+
+    @Test
+    void enginesAndScriptsAreShared() {
+        assumeNashorn();
+        assertSame(this.pool.getEngine(ScriptEngines.DEFAULT_LANGUAGE), this.pool.getEngine(new ArrayList<>(ScriptEngines.DEFAULT_LANGUAGE)));
+        CompiledScript script = this.pool.compile(ScriptEngines.DEFAULT_LANGUAGE, "x + 1");
+        assertSame(script, this.pool.compile(ScriptEngines.DEFAULT_LANGUAGE, "x + 1"));
+        assertNotSame(script, this.pool.compile(ScriptEngines.DEFAULT_LANGUAGE, "x + 2"));
+    }
+
+    @Test
+    void eachThreadHasOwnBindings() throws ScriptException, InterruptedException, ExecutionException {
+        assumeNashorn();
+        CompiledScript script = this.pool.compile(ScriptEngines.DEFAULT_LANGUAGE, "x * 2");
+        Bindings bindings = this.pool.getBindings(ScriptEngines.DEFAULT_LANGUAGE);
+        assertSame(bindings, this.pool.getBindings(ScriptEngines.DEFAULT_LANGUAGE));
+        bindings.put("x", 2);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Bindings other = executor.submit(() -> this.pool.getBindings(ScriptEngines.DEFAULT_LANGUAGE)).get();
+            assertNotSame(bindings, other);
+            Object result = executor.submit(() -> {
+                other.put("x", 5);
+                return script.eval(other);
+            }).get();
+            assertEquals(10, ((Number) result).intValue());
+        }
+        finally {
+            executor.shutdown();
+        }
+        assertEquals(4, ((Number) script.eval(bindings)).intValue());
+    }
+
+    @Test
+    void eachThreadReusesOwnContext() throws ScriptException, InterruptedException, ExecutionException {
+        assumeNashorn();
+        CompiledScript script = this.pool.compile(ScriptEngines.DEFAULT_LANGUAGE, "x - 1");
+        ScriptContext context = this.pool.getContext(ScriptEngines.DEFAULT_LANGUAGE);
+        assertSame(context, this.pool.getContext(ScriptEngines.DEFAULT_LANGUAGE));
+        assertSame(this.pool.getBindings(ScriptEngines.DEFAULT_LANGUAGE), context.getBindings(ScriptContext.ENGINE_SCOPE));
+        context.getBindings(ScriptContext.ENGINE_SCOPE).put("x", 8);
+        assertEquals(7, ((Number) script.eval(context)).intValue());
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            assertNotSame(context, executor.submit(() -> this.pool.getContext(ScriptEngines.DEFAULT_LANGUAGE)).get());
+        }
+        finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void unknownLanguageIsRejected() {
+        assertThrows(ConfigException.class, () -> this.pool.getEngine(List.of("no-such-language")));
+    }
+
+    private static void assumeNashorn() {
+        assumeTrue(new ScriptEngineManager().getEngineByName("nashorn") != null, "nashorn is not available");
+    }
+}
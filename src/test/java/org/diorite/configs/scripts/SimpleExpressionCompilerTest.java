@@ -0,0 +1,206 @@
+package org.diorite.configs.scripts;
+
+import org.jetbrains.annotations.Nullable;
+import org.junit.jupiter.api.Test;
+
+import javax.script.Bindings;
+import javax.script.ScriptEngine;
+import javax.script.ScriptEngineManager;
+import javax.script.ScriptException;
+import java.math.BigDecimal;
+import java.time.DayOfWeek;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+class SimpleExpressionCompilerTest {
+    private static final List<String> REGEXES = List.of("a$", "^a$", "^a", "a.b", "a.$", "^$", "a\\s+b", "a\\Sb", "[\\s]", "[^\\s]+$",
+                                                        "\\d+$", "^\\w+$", "a\\b", "[$]", "\\$", "a(?=\\n)", "(?:a|b)$", "a\\vb", "[\\b]",
+                                                        "^.*$", "x*$", "A$");
+    // nashorn implements ECMAScript 5.1, without dotAll flag
+    private static final List<String> FLAGS = List.of("", "i", "m", "im");
+    private static final List<String> INPUTS = List.of("a", "a\n", "a\r\n", "a\r", "a\u0085", "a ", "\na", "\u0085a", "a\nb", "a\u0085b",
+                                                       "a b", "a\u00A0b", "a\uFEFFb", "a\u2028b", "a\u000Bb", "ab", "A", "", "\n", "$",
+                                                       "x\n", "b\n\n", "\b", "a\u0085\n");
+    private static final List<String> EXPRESSIONS = List.of("x > 3", "x >= 3", "x < 3", "x <= 3", "x == 3", "x != 3", "x === 3", "x !== 3",
+                                                            "x == '3'", "x === '3'", "x == null", "x === null", "x == undefined",
+                                                            "x === undefined", "x == true", "x == false", "x > 'a'", "x < '10'", "'10' < x",
+                                                            "x + 1", "x + '1'", "'a' + x", "x - 1", "x * 2", "x / 2", "x % 2", "x / 0", "-x",
+                                                            "- x / 0", "!x", "!!x", "x && 1", "x || 'default'", "x == 0 || x == 1",
+                                                            "(x + 1) * 2 > 5", "1.5e2 + x", "x.length", "x.length > 2", "x.length + 1",
+                                                            "x.length == 0", "x != null && x.length > 0", "x.size()", "x.size() > 0",
+                                                            "x.isEmpty()", "x.length()", "x.matches('a.*')", "1 + 2 * 3", "10 / 4", "7 % 3",
+                                                            "'a' < 'b'", "null == undefined", "null === undefined", "null + 1",
+                                                            "undefined + 1", "true + 1", "'5' * '2'", "' 5 ' == 5", "'' == 0");
+    // other char sequences are java objects in nashorn, and "x + null" is not compared, as nashorn concatenates null with long and
+    // BigDecimal values, but adds it to other numbers
+    private static final List<Object> VALUES = Arrays.asList(3, 5, 0, - 1, 7L, (short) 4, 2.5, 3.0, 1.5f, Double.NaN, new BigDecimal("2.5"),
+                                                             "3", "abc", "", " 5 ", "10", true, false, null, List.of(1, 2), List.of(),
+                                                             Set.of(1), new int[]{1, 2, 3}, new String[0], Map.of("a", 1),
+                                                             Map.of("length", 5), new HashMap<>(), DayOfWeek.MONDAY);
+
+    @Test
+    void regexAnchorsMatchOnlyAtEndOfInput() throws ScriptException {
+        assertEquals(false, eval("/a$/.test(x)", "a\n"));
+        assertEquals(true, eval("/a$/.test(x)", "a"));
+        assertEquals(true, eval("/a$/m.test(x)", "a\nb"));
+        assertEquals(false, eval("/a$/m.test(x)", "a\u0085b"));
+        assertEquals(false, eval("/a.b/.test(x)", "a\nb"));
+        assertEquals(true, eval("/a.b/.test(x)", "a\u0085b"));
+        assertEquals(true, eval("/a.b/s.test(x)", "a\u2028b"));
+        assertEquals(true, eval("/a\\sb/.test(x)", "a\u00A0b"));
+        assertEquals(false, eval("x.matches('a$')", "a\n"));
+    }
+
+    @Test
+    void javaOnlySyntaxIsNotCompiled() {
+        for (String regex : List.of("(a)\\1", "a*+", "[a&&b]", "[[a]]", "(?i)a", "\\z", "\\Qa\\E", "\\h", "[^]", "[]", "[\\S]", "\\0")) {
+            assertNull(SimpleExpressionCompiler.compile("/" + regex + "/.test(x)"), regex);
+        }
+        assertNotNull(SimpleExpressionCompiler.compile("/^[a-z]+$/i.test(x)"));
+    }
+
+    @Test
+    void valuesAreConvertedLikeInJavaScript() throws ScriptException {
+        assertEquals(true, eval("x == 3", "3"));
+        assertEquals(false, eval("x === 3", "3"));
+        assertEquals(true, eval("x == undefined", null));
+        assertEquals("31", eval("x + '1'", 3));
+        assertEquals(4.0, eval("x + true", 3));
+        assertEquals(true, eval("x < 'b'", "a"));
+        assertEquals(false, eval("x < 3", "abc"));
+        assertEquals("default", eval("x || 'default'", ""));
+        assertEquals(2, eval("x.length", List.of(1, 2)));
+        assertEquals(1, eval("x.size()", Map.of("a", 1)));
+        assertEquals(true, eval("x.isEmpty()", ""));
+    }
+
+    @Test
+    void unsupportedExpressionsAreLeftToScriptEngine() throws ScriptException {
+        List<String> unsupported = List.of("cfg.getLimit() > x", "x.split(',').length < 3", "x ? 1 : 2", "x = 1", "Math.max(x, 1)", "x.foo",
+                                           "x[0]", "0x10 == x", "x++", "typeof x", "'\\u0041' == x", "x instanceof Object", "[1, 2]");
+        for (String source : unsupported) {
+            assertNull(SimpleExpressionCompiler.compile(source), source);
+        }
+        ScriptEngine engine = new ScriptEngineManager().getEngineByName("nashorn");
+        assumeTrue(engine != null, "nashorn is not available");
+        for (String source : unsupported.subList(1, unsupported.size())) {
+            Bindings bindings = engine.createBindings();
+            bindings.put("x", "1,2");
+            engine.eval(source, bindings); // valid javascript evaluated by engine instead
+        }
+    }
+
+    @Test
+    void expressionsMatchScriptEngine() throws ScriptException {
+        ScriptEngine engine = assumeNashorn();
+        List<String> differences = new ArrayList<>();
+        for (String source : EXPRESSIONS) {
+            SimpleExpression expression = SimpleExpressionCompiler.compile(source);
+            assertNotNull(expression, source);
+            for (Object value : VALUES) {
+                String expected = result(() -> engine.eval(source, bindings(engine, value)));
+                String actual = result(() -> expression.eval(value, null));
+                if (! expected.equals(actual)) {
+                    differences.add(source + " for " + describe(value) + " should be " + expected + ", but is " + actual);
+                }
+            }
+        }
+        assertEquals(List.of(), differences);
+    }
+
+    @Test
+    void regexesMatchScriptEngine() throws ScriptException {
+        ScriptEngine engine = assumeNashorn();
+        List<String> differences = new ArrayList<>();
+        for (String regex : REGEXES) {
+            for (String flags : FLAGS) {
+                String source = "/" + regex + "/" + flags + ".test(x)";
+                SimpleExpression expression = SimpleExpressionCompiler.compile(source);
+                assertNotNull(expression, source);
+                compare(engine, source, expression, differences);
+            }
+            String source = "x.matches('" + regex.replace("\\", "\\\\") + "')";
+            SimpleExpression expression = SimpleExpressionCompiler.compile(source);
+            if (expression != null) { // invalid java patterns are left to script engine
+                compare(engine, source, expression, differences);
+            }
+        }
+        assertEquals(List.of(), differences);
+    }
+
+    private static void compare(ScriptEngine engine, String source, SimpleExpression expression, List<String> differences)
+            throws ScriptException {
+        for (String input : INPUTS) {
+            Object expected = engine.eval(source, bindings(engine, input));
+            if (! expected.equals(expression.eval(input, null))) {
+                differences.add(source + " for " + escape(input) + " should be " + expected);
+            }
+        }
+    }
+
+    private static ScriptEngine assumeNashorn() {
+        ScriptEngine engine = new ScriptEngineManager().getEngineByName("nashorn");
+        assumeTrue(engine != null, "nashorn is not available");
+        return engine;
+    }
+
+    private static Bindings bindings(ScriptEngine engine, @Nullable Object x) {
+        Bindings bindings = engine.createBindings();
+        bindings.put("x", x);
+        return bindings;
+    }
+
+    /**
+     * @return description of result of given expression, numbers of all types are compared by their value and errors are equal.
+     */
+    private static String result(Evaluation evaluation) {
+        try {
+            return describe(evaluation.eval());
+        }
+        catch (ScriptException e) {
+            return "error";
+        }
+    }
+
+    private static String describe(@Nullable Object value) {
+        if (value == null) {
+            return "null";
+        }
+        if (value instanceof Number) {
+            return "number " + ((Number) value).doubleValue();
+        }
+        if (value.getClass().isArray()) {
+            return value.getClass().getComponentType().getName() + "[]";
+        }
+        return value.getClass().getSimpleName() + " '" + escape(value.toString()) + "'";
+    }
+
+    private static Object eval(String source, @Nullable Object x) throws ScriptException {
+        SimpleExpression expression = SimpleExpressionCompiler.compile(source);
+        assertNotNull(expression, source);
+        return expression.eval(x, null);
+    }
+
+    private static String escape(String value) {
+        StringBuilder builder = new StringBuilder();
+        for (char c : value.toCharArray()) {
+            builder.append(((c >= 0x20) && (c < 0x7F)) ? String.valueOf(c) : String.format("\\u%04X", (int) c));
+        }
+        return builder.toString();
+    }
+
+    @FunctionalInterface
+    private interface Evaluation {
+        @Nullable
+        Object eval() throws ScriptException;
+    }
+}
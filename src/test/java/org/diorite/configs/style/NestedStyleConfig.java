@@ -0,0 +1,14 @@
+package org.diorite.configs.style;
+
+import org.diorite.configs.Config;
+import org.diorite.configs.annotations.ConfigClass;
+import org.diorite.configs.annotations.style.StringStyle;
+
+import java.util.Map;
+
+@ConfigClass
+public interface NestedStyleConfig extends Config<NestedStyleConfig> {
+    default Map<String, @StringStyle(StringStyles.QUOTED_DOUBLE) String> getNames() {
+        return Map.of("key", "value");
+    }
+}
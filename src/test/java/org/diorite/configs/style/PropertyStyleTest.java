@@ -0,0 +1,73 @@
+package org.diorite.configs.style;
+
+import org.diorite.configs.ConfigManager;
+import org.diorite.configs.annotations.style.NumberStyle;
+import org.diorite.configs.annotations.style.StringStyle;
+import org.diorite.configs.annotations.style.Style;
+import org.junit.jupiter.api.Test;
+
+import java.io.StringWriter;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PropertyStyleTest {
+    private static PropertyStyle style(String method) throws NoSuchMethodException {
+        return PropertyStyle.of(Styled.class.getMethod(method));
+    }
+
+    @Test
+    void readsStylesOfTypeArguments() throws NoSuchMethodException {
+        PropertyStyle map = style("getMap");
+        assertEquals(StringStyles.AUTO, map.getStringStyle(1));
+        assertEquals(StringStyles.QUOTED_DOUBLE, map.getStringStyle(2));
+        assertEquals(StringStyles.AUTO, map.getStringStyle(3));
+
+        PropertyStyle nested = style("getNested");
+        assertEquals(Styles.EXPLICIT, nested.getStyle(1));
+        assertEquals(Styles.INLINE, nested.getStyle(2));
+        assertEquals(Styles.EXPLICIT, nested.getStyle(3));
+        assertEquals("0x00", nested.getNumberFormat(3));
+        assertNull(nested.getNumberFormat(2));
+        assertNull(nested.getNumberFormat(4));
+    }
+
+    @Test
+    void depthOfTypeArgumentStyleIsCountedFromArgument() throws NoSuchMethodException {
+        PropertyStyle deep = style("getDeep");
+        assertEquals(Styles.AUTO, deep.getStyle(1));
+        assertEquals(Styles.INLINE, deep.getStyle(2));
+        assertEquals(Styles.INLINE, deep.getStyle(3));
+        assertEquals(Styles.AUTO, deep.getStyle(4));
+    }
+
+    @Test
+    void savesValuesWithStyleOfTypeArgument() {
+        ConfigManager manager = ConfigManager.createInstance();
+        PropertyStyle style = manager.getTemplate(NestedStyleConfig.class).getProperty("names").getStyle();
+        assertEquals(StringStyles.QUOTED_DOUBLE, style.getStringStyle(2));
+        StringWriter out = new StringWriter();
+        manager.save(NestedStyleConfig.class, manager.create(NestedStyleConfig.class), out);
+        assertTrue(out.toString().contains("\"key\": \"value\""), out::toString);
+    }
+
+    @Test
+    void propertiesWithoutStylesUseDefault() throws NoSuchMethodException {
+        assertSame(PropertyStyle.DEFAULT, style("getPlain"));
+    }
+
+    interface Styled {
+        Map<String, @StringStyle(StringStyles.QUOTED_DOUBLE) String> getMap();
+
+        @Style(value = Styles.EXPLICIT, depth = 3)
+        List<@Style(Styles.INLINE) List<@NumberStyle("0x00") Integer>> getNested();
+
+        List<@Style(value = Styles.INLINE, depth = 2) List<List<String>>> getDeep();
+
+        List<Map<String, Integer>> getPlain();
+    }
+}
@@ -0,0 +1,48 @@
+package org.diorite.configs.validation;
+
+import org.diorite.configs.ConfigException;
+import org.diorite.configs.ConfigManager;
+import org.junit.jupiter.api.Test;
+
+import java.io.StringReader;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ConfigValidationTest {
+    private final ConfigManager manager = ConfigManager.createInstance();
+
+    @Test
+    void scriptValidatorRejectsInvalidValue() {
+        ValidatedTestConfig config = this.manager.create(ValidatedTestConfig.class);
+        config.setAmount(3);
+        assertEquals(3, config.getAmount());
+        ValidationException exception = assertThrows(ValidationException.class, () -> config.setAmount(- 2));
+        assertEquals("amount -2 is negative", exception.getMessage());
+        assertEquals("amount", exception.getProperty().getName());
+        assertEquals(3, config.getAmount());
+    }
+
+    @Test
+    void engineScriptValidatorIsSharedByInstances() {
+        for (int i = 0; i < 3; i++) {
+            ValidatedTestConfig config = this.manager.create(ValidatedTestConfig.class);
+            config.setParts("a,b");
+            assertEquals("a,b", config.getParts());
+            assertEquals("too many parts", assertThrows(ValidationException.class, () -> config.setParts("a,b,c")).getMessage());
+        }
+    }
+
+    @Test
+    void methodValidatorReplacesValue() {
+        ValidatedTestConfig config = this.manager.create(ValidatedTestConfig.class);
+        config.setLimit(500);
+        assertEquals(100, config.getLimit());
+    }
+
+    @Test
+    void loadedValuesAreValidated() {
+        assertEquals(100, this.manager.load(ValidatedTestConfig.class, new StringReader("limit: 200\n")).getLimit());
+        assertThrows(ConfigException.class, () -> this.manager.load(ValidatedTestConfig.class, new StringReader("amount: -1\n")));
+    }
+}
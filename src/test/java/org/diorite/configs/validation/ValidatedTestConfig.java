@@ -0,0 +1,32 @@
+package org.diorite.configs.validation;
+
+import org.diorite.configs.Config;
+import org.diorite.configs.annotations.ScriptValidator;
+import org.diorite.configs.annotations.Validator;
+
+public interface ValidatedTestConfig extends Config<ValidatedTestConfig> {
+    @ScriptValidator(isTrue = "x >= 0", elseThrow = "amount ${x} is negative")
+    default int getAmount() {
+        return 1;
+    }
+
+    void setAmount(int amount);
+
+    @ScriptValidator(isTrue = "x.split(',').length < 3", elseThrow = "too many parts")
+    default String getParts() {
+        return "a";
+    }
+
+    void setParts(String parts);
+
+    default int getLimit() {
+        return 10;
+    }
+
+    void setLimit(int limit);
+
+    @Validator
+    private int limitValidator(int limit) {
+        return Math.min(limit, 100);
+    }
+}
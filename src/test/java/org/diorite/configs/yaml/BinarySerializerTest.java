@@ -0,0 +1,93 @@
+package org.diorite.configs.yaml;
+
+import org.diorite.configs.ConfigException;
+import org.diorite.configs.ConfigManager;
+import org.diorite.configs.style.PropertyStyle;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BinarySerializerTest {
+    private final ValueSerializers serializers = new ValueSerializers(ConfigManager.createInstance());
+
+    private static Object read(String yaml) {
+        YamlReader reader = new YamlReader(new StringReader(yaml));
+        reader.startDocument();
+        return reader.read(BinarySerializer.INSTANCE);
+    }
+
+    @Test
+    void decodesBase64IgnoringOnlyWhitespace() {
+        assertArrayEquals("hello".getBytes(StandardCharsets.US_ASCII), Base64Codec.decode("aGVs\n  bG8="));
+        assertArrayEquals("hi".getBytes(StandardCharsets.US_ASCII), Base64Codec.decode("aGk=\n"));
+        assertArrayEquals(new byte[0], Base64Codec.decode(""));
+        assertThrows(IllegalArgumentException.class, () -> Base64Codec.decode("aGVs*bG8="));
+        assertThrows(IllegalArgumentException.class, () -> Base64Codec.decode("aGVsbG8=x"));
+        assertThrows(IllegalArgumentException.class, () -> Base64Codec.decode("aGk=aGk="));
+        assertThrows(IllegalArgumentException.class, () -> Base64Codec.decode("aGk==="));
+        assertThrows(IllegalArgumentException.class, () -> Base64Codec.decode("aGk\u00E9"));
+        assertThrows(IllegalArgumentException.class, () -> Base64Codec.decode("aG==="));
+        assertThrows(IllegalArgumentException.class, () -> Base64Codec.decode("a"));
+    }
+
+    @Test
+    void readsBytesOfSequenceInRange() {
+        assertArrayEquals(new byte[] {- 128, - 1, 0, 127, (byte) 0xFF}, (byte[]) read("[-128, -1, 0, 127, 0xFF]"));
+        assertThrows(ConfigException.class, () -> read("[256]"));
+        assertThrows(ConfigException.class, () -> read("[-129]"));
+        assertThrows(ConfigException.class, () -> read("!!binary 'aGVs*bG8='"));
+    }
+
+    @Test
+    void concurrentWritesOfSameFileUseOwnTemporaryFiles(@TempDir Path directory) throws Exception {
+        byte[] data = new byte[4096];
+        new Random(12).nextBytes(data);
+        PropertyStyle style = PropertyStyle.DEFAULT.withBinaryFile(16);
+        Path yaml = directory.resolve("config.yml");
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<String>> saves = new ArrayList<>(16);
+            for (int i = 0; i < 16; i++) {
+                saves.add(executor.submit(() -> {
+                    StringWriter out = new StringWriter();
+                    YamlWriter writer = new YamlWriter(out, this.serializers);
+                    writer.setPath(yaml);
+                    writer.write(BinarySerializer.INSTANCE, data, style, 0);
+                    writer.flush();
+                    return out.toString();
+                }));
+            }
+            String written = saves.get(0).get();
+            for (Future<String> save : saves) {
+                assertEquals(written, save.get());
+            }
+        }
+        finally {
+            executor.shutdownNow();
+        }
+        try (Stream<Path> files = Files.list(BinarySerializer.filesDirectory(yaml))) {
+            List<Path> paths = files.collect(Collectors.toList());
+            assertEquals(1, paths.size(), paths::toString);
+            assertTrue(paths.get(0).toString().endsWith(".bin"));
+            assertArrayEquals(data, Files.readAllBytes(paths.get(0)));
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package org.diorite.configs.yaml;
+
+import org.diorite.configs.ConfigException;
+import org.diorite.configs.ConfigManager;
+import org.junit.jupiter.api.Test;
+
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.time.DayOfWeek;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ConfigSerializerTest {
+    private static final String DOCUMENT = "count: 7\n" +
+                                           "display-name: 'loaded'\n" +
+                                           "unknown: {nested: [1, 2]}\n" +
+                                           "tags: [a, b]\n" +
+                                           "groups:\n" +
+                                           "  first: [1, 2]\n" +
+                                           "  second: []\n" +
+                                           "day: FRIDAY\n" +
+                                           "ids: [3, 4]\n" +
+                                           "bean:\n" +
+                                           "  beanValueInt: 5\n" +
+                                           "  beanValueStringList: [x]\n";
+
+    private final ConfigManager manager = ConfigManager.createInstance();
+
+    @Test
+    void bindsDocumentIntoProperties() {
+        LoadedTestConfig config = this.manager.load(LoadedTestConfig.class, new StringReader(DOCUMENT));
+        assertEquals(7, config.getCount());
+        assertEquals("loaded", config.getName());
+        assertEquals(List.of("a", "b"), config.getTags());
+        assertEquals(Map.of("first", List.of(1, 2), "second", List.of()), config.getGroups());
+        assertEquals(DayOfWeek.FRIDAY, config.getDay());
+        assertArrayEquals(new long[]{3, 4}, config.getIds());
+        assertEquals(5, config.getBean().getBeanValueInt());
+        assertEquals(List.of("x"), config.getBean().getBeanValueStringList());
+    }
+
+    @Test
+    void missingPropertiesKeepDefaults() {
+        LoadedTestConfig config = this.manager.load(LoadedTestConfig.class, new StringReader("title: alternate\n"));
+        assertEquals("alternate", config.getName());
+        assertEquals(1, config.getCount());
+        assertEquals(DayOfWeek.MONDAY, config.getDay());
+    }
+
+    @Test
+    void loadIntoChangesOnlyPresentProperties() {
+        LoadedTestConfig config = this.manager.load(LoadedTestConfig.class, new StringReader(DOCUMENT));
+        this.manager.loadInto(LoadedTestConfig.class, config, new StringReader("count: 8\n"));
+        assertEquals(8, config.getCount());
+        assertEquals("loaded", config.getName());
+    }
+
+    @Test
+    void savedDocumentLoadsSameValues() {
+        LoadedTestConfig config = this.manager.load(LoadedTestConfig.class, new StringReader(DOCUMENT));
+        StringWriter writer = new StringWriter();
+        this.manager.save(LoadedTestConfig.class, config, writer);
+        LoadedTestConfig loaded = this.manager.load(LoadedTestConfig.class, new StringReader(writer.toString()));
+        assertEquals(config.getGroups(), loaded.getGroups());
+        assertEquals(config.getName(), loaded.getName());
+        assertArrayEquals(config.getIds(), loaded.getIds());
+        assertEquals(config.getBean().getBeanValueStringList(), loaded.getBean().getBeanValueStringList());
+    }
+
+    @Test
+    void invalidValueIsReported() {
+        assertThrows(ConfigException.class, () -> this.manager.load(LoadedTestConfig.class, new StringReader("count: many\n")));
+        assertThrows(ConfigException.class, () -> this.manager.load(LoadedTestConfig.class, new StringReader("day: SOMEDAY\n")));
+    }
+}
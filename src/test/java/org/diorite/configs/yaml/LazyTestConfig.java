@@ -0,0 +1,44 @@
+package org.diorite.configs.yaml;
+
+import org.diorite.configs.Config;
+import org.diorite.configs.annotations.Lazy;
+import org.diorite.configs.annotations.Validator;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public interface LazyTestConfig extends Config<LazyTestConfig> {
+    AtomicInteger VALIDATIONS = new AtomicInteger();
+    AtomicInteger COUNT_LIMIT = new AtomicInteger(Integer.MAX_VALUE);
+
+    @Lazy
+    default List<String> getItems() {
+        return List.of();
+    }
+
+    void setItems(List<String> items);
+
+    @Lazy
+    default Map<String, Integer> getWeights() {
+        return Map.of();
+    }
+
+    default int getCount() {
+        return 0;
+    }
+
+    @Validator
+    private List<String> itemsValidator(List<String> items) {
+        VALIDATIONS.incrementAndGet();
+        return items;
+    }
+
+    @Validator
+    private int countValidator(int count) {
+        if (count > COUNT_LIMIT.get()) {
+            throw new IllegalArgumentException("count is over " + COUNT_LIMIT.get());
+        }
+        return count;
+    }
+}
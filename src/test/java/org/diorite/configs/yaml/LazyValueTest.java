@@ -0,0 +1,55 @@
+package org.diorite.configs.yaml;
+
+import org.diorite.configs.ConfigException;
+import org.diorite.configs.ConfigManager;
+import org.junit.jupiter.api.Test;
+
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class LazyValueTest {
+    private static final String DOCUMENT = "items: [a, b]\nweights: {a: 1, b: 2}\ncount: 3\n";
+
+    private final ConfigManager manager = ConfigManager.createInstance();
+
+    @Test
+    void lazyPropertyIsReadOnFirstUse() {
+        int validations = LazyTestConfig.VALIDATIONS.get();
+        LazyTestConfig config = this.manager.load(LazyTestConfig.class, new StringReader(DOCUMENT));
+        assertEquals(3, config.getCount());
+        assertEquals(validations, LazyTestConfig.VALIDATIONS.get());
+        assertEquals(List.of("a", "b"), config.getItems());
+        assertEquals(validations + 1, LazyTestConfig.VALIDATIONS.get());
+        assertEquals(List.of("a", "b"), config.getItems());
+        assertEquals(validations + 1, LazyTestConfig.VALIDATIONS.get());
+        assertEquals(Map.of("a", 1, "b", 2), config.getWeights());
+    }
+
+    @Test
+    void setterReplacesUnreadValue() {
+        LazyTestConfig config = this.manager.load(LazyTestConfig.class, new StringReader(DOCUMENT));
+        config.setItems(List.of("c"));
+        assertEquals(List.of("c"), config.getItems());
+    }
+
+    @Test
+    void unreadValuesAreSaved() {
+        LazyTestConfig config = this.manager.load(LazyTestConfig.class, new StringReader(DOCUMENT));
+        StringWriter writer = new StringWriter();
+        this.manager.save(LazyTestConfig.class, config, writer);
+        LazyTestConfig loaded = this.manager.load(LazyTestConfig.class, new StringReader(writer.toString()));
+        assertEquals(List.of("a", "b"), loaded.getItems());
+        assertEquals(Map.of("a", 1, "b", 2), loaded.getWeights());
+    }
+
+    @Test
+    void invalidValueIsReportedByGetter() {
+        LazyTestConfig config = this.manager.load(LazyTestConfig.class, new StringReader("weights: {a: heavy}\n"));
+        assertThrows(ConfigException.class, config::getWeights);
+    }
+}
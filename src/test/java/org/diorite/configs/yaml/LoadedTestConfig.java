@@ -0,0 +1,40 @@
+package org.diorite.configs.yaml;
+
+import org.diorite.configs.Config;
+import org.diorite.configs.SomeBean;
+import org.diorite.configs.annotations.SerializedName;
+
+import java.time.DayOfWeek;
+import java.util.List;
+import java.util.Map;
+
+public interface LoadedTestConfig extends Config<LoadedTestConfig> {
+    default int getCount() {
+        return 1;
+    }
+
+    @SerializedName(value = "display-name", alternate = "title")
+    default String getName() {
+        return "default";
+    }
+
+    default List<String> getTags() {
+        return List.of();
+    }
+
+    default Map<String, List<Integer>> getGroups() {
+        return Map.of();
+    }
+
+    default DayOfWeek getDay() {
+        return DayOfWeek.MONDAY;
+    }
+
+    default long[] getIds() {
+        return new long[0];
+    }
+
+    default SomeBean getBean() {
+        return new SomeBean(0, List.of());
+    }
+}
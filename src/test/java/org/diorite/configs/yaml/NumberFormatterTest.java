@@ -0,0 +1,103 @@
+package org.diorite.configs.yaml;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.RoundingMode;
+import java.text.DecimalFormat;
+import java.text.DecimalFormatSymbols;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class NumberFormatterTest {
+    private static final List<String> PATTERNS = List.of("0", "#", "0.00", "#.##", "#,##0.###", "+0.0", "000.#", "0.000000", "+#,##0",
+                                                         "00000", "0.0");
+
+    @Test
+    void decimalPatternsMatchDecimalFormat() {
+        List<Number> numbers = new ArrayList<>(List.of(0, - 1, 7, 1234567, Long.MAX_VALUE, Long.MIN_VALUE + 1, 0.125, 2.675, 0.5, - 0.5,
+                                                       - 0.0, - 0.001, 1e20, 1e-7, 123456.789, 0.1f, 1.005f, - 2.5f, 3.0f,
+                                                       new BigDecimal("12345.6789"), new BigDecimal("-0.0049"), new BigDecimal("1E+3"),
+                                                       new BigInteger("123456789012345678901234567890"), (short) - 12, (byte) 5));
+        Random random = new Random(42);
+        for (int i = 0; i < 2000; i++) {
+            numbers.add((random.nextDouble() - 0.5) * Math.pow(10, random.nextInt(12) - 4));
+            numbers.add(random.nextFloat() * 1000);
+            numbers.add(random.nextInt());
+        }
+        List<String> differences = new ArrayList<>();
+        for (String pattern : PATTERNS) {
+            DecimalFormat reference = reference(pattern);
+            for (Number number : numbers) {
+                String expected = reference.format((number instanceof Float) ? new BigDecimal(number.toString()) :
+                                                   (((number instanceof Short) || (number instanceof Byte)) ? number.longValue() : number));
+                String actual = NumberFormats.format(number, pattern);
+                if (! expected.equals(actual)) {
+                    differences.add(pattern + " " + number + ": " + actual + " instead of " + expected);
+                }
+            }
+        }
+        assertEquals(List.of(), differences);
+    }
+
+    @Test
+    void radixAndSexagesimalFormats() {
+        assertEquals("0x00FF", NumberFormats.format(255, "0x0000"));
+        assertEquals("-0x1F", NumberFormats.format(- 31L, "0x"));
+        assertEquals("0010", NumberFormats.format(8, "0o000"));
+        assertEquals("-0b101", NumberFormats.format(- 5, "0b"));
+        assertEquals("0xFFFFFFFFFFFFFFFFF", NumberFormats.format(new BigInteger("FFFFFFFFFFFFFFFFF", 16), "0x"));
+        assertEquals("1:01:01", NumberFormats.format(3661, "H:M:S"));
+        assertEquals("59", NumberFormats.format(59, "H:M:S"));
+        assertEquals("-1:00", NumberFormats.format(- 60, "H:M"));
+        assertEquals("1.5", NumberFormats.format(1.5f, "."));
+        assertEquals(".nan", NumberFormats.format(Double.NaN, "0.00"));
+        assertEquals("-.inf", NumberFormats.format(Double.NEGATIVE_INFINITY, "0x"));
+    }
+
+    @Test
+    void formattersAreSharedBetweenThreads() {
+        assertSame(NumberFormats.formatter("#,##0.00"), NumberFormats.formatter("#,##0.00"));
+        List<String> expected = IntStream.range(0, 10000).mapToObj(i -> NumberFormats.format(i * 1.001, "#,##0.00"))
+                                         .collect(Collectors.toList());
+        List<String> parallel = IntStream.range(0, 10000).parallel().mapToObj(i -> NumberFormats.format(i * 1.001, "#,##0.00"))
+                                         .collect(Collectors.toList());
+        assertEquals(expected, parallel);
+    }
+
+    /**
+     * Previous formatting of decimal patterns, using new {@link DecimalFormat} for each number.
+     */
+    private static DecimalFormat reference(String format) {
+        boolean sign = format.startsWith("+");
+        String pattern = format.replace("+", "").replace(",", "");
+        int dot = pattern.indexOf('.');
+        String integer = (dot == - 1) ? pattern : pattern.substring(0, dot);
+        DecimalFormat decimal = new DecimalFormat("", DecimalFormatSymbols.getInstance(Locale.ROOT));
+        decimal.setRoundingMode(RoundingMode.HALF_UP);
+        decimal.setGroupingUsed(format.indexOf(',') != - 1);
+        decimal.setGroupingSize(3);
+        decimal.setMinimumIntegerDigits((int) integer.chars().filter(c -> c == '0').count());
+        if (dot == - 1) {
+            decimal.setMinimumFractionDigits(0);
+            decimal.setMaximumFractionDigits(340);
+        }
+        else {
+            String fraction = pattern.substring(dot + 1);
+            decimal.setMinimumFractionDigits((int) fraction.chars().filter(c -> c == '0').count());
+            decimal.setMaximumFractionDigits(fraction.length());
+        }
+        if (sign) {
+            decimal.setPositivePrefix("+");
+        }
+        return decimal;
+    }
+}
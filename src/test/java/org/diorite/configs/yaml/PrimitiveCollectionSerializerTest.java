@@ -0,0 +1,55 @@
+package org.diorite.configs.yaml;
+
+import org.diorite.configs.ConfigManager;
+import org.diorite.configs.collections.DoubleList;
+import org.diorite.configs.collections.IntList;
+import org.diorite.configs.collections.IntSet;
+import org.diorite.configs.collections.ObjectIntMap;
+import org.junit.jupiter.api.Test;
+
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PrimitiveCollectionSerializerTest {
+    private static final String DOCUMENT = "numbers: [1, 0x10, -3]\n" +
+                                           "unique: [5, 5, 6]\n" +
+                                           "totals: {a: 10000000000, b: -1}\n" +
+                                           "ratios: [0.5, 2]\n" +
+                                           "boxed: {x: 1}\n";
+
+    private final ConfigManager manager = ConfigManager.createInstance();
+
+    @Test
+    void numericCollectionsAreLoadedAsPrimitiveCollections() {
+        PrimitiveTestConfig config = this.manager.load(PrimitiveTestConfig.class, new StringReader(DOCUMENT));
+        assertEquals(IntList.of(1, 16, - 3), config.getNumbers());
+        assertTrue(config.getUnique() instanceof IntSet, config.getUnique().getClass().getName());
+        assertEquals(Set.of(5, 6), config.getUnique());
+        assertEquals(10000000000L, config.getTotals().getLong("a", 0));
+        assertEquals(- 1L, config.getTotals().getLong("b", 0));
+        assertTrue(config.getRatios() instanceof DoubleList, config.getRatios().getClass().getName());
+        assertEquals(List.of(0.5, 2.0), config.getRatios());
+        // collections without @Unmodifiable may be changed by user code, so they stay boxed
+        assertFalse(config.getBoxed() instanceof ObjectIntMap, config.getBoxed().getClass().getName());
+        assertEquals(Map.of("x", 1), config.getBoxed());
+    }
+
+    @Test
+    void primitiveCollectionsAreSavedAsYamlCollections() {
+        PrimitiveTestConfig config = this.manager.load(PrimitiveTestConfig.class, new StringReader(DOCUMENT));
+        StringWriter writer = new StringWriter();
+        this.manager.save(PrimitiveTestConfig.class, config, writer);
+        PrimitiveTestConfig loaded = this.manager.load(PrimitiveTestConfig.class, new StringReader(writer.toString()));
+        assertEquals(config.getNumbers(), loaded.getNumbers());
+        assertEquals(config.getUnique(), loaded.getUnique());
+        assertEquals(config.getTotals(), loaded.getTotals());
+        assertEquals(config.getRatios(), loaded.getRatios());
+    }
+}
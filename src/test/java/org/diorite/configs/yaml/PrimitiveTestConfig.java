@@ -0,0 +1,34 @@
+package org.diorite.configs.yaml;
+
+import org.diorite.configs.Config;
+import org.diorite.configs.annotations.Unmodifiable;
+import org.diorite.configs.collections.IntList;
+import org.diorite.configs.collections.ObjectLongMap;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+public interface PrimitiveTestConfig extends Config<PrimitiveTestConfig> {
+    default IntList getNumbers() {
+        return IntList.of();
+    }
+
+    @Unmodifiable
+    default Set<Integer> getUnique() {
+        return Set.of();
+    }
+
+    default ObjectLongMap<String> getTotals() {
+        return ObjectLongMap.of(new String[0], new long[0], 0);
+    }
+
+    @Unmodifiable
+    default List<Double> getRatios() {
+        return List.of();
+    }
+
+    default Map<String, Integer> getBoxed() {
+        return Map.of();
+    }
+}
@@ -0,0 +1,58 @@
+package org.diorite.configs.yaml;
+
+import org.diorite.configs.ConfigPropertyTemplate;
+import org.diorite.configs.KeyFunctionsTemplate;
+import org.diorite.configs.style.PropertyStyle;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class PropertyNamesTest {
+    @Test
+    void serializedAndAlternateNamesAreResolved() throws NoSuchMethodException {
+        ConfigPropertyTemplate first = property(0, "first", List.of("one", "second"));
+        ConfigPropertyTemplate second = property(1, "second", List.of("two"));
+        PropertyNames names = PropertyNames.of(List.of(first, second));
+        assertSame(first, names.get("first"));
+        assertSame(first, names.get("one"));
+        // serialized name wins over alternate name of other property
+        assertSame(second, names.get("second"));
+        assertSame(second, names.get("two"));
+        assertNull(names.get("third"));
+        assertNull(names.get(""));
+        assertNull(names.get("firs"));
+    }
+
+    @Test
+    void largeAmountOfNamesIsResolved() throws NoSuchMethodException {
+        List<ConfigPropertyTemplate> properties = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            properties.add(property(i, "property" + i, List.of("alias-" + i, "p_" + Integer.toHexString(i))));
+        }
+        PropertyNames names = PropertyNames.of(properties);
+        for (ConfigPropertyTemplate property : properties) {
+            assertSame(property, names.get(property.getSerializedName()));
+            for (String alternateName : property.getAlternateNames()) {
+                assertSame(property, names.get(alternateName));
+            }
+        }
+        for (int i = 1000; i < 2000; i++) {
+            assertNull(names.get("property" + i));
+        }
+    }
+
+    @Test
+    void emptyTableResolvesNothing() {
+        assertNull(PropertyNames.of(List.of()).get("any"));
+    }
+
+    private static ConfigPropertyTemplate property(int index, String name, List<String> alternateNames) throws NoSuchMethodException {
+        return new ConfigPropertyTemplate(index, name, name, alternateNames, Object.class.getMethod("toString"), null, List.of(),
+                                          PropertyStyle.DEFAULT, List.of(), List.of(), new KeyFunctionsTemplate(null, null, null, null),
+                                          null, null);
+    }
+}
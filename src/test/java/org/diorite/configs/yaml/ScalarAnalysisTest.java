@@ -0,0 +1,143 @@
+package org.diorite.configs.yaml;
+
+import org.junit.jupiter.api.Test;
+import org.yaml.snakeyaml.nodes.NodeId;
+import org.yaml.snakeyaml.nodes.Tag;
+import org.yaml.snakeyaml.resolver.Resolver;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ScalarAnalysisTest {
+    // characters with special meaning in yaml, line breaks, surrogates and other non printable characters
+    private static final String CORPUS = "ab yn01.-+:#,[]{}&*!|>'\"%@`?~<=\t\n\r\0 \u0085\u00A0\u2028\u2029\uFEFF\uFFFE\u0080\u009F" +
+                                         "\u007F\uD7FF\uD800\uDBFF\uDC00\uDFFF\u00E9\uD83D\uDE00";
+    private static final String[] WORDS = {"true", "false", "null", "yes", "No", "~", "1.5", "0x1F", "---", "...", "- a", "a: b", "a #b",
+                                           "<<", "=", "2001-12-14", ".inf", "12:30:00", ""};
+    private static final Resolver RESOLVER = new Resolver();
+
+    @Test
+    void matchesSeparateChecksOnCorpus() {
+        for (String value : corpus()) {
+            int analysis = ScalarAnalysis.analyse(value, true);
+            String message = "Wrong analysis of " + escape(value);
+            assertEquals(isPlainAllowed(value, false), (analysis & ScalarAnalysis.PLAIN) != 0, message);
+            assertEquals(isPlainAllowed(value, true), (analysis & ScalarAnalysis.PLAIN_FLOW) != 0, message);
+            assertEquals(isSingleQuotedAllowed(value), (analysis & ScalarAnalysis.SINGLE_QUOTED) != 0, message);
+            assertEquals(isBlockAllowed(value), (analysis & ScalarAnalysis.BLOCK) != 0, message);
+            assertEquals(value.split("\n", - 1).length, ScalarAnalysis.lines(analysis), message);
+            if (isPlainAllowed(value, false)) {
+                assertEquals(! Tag.STR.equals(RESOLVER.resolve(NodeId.scalar, value, true)), (analysis & ScalarAnalysis.IMPLICIT_TYPE) != 0,
+                    message);
+            }
+        }
+    }
+
+    @Test
+    void nextLineAndUnpairedSurrogatesRequireDoubleQuotes() {
+        for (String value : List.of("\u0085", "a\u0085b", "\uD800", "a\uDC00", "\uDC00\uD800", "\uD83D\uDE00\uD800")) {
+            int analysis = ScalarAnalysis.analyse(value, true);
+            assertEquals(0, analysis & (ScalarAnalysis.PLAIN | ScalarAnalysis.PLAIN_FLOW | ScalarAnalysis.SINGLE_QUOTED | ScalarAnalysis.BLOCK),
+                escape(value));
+        }
+        assertTrue((ScalarAnalysis.analyse("a\uD83D\uDE00b", true) & ScalarAnalysis.PLAIN) != 0);
+        assertFalse(ScalarAnalysis.isPrintable('\u0085'));
+        assertFalse(ScalarAnalysis.isPrintable('\uD800'));
+        assertTrue(ScalarAnalysis.isSurrogatePair("\uD83D\uDE00", 0));
+        assertFalse(ScalarAnalysis.isSurrogatePair("\uD83D\uDE00", 1));
+    }
+
+    private static List<String> corpus() {
+        List<String> corpus = new ArrayList<>(200_000);
+        for (String word : WORDS) {
+            corpus.add(word);
+            corpus.add(word + " ");
+            corpus.add(" " + word);
+        }
+        for (int i = 0; i < CORPUS.length(); i++) {
+            corpus.add(CORPUS.substring(i, i + 1));
+            for (int j = 0; j < CORPUS.length(); j++) {
+                corpus.add(CORPUS.substring(i, i + 1) + CORPUS.charAt(j));
+                corpus.add("a" + CORPUS.charAt(i) + CORPUS.charAt(j) + "b");
+            }
+        }
+        Random random = new Random(24);
+        for (int i = 0; i < 100_000; i++) {
+            StringBuilder builder = new StringBuilder();
+            for (int j = random.nextInt(12); j >= 0; j--) {
+                if (random.nextInt(8) == 0) {
+                    builder.append(WORDS[random.nextInt(WORDS.length)]);
+                }
+                else {
+                    builder.append(CORPUS.charAt(random.nextInt(CORPUS.length())));
+                }
+            }
+            corpus.add(builder.toString());
+        }
+        return corpus;
+    }
+
+    // separate checks used by writer before single pass analysis, with printable characters checked by code points
+
+    private static boolean isPlainAllowed(String value, boolean flow) {
+        int length = value.length();
+        if ((length == 0) || (value.charAt(0) == ' ') || (value.charAt(length - 1) == ' ') || value.startsWith("---") ||
+            value.startsWith("...")) {
+            return false;
+        }
+        char first = value.charAt(0);
+        if ("#,[]{}&*!|>'\"%@`".indexOf(first) != - 1) {
+            return false;
+        }
+        if (("-?:".indexOf(first) != - 1) && ((length == 1) || isPlainBreak(value.charAt(1), flow))) {
+            return false;
+        }
+        if (! isPrintable(value, false)) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            char c = value.charAt(i);
+            if ((c == ':') && ((i == (length - 1)) || isPlainBreak(value.charAt(i + 1), flow))) {
+                return false;
+            }
+            if ((c == '#') && (value.charAt(i - 1) == ' ')) {
+                return false;
+            }
+            if (flow && (",[]{}".indexOf(c) != - 1)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isPlainBreak(char next, boolean flow) {
+        return (next == ' ') || (flow && (",[]{}".indexOf(next) != - 1));
+    }
+
+    private static boolean isSingleQuotedAllowed(String value) {
+        return isPrintable(value, false);
+    }
+
+    private static boolean isBlockAllowed(String value) {
+        return isPrintable(value, true);
+    }
+
+    private static boolean isPrintable(String value, boolean block) {
+        return value.codePoints().allMatch(c -> (block && ((c == '\n') || (c == '\t'))) || (((c >= 0x20) && (c <= 0x7E)) ||
+                                                ((c >= 0xA0) && (c <= 0xD7FF) && (c != 0x2028) && (c != 0x2029)) ||
+                                                ((c >= 0xE000) && (c <= 0xFFFD) && (c != 0xFEFF)) || ((c >= 0x10000) && (c <= 0x10FFFF))));
+    }
+
+    private static String escape(String value) {
+        StringBuilder builder = new StringBuilder();
+        for (char c : value.toCharArray()) {
+            builder.append(((c >= 0x20) && (c < 0x7F)) ? String.valueOf(c) : String.format("\\u%04X", (int) c));
+        }
+        return builder.toString();
+    }
+}
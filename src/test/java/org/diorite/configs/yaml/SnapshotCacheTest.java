@@ -0,0 +1,140 @@
+package org.diorite.configs.yaml;
+
+import org.diorite.configs.ConfigException;
+import org.diorite.configs.ConfigManager;
+import org.diorite.configs.ExampleInterfaceConfig;
+import org.diorite.configs.validation.ValidationException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.DayOfWeek;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SnapshotCacheTest {
+    private static final String DOCUMENT = "count: 7\n" +
+                                           "display-name: loaded\n" +
+                                           "tags: [a, b]\n" +
+                                           "groups: {first: [1, 2]}\n" +
+                                           "day: FRIDAY\n" +
+                                           "ids: [3, 4]\n" +
+                                           "bean: {beanValueInt: 5, beanValueStringList: [x]}\n";
+
+    private final ConfigManager manager = ConfigManager.createInstance();
+
+    @BeforeEach
+    void enableSnapshots() {
+        this.manager.setSnapshotCache(true);
+    }
+
+    @Test
+    void snapshotIsCreatedAndReused(@TempDir Path directory) throws IOException {
+        Path path = write(directory.resolve("config.yml"), DOCUMENT);
+        assertValues(this.manager.load(LoadedTestConfig.class, path));
+        Path snapshot = SnapshotCache.snapshotPath(path);
+        assertTrue(Files.exists(snapshot));
+        byte[] data = Files.readAllBytes(snapshot);
+
+        assertValues(this.manager.load(LoadedTestConfig.class, path));
+        assertArrayEquals(data, Files.readAllBytes(snapshot));
+    }
+
+    @Test
+    void changedFileReplacesSnapshot(@TempDir Path directory) throws IOException {
+        Path path = write(directory.resolve("config.yml"), DOCUMENT);
+        this.manager.load(LoadedTestConfig.class, path);
+        write(path, DOCUMENT.replace("count: 7", "count: 9"));
+        assertEquals(9, this.manager.load(LoadedTestConfig.class, path).getCount());
+        assertEquals(9, this.manager.load(LoadedTestConfig.class, path).getCount());
+    }
+
+    @Test
+    void damagedSnapshotIsIgnored(@TempDir Path directory) throws IOException {
+        Path path = write(directory.resolve("config.yml"), DOCUMENT);
+        this.manager.load(LoadedTestConfig.class, path);
+        Path snapshot = SnapshotCache.snapshotPath(path);
+        byte[] data = Files.readAllBytes(snapshot);
+        Files.write(snapshot, new byte[]{1, 2, 3});
+        assertValues(this.manager.load(LoadedTestConfig.class, path));
+        assertArrayEquals(data, Files.readAllBytes(snapshot));
+    }
+
+    @Test
+    void configReadFromSnapshotIsSavedIncrementally(@TempDir Path directory) throws IOException {
+        String text = "# comment\nvalue:  12\nsecondValue: 3\n";
+        Path path = write(directory.resolve("config.yml"), text);
+        this.manager.load(ExampleInterfaceConfig.class, path);
+        ExampleInterfaceConfig config = this.manager.load(ExampleInterfaceConfig.class, path);
+        assertEquals(12, config.getValue());
+        this.manager.save(ExampleInterfaceConfig.class, config, path);
+        assertEquals(text, new String(Files.readAllBytes(path), StandardCharsets.UTF_8));
+        config.setValue(4);
+        this.manager.save(ExampleInterfaceConfig.class, config, path);
+        assertEquals(4, this.manager.load(ExampleInterfaceConfig.class, path).getValue());
+    }
+
+    @Test
+    void lazyValuesAreStoredUnread(@TempDir Path directory) throws IOException {
+        Path path = write(directory.resolve("config.yml"), "items: [a, b]\nweights: {a: heavy}\n");
+        int validations = LazyTestConfig.VALIDATIONS.get();
+        this.manager.load(LazyTestConfig.class, path);
+        assertTrue(Files.exists(SnapshotCache.snapshotPath(path)));
+        LazyTestConfig config = this.manager.load(LazyTestConfig.class, path);
+        assertEquals(validations, LazyTestConfig.VALIDATIONS.get());
+        assertEquals(List.of("a", "b"), config.getItems());
+        assertEquals(validations + 1, LazyTestConfig.VALIDATIONS.get());
+        assertThrows(ConfigException.class, config::getWeights);
+    }
+
+    @Test
+    void valuesReadFromSnapshotAreValidated(@TempDir Path directory) throws IOException {
+        Path path = write(directory.resolve("config.yml"), "count: 5\n");
+        assertEquals(5, this.manager.load(LazyTestConfig.class, path).getCount());
+        assertTrue(Files.exists(SnapshotCache.snapshotPath(path)));
+        LazyTestConfig.COUNT_LIMIT.set(3);
+        try {
+            assertThrows(ValidationException.class, () -> this.manager.load(LazyTestConfig.class, path));
+        }
+        finally {
+            LazyTestConfig.COUNT_LIMIT.set(Integer.MAX_VALUE);
+        }
+    }
+
+    @Test
+    void temporaryFilesAreRemoved(@TempDir Path directory) throws IOException {
+        Path path = write(directory.resolve("config.yml"), DOCUMENT);
+        this.manager.load(LoadedTestConfig.class, path);
+        write(path, DOCUMENT.replace("count: 7", "count: 9"));
+        this.manager.load(LoadedTestConfig.class, path);
+        try (Stream<Path> files = Files.list(directory)) {
+            assertEquals(List.of(path, SnapshotCache.snapshotPath(path)), files.sorted().collect(Collectors.toList()));
+        }
+    }
+
+    private static void assertValues(LoadedTestConfig config) {
+        assertEquals(7, config.getCount());
+        assertEquals("loaded", config.getName());
+        assertEquals(List.of("a", "b"), config.getTags());
+        assertEquals(Map.of("first", List.of(1, 2)), config.getGroups());
+        assertEquals(DayOfWeek.FRIDAY, config.getDay());
+        assertArrayEquals(new long[]{3, 4}, config.getIds());
+        assertEquals(5, config.getBean().getBeanValueInt());
+        assertEquals(List.of("x"), config.getBean().getBeanValueStringList());
+    }
+
+    private static Path write(Path path, String text) throws IOException {
+        return Files.write(path, text.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,59 @@
+package org.diorite.configs.yaml;
+
+import org.diorite.configs.ConfigManager;
+import org.junit.jupiter.api.Test;
+
+import java.io.StringReader;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class StringTableTest {
+    @Test
+    void equalStringsShareInstance() {
+        StringTable table = new StringTable(16, 8);
+        String first = new String("value");
+        assertSame(first, table.deduplicate(first));
+        assertSame(first, table.deduplicate(new String("value")));
+        assertEquals(1, table.getDeduplicated());
+        assertTrue(table.getBytesSaved() > 0);
+        table.clear();
+        String second = new String("value");
+        assertSame(second, table.deduplicate(second));
+    }
+
+    @Test
+    void longStringsAreNotStored() {
+        StringTable table = new StringTable(16, 4);
+        String value = new String("too long");
+        assertSame(value, table.deduplicate(value));
+        assertNotSame(value, table.deduplicate(new String("too long")));
+    }
+
+    @Test
+    void tableDoesNotGrow() {
+        StringTable table = new StringTable(8, 16);
+        for (int i = 0; i < 1000; i++) {
+            String value = "value" + i;
+            assertEquals(value, table.deduplicate(value));
+        }
+        assertThrows(IllegalArgumentException.class, () -> new StringTable(0, 16));
+    }
+
+    @Test
+    void loadedConfigsShareStrings() {
+        ConfigManager manager = ConfigManager.createInstance();
+        manager.getSerializers().setStringDeduplicator(new StringTable(64, 32));
+        LoadedTestConfig first = manager.load(LoadedTestConfig.class, new StringReader("display-name: shared\ntags: [tag]\n"));
+        LoadedTestConfig second = manager.load(LoadedTestConfig.class, new StringReader("display-name: shared\ntags: [tag]\n"));
+        assertSame(first.getName(), second.getName());
+        assertSame(first.getTags().get(0), second.getTags().get(0));
+
+        manager.getSerializers().setStringDeduplicator(StringDeduplicator.NONE);
+        LoadedTestConfig third = manager.load(LoadedTestConfig.class, new StringReader("display-name: shared\n"));
+        assertNotSame(first.getName(), third.getName());
+    }
+}
@@ -0,0 +1,99 @@
+package org.diorite.configs.yaml;
+
+import org.diorite.configs.ConfigManager;
+import org.diorite.configs.ExampleInterfaceConfig;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class YamlDocumentTest {
+    private static final String USER_FILE = "# edited by user\n" +
+                                            "value:    12\n" +
+                                            "\n" +
+                                            "# kept comment\n" +
+                                            "secondValue:   3 # inline comment\n";
+
+    private final ConfigManager manager = ConfigManager.createInstance();
+
+    @Test
+    void unchangedConfigIsSavedAsLoaded(@TempDir Path directory) throws IOException {
+        Path path = write(directory.resolve("config.yml"), USER_FILE);
+        ExampleInterfaceConfig config = this.manager.load(ExampleInterfaceConfig.class, path);
+        this.manager.save(ExampleInterfaceConfig.class, config, path);
+        assertEquals(USER_FILE, read(path));
+    }
+
+    @Test
+    void onlyChangedPropertyIsRewritten(@TempDir Path directory) throws IOException {
+        Path path = write(directory.resolve("config.yml"), USER_FILE);
+        ExampleInterfaceConfig config = this.manager.load(ExampleInterfaceConfig.class, path);
+        config.setValue(20);
+        this.manager.save(ExampleInterfaceConfig.class, config, path);
+        String saved = read(path);
+        assertTrue(saved.startsWith("# edited by user\n"), saved);
+        assertTrue(saved.endsWith("\n# kept comment\nsecondValue:   3 # inline comment\n"), saved);
+        assertFalse(saved.contains("12"), saved);
+
+        ExampleInterfaceConfig reloaded = this.manager.load(ExampleInterfaceConfig.class, path);
+        assertEquals(20, reloaded.getValue());
+        assertEquals(3, reloaded.getSecondValue());
+
+        // next save starts from document written by previous one
+        config.setValue(21);
+        this.manager.save(ExampleInterfaceConfig.class, config, path);
+        assertEquals(saved.replace("20", "21"), read(path));
+    }
+
+    @Test
+    void changedSizeIsWrittenThroughTemporaryFile(@TempDir Path directory) throws IOException {
+        Path path = write(directory.resolve("config.yml"), USER_FILE);
+        ExampleInterfaceConfig config = this.manager.load(ExampleInterfaceConfig.class, path);
+        config.setValue(123456);
+        this.manager.save(ExampleInterfaceConfig.class, config, path);
+        assertEquals(USER_FILE.replace("value:    12\n", "value: 123456\n"), read(path));
+        try (Stream<Path> files = Files.list(directory)) {
+            assertEquals(List.of(path), files.collect(Collectors.toList()));
+        }
+    }
+
+    @Test
+    void fileChangedSinceLoadIsNotPatched(@TempDir Path directory) throws IOException {
+        Path expected = write(directory.resolve("expected.yml"), USER_FILE);
+        ExampleInterfaceConfig expectedConfig = this.manager.load(ExampleInterfaceConfig.class, expected);
+        expectedConfig.setValue(20);
+        this.manager.save(ExampleInterfaceConfig.class, expectedConfig, expected);
+
+        Path path = write(directory.resolve("config.yml"), USER_FILE);
+        ExampleInterfaceConfig config = this.manager.load(ExampleInterfaceConfig.class, path);
+        // same size, but spans of properties are moved
+        String external = "# edited by user\n" +
+                          "secondValue:    3\n" +
+                          "\n" +
+                          "# kept comment\n" +
+                          "value:   12 # inline comment\n";
+        assertEquals(USER_FILE.length(), external.length());
+        write(path, external);
+        config.setValue(20);
+        this.manager.save(ExampleInterfaceConfig.class, config, path);
+        assertEquals(read(expected), read(path));
+    }
+
+    private static Path write(Path path, String text) throws IOException {
+        return Files.write(path, text.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String read(Path path) throws IOException {
+        return new String(Files.readAllBytes(path), StandardCharsets.UTF_8);
+    }
+}
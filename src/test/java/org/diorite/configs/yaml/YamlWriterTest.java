@@ -0,0 +1,67 @@
+package org.diorite.configs.yaml;
+
+import org.diorite.configs.ConfigManager;
+import org.diorite.configs.style.StringStyles;
+import org.junit.jupiter.api.Test;
+import org.yaml.snakeyaml.Yaml;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class YamlWriterTest {
+    private final ValueSerializers serializers = new ValueSerializers(ConfigManager.createInstance());
+
+    private String write(String value, StringStyles style) throws IOException {
+        StringWriter out = new StringWriter();
+        YamlWriter writer = new YamlWriter(out, this.serializers);
+        writer.string(value, style);
+        writer.flush();
+        return out.toString();
+    }
+
+    @Test
+    void escapesNextLineAndUnpairedSurrogates() throws IOException {
+        assertEquals("\"a\\Nb\"", this.write("a\u0085b", StringStyles.AUTO).trim());
+        assertEquals("\"a\\uD800b\"", this.write("a\uD800b", StringStyles.AUTO).trim());
+        assertEquals("\"a\\uDC00\"", this.write("a\uDC00", StringStyles.QUOTED_SINGLE).trim());
+        assertEquals("\"\\uDC00\\uD800\"", this.write("\uDC00\uD800", StringStyles.QUOTED_DOUBLE).trim());
+        // valid pairs are printable and kept as they are
+        assertEquals("a\uD83D\uDE00b", this.write("a\uD83D\uDE00b", StringStyles.AUTO).trim());
+        assertEquals("\"\uD83D\uDE00\\N\"", this.write("\uD83D\uDE00\u0085", StringStyles.AUTO).trim());
+    }
+
+    @Test
+    void writtenStringsCanBeLoaded() throws IOException {
+        List<String> values = List.of("a\u0085b", "\u0085", "a\uD800", "\uDFFF", "\uDC00\uD800", "x\uD83D\uDE00\uD83Dy", "\u0085\n\u2028",
+                                      "line\u0085next", "\uFEFFbom", "\u0080\u009F", " \uD800 ");
+        Yaml yaml = new Yaml();
+        for (String value : values) {
+            for (StringStyles style : StringStyles.values()) {
+                String written = this.write(value, style);
+                assertEquals(value, yaml.load(written), () -> "Can't load " + written + " written by " + style);
+            }
+        }
+    }
+
+    @Test
+    void doubleQuotedOutputContainsOnlyPrintableCharacters() throws IOException {
+        StringBuilder all = new StringBuilder(0x10000);
+        for (int c = 0; c <= 0xFFFF; c++) {
+            all.append((char) c);
+        }
+        String written = this.write(all.toString(), StringStyles.QUOTED_DOUBLE);
+        for (int i = 0; i < written.length(); i++) {
+            char c = written.charAt(i);
+            if (ScalarAnalysis.isSurrogatePair(written, i)) {
+                i++; // last high surrogate and first low surrogate of input form valid pair
+                continue;
+            }
+            assertTrue(ScalarAnalysis.isPrintable(c) || (c == '\n'), () -> "Unescaped character " + Integer.toHexString(c));
+        }
+        assertEquals(all.toString(), new Yaml().load(written));
+    }
+}